@@ -37,6 +37,9 @@ import com.swirlds.platform.system.transaction.Transaction;
 import com.swirlds.state.HederaState;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import javax.inject.Inject;
@@ -78,20 +81,38 @@ public class CacheWarmer {
         executor.execute(() -> {
             final ReadableStoreFactory storeFactory = new ReadableStoreFactory(state);
             final ReadableAccountStore accountStore = storeFactory.getStore(ReadableAccountStore.class);
+            final List<CompletableFuture<TransactionBody>> parsedTxBodies = new ArrayList<>();
             for (final ConsensusEvent event : round) {
-                event.forEachTransaction(platformTransaction -> executor.execute(() -> {
-                    final TransactionBody txBody = extractTransactionBody(platformTransaction);
-                    if (txBody != null) {
-                        final AccountID payerID = txBody.transactionIDOrElse(TransactionID.DEFAULT)
-                                .accountID();
-                        if (payerID != null) {
-                            accountStore.warm(payerID);
+                event.forEachTransaction(platformTransaction -> {
+                    final CompletableFuture<TransactionBody> parsed =
+                            CompletableFuture.supplyAsync(() -> extractTransactionBody(platformTransaction), executor);
+                    parsed.thenAccept(txBody -> {
+                        if (txBody != null) {
+                            final var context = new WarmupContextImpl(txBody, storeFactory);
+                            dispatcher.dispatchWarmup(context);
                         }
-                        final var context = new WarmupContextImpl(txBody, storeFactory);
-                        dispatcher.dispatchWarmup(context);
-                    }
-                }));
+                    });
+                    parsedTxBodies.add(parsed);
+                });
             }
+            // Payers of all transactions in the round are warmed in a single batch, so the state can
+            // load them with fewer disk reads. The batch is issued once all transactions are parsed
+            CompletableFuture.allOf(parsedTxBodies.toArray(new CompletableFuture[0]))
+                    .thenRun(() -> {
+                        final List<AccountID> payerIDs = new ArrayList<>(parsedTxBodies.size());
+                        for (final CompletableFuture<TransactionBody> parsed : parsedTxBodies) {
+                            final TransactionBody txBody = parsed.join();
+                            if (txBody == null) {
+                                continue;
+                            }
+                            final AccountID payerID = txBody.transactionIDOrElse(TransactionID.DEFAULT)
+                                    .accountID();
+                            if (payerID != null) {
+                                payerIDs.add(payerID);
+                            }
+                        }
+                        accountStore.warmAll(payerIDs);
+                    });
         });
     }
 
@@ -32,6 +32,8 @@ import com.swirlds.state.spi.ReadableKVState;
 import com.swirlds.state.spi.ReadableStates;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -224,4 +226,16 @@ public class ReadableAccountStoreImpl implements ReadableAccountStore {
             accountState.warm(unaliasedId);
         }
     }
+
+    @Override
+    public void warmAll(@NonNull final Collection<AccountID> accountIDs) {
+        final var unaliasedIds = new ArrayList<AccountID>(accountIDs.size());
+        for (final var accountID : accountIDs) {
+            final var unaliasedId = lookupAliasedAccountId(accountID);
+            if (unaliasedId != null) {
+                unaliasedIds.add(unaliasedId);
+            }
+        }
+        accountState.warmAll(unaliasedIds);
+    }
 }
@@ -88,7 +88,17 @@ public abstract class BaseBench {
 
     protected static Configuration configuration;
 
-    private static void loadConfig() throws IOException {
+    /**
+     * Lets benchmarks override settings from settings.txt, for example, with benchmark params.
+     * Sources added here should have an ordinal higher than the settings file.
+     *
+     * @param configurationBuilder the configuration builder to add config sources to
+     */
+    protected void configure(final ConfigurationBuilder configurationBuilder) {
+        // nothing by default
+    }
+
+    private void loadConfig() throws IOException {
         ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
                 .autoDiscoverExtensions()
                 .withSource(new LegacyFileConfigSource(Path.of(".", "settings.txt")))
@@ -97,6 +107,7 @@ public abstract class BaseBench {
                 .withConfigDataType(MerkleDbConfig.class)
                 .withConfigDataType(MetricsConfig.class)
                 .withConfigDataType(CryptoConfig.class);
+        configure(configurationBuilder);
         configuration = configurationBuilder.build();
         ConfigurationHolder.getInstance().setConfiguration(configuration);
 
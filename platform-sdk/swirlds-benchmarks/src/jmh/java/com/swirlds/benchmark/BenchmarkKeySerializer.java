@@ -72,4 +72,9 @@ public class BenchmarkKeySerializer implements KeySerializer<BenchmarkKey> {
     public boolean equals(final BufferedData buffer, final BenchmarkKey keyToCompare) {
         return keyToCompare.equals(buffer);
     }
+
+    @Override
+    public boolean supportsRawKeyComparison() {
+        return true;
+    }
 }
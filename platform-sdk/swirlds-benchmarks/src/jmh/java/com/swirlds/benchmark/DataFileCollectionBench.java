@@ -29,6 +29,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
@@ -40,6 +41,10 @@ import org.openjdk.jmh.annotations.Warmup;
 @Measurement(iterations = 5)
 public class DataFileCollectionBench extends BaseBench {
 
+    /** Whether data items are compressed in data files */
+    @Param({"false", "true"})
+    public boolean compressed;
+
     String benchmarkName() {
         return "DataFileCollectionBench";
     }
@@ -59,7 +64,8 @@ public class DataFileCollectionBench extends BaseBench {
                         storeName,
                         null,
                         new BenchmarkRecordSerializer(),
-                        (dataLocation, dataValue) -> {}) {
+                        (dataLocation, dataValue) -> {},
+                        compressed) {
                     BenchmarkRecord read(long dataLocation) throws IOException {
                         return readDataItem(dataLocation);
                     }
@@ -81,6 +87,7 @@ public class DataFileCollectionBench extends BaseBench {
             store.endWriting(0, maxKey).setFileCompleted();
         }
         System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+        System.out.println("Total files size: " + totalFilesSizeMb(store) + "MB");
 
         // Merge files
         start = System.currentTimeMillis();
@@ -88,6 +95,7 @@ public class DataFileCollectionBench extends BaseBench {
         compactor.compact();
         System.out.println(
                 "Merged " + filesToMerge.size() + " files in " + (System.currentTimeMillis() - start) + "ms");
+        System.out.println("Total files size after merge: " + totalFilesSizeMb(store) + "MB");
 
         // Verify merged content
         if (verify) {
@@ -111,4 +119,11 @@ public class DataFileCollectionBench extends BaseBench {
             index.close();
         });
     }
+
+    private static long totalFilesSizeMb(final DataFileCollection<BenchmarkRecord> store) {
+        return store.getAllCompletedFiles().stream()
+                        .mapToLong(DataFileReader::getSize)
+                        .sum()
+                / (1024 * 1024);
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.benchmark;
+
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class HalfDiskMapAsyncGetBench extends BaseBench {
+
+    private static final long INVALID_PATH = -1L;
+
+    /** Max number of async bucket reads in flight in {@link #asyncGet()} */
+    @Param({"1", "8", "32", "128"})
+    public int queueDepth;
+
+    String benchmarkName() {
+        return "HalfDiskMapAsyncGetBench";
+    }
+
+    /**
+     * Measures random key lookup throughput using async bucket reads, depending on how many reads
+     * are in flight at the same time. Queue depth 1 is equivalent to blocking reads.
+     */
+    @Benchmark
+    public void asyncGet() throws Exception {
+        String storeName = "asyncGetBench";
+        beforeTest(storeName);
+
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class);
+        final var store = new HalfDiskHashMap<>(
+                dbConfig, maxKey, new BenchmarkKeySerializer(), getTestDir(), storeName, null, false);
+
+        // Write files
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numFiles; i++) {
+            store.startWriting();
+            resetKeys();
+            for (int j = 0; j < numRecords; ++j) {
+                store.put(new BenchmarkKey(nextAscKey()), nextValue());
+            }
+            store.endWriting();
+        }
+        System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+
+        // Random lookups, at most queueDepth reads in flight
+        final Random random = new Random(1234);
+        final int numReads = numRecords * 10;
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<Long>[] inFlight = new CompletableFuture[queueDepth];
+        long found = 0;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < numReads; i++) {
+            final int slot = i % queueDepth;
+            if (inFlight[slot] != null && inFlight[slot].join() != INVALID_PATH) {
+                found++;
+            }
+            inFlight[slot] = store.getAsync(new BenchmarkKey(random.nextInt(maxKey)), INVALID_PATH);
+        }
+        for (final CompletableFuture<Long> future : inFlight) {
+            if (future != null && future.join() != INVALID_PATH) {
+                found++;
+            }
+        }
+        final long took = Math.max(1, System.currentTimeMillis() - start);
+        System.out.printf(
+                "queueDepth=%d: %,d reads (%,d found) in %,dms, %,d reads/sec%n",
+                queueDepth, numReads, found, took, numReads * 1000L / took);
+
+        afterTest(store::close);
+    }
+}
@@ -20,6 +20,7 @@ import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import java.util.Arrays;
+import java.util.Random;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -99,4 +100,46 @@ public class HalfDiskMapBench extends BaseBench {
 
         afterTest(store::close);
     }
+
+    /**
+     * Measures random key lookup throughput using blocking reads. Lookup CPU cost depends on
+     * how fast a key is found in a bucket, see {@link BenchmarkKeySerializer#supportsRawKeyComparison()}.
+     */
+    @Benchmark
+    public void get() throws Exception {
+        String storeName = "getBench";
+        beforeTest(storeName);
+
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class);
+        final var store = new HalfDiskHashMap<>(
+                dbConfig, maxKey, new BenchmarkKeySerializer(), getTestDir(), storeName, null, false);
+
+        // Write files
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numFiles; i++) {
+            store.startWriting();
+            resetKeys();
+            for (int j = 0; j < numRecords; ++j) {
+                store.put(new BenchmarkKey(nextAscKey()), nextValue());
+            }
+            store.endWriting();
+        }
+        System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+
+        // Random lookups
+        final Random random = new Random(1234);
+        final int numReads = numRecords * 10;
+        long found = 0;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < numReads; i++) {
+            if (store.get(new BenchmarkKey(random.nextInt(maxKey)), INVALID_PATH) != INVALID_PATH) {
+                found++;
+            }
+        }
+        final long took = Math.max(1, System.currentTimeMillis() - start);
+        System.out.printf(
+                "%,d reads (%,d found) in %,dms, %,d reads/sec%n", numReads, found, took, numReads * 1000L / took);
+
+        afterTest(store::close);
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.benchmark;
+
+import com.swirlds.merkledb.LeafRecordCache;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares leaf record cache hit ratios and throughput for different cache associativity. One
+ * way per set is the same as the direct-mapped array cache used by MerkleDb data sources before.
+ * Keys are requested with a skewed distribution: most requests go to a small hot set of keys,
+ * while the rest are uniformly distributed over all keys.
+ */
+@Fork(value = 1)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LeafRecordCacheBench {
+
+    private static final int NUM_KEYS = 10_000_000;
+
+    @Param({"1048576"})
+    public int cacheSize;
+
+    @Param({"1", "4", "8"})
+    public int ways;
+
+    /** Percentage of requests to hot keys */
+    @Param({"80"})
+    public int hotRequestsPercent;
+
+    /** Number of hot keys, as a percentage of cache size */
+    @Param({"50"})
+    public int hotKeysPercent;
+
+    private LeafRecordCache<BenchmarkKey, BenchmarkValue> cache;
+    private BenchmarkKey[] keys;
+    private Random random;
+    private int hotKeys;
+    private long hits;
+    private long misses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = new LeafRecordCache<>(cacheSize, ways);
+        random = new Random(1234);
+        keys = new BenchmarkKey[NUM_KEYS];
+        for (int i = 0; i < NUM_KEYS; i++) {
+            // Spread hot keys over the whole key space
+            keys[i] = new BenchmarkKey(Integer.reverse(i) & 0x7FFFFFFF);
+        }
+        hotKeys = (int) ((long) cacheSize * hotKeysPercent / 100);
+        hits = 0;
+        misses = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void printHitRatio() {
+        System.out.printf(
+                "%nways=%d hits=%,d misses=%,d hit ratio=%.2f%%%n",
+                ways, hits, misses, hits * 100.0 / Math.max(1, hits + misses));
+    }
+
+    /**
+     * Looks up a key in the cache. On a miss, a new record for the key is put to the cache, which
+     * is what MerkleDb data source does after loading a leaf record from disk.
+     */
+    @Benchmark
+    public VirtualLeafRecord<BenchmarkKey, BenchmarkValue> getOrLoad() {
+        final int keyIndex =
+                (random.nextInt(100) < hotRequestsPercent) ? random.nextInt(hotKeys) : random.nextInt(NUM_KEYS);
+        final BenchmarkKey key = keys[keyIndex];
+        VirtualLeafRecord<BenchmarkKey, BenchmarkValue> record = cache.get(key);
+        if (record != null) {
+            hits++;
+        } else {
+            misses++;
+            record = new VirtualLeafRecord<>(keyIndex, key, null);
+            cache.put(record);
+        }
+        return record;
+    }
+}
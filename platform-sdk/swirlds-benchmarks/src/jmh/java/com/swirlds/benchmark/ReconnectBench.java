@@ -20,9 +20,12 @@ import com.swirlds.benchmark.reconnect.MerkleBenchmarkUtils;
 import com.swirlds.benchmark.reconnect.StateBuilder;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.config.VirtualMapReconnectMode;
 import com.swirlds.virtualmap.internal.pipeline.VirtualRoot;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,6 +57,17 @@ public class ReconnectBench extends VirtualMapBaseBench {
     @Param({"1"})
     public int mapCount = 1;
 
+    /**
+     * Virtual map reconnect mode, see {@link VirtualMapReconnectMode}. The adaptive mode is expected
+     * to be the fastest when the difference between the teacher and the learner is small.
+     */
+    @Param({VirtualMapReconnectMode.PUSH, VirtualMapReconnectMode.PULL_ADAPTIVE})
+    public String reconnectMode;
+
+    /** Whether to use compressed, checksummed frames for synchronization data, on both sides. */
+    @Param({"false", "true"})
+    public boolean compressStream;
+
     /** The probability of the teacher map having an extra node. */
     @Param({"0.05"})
     public double teacherAddProbability;
@@ -66,7 +80,7 @@ public class ReconnectBench extends VirtualMapBaseBench {
      * The probability of the teacher map having a value under a key that differs
      * from the value under the same key in the learner map.
      */
-    @Param({"0.05"})
+    @Param({"0.05", "0.001"})
     public double teacherModifyProbability;
 
     /**
@@ -111,6 +125,15 @@ public class ReconnectBench extends VirtualMapBaseBench {
         return "ReconnectBench";
     }
 
+    @Override
+    protected void configure(final ConfigurationBuilder configurationBuilder) {
+        // Higher ordinal than settings.txt, so the benchmark param always wins
+        configurationBuilder.withSource(
+                new SimpleConfigSource("virtualMap.reconnectMode", reconnectMode).withOrdinal(1000));
+        configurationBuilder.withSource(
+                new SimpleConfigSource("reconnect.compressStream", compressStream).withOrdinal(1000));
+    }
+
     /**
      * Builds a VirtualMap populator that is able to add/update, as well as remove nodes (when the value is null.)
      * Note that it doesn't support explicitly adding null values under a key.
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import com.swirlds.common.crypto.DigestType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A message digest provider, which computes digests of many independent inputs in a single call. All
+ * inputs in a batch are of the same length, and they are stored one after another in a single array.
+ * Digests are stored one after another in a single output array, too.
+ * <p>
+ * Batching allows implementations to hash multiple inputs at once, for example, using multi-buffer
+ * hashing algorithms or native libraries. Callers, like the virtual map hasher, which hashes lots of
+ * small internal nodes of the same size, should depend on this interface rather than on a particular
+ * implementation, and use {@link #create(DigestType)} to get the best available provider.
+ * <p>
+ * Implementations aren't required to be thread safe.
+ */
+public interface BatchDigestProvider {
+
+    /**
+     * Creates a new batch digest provider for the given digest type. Currently, the only available
+     * implementation is {@link MessageDigestBatchProvider}, which hashes inputs one by one using the
+     * JCE message digest providers.
+     *
+     * @param digestType
+     * 		the digest type
+     * @return a new batch digest provider
+     */
+    static @NonNull BatchDigestProvider create(@NonNull final DigestType digestType) {
+        return new MessageDigestBatchProvider(digestType);
+    }
+
+    /**
+     * Gets the digest type of this provider.
+     *
+     * @return the digest type
+     */
+    @NonNull
+    DigestType getDigestType();
+
+    /**
+     * Computes digests of {@code count} inputs, {@code inputLength} bytes each. Input {@code i} is stored
+     * in {@code inputs} starting at offset {@code i * inputLength}. The digest of input {@code i} is written
+     * to {@code outputs} starting at offset {@code i * digestLength}, where digest length is defined by
+     * {@link #getDigestType()}.
+     *
+     * @param inputs
+     * 		the inputs to hash
+     * @param inputLength
+     * 		the length of every input, in bytes
+     * @param count
+     * 		the number of inputs to hash
+     * @param outputs
+     * 		the array to write the digests to
+     * @throws IllegalArgumentException
+     * 		if the input or the output array is too small
+     */
+    void digest(@NonNull byte[] inputs, int inputLength, int count, @NonNull byte[] outputs);
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import com.swirlds.common.crypto.CryptographyException;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.logging.legacy.LogMarker;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Implementation of a batch digest provider. This implementation depends on the JCE {@link MessageDigest}
+ * providers and hashes inputs one by one. Every input is passed to the message digest in a single update
+ * call, and digests are written directly to the output array, so no objects are allocated per input.
+ * <p>
+ * This class is not thread safe.
+ */
+public class MessageDigestBatchProvider implements BatchDigestProvider {
+
+    private final DigestType digestType;
+
+    private final MessageDigest digest;
+
+    /**
+     * Create a new provider for the given digest type.
+     *
+     * @param digestType
+     * 		the digest type
+     * @throws CryptographyException
+     * 		if the digest algorithm is not available
+     */
+    public MessageDigestBatchProvider(@NonNull final DigestType digestType) {
+        this.digestType = Objects.requireNonNull(digestType, "digestType");
+        try {
+            digest = MessageDigest.getInstance(digestType.algorithmName());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new CryptographyException(e, LogMarker.EXCEPTION);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NonNull DigestType getDigestType() {
+        return digestType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void digest(
+            @NonNull final byte[] inputs, final int inputLength, final int count, @NonNull final byte[] outputs) {
+        final int digestLength = digestType.digestLength();
+        if ((inputLength < 0) || (count < 0)) {
+            throw new IllegalArgumentException("Negative input length or count");
+        }
+        if ((long) inputLength * count > inputs.length) {
+            throw new IllegalArgumentException("Inputs array is too small: " + inputs.length);
+        }
+        if ((long) digestLength * count > outputs.length) {
+            throw new IllegalArgumentException("Outputs array is too small: " + outputs.length);
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                digest.update(inputs, i * inputLength, inputLength);
+                // digest() resets the message digest
+                digest.digest(outputs, i * digestLength, digestLength);
+            }
+        } catch (final DigestException e) {
+            digest.reset();
+            throw new CryptographyException(e, LogMarker.EXCEPTION);
+        }
+    }
+}
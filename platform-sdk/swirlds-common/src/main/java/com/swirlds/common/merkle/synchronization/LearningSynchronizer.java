@@ -28,6 +28,7 @@ import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.crypto.MerkleCryptoFactory;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedStreams;
 import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.merkle.synchronization.views.CustomReconnectRoot;
@@ -38,6 +39,7 @@ import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.logging.legacy.payload.SynchronizationCompletePayload;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Objects;
@@ -67,6 +69,12 @@ public class LearningSynchronizer implements ReconnectNodeCount {
      */
     private final MerkleDataOutputStream outputStream;
 
+    /**
+     * Streams used for synchronization, on top of {@link #inputStream} and {@link #outputStream}. Set when
+     * synchronization is started.
+     */
+    private CompressedStreams streams;
+
     private final Queue<MerkleNode> rootsToReceive;
     private final Deque<LearnerTreeView<?>> viewsToInitialize;
     private final Runnable breakConnection;
@@ -175,16 +183,23 @@ public class LearningSynchronizer implements ReconnectNodeCount {
     /**
      * Receive the tree from the teacher.
      */
-    private void receiveTree() throws InterruptedException {
+    private void receiveTree() throws InterruptedException, IOException {
         logger.info(RECONNECT.getMarker(), "synchronizing tree");
         final long start = System.currentTimeMillis();
 
-        while (!rootsToReceive.isEmpty()) {
-            final MerkleNode root = receiveTree(rootsToReceive.remove());
-            if (newRoot == null) {
-                // The first tree synchronized will contain the root of the tree as a whole
-                newRoot = root;
+        // Compression resources are released in the end, even if synchronization fails
+        try (final CompressedStreams negotiatedStreams =
+                CompressedStreams.negotiate(reconnectConfig, inputStream, outputStream)) {
+            streams = negotiatedStreams;
+            while (!rootsToReceive.isEmpty()) {
+                final MerkleNode root = receiveTree(rootsToReceive.remove());
+                if (newRoot == null) {
+                    // The first tree synchronized will contain the root of the tree as a whole
+                    newRoot = root;
+                }
             }
+
+            streams.flush();
         }
 
         synchronizationTimeMilliseconds = System.currentTimeMillis() - start;
@@ -238,6 +253,42 @@ public class LearningSynchronizer implements ReconnectNodeCount {
                 .setInternalNodes(internalNodesReceived)
                 .setRedundantInternalNodes(redundantInternalNodes)
                 .toString());
+        if (streams.isCompressed()) {
+            final double seconds = Math.max(synchronizationTimeMilliseconds, 1) * MILLISECONDS_TO_SECONDS;
+            logger.info(
+                    RECONNECT.getMarker(),
+                    "compressed stream: received {} raw bytes as {} bytes ({} MB/s raw, {} MB/s compressed), "
+                            + "sent {} raw bytes as {} bytes",
+                    getRawBytesReceived(),
+                    getCompressedBytesReceived(),
+                    String.format("%.2f", getRawBytesReceived() / seconds / (1024 * 1024)),
+                    String.format("%.2f", getCompressedBytesReceived() / seconds / (1024 * 1024)),
+                    streams.getRawBytesSent(),
+                    streams.getCompressedBytesSent());
+        }
+    }
+
+    /**
+     * Get the number of uncompressed synchronization bytes received from the teacher. Returns 0 if synchronization
+     * data isn't compressed, or synchronization hasn't started yet.
+     */
+    public long getRawBytesReceived() {
+        return streams == null ? 0 : streams.getRawBytesReceived();
+    }
+
+    /**
+     * Get the number of compressed synchronization bytes received from the teacher, including frame headers. Returns
+     * 0 if synchronization data isn't compressed, or synchronization hasn't started yet.
+     */
+    public long getCompressedBytesReceived() {
+        return streams == null ? 0 : streams.getCompressedBytesReceived();
+    }
+
+    /**
+     * Get the time spent receiving the tree from the teacher, in milliseconds.
+     */
+    public long getSynchronizationTimeMilliseconds() {
+        return synchronizationTimeMilliseconds;
     }
 
     /**
@@ -280,7 +331,13 @@ public class LearningSynchronizer implements ReconnectNodeCount {
 
         final AtomicReference<T> reconstructedRoot = new AtomicReference<>();
 
-        view.startLearnerTasks(this, workGroup, inputStream, outputStream, rootsToReceive, reconstructedRoot);
+        view.startLearnerTasks(
+                this,
+                workGroup,
+                streams.getInputStream(),
+                streams.getOutputStream(),
+                rootsToReceive,
+                reconstructedRoot);
         InterruptedException interruptException = null;
         try {
             workGroup.waitForTermination();
@@ -26,6 +26,7 @@ import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedStreams;
 import com.swirlds.common.merkle.synchronization.task.TeacherSubtree;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.merkle.synchronization.views.TeacherTreeView;
@@ -34,6 +35,7 @@ import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.config.api.Configuration;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
 import java.net.SocketException;
 import java.util.LinkedList;
 import java.util.Objects;
@@ -62,6 +64,12 @@ public class TeachingSynchronizer {
      */
     private final MerkleDataOutputStream outputStream;
 
+    /**
+     * Streams used for synchronization, on top of {@link #inputStream} and {@link #outputStream}. Set when
+     * synchronization is started.
+     */
+    private CompressedStreams streams;
+
     /**
      * <p>
      * Subtrees that require reconnect using a custom view.
@@ -125,13 +133,21 @@ public class TeachingSynchronizer {
      * Perform synchronization in the role of the teacher.
      */
     public void synchronize() throws InterruptedException {
-        try {
+        // Compression resources are released in the end, even if synchronization fails
+        try (final CompressedStreams negotiatedStreams =
+                CompressedStreams.negotiate(reconnectConfig, inputStream, outputStream)) {
+            streams = negotiatedStreams;
+            final long start = time.nanoTime();
             while (!subtrees.isEmpty()) {
                 try (final TeacherSubtree subtree = subtrees.remove()) {
                     subtree.getView().waitUntilReady();
                     sendTree(subtree.getRoot(), subtree.getView());
                 }
             }
+            streams.flush();
+            logStreamStatistics(time.nanoTime() - start);
+        } catch (final IOException e) {
+            throw new MerkleSynchronizationException(e);
         } finally {
             // If we crash, make sure to clean up any remaining subtrees.
             for (final TeacherSubtree subtree : subtrees) {
@@ -173,7 +189,8 @@ public class TeachingSynchronizer {
             return false;
         });
 
-        view.startTeacherTasks(this, time, workGroup, inputStream, outputStream, subtrees);
+        view.startTeacherTasks(
+                this, time, workGroup, streams.getInputStream(), streams.getOutputStream(), subtrees);
 
         workGroup.waitForTermination();
 
@@ -190,6 +207,42 @@ public class TeachingSynchronizer {
         logger.info(RECONNECT.getMarker(), "finished sending tree");
     }
 
+    /**
+     * Log raw and compressed stream sizes, if synchronization data is compressed.
+     */
+    private void logStreamStatistics(final long durationNanos) {
+        if (!streams.isCompressed()) {
+            return;
+        }
+        final double seconds = Math.max(durationNanos, 1) / 1_000_000_000.0;
+        logger.info(
+                RECONNECT.getMarker(),
+                "compressed stream: sent {} raw bytes as {} bytes ({} MB/s raw, {} MB/s compressed), "
+                        + "received {} raw bytes as {} bytes",
+                getRawBytesSent(),
+                getCompressedBytesSent(),
+                String.format("%.2f", getRawBytesSent() / seconds / (1024 * 1024)),
+                String.format("%.2f", getCompressedBytesSent() / seconds / (1024 * 1024)),
+                streams.getRawBytesReceived(),
+                streams.getCompressedBytesReceived());
+    }
+
+    /**
+     * Get the number of uncompressed synchronization bytes sent to the learner. Returns 0 if synchronization
+     * data isn't compressed, or synchronization hasn't started yet.
+     */
+    public long getRawBytesSent() {
+        return streams == null ? 0 : streams.getRawBytesSent();
+    }
+
+    /**
+     * Get the number of compressed synchronization bytes sent to the learner, including frame headers. Returns 0
+     * if synchronization data isn't compressed, or synchronization hasn't started yet.
+     */
+    public long getCompressedBytesSent() {
+        return streams == null ? 0 : streams.getCompressedBytesSent();
+    }
+
     protected StandardWorkGroup createStandardWorkGroup(
             ThreadManager threadManager, Runnable breakConnection, Function<Throwable, Boolean> exceptionListener) {
         return new StandardWorkGroup(threadManager, WORK_GROUP_NAME, breakConnection, exceptionListener);
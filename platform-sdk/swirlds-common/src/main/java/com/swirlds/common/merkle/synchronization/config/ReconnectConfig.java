@@ -18,6 +18,7 @@ package com.swirlds.common.merkle.synchronization.config;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Min;
 import java.time.Duration;
 
 /**
@@ -56,6 +57,14 @@ import java.time.Duration;
  * @param pullLearnerRootResponseTimeout         In pull-based reconnect implementations (virtual trees only), the
  *                                               timeout on the learner side to get a virtual root node response from
  *                                               teacher
+ * @param compressStream                         If true, this node asks the other side to use compressed, checksummed
+ *                                               frames for merkle synchronization data. Frames are used only when both
+ *                                               the teacher and the learner have it enabled. The flag is exchanged
+ *                                               with the other side regardless of its value, so both nodes must run a
+ *                                               version with this setting to reconnect with each other.
+ * @param compressedStreamFrameSize              The max number of uncompressed bytes in a single compressed frame.
+ *                                               The teacher and the learner exchange their values and both use the
+ *                                               smaller one
  */
 @ConfigData("reconnect")
 public record ReconnectConfig(
@@ -70,4 +79,6 @@ public record ReconnectConfig(
         @ConfigProperty(defaultValue = "10m") Duration minimumTimeBetweenReconnects,
         @ConfigProperty(defaultValue = "0") int teacherMaxNodesPerSecond,
         @ConfigProperty(defaultValue = "1us") Duration teacherRateLimiterSleep,
-        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout) {}
+        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout,
+        @ConfigProperty(defaultValue = "false") boolean compressStream,
+        @Min(1) @ConfigProperty(defaultValue = "262144") int compressedStreamFrameSize) {}
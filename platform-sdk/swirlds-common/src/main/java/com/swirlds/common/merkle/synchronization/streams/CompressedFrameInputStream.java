@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import static com.swirlds.common.merkle.synchronization.streams.CompressedFrameOutputStream.FRAME_HEADER_SIZE;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * An input stream, which reads frames written by {@link CompressedFrameOutputStream}, verifies their checksums, and
+ * returns decompressed bytes. Frames are read from the underlying stream only when more bytes are needed, and never
+ * beyond the end of the current frame.
+ * </p>
+ *
+ * <p>
+ * This stream doesn't own the underlying stream. Closing this stream doesn't close the underlying stream. This object
+ * is not thread safe.
+ * </p>
+ */
+public class CompressedFrameInputStream extends InputStream {
+
+    private final DataInputStream in;
+
+    /** Max raw frame length accepted from the other side, protects from corrupted headers */
+    private final int maxFrameSize;
+
+    /** Raw bytes of the current frame */
+    private byte[] frame = new byte[0];
+
+    /** Number of raw bytes in the current frame */
+    private int frameLength = 0;
+
+    /** Position of the next byte to read in the current frame */
+    private int framePosition = 0;
+
+    /** Payload bytes of the current frame */
+    private byte[] payload = new byte[0];
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final CRC32C checksum = new CRC32C();
+
+    /** Total raw bytes received in frames */
+    private final AtomicLong rawBytes = new AtomicLong();
+
+    /** Total bytes read from the underlying stream, including frame headers */
+    private final AtomicLong compressedBytes = new AtomicLong();
+
+    /**
+     * Creates a new compressed frame input stream.
+     *
+     * @param in           the underlying stream to read frames from
+     * @param maxFrameSize max number of raw bytes in a frame
+     */
+    public CompressedFrameInputStream(@NonNull final InputStream in, final int maxFrameSize) {
+        Objects.requireNonNull(in, "in must not be null");
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("Max frame size must be positive: " + maxFrameSize);
+        }
+        this.in = new DataInputStream(in);
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        if ((framePosition == frameLength) && !readFrame()) {
+            return -1;
+        }
+        return frame[framePosition++] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(@NonNull final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if ((framePosition == frameLength) && !readFrame()) {
+            return -1;
+        }
+        final int toCopy = Math.min(len, frameLength - framePosition);
+        System.arraycopy(frame, framePosition, b, off, toCopy);
+        framePosition += toCopy;
+        return toCopy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() {
+        return frameLength - framePosition;
+    }
+
+    /**
+     * Releases the decompressor. The underlying stream is not closed.
+     */
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    /**
+     * Get the total number of raw bytes received in frames.
+     *
+     * @return the number of raw bytes
+     */
+    public long getRawBytes() {
+        return rawBytes.get();
+    }
+
+    /**
+     * Get the total number of bytes read from the underlying stream, including frame headers.
+     *
+     * @return the number of compressed bytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    /**
+     * Reads the next frame from the underlying stream.
+     *
+     * @return true if a frame is read, false if the underlying stream is at its end
+     */
+    private boolean readFrame() throws IOException {
+        final int rawLength;
+        try {
+            rawLength = in.readInt();
+        } catch (final EOFException e) {
+            return false;
+        }
+        final int payloadLength = in.readInt();
+        final int expectedChecksum = in.readInt();
+        if ((rawLength <= 0) || (rawLength > maxFrameSize) || (payloadLength <= 0) || (payloadLength > rawLength)) {
+            throw new IOException("Corrupted frame header, raw length: " + rawLength + ", payload length: "
+                    + payloadLength);
+        }
+        if (frame.length < rawLength) {
+            frame = new byte[rawLength];
+        }
+        if (payloadLength == rawLength) {
+            in.readFully(frame, 0, rawLength);
+        } else {
+            if (payload.length < payloadLength) {
+                payload = new byte[payloadLength];
+            }
+            in.readFully(payload, 0, payloadLength);
+            inflater.reset();
+            inflater.setInput(payload, 0, payloadLength);
+            try {
+                final int inflated = inflater.inflate(frame, 0, rawLength);
+                if ((inflated != rawLength) || !inflater.finished()) {
+                    throw new IOException("Corrupted frame, expected " + rawLength + " bytes, inflated " + inflated);
+                }
+            } catch (final DataFormatException e) {
+                throw new IOException("Corrupted frame", e);
+            }
+        }
+        checksum.reset();
+        checksum.update(frame, 0, rawLength);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Frame checksum mismatch");
+        }
+        frameLength = rawLength;
+        framePosition = 0;
+        rawBytes.addAndGet(rawLength);
+        compressedBytes.addAndGet(FRAME_HEADER_SIZE + payloadLength);
+        return true;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+/**
+ * <p>
+ * An output stream, which splits written bytes into frames, compresses every frame, and writes it to the underlying
+ * stream together with a checksum. Frames are read by {@link CompressedFrameInputStream}.
+ * </p>
+ *
+ * <p>
+ * A frame is written when the frame buffer is full, or when this stream is flushed. Frame format: raw (uncompressed)
+ * length as int, payload length as int, CRC32C checksum of raw bytes as int, and payload bytes. If payload length is
+ * equal to raw length, the payload is stored as is. It happens when compressed bytes would not be smaller than raw.
+ * </p>
+ *
+ * <p>
+ * This stream doesn't own the underlying stream. Closing this stream flushes the last frame, but doesn't close the
+ * underlying stream. This object is not thread safe.
+ * </p>
+ */
+public class CompressedFrameOutputStream extends OutputStream {
+
+    /** Frame header size: raw length, payload length, and checksum */
+    static final int FRAME_HEADER_SIZE = 3 * Integer.BYTES;
+
+    private final DataOutputStream out;
+
+    /** Raw bytes of the current frame */
+    private final byte[] frame;
+
+    /** Number of raw bytes in the current frame */
+    private int frameLength = 0;
+
+    /** Compressed frame bytes */
+    private final byte[] compressed;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+    private final CRC32C checksum = new CRC32C();
+
+    /** Total raw bytes written to this stream and sent in frames */
+    private final AtomicLong rawBytes = new AtomicLong();
+
+    /** Total bytes written to the underlying stream, including frame headers */
+    private final AtomicLong compressedBytes = new AtomicLong();
+
+    private boolean closed = false;
+
+    /**
+     * Creates a new compressed frame output stream.
+     *
+     * @param out       the underlying stream to write frames to
+     * @param frameSize max number of raw bytes in a frame
+     */
+    public CompressedFrameOutputStream(@NonNull final OutputStream out, final int frameSize) {
+        Objects.requireNonNull(out, "out must not be null");
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("Frame size must be positive: " + frameSize);
+        }
+        this.out = new DataOutputStream(out);
+        this.frame = new byte[frameSize];
+        this.compressed = new byte[frameSize];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int b) throws IOException {
+        if (frameLength == frame.length) {
+            writeFrame();
+        }
+        frame[frameLength++] = (byte) b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(@NonNull final byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            if (frameLength == frame.length) {
+                writeFrame();
+            }
+            final int toCopy = Math.min(len, frame.length - frameLength);
+            System.arraycopy(b, off, frame, frameLength, toCopy);
+            frameLength += toCopy;
+            off += toCopy;
+            len -= toCopy;
+        }
+    }
+
+    /**
+     * Writes the current frame, even if it's not full, and flushes the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeFrame();
+        out.flush();
+    }
+
+    /**
+     * Flushes the last frame and releases the compressor. The underlying stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                flush();
+            } finally {
+                closed = true;
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Get the total number of raw bytes sent in frames.
+     *
+     * @return the number of raw bytes
+     */
+    public long getRawBytes() {
+        return rawBytes.get();
+    }
+
+    /**
+     * Get the total number of bytes written to the underlying stream, including frame headers.
+     *
+     * @return the number of compressed bytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    private void writeFrame() throws IOException {
+        if (frameLength == 0) {
+            return;
+        }
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        checksum.reset();
+        checksum.update(frame, 0, frameLength);
+
+        deflater.reset();
+        deflater.setInput(frame, 0, frameLength);
+        deflater.finish();
+        final int compressedLength = deflater.deflate(compressed, 0, compressed.length);
+        final boolean store = !deflater.finished() || (compressedLength >= frameLength);
+
+        final int payloadLength = store ? frameLength : compressedLength;
+        out.writeInt(frameLength);
+        out.writeInt(payloadLength);
+        out.writeInt((int) checksum.getValue());
+        out.write(store ? frame : compressed, 0, payloadLength);
+
+        rawBytes.addAndGet(frameLength);
+        compressedBytes.addAndGet(FRAME_HEADER_SIZE + payloadLength);
+        frameLength = 0;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Merkle synchronization streams, either the original connection streams, or compressed frame streams on top of them.
+ * </p>
+ *
+ * <p>
+ * Whether to compress is negotiated by the teacher and the learner before synchronization starts. Each side sends its
+ * {@link ReconnectConfig#compressStream()} flag and receives the flag from the other side. Frames are only used if
+ * both flags are set, so nodes with different settings can still reconnect with each other.
+ * </p>
+ *
+ * <p>
+ * Each side also sends its {@link ReconnectConfig#compressedStreamFrameSize()}. Both sides use the smaller of the two
+ * frame sizes, so a reader never receives a frame larger than it accepts, even if the frame size settings differ.
+ * </p>
+ *
+ * <p>
+ * The flags and frame sizes are always exchanged, even if compression is disabled. The exchange is a part of the reconnect protocol,
+ * so the teacher and the learner must both run a software version, which has it. A node with this version can't
+ * reconnect with a node running an earlier version, regardless of the settings. Rolling this change out therefore
+ * needs a network wide upgrade, like any other reconnect protocol change.
+ * </p>
+ */
+public final class CompressedStreams implements AutoCloseable {
+
+    private final MerkleDataInputStream inputStream;
+
+    private final MerkleDataOutputStream outputStream;
+
+    /** Frame input stream, or null if compression is not used */
+    @Nullable
+    private final CompressedFrameInputStream frameInputStream;
+
+    /** Frame output stream, or null if compression is not used */
+    @Nullable
+    private final CompressedFrameOutputStream frameOutputStream;
+
+    private CompressedStreams(
+            @NonNull final MerkleDataInputStream inputStream,
+            @NonNull final MerkleDataOutputStream outputStream,
+            @Nullable final CompressedFrameInputStream frameInputStream,
+            @Nullable final CompressedFrameOutputStream frameOutputStream) {
+        this.inputStream = inputStream;
+        this.outputStream = outputStream;
+        this.frameInputStream = frameInputStream;
+        this.frameOutputStream = frameOutputStream;
+    }
+
+    /**
+     * Exchanges compression flags and frame sizes with the other side and builds synchronization streams. Both sides must call this
+     * method before any synchronization data is sent.
+     *
+     * @param reconnectConfig reconnect config
+     * @param in              the connection input stream
+     * @param out             the connection output stream
+     * @return synchronization streams
+     * @throws IOException if an I/O error occurs
+     */
+    @NonNull
+    public static CompressedStreams negotiate(
+            @NonNull final ReconnectConfig reconnectConfig,
+            @NonNull final MerkleDataInputStream in,
+            @NonNull final MerkleDataOutputStream out)
+            throws IOException {
+        Objects.requireNonNull(reconnectConfig, "reconnectConfig must not be null");
+        Objects.requireNonNull(in, "in must not be null");
+        Objects.requireNonNull(out, "out must not be null");
+
+        final boolean compress = reconnectConfig.compressStream();
+        final int localFrameSize = reconnectConfig.compressedStreamFrameSize();
+        out.writeBoolean(compress);
+        out.writeInt(localFrameSize);
+        out.flush();
+        final boolean peerCompress = in.readBoolean();
+        final int peerFrameSize = in.readInt();
+        if (peerFrameSize <= 0) {
+            throw new IOException("Invalid compressed stream frame size received: " + peerFrameSize);
+        }
+        if (!compress || !peerCompress) {
+            return new CompressedStreams(in, out, null, null);
+        }
+
+        final int frameSize = Math.min(localFrameSize, peerFrameSize);
+        final CompressedFrameInputStream frameIn = new CompressedFrameInputStream(in, frameSize);
+        final CompressedFrameOutputStream frameOut = new CompressedFrameOutputStream(out, frameSize);
+        return new CompressedStreams(
+                new MerkleDataInputStream(frameIn), new MerkleDataOutputStream(frameOut), frameIn, frameOut);
+    }
+
+    /**
+     * Get the stream to read synchronization data from.
+     */
+    @NonNull
+    public MerkleDataInputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Get the stream to write synchronization data to.
+     */
+    @NonNull
+    public MerkleDataOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Check if synchronization data is compressed.
+     */
+    public boolean isCompressed() {
+        return frameOutputStream != null;
+    }
+
+    /**
+     * Flushes all buffered synchronization data to the connection.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    /**
+     * Releases compression resources. Connection streams are not closed. Resources are released, even if buffered
+     * synchronization data can't be flushed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (frameInputStream != null) {
+            frameInputStream.close();
+        }
+        if (frameOutputStream != null) {
+            frameOutputStream.close();
+        }
+    }
+
+    /**
+     * Get the number of uncompressed bytes sent, or 0 if compression is not used.
+     */
+    public long getRawBytesSent() {
+        return frameOutputStream == null ? 0 : frameOutputStream.getRawBytes();
+    }
+
+    /**
+     * Get the number of compressed bytes sent, or 0 if compression is not used.
+     */
+    public long getCompressedBytesSent() {
+        return frameOutputStream == null ? 0 : frameOutputStream.getCompressedBytes();
+    }
+
+    /**
+     * Get the number of uncompressed bytes received, or 0 if compression is not used.
+     */
+    public long getRawBytesReceived() {
+        return frameInputStream == null ? 0 : frameInputStream.getRawBytes();
+    }
+
+    /**
+     * Get the number of compressed bytes received, or 0 if compression is not used.
+     */
+    public long getCompressedBytesReceived() {
+        return frameInputStream == null ? 0 : frameInputStream.getCompressedBytes();
+    }
+}
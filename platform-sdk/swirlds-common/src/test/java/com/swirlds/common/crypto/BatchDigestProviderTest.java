@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.swirlds.common.crypto.engine.BatchDigestProvider;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Verifies batch digests match digests computed one by one with a {@link MessageDigest}.
+ */
+class BatchDigestProviderTest {
+
+    @ParameterizedTest
+    @EnumSource(DigestType.class)
+    void batchMatchesMessageDigest(final DigestType digestType) throws Exception {
+        final BatchDigestProvider provider = BatchDigestProvider.create(digestType);
+        assertEquals(digestType, provider.getDigestType());
+
+        final Random random = new Random(1234);
+        final int inputLength = 108;
+        final int count = 37;
+        final byte[] inputs = new byte[inputLength * count];
+        random.nextBytes(inputs);
+        final int digestLength = digestType.digestLength();
+        final byte[] outputs = new byte[digestLength * count];
+        provider.digest(inputs, inputLength, count, outputs);
+
+        final MessageDigest digest = MessageDigest.getInstance(digestType.algorithmName());
+        for (int i = 0; i < count; i++) {
+            digest.update(inputs, i * inputLength, inputLength);
+            final byte[] expected = digest.digest();
+            final byte[] actual = Arrays.copyOfRange(outputs, i * digestLength, (i + 1) * digestLength);
+            assertArrayEquals(expected, actual, "Digest mismatch for input " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DigestType.class)
+    void arraysTooSmall(final DigestType digestType) {
+        final BatchDigestProvider provider = BatchDigestProvider.create(digestType);
+        final byte[] inputs = new byte[100];
+        final byte[] outputs = new byte[digestType.digestLength() * 2];
+        assertThrows(IllegalArgumentException.class, () -> provider.digest(inputs, 51, 2, outputs));
+        assertThrows(IllegalArgumentException.class, () -> provider.digest(inputs, 10, 3, outputs));
+        assertThrows(IllegalArgumentException.class, () -> provider.digest(inputs, -1, 1, outputs));
+        // Empty batch is fine
+        provider.digest(inputs, 10, 0, outputs);
+    }
+}
@@ -17,7 +17,9 @@
 package com.swirlds.benchmark;
 
 import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListDisk;
 import com.swirlds.merkledb.collections.LongListHeap;
+import com.swirlds.merkledb.collections.LongListMmap;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
@@ -25,6 +27,7 @@ import java.lang.management.MemoryType;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -52,7 +55,7 @@ public class LongListBenchmark {
     private LongList list;
     private int nextIndex = INITIAL_DATA_SIZE;
 
-    @Param({"LongListHeap", "LongListOffHeap"})
+    @Param({"LongListHeap", "LongListOffHeap", "LongListDisk", "LongListMmap"})
     public String listImpl;
 
     @Setup(Level.Trial)
@@ -60,7 +63,9 @@ public class LongListBenchmark {
         random = new Random(1234);
         list = switch (listImpl) {
             default -> new LongListHeap();
-            case "LongListOffHeap" -> new LongListOffHeap();};
+            case "LongListOffHeap" -> new LongListOffHeap();
+            case "LongListDisk" -> new LongListDisk();
+            case "LongListMmap" -> new LongListMmap();};
         // fill with some data
         for (int i = 0; i < INITIAL_DATA_SIZE; i++) {
             list.put(i, i + 1);
@@ -117,6 +122,13 @@ public class LongListBenchmark {
         });
     }
 
+    @Benchmark
+    public long c_forEach() throws InterruptedException {
+        final AtomicLong sum = new AtomicLong();
+        list.forEach((index, value) -> sum.addAndGet(value));
+        return sum.get();
+    }
+
     public void printMemoryUsage() {
         for (final MemoryPoolMXBean mpBean : ManagementFactory.getMemoryPoolMXBeans()) {
             if (mpBean.getType() == MemoryType.HEAP) {
@@ -28,4 +28,27 @@ public interface FileStatisticAware {
      * @return statistics for sizes of all fully written files, in bytes
      */
     LongSummaryStatistics getFilesSizeStatistics();
+
+    /**
+     * Get the number of data items read from memory-mapped files.
+     *
+     * @return number of data items read from mapped memory
+     */
+    long getMappedReadsCount();
+
+    /**
+     * Get the number of data items read using file channels from files, which are memory-mapped.
+     *
+     * @return number of data items, which couldn't be read from mapped memory
+     */
+    long getMappedReadFallbacksCount();
+
+    /**
+     * Get the estimated ratio of live data to all data in the files it uses. Data is live, if it's
+     * still referenced from the corresponding index. The rest is garbage to be removed by
+     * compaction.
+     *
+     * @return live data ratio, from 0.0 to 1.0
+     */
+    double getLiveDataRatio();
 }
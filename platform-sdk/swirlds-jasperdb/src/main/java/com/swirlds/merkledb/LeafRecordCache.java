@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Objects;
+
+/**
+ * A fixed size, set-associative cache of virtual leaf records with CLOCK (second chance)
+ * eviction within each set.
+ *
+ * <p>Cache entries are split into sets of {@link #ways} entries each. A key can only be stored
+ * in the set selected by its hash code, but in any entry of the set. When a new record is put to
+ * a full set, an entry to evict is selected by a clock hand, which skips (and clears the reference
+ * bit of) entries that have been read since the hand passed them last time. It means hot keys
+ * sharing a set don't evict each other, as it happens with a direct-mapped cache, and records that
+ * are read just once are evicted first. With a single way per set, the cache works exactly like a
+ * direct-mapped cache.
+ *
+ * <p>This class is thread safe, but no locks are used. Java guarantees (JLS 17.7) that reference
+ * writes are atomic, so readers never get corrupted records from the cache. Reference bits and
+ * clock hands may be updated by multiple threads in parallel, which may only result in a less
+ * optimal victim selection, but never in incorrect results, since record keys are always checked
+ * on reads.
+ *
+ * <p>Cached records are shared between threads and must not be modified. Callers should return
+ * record copies to their clients.
+ *
+ * @param <K> virtual key type
+ * @param <V> virtual value type
+ */
+public final class LeafRecordCache<K extends VirtualKey, V extends VirtualValue> {
+
+    /** Number of entries in each set */
+    private final int ways;
+
+    /** Number of sets */
+    private final int sets;
+
+    /** Cached records, set by set. Set N occupies entries from N * ways to (N + 1) * ways - 1 */
+    @SuppressWarnings("rawtypes")
+    private final VirtualLeafRecord[] entries;
+
+    /** Reference bits, one per entry. Set on reads, cleared by the clock hand */
+    private final boolean[] referenced;
+
+    /** Clock hands, one per set. Each hand is an entry index in the set, from 0 to ways - 1 */
+    private final int[] hands;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param size total number of cached records, must be positive
+     * @param ways number of records in each set, must be positive. If greater than size, it's
+     *      reduced to size
+     */
+    public LeafRecordCache(final int size, final int ways) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + size);
+        }
+        if (ways <= 0) {
+            throw new IllegalArgumentException("Number of ways must be positive: " + ways);
+        }
+        this.ways = Math.min(ways, size);
+        this.sets = size / this.ways;
+        entries = new VirtualLeafRecord[sets * this.ways];
+        referenced = new boolean[entries.length];
+        hands = new int[sets];
+    }
+
+    /**
+     * Returns a cached record for the given key, or null if the key isn't in the cache.
+     *
+     * @param key the key to look up
+     * @return the cached record, or null if not cached
+     */
+    @SuppressWarnings("unchecked")
+    public VirtualLeafRecord<K, V> get(@NonNull final K key) {
+        final int base = setIndex(key) * ways;
+        for (int i = base; i < base + ways; i++) {
+            final VirtualLeafRecord<K, V> cached = entries[i];
+            if ((cached != null) && key.equals(cached.getKey())) {
+                referenced[i] = true;
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts a record to the cache. If the record key is already cached, the existing entry is
+     * replaced. Otherwise, the record is stored in a free entry of its set, or a clock-selected
+     * entry is evicted.
+     *
+     * @param record the record to cache
+     * @return true if a record for a different key was evicted to store the given record
+     */
+    @SuppressWarnings("unchecked")
+    public boolean put(@NonNull final VirtualLeafRecord<K, V> record) {
+        Objects.requireNonNull(record);
+        final K key = record.getKey();
+        final int set = setIndex(key);
+        final int base = set * ways;
+        int free = -1;
+        for (int i = base; i < base + ways; i++) {
+            final VirtualLeafRecord<K, V> cached = entries[i];
+            if (cached == null) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (key.equals(cached.getKey())) {
+                entries[i] = record;
+                return false;
+            }
+        }
+        if (free >= 0) {
+            referenced[free] = false;
+            entries[free] = record;
+            return false;
+        }
+        // The set is full. Move the clock hand over referenced entries, clearing their bits, till
+        // an entry that wasn't referenced since the last pass is found. At most two full circles
+        // are needed, even if the bits are changed by other threads in parallel
+        int hand = hands[set];
+        for (int i = 0; i < ways * 2; i++) {
+            if (!referenced[base + hand]) {
+                break;
+            }
+            referenced[base + hand] = false;
+            hand = (hand + 1) % ways;
+        }
+        referenced[base + hand] = false;
+        entries[base + hand] = record;
+        hands[set] = (hand + 1) % ways;
+        return true;
+    }
+
+    /**
+     * Removes a record with the given key from the cache, if present.
+     *
+     * @param key the key to remove
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidate(@NonNull final K key) {
+        final int base = setIndex(key) * ways;
+        // Check all entries in the set. Parallel puts may store multiple records for the same key
+        for (int i = base; i < base + ways; i++) {
+            final VirtualLeafRecord<K, V> cached = entries[i];
+            if ((cached != null) && key.equals(cached.getKey())) {
+                entries[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of records this cache can hold.
+     *
+     * @return cache capacity
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    private int setIndex(final K key) {
+        return Math.floorMod(key.hashCode(), sets);
+    }
+}
@@ -231,6 +231,22 @@ class MerkleDbCompactionCoordinator {
         }
     }
 
+    /**
+     * Returns total compaction debt of all stores, see {@link DataFileCompactor#getCompactionDebtBytes()}.
+     *
+     * @return compaction debt, in bytes
+     */
+    long getCompactionDebtBytes() {
+        long debt = pathToKeyValue.getCompactionDebtBytes();
+        if (hashesStoreDisk != null) {
+            debt += hashesStoreDisk.getCompactionDebtBytes();
+        }
+        if (objectKeyToPath != null) {
+            debt += objectKeyToPath.getCompactionDebtBytes();
+        }
+        return debt;
+    }
+
     boolean isCompactionEnabled() {
         return compactionEnabled.get();
     }
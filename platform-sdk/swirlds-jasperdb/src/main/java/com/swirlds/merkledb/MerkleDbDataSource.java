@@ -29,6 +29,7 @@ import com.hedera.pbj.runtime.FieldType;
 import com.hedera.pbj.runtime.ProtoWriterTools;
 import com.hedera.pbj.runtime.io.WritableSequentialData;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.hedera.pbj.runtime.io.stream.ReadableStreamingData;
 import com.hedera.pbj.runtime.io.stream.WritableStreamingData;
 import com.swirlds.base.units.UnitConstants;
@@ -40,17 +41,23 @@ import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.collections.HashListByteBuffer;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListDisk;
+import com.swirlds.merkledb.collections.LongListMmap;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileCommon;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.HashChunkStore;
 import com.swirlds.merkledb.files.MemoryIndexDiskKeyValueStore;
 import com.swirlds.merkledb.files.VirtualHashRecordSerializer;
 import com.swirlds.merkledb.files.VirtualLeafRecordSerializer;
 import com.swirlds.merkledb.files.hashmap.Bucket;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
+import com.swirlds.merkledb.files.hashmap.OffHeapKeyIndex;
+import com.swirlds.merkledb.files.ordered.OrderedKeyIndex;
 import com.swirlds.merkledb.serialize.KeyIndexType;
+import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualLongKey;
@@ -63,16 +70,24 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -132,6 +147,12 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
      */
     private final MemoryIndexDiskKeyValueStore<VirtualHashRecord> hashStoreDisk;
 
+    /**
+     * On disk store for node hashes grouped into sub-tree chunks. Used instead of {@link #hashStoreDisk}
+     * when tableConfig.hashChunkHeight is greater than zero, null otherwise.
+     */
+    private final HashChunkStore hashChunkStoreDisk;
+
     /** True when hashesRamToDiskThreshold is less than Long.MAX_VALUE */
     private final boolean hasDiskStoreForHashes;
 
@@ -147,23 +168,27 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
      */
     private final HalfDiskHashMap<K> objectKeyToPath;
 
+    /**
+     * In memory off-heap store for key to path map, this is used if isLongKeyMode=false, and
+     * keys are small and fixed size, see {@link MerkleDbTableConfig#getKeyIndexType()}.
+     */
+    private final OffHeapKeyIndex<K> offHeapKeyToPath;
+
     /** Mixed disk and off-heap memory store for path to leaf key and value */
     private final MemoryIndexDiskKeyValueStore<VirtualLeafRecord<K, V>> pathToKeyValue;
 
     /**
-     * Cache size for reading virtual leaf records. Initialized in data source creation time from
-     * MerkleDb settings. If the value is zero, leaf records cache isn't used.
+     * Index of keys ordered by their serialized bytes, used for key range iteration. Null, if
+     * ordered key index isn't enabled for this table
      */
-    private final int leafRecordCacheSize;
+    private final OrderedKeyIndex orderedKeyIndex;
 
     /**
-     * Virtual leaf records cache. It's a simple array indexed by leaf keys % cache size. Cache
-     * eviction is not needed, as array size is fixed and can be configured in MerkleDb settings.
-     * Index conflicts are resolved in a very straightforward way: whatever entry is read last, it's
-     * put to the cache.
+     * Virtual leaf records cache. Cache size and associativity are initialized in data source
+     * creation time from MerkleDb settings. If the configured size is zero, leaf records cache
+     * isn't used, and this field is null.
      */
-    @SuppressWarnings("rawtypes")
-    private final VirtualLeafRecord[] leafRecordCache;
+    private final LeafRecordCache<K, V> leafRecordCache;
 
     /** Thread pool storing internal records */
     private final ExecutorService storeInternalExecutor;
@@ -255,8 +280,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
 
         // create path to disk location index
         final boolean forceIndexRebuilding = database.getConfig().indexRebuildingEnforced();
+        final boolean memoryMappedIndices = database.getConfig().memoryMappedIndicesEnabled();
         if (tableConfig.isPreferDiskBasedIndices()) {
-            pathToDiskLocationInternalNodes = new LongListDisk(dbPaths.pathToDiskLocationInternalNodesFile);
+            pathToDiskLocationInternalNodes = memoryMappedIndices
+                    ? new LongListMmap(dbPaths.pathToDiskLocationInternalNodesFile)
+                    : new LongListDisk(dbPaths.pathToDiskLocationInternalNodesFile);
         } else if (Files.exists(dbPaths.pathToDiskLocationInternalNodesFile) && !forceIndexRebuilding) {
             pathToDiskLocationInternalNodes = new LongListOffHeap(dbPaths.pathToDiskLocationInternalNodesFile);
         } else {
@@ -264,7 +292,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
         // path to disk location index, leaf nodes
         if (tableConfig.isPreferDiskBasedIndices()) {
-            pathToDiskLocationLeafNodes = new LongListDisk(dbPaths.pathToDiskLocationLeafNodesFile);
+            pathToDiskLocationLeafNodes = memoryMappedIndices
+                    ? new LongListMmap(dbPaths.pathToDiskLocationLeafNodesFile)
+                    : new LongListDisk(dbPaths.pathToDiskLocationLeafNodesFile);
         } else if (Files.exists(dbPaths.pathToDiskLocationLeafNodesFile) && !forceIndexRebuilding) {
             pathToDiskLocationLeafNodes = new LongListOffHeap(dbPaths.pathToDiskLocationLeafNodesFile);
         } else {
@@ -292,8 +322,27 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
 
         // internal node hashes store, on disk
         hasDiskStoreForHashes = tableConfig.getHashesRamToDiskThreshold() < Long.MAX_VALUE;
-        final DataFileCompactor<VirtualHashRecord> hashStoreDiskFileCompactor;
-        if (hasDiskStoreForHashes) {
+        final DataFileCompactor<?> hashStoreDiskFileCompactor;
+        if (hasDiskStoreForHashes && (tableConfig.getHashChunkHeight() > 0)) {
+            final String storeName = tableName + "_internalhashchunks";
+            hashStoreDisk = null;
+            hashChunkStoreDisk = new HashChunkStore(
+                    database.getConfig(),
+                    dbPaths.hashStoreDiskDirectory,
+                    storeName,
+                    tableConfig.getHashChunkHeight(),
+                    pathToDiskLocationInternalNodes);
+            hashStoreDiskFileCompactor = new DataFileCompactor<>(
+                    database.getConfig(),
+                    storeName,
+                    hashChunkStoreDisk.getFileCollection(),
+                    pathToDiskLocationInternalNodes,
+                    statisticsUpdater::setHashesStoreCompactionTimeMs,
+                    statisticsUpdater::setHashesStoreCompactionSavedSpaceMb,
+                    statisticsUpdater::setHashesStoreFileSizeByLevelMb,
+                    updateTotalStatsFunction);
+        } else if (hasDiskStoreForHashes) {
+            hashChunkStoreDisk = null;
             final boolean hashIndexEmpty = pathToDiskLocationInternalNodes.size() == 0;
             final LoadedDataCallback<VirtualHashRecord> hashRecordLoadedCallback;
             if (hashIndexEmpty) {
@@ -322,23 +371,34 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     updateTotalStatsFunction);
         } else {
             hashStoreDisk = null;
+            hashChunkStoreDisk = null;
             hashStoreDiskFileCompactor = null;
         }
 
         final DataFileCompactor<Bucket<K>> objectKeyToPathFileCompactor;
         // key to path store
-        if (tableConfig.getKeySerializer().getIndexType() == KeyIndexType.SEQUENTIAL_INCREMENTING_LONGS) {
+        final KeyIndexType keyIndexType = tableConfig.getKeyIndexType();
+        if (keyIndexType == KeyIndexType.SEQUENTIAL_INCREMENTING_LONGS) {
             isLongKeyMode = true;
             objectKeyToPath = null;
+            offHeapKeyToPath = null;
             objectKeyToPathFileCompactor = null;
             if (Files.exists(dbPaths.longKeyToPathFile)) {
                 longKeyToPath = new LongListOffHeap(dbPaths.longKeyToPathFile);
             } else {
                 longKeyToPath = new LongListOffHeap();
             }
+        } else if (keyIndexType == KeyIndexType.OFF_HEAP_HASH) {
+            isLongKeyMode = false;
+            longKeyToPath = null;
+            objectKeyToPath = null;
+            objectKeyToPathFileCompactor = null;
+            // If the index file doesn't exist, the index is restored from leaf data files below
+            offHeapKeyToPath = new OffHeapKeyIndex<>(tableConfig.getKeySerializer(), dbPaths.offHeapKeyToPathFile);
         } else {
             isLongKeyMode = false;
             longKeyToPath = null;
+            offHeapKeyToPath = null;
             String storeName = tableName + "_objectkeytopath";
             objectKeyToPath = new HalfDiskHashMap<>(
                     database.getConfig(),
@@ -361,8 +421,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
         final LoadedDataCallback<VirtualLeafRecord<K, V>> leafRecordLoadedCallback;
         final boolean needRestoreLongKeyToPath = (longKeyToPath != null) && (longKeyToPath.size() == 0);
+        final boolean needRestoreOffHeapKeyToPath = (offHeapKeyToPath != null) && (offHeapKeyToPath.size() == 0);
         final boolean needRestorePathToDiskLocationLeafNodes = pathToDiskLocationLeafNodes.size() == 0;
-        if (needRestoreLongKeyToPath || needRestorePathToDiskLocationLeafNodes) {
+        if (needRestoreLongKeyToPath || needRestoreOffHeapKeyToPath || needRestorePathToDiskLocationLeafNodes) {
             leafRecordLoadedCallback = (dataLocation, leafRecord) -> {
                 final long path = leafRecord.getPath();
                 if (needRestoreLongKeyToPath) {
@@ -370,6 +431,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     final long key = ((VirtualLongKey) leafRecord.getKey()).getKeyAsLong();
                     longKeyToPath.put(key, path);
                 }
+                if (needRestoreOffHeapKeyToPath) {
+                    offHeapKeyToPath.put(leafRecord.getKey(), path);
+                }
                 if (needRestorePathToDiskLocationLeafNodes) {
                     pathToDiskLocationLeafNodes.put(path, dataLocation);
                 }
@@ -386,7 +450,8 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 tableName + ":pathToHashKeyValue",
                 leafRecordSerializer,
                 leafRecordLoadedCallback,
-                pathToDiskLocationLeafNodes);
+                pathToDiskLocationLeafNodes,
+                tableConfig.isCompressLeaves());
         final DataFileCompactor<VirtualLeafRecord<K, V>> pathToKeyValueFileCompactor = new DataFileCompactor<>(
                 database.getConfig(),
                 storeName,
@@ -398,8 +463,21 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 updateTotalStatsFunction);
 
         // Leaf records cache
-        leafRecordCacheSize = database.getConfig().leafRecordCacheSize();
-        leafRecordCache = (leafRecordCacheSize > 0) ? new VirtualLeafRecord[leafRecordCacheSize] : null;
+        final int leafRecordCacheSize = database.getConfig().leafRecordCacheSize();
+        leafRecordCache = (leafRecordCacheSize > 0)
+                ? new LeafRecordCache<>(leafRecordCacheSize, database.getConfig().leafRecordCacheWays())
+                : null;
+
+        // Ordered key index. If the table is loaded from a snapshot without the index, it's rebuilt
+        // from leaf data files
+        if (tableConfig.isOrderedKeyIndex()) {
+            if (!Files.exists(dbPaths.orderedKeyIndexDirectory)) {
+                rebuildOrderedKeyIndex();
+            }
+            orderedKeyIndex = new OrderedKeyIndex(dbPaths.orderedKeyIndexDirectory, tableName + "_orderedkeys");
+        } else {
+            orderedKeyIndex = null;
+        }
 
         // Update count of open databases
         COUNT_OF_OPEN_DATABASES.increment();
@@ -499,42 +577,46 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             final Stream<VirtualLeafRecord<K, V>> leafRecordsToDelete,
             final boolean isReconnectContext)
             throws IOException {
+        Future<?> hashesFuture = null;
+        Future<?> leafKeysFuture = null;
         try {
             validLeafPathRange = new KeyRange(firstLeafPath, lastLeafPath);
-            final CountDownLatch countDownLatch = new CountDownLatch(lastLeafPath > 0 ? 1 : 0);
 
-            // might as well write to the 3 data stores in parallel, so lets fork 2 threads for the easy stuff
-            if (lastLeafPath > 0) {
-                storeInternalExecutor.execute(() -> {
-                    try {
+            // Hashes, leaf keys, and leaves are written to different data file collections, each with
+            // its own data file writer. Hashes are written on the store internal thread, key to path
+            // mappings on the store key to path thread, and leaves on the current thread
+            hashesFuture = (lastLeafPath > 0)
+                    ? storeInternalExecutor.submit(() -> {
                         writeHashes(lastLeafPath, hashRecordsToUpdate);
-                    } catch (final IOException e) {
-                        logger.error(EXCEPTION.getMarker(), "[{}] Failed to store internal records", tableName, e);
-                        throw new UncheckedIOException(e);
-                    } finally {
-                        countDownLatch.countDown();
-                    }
+                        return null;
+                    })
+                    : null;
+
+            if ((leafRecordsToAddOrUpdate != null) && (firstLeafPath > 0)) {
+                // Both key to path and path to key/value stores need dirty leaves. The list is
+                // sorted by path, which is the order leaves are written to pathToKeyValue
+                final List<VirtualLeafRecord<K, V>> dirtyLeaves = leafRecordsToAddOrUpdate
+                        .sorted(Comparator.comparingLong(VirtualLeafRecord::getPath))
+                        .toList();
+                leafKeysFuture = storeKeyToPathExecutor.submit(() -> {
+                    writeLeavesToKeyToPath(dirtyLeaves, leafRecordsToDelete, isReconnectContext);
+                    return null;
                 });
+                writeLeavesToPathToKeyValue(firstLeafPath, lastLeafPath, dirtyLeaves);
             }
 
-            // we might as well do this in the archive thread rather than leaving it waiting
-            writeLeavesToPathToKeyValue(
-                    firstLeafPath, lastLeafPath, leafRecordsToAddOrUpdate, leafRecordsToDelete, isReconnectContext);
-            // wait for the other threads in the rare case they are not finished yet. We need to
-            // have all writing
-            // done before we return as when we return the state version we are writing is deleted
-            // from the cache and
-            // the flood gates are opened for reads through to the data we have written here.
-            try {
-                countDownLatch.await();
-            } catch (final InterruptedException e) {
-                logger.warn(
-                        EXCEPTION.getMarker(),
-                        "[{}] Interrupted while waiting on internal record storage",
-                        tableName,
-                        e);
-                Thread.currentThread().interrupt();
-            }
+            // Wait for the other threads to finish. We need to have all writing done before we return,
+            // as when we return the state version we are writing is deleted from the cache and the
+            // flood gates are opened for reads through to the data we have written here
+            awaitStoreTask(leafKeysFuture, "key to path");
+            awaitStoreTask(hashesFuture, "internal records");
+        } catch (final IOException | RuntimeException | Error e) {
+            // Don't leave store tasks running in the background, when this method fails. They would
+            // still be writing to the stores, when the caller handles the failure or closes this
+            // data source
+            awaitStoreTaskOnFailure(leafKeysFuture, "key to path", e);
+            awaitStoreTaskOnFailure(hashesFuture, "internal records", e);
+            throw e;
         } finally {
             // Report total size on disk as sum of all store files. All metadata and other helper files
             // are considered small enough to be ignored. If/when we decide to use on-disk long lists
@@ -558,18 +640,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         requireNonNull(key);
 
         final long path;
-        VirtualLeafRecord<K, V> cached = null;
-        int cacheIndex = -1;
-        if (leafRecordCache != null) {
-            cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-            // No synchronization is needed here. Java guarantees (JLS 17.7) that reference writes
-            // are atomic, so we will never get corrupted objects from the array. The object may
-            // be overwritten in the cache in a different thread in parallel, but it isn't a
-            // problem as cached entry key is checked below anyway
-            cached = leafRecordCache[cacheIndex];
-        }
-        // If an entry is found in the cache, and entry key is the one requested
-        if ((cached != null) && key.equals(cached.getKey())) {
+        // No synchronization is needed here, the cache is thread safe
+        VirtualLeafRecord<K, V> cached = (leafRecordCache != null) ? leafRecordCache.get(key) : null;
+        // If an entry is found in the cache, it's for the requested key
+        if (cached != null) {
+            statisticsUpdater.countLeafRecordCacheHits();
             // Some cache entries contain just key and path, but no value. If the value is there,
             // just return the cached entry. If not, at least make use of the path
             if (cached.getValue() != null) {
@@ -580,18 +655,18 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             path = cached.getPath();
         } else {
             // Cache miss
-            cached = null;
+            if (leafRecordCache != null) {
+                statisticsUpdater.countLeafRecordCacheMisses();
+            }
             statisticsUpdater.countLeafKeyReads();
-            path = isLongKeyMode
-                    ? longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH)
-                    : objectKeyToPath.get(key, INVALID_PATH);
+            path = findPathInKeyIndex(key);
         }
 
         // If the key didn't map to anything, we just return null
         if (path == INVALID_PATH) {
             // Cache the result if not already cached
             if (leafRecordCache != null && cached == null) {
-                leafRecordCache[cacheIndex] = new VirtualLeafRecord<K, V>(path, key, null);
+                cacheLeafRecord(new VirtualLeafRecord<>(path, key, null));
             }
             return null;
         }
@@ -610,15 +685,110 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         assert leafRecord != null && leafRecord.getKey().equals(key);
 
         if (leafRecordCache != null) {
-            // No synchronization is needed here, see the comment above
             // A copy is returned to ensure cached value immutability.
-            leafRecordCache[cacheIndex] = leafRecord;
+            cacheLeafRecord(leafRecord);
             leafRecord = leafRecord.copy();
         }
 
         return leafRecord;
     }
 
+    /**
+     * Load leaf records by keys. Paths for keys not found in the leaf record cache are looked up
+     * in a batch, so every key-to-path bucket is read only once. Leaf records are then read in
+     * the order of their data locations, which keeps disk reads from the same file sequential.
+     *
+     * @param keys the keys to load leaf records for
+     * @return loaded records in the same order as keys, with nulls for keys that are not found
+     * @throws IOException If there was a problem reading records from db
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<VirtualLeafRecord<K, V>> loadLeafRecords(final List<K> keys) throws IOException {
+        requireNonNull(keys);
+        final int count = keys.size();
+        final VirtualLeafRecord<K, V>[] records = new VirtualLeafRecord[count];
+        final long[] paths = new long[count];
+        // Positions of keys, which paths are not known from the cache
+        final int[] keysToFind = new int[count];
+        int keysToFindCount = 0;
+        for (int i = 0; i < count; i++) {
+            final K key = requireNonNull(keys.get(i));
+            final VirtualLeafRecord<K, V> cached = (leafRecordCache != null) ? leafRecordCache.get(key) : null;
+            if (cached == null) {
+                if (leafRecordCache != null) {
+                    statisticsUpdater.countLeafRecordCacheMisses();
+                }
+                keysToFind[keysToFindCount++] = i;
+                continue;
+            }
+            statisticsUpdater.countLeafRecordCacheHits();
+            if (cached.getValue() != null) {
+                // A copy is returned to ensure cached value immutability
+                records[i] = cached.copy();
+            }
+            // Note that the path may be INVALID_PATH here, this is perfectly legal
+            paths[i] = cached.getPath();
+        }
+
+        // Look up paths for all keys not found in the cache
+        if (isLongKeyMode) {
+            for (int j = 0; j < keysToFindCount; j++) {
+                final int i = keysToFind[j];
+                statisticsUpdater.countLeafKeyReads();
+                paths[i] = longKeyToPath.get(((VirtualLongKey) keys.get(i)).getKeyAsLong(), INVALID_PATH);
+            }
+        } else if (offHeapKeyToPath != null) {
+            // No disk reads, no need to batch
+            for (int j = 0; j < keysToFindCount; j++) {
+                final int i = keysToFind[j];
+                statisticsUpdater.countLeafKeyReads();
+                paths[i] = offHeapKeyToPath.get(keys.get(i), INVALID_PATH);
+            }
+        } else if (keysToFindCount > 0) {
+            final List<K> objectKeys = new ArrayList<>(keysToFindCount);
+            for (int j = 0; j < keysToFindCount; j++) {
+                statisticsUpdater.countLeafKeyReads();
+                objectKeys.add(keys.get(keysToFind[j]));
+            }
+            final long[] foundPaths = objectKeyToPath.get(objectKeys, INVALID_PATH);
+            for (int j = 0; j < keysToFindCount; j++) {
+                paths[keysToFind[j]] = foundPaths[j];
+            }
+        }
+        if (leafRecordCache != null) {
+            for (int j = 0; j < keysToFindCount; j++) {
+                final int i = keysToFind[j];
+                if (paths[i] == INVALID_PATH) {
+                    // Cache negative results
+                    cacheLeafRecord(new VirtualLeafRecord<>(INVALID_PATH, keys.get(i), null));
+                }
+            }
+        }
+
+        // Now read leaf records, which are not loaded yet, sorted by data locations
+        final KeyRange leafPathRange = validLeafPathRange;
+        final List<Integer> toRead = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if ((records[i] == null) && (paths[i] != INVALID_PATH) && leafPathRange.withinRange(paths[i])) {
+                toRead.add(i);
+            }
+        }
+        for (final int i :
+                sortedByDataLocation(toRead, paths, path -> pathToDiskLocationLeafNodes.get(path, 0))) {
+            statisticsUpdater.countLeafReads();
+            VirtualLeafRecord<K, V> leafRecord = pathToKeyValue.get(paths[i]);
+            assert leafRecord != null && leafRecord.getKey().equals(keys.get(i));
+            if (leafRecordCache != null) {
+                // A copy is returned to ensure cached value immutability.
+                cacheLeafRecord(leafRecord);
+                leafRecord = leafRecord.copy();
+            }
+            records[i] = leafRecord;
+        }
+        return Arrays.asList(records);
+    }
+
     /**
      * Load a leaf record by path
      *
@@ -649,25 +819,22 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         requireNonNull(key);
 
         // Check the cache first
-        int cacheIndex = -1;
         if (leafRecordCache != null) {
-            cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-            // No synchronization is needed here. See the comment in loadLeafRecord(key) above
-            final VirtualLeafRecord<K, V> cached = leafRecordCache[cacheIndex];
-            if (cached != null && key.equals(cached.getKey())) {
+            final VirtualLeafRecord<K, V> cached = leafRecordCache.get(key);
+            if (cached != null) {
+                statisticsUpdater.countLeafRecordCacheHits();
                 // Cached path may be a valid path or INVALID_PATH, both are legal here
                 return cached.getPath();
             }
+            statisticsUpdater.countLeafRecordCacheMisses();
         }
 
         statisticsUpdater.countLeafKeyReads();
-        final long path = isLongKeyMode
-                ? longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH)
-                : objectKeyToPath.get(key, INVALID_PATH);
+        final long path = findPathInKeyIndex(key);
 
         if (leafRecordCache != null) {
             // Path may be INVALID_PATH here. Still needs to be cached (negative result)
-            leafRecordCache[cacheIndex] = new VirtualLeafRecord<K, V>(path, key, null);
+            cacheLeafRecord(new VirtualLeafRecord<>(path, key, null));
         }
 
         return path;
@@ -695,6 +862,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         if (path < tableConfig.getHashesRamToDiskThreshold()) {
             hash = hashStoreRam.get(path);
             // Should count hash reads here, too?
+        } else if (hashChunkStoreDisk != null) {
+            hash = hashChunkStoreDisk.get(path);
+            statisticsUpdater.countHashReads();
         } else {
             final VirtualHashRecord rec = hashStoreDisk.get(path);
             hash = (rec != null) ? rec.hash() : null;
@@ -704,6 +874,73 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         return hash;
     }
 
+    /**
+     * Load hashes by paths. Hashes stored on disk are read in the order of their data locations,
+     * which keeps disk reads from the same file sequential.
+     *
+     * @param paths virtual node paths
+     * @return loaded hashes in the same order as paths, with nulls for paths that are not stored
+     * @throws IOException If there was a problem reading hashes from db
+     */
+    @Override
+    public Hash[] loadHashes(final long[] paths) throws IOException {
+        requireNonNull(paths);
+        final Hash[] hashes = new Hash[paths.length];
+        final long lastLeaf = validLeafPathRange.getMaxValidKey();
+        final List<Integer> toReadFromDisk = new ArrayList<>();
+        for (int i = 0; i < paths.length; i++) {
+            final long path = paths[i];
+            if (path < 0) {
+                throw new IllegalArgumentException("path is less than 0");
+            }
+            if (path > lastLeaf) {
+                continue;
+            }
+            if (path < tableConfig.getHashesRamToDiskThreshold()) {
+                hashes[i] = hashStoreRam.get(path);
+            } else {
+                toReadFromDisk.add(i);
+            }
+        }
+        if (hashChunkStoreDisk != null) {
+            // Paths from the same chunk get adjacent after sorting, and the chunk is read only once
+            for (final int i : sortedByDataLocation(toReadFromDisk, paths, hashChunkStoreDisk::getDataLocation)) {
+                hashes[i] = hashChunkStoreDisk.get(paths[i]);
+                statisticsUpdater.countHashReads();
+            }
+            return hashes;
+        }
+        for (final int i : sortedByDataLocation(
+                toReadFromDisk, paths, path -> pathToDiskLocationInternalNodes.get(path, 0))) {
+            final VirtualHashRecord rec = hashStoreDisk.get(paths[i]);
+            hashes[i] = (rec != null) ? rec.hash() : null;
+            statisticsUpdater.countHashReads();
+        }
+        return hashes;
+    }
+
+    /**
+     * Sorts the given positions in the paths array by data locations of the corresponding paths.
+     * Locations combine data file indices and offsets in the files, so after sorting the reads
+     * from the same file are sequential.
+     *
+     * @param positions positions in the paths array to sort, updated in place
+     * @param paths virtual node paths
+     * @param pathToDataLocation path to data location function
+     * @return the sorted positions
+     */
+    private static List<Integer> sortedByDataLocation(
+            final List<Integer> positions, final long[] paths, final LongUnaryOperator pathToDataLocation) {
+        if (positions.size() > 1) {
+            final long[] locations = new long[paths.length];
+            for (final int i : positions) {
+                locations[i] = pathToDataLocation.applyAsLong(paths[i]);
+            }
+            positions.sort(Comparator.comparingLong(i -> locations[i]));
+        }
+        return positions;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -726,6 +963,13 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 return false;
             }
             hash.serialize(out);
+        } else if (hashChunkStoreDisk != null) {
+            // Hashes are read in path order, so most of them come from the thread's last read chunk
+            final Hash hash = hashChunkStoreDisk.get(path);
+            if (hash == null) {
+                return false;
+            }
+            hash.serialize(out);
         } else {
             final BufferedData hashBytes = hashStoreDisk.getBytes(path);
             if (hashBytes == null) {
@@ -737,6 +981,52 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isKeyRangeIterationSupported() {
+        return orderedKeyIndex != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Keys are serialized using the table key serializer.
+     */
+    @Override
+    public Bytes getOrderedKeyBytes(final K key) {
+        if (orderedKeyIndex == null) {
+            throw new UnsupportedOperationException("Ordered key index isn't enabled for table " + tableName);
+        }
+        return Bytes.wrap(serializeKey(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> keyRangeIterator(final Bytes fromKeyBytes, final Bytes toKeyBytes) {
+        requireNonNull(fromKeyBytes);
+        if (orderedKeyIndex == null) {
+            throw new UnsupportedOperationException("Ordered key index isn't enabled for table " + tableName);
+        }
+        final KeySerializer<K> keySerializer = tableConfig.getKeySerializer();
+        final Iterator<byte[]> keyBytesIterator = orderedKeyIndex.keyRange(
+                fromKeyBytes.toByteArray(), toKeyBytes == null ? null : toKeyBytes.toByteArray());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return keyBytesIterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return keySerializer.deserialize(BufferedData.wrap(keyBytesIterator.next()));
+            }
+        };
+    }
+
     /** Wait for any merges to finish, then close all data stores and free all resources. */
     @Override
     public void close() throws IOException {
@@ -756,6 +1046,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     if (hashStoreDisk != null) {
                         hashStoreDisk.close();
                     }
+                    if (hashChunkStoreDisk != null) {
+                        hashChunkStoreDisk.close();
+                    }
                     pathToDiskLocationInternalNodes.close();
                     pathToDiskLocationLeafNodes.close();
                     if (longKeyToPath != null) {
@@ -764,7 +1057,13 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     if (objectKeyToPath != null) {
                         objectKeyToPath.close();
                     }
+                    if (offHeapKeyToPath != null) {
+                        offHeapKeyToPath.close();
+                    }
                     pathToKeyValue.close();
+                    if (orderedKeyIndex != null) {
+                        orderedKeyIndex.close();
+                    }
                 } catch (final Exception e) {
                     logger.warn(EXCEPTION.getMarker(), "Exception while closing Data Source [{}]", tableName);
                 } catch (final Error t) {
@@ -813,14 +1112,15 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             final MerkleDbPaths snapshotDbPaths = new MerkleDbPaths(snapshotDirectory);
             // main snapshotting process in multiple-threads
             try {
-                final CountDownLatch countDownLatch = new CountDownLatch(8);
+                final CountDownLatch countDownLatch = new CountDownLatch(11);
                 // write all data stores
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationInternalNodes", () -> {
-                    pathToDiskLocationInternalNodes.writeToFile(snapshotDbPaths.pathToDiskLocationInternalNodesFile);
+                    writeIndexToFile(
+                            pathToDiskLocationInternalNodes, snapshotDbPaths.pathToDiskLocationInternalNodesFile);
                     return true;
                 });
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationLeafNodes", () -> {
-                    pathToDiskLocationLeafNodes.writeToFile(snapshotDbPaths.pathToDiskLocationLeafNodesFile);
+                    writeIndexToFile(pathToDiskLocationLeafNodes, snapshotDbPaths.pathToDiskLocationLeafNodesFile);
                     return true;
                 });
                 runWithSnapshotExecutor(hashStoreRam != null, countDownLatch, "internalHashStoreRam", () -> {
@@ -831,18 +1131,31 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     hashStoreDisk.snapshot(snapshotDbPaths.hashStoreDiskDirectory);
                     return true;
                 });
+                runWithSnapshotExecutor(
+                        hashChunkStoreDisk != null, countDownLatch, "internalHashChunkStoreDisk", () -> {
+                            hashChunkStoreDisk.snapshot(snapshotDbPaths.hashStoreDiskDirectory);
+                            return true;
+                        });
                 runWithSnapshotExecutor(longKeyToPath != null, countDownLatch, "longKeyToPath", () -> {
-                    longKeyToPath.writeToFile(snapshotDbPaths.longKeyToPathFile);
+                    writeIndexToFile(longKeyToPath, snapshotDbPaths.longKeyToPathFile);
                     return true;
                 });
                 runWithSnapshotExecutor(objectKeyToPath != null, countDownLatch, "objectKeyToPath", () -> {
                     objectKeyToPath.snapshot(snapshotDbPaths.objectKeyToPathDirectory);
                     return true;
                 });
+                runWithSnapshotExecutor(offHeapKeyToPath != null, countDownLatch, "offHeapKeyToPath", () -> {
+                    offHeapKeyToPath.writeToFile(snapshotDbPaths.offHeapKeyToPathFile);
+                    return true;
+                });
                 runWithSnapshotExecutor(true, countDownLatch, "pathToKeyValue", () -> {
                     pathToKeyValue.snapshot(snapshotDbPaths.pathToKeyValueDirectory);
                     return true;
                 });
+                runWithSnapshotExecutor(orderedKeyIndex != null, countDownLatch, "orderedKeyIndex", () -> {
+                    orderedKeyIndex.snapshot(snapshotDbPaths.orderedKeyIndexDirectory);
+                    return true;
+                });
                 runWithSnapshotExecutor(true, countDownLatch, "metadata", () -> {
                     saveMetadata(snapshotDbPaths);
                     return true;
@@ -893,10 +1206,13 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 .append("hashesRamToDiskThreshold", tableConfig.getHashesRamToDiskThreshold())
                 .append("hashStoreRam.size", hashStoreRam == null ? null : hashStoreRam.size())
                 .append("hashStoreDisk", hashStoreDisk)
+                .append("hashChunkStoreDisk", hashChunkStoreDisk)
                 .append("hasDiskStoreForHashes", hasDiskStoreForHashes)
                 .append("longKeyToPath.size", longKeyToPath == null ? null : longKeyToPath.size())
                 .append("objectKeyToPath", objectKeyToPath)
+                .append("offHeapKeyToPath.size", offHeapKeyToPath == null ? null : offHeapKeyToPath.size())
                 .append("pathToKeyValue", pathToKeyValue)
+                .append("orderedKeyIndex", orderedKeyIndex)
                 .append("snapshotInProgress", snapshotInProgress.get())
                 .toString();
     }
@@ -1050,6 +1366,23 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
     }
 
+    /**
+     * Writes an index to a snapshot file. If incremental index snapshots are enabled in MerkleDb
+     * config, only index chunks changed since the previous snapshot are written from the index,
+     * and the rest is copied from the previous snapshot file.
+     *
+     * @param index the index to write
+     * @param file the file to write to
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeIndexToFile(final LongList index, final Path file) throws IOException {
+        if (database.getConfig().incrementalIndexSnapshotsEnabled()) {
+            index.writeToFileIncrementally(file);
+        } else {
+            index.writeToFile(file);
+        }
+    }
+
     /**
      * Run a runnable on background thread using snapshot ExecutorService, counting down latch when
      * done.
@@ -1095,7 +1428,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             return;
         }
 
-        if (hasDiskStoreForHashes) {
+        if (hashChunkStoreDisk != null) {
+            hashChunkStoreDisk.startWriting(maxValidPath);
+        } else if (hasDiskStoreForHashes) {
             hashStoreDisk.startWriting(0, maxValidPath);
         }
 
@@ -1105,7 +1440,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 hashStoreRam.put(rec.path(), rec.hash());
             } else {
                 try {
-                    hashStoreDisk.put(rec.path(), rec);
+                    if (hashChunkStoreDisk != null) {
+                        hashChunkStoreDisk.put(rec.path(), rec.hash());
+                    } else {
+                        hashStoreDisk.put(rec.path(), rec);
+                    }
                 } catch (final IOException e) {
                     logger.error(EXCEPTION.getMarker(), "[{}] IOException writing internal records", tableName, e);
                     throw new UncheckedIOException(e);
@@ -1114,55 +1453,145 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         });
 
         if (hasDiskStoreForHashes) {
-            final DataFileReader<VirtualHashRecord> newHashesFile = hashStoreDisk.endWriting();
+            final DataFileReader<?> newHashesFile =
+                    (hashChunkStoreDisk != null) ? hashChunkStoreDisk.endWriting() : hashStoreDisk.endWriting();
             statisticsUpdater.setFlushHashesStoreFileSize(newHashesFile);
             compactionCoordinator.compactDiskStoreForHashesAsync();
         }
     }
 
-    /** Write all the given leaf records to pathToKeyValue */
-    private void writeLeavesToPathToKeyValue(
-            final long firstLeafPath,
-            final long lastLeafPath,
-            final Stream<VirtualLeafRecord<K, V>> dirtyLeaves,
-            final Stream<VirtualLeafRecord<K, V>> deletedLeaves,
-            boolean isReconnect)
-            throws IOException {
-        if ((dirtyLeaves == null) || (firstLeafPath <= 0)) {
-            // nothing to do
+    /**
+     * Waits for a store task started in {@link #saveRecords} to complete.
+     *
+     * @param future the task future, may be null if the task wasn't started
+     * @param storeName the name of the store for logging
+     * @throws IOException if the task failed with an I/O error
+     */
+    private void awaitStoreTask(final Future<?> future, final String storeName) throws IOException {
+        if (future == null) {
             return;
         }
+        try {
+            future.get();
+        } catch (final InterruptedException e) {
+            logger.warn(EXCEPTION.getMarker(), "[{}] Interrupted while waiting on {} storage", tableName, storeName, e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logger.error(EXCEPTION.getMarker(), "[{}] Failed to store {}", tableName, storeName, e.getCause());
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Waits for a store task started in {@link #saveRecords} to complete, after saving records
+     * failed with the given exception. If the task failed, too, its exception is added to the
+     * given exception as suppressed.
+     *
+     * @param future the task future, may be null if the task wasn't started
+     * @param storeName the name of the store for logging
+     * @param failure the exception saving records failed with
+     */
+    private void awaitStoreTaskOnFailure(final Future<?> future, final String storeName, final Throwable failure) {
+        try {
+            awaitStoreTask(future, storeName);
+        } catch (final IOException | RuntimeException | Error e) {
+            // the task may be the one, which caused the failure
+            if (e != failure) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
 
+    /**
+     * Write all the given leaf records to pathToKeyValue.
+     *
+     * @param firstLeafPath the tree path for first leaf
+     * @param lastLeafPath the tree path for last leaf
+     * @param dirtyLeaves dirty leaves, sorted by path
+     */
+    private void writeLeavesToPathToKeyValue(
+            final long firstLeafPath, final long lastLeafPath, final List<VirtualLeafRecord<K, V>> dirtyLeaves)
+            throws IOException {
         // start writing
         pathToKeyValue.startWriting(firstLeafPath, lastLeafPath);
-        if (!isLongKeyMode) {
+
+        // Iterate over leaf records
+        for (final VirtualLeafRecord<K, V> leafRecord : dirtyLeaves) {
+            // Update path to K/V store
+            try {
+                pathToKeyValue.put(leafRecord.getPath(), leafRecord);
+            } catch (final IOException e) {
+                logger.error(EXCEPTION.getMarker(), "[{}] IOException writing to pathToKeyValue", tableName, e);
+                throw e;
+            }
+            statisticsUpdater.countFlushLeavesWritten();
+
+            // cache the record
+            invalidateReadCache(leafRecord.getKey());
+        }
+
+        // delete from pathToKeyValue, we don't need to explicitly delete leaves as they will be
+        // deleted on next merge based on range of valid leaf paths. If a leaf at path X is deleted
+        // then a new leaf is inserted at path X then the record is just updated to new leaf's data.
+
+        // end writing
+        final DataFileReader<VirtualLeafRecord<K, V>> pathToKeyValueReader = pathToKeyValue.endWriting();
+        statisticsUpdater.setFlushLeavesStoreFileSize(pathToKeyValueReader);
+        compactionCoordinator.compactPathToKeyValueAsync();
+    }
+
+    /**
+     * Write all the given leaf records to the key to path index. Object key to path index has to
+     * be updated on a single thread, so this method must not be called concurrently.
+     *
+     * @param dirtyLeaves dirty leaves, sorted by path
+     * @param deletedLeaves leaves to delete
+     * @param isReconnect if true, the method called in the context of reconnect
+     */
+    private void writeLeavesToKeyToPath(
+            final List<VirtualLeafRecord<K, V>> dirtyLeaves,
+            final Stream<VirtualLeafRecord<K, V>> deletedLeaves,
+            final boolean isReconnect)
+            throws IOException {
+        // start writing
+        if (objectKeyToPath != null) {
             objectKeyToPath.startWriting();
         }
+        if (orderedKeyIndex != null) {
+            orderedKeyIndex.startWriting();
+        }
 
         // Iterate over leaf records
-        dirtyLeaves.sorted(Comparator.comparingLong(VirtualLeafRecord::getPath)).forEachOrdered(leafRecord -> {
+        for (final VirtualLeafRecord<K, V> leafRecord : dirtyLeaves) {
             final long path = leafRecord.getPath();
             // Update key to path index
             if (isLongKeyMode) {
                 final long key = ((VirtualLongKey) leafRecord.getKey()).getKeyAsLong();
                 longKeyToPath.put(key, path);
+            } else if (offHeapKeyToPath != null) {
+                offHeapKeyToPath.put(leafRecord.getKey(), path);
             } else {
                 objectKeyToPath.put(leafRecord.getKey(), path);
             }
-            statisticsUpdater.countFlushLeafKeysWritten();
-
-            // Update path to K/V store
-            try {
-                pathToKeyValue.put(leafRecord.getPath(), leafRecord);
-            } catch (final IOException e) {
-                logger.error(EXCEPTION.getMarker(), "[{}] IOException writing to pathToKeyValue", tableName, e);
-                throw new UncheckedIOException(e);
+            if (orderedKeyIndex != null) {
+                orderedKeyIndex.put(serializeKey(leafRecord.getKey()));
             }
-            statisticsUpdater.countFlushLeavesWritten();
+            statisticsUpdater.countFlushLeafKeysWritten();
+        }
 
-            // cache the record
-            invalidateReadCache(leafRecord.getKey());
-        });
+        // Keys of leaves deleted during reconnect, to be removed from the ordered key index only
+        // if they are removed from the key to path index
+        final List<K> reconnectDeletedKeys = (orderedKeyIndex != null) && isReconnect ? new ArrayList<>() : null;
 
         // Iterate over leaf records to delete
         deletedLeaves.forEach(leafRecord -> {
@@ -1179,6 +1608,12 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 } else {
                     longKeyToPath.put(key, INVALID_PATH);
                 }
+            } else if (offHeapKeyToPath != null) {
+                if (isReconnect) {
+                    offHeapKeyToPath.deleteIfEqual(leafRecord.getKey(), path);
+                } else {
+                    offHeapKeyToPath.delete(leafRecord.getKey());
+                }
             } else {
                 if (isReconnect) {
                     objectKeyToPath.deleteIfEqual(leafRecord.getKey(), path);
@@ -1186,27 +1621,116 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     objectKeyToPath.delete(leafRecord.getKey());
                 }
             }
+            // Deletion of a key, which is moved to a different path in the same flush, is ignored
+            // by the ordered key index. During reconnect, the key may have been moved in an earlier
+            // flush, so the key to path index is checked after all its updates are applied below
+            if (reconnectDeletedKeys != null) {
+                reconnectDeletedKeys.add(leafRecord.getKey());
+            } else if (orderedKeyIndex != null) {
+                orderedKeyIndex.delete(serializeKey(leafRecord.getKey()));
+            }
             statisticsUpdater.countFlushLeavesDeleted();
 
-            // delete from pathToKeyValue, we don't need to explicitly delete leaves as
-            // they will be deleted on
-            // next merge based on range of valid leaf paths. If a leaf at path X is deleted
-            // then a new leaf is
-            // inserted at path X then the record is just updated to new leaf's data.
-
             // delete the record from the cache
             invalidateReadCache(leafRecord.getKey());
         });
 
         // end writing
-        final DataFileReader<VirtualLeafRecord<K, V>> pathToKeyValueReader = pathToKeyValue.endWriting();
-        statisticsUpdater.setFlushLeavesStoreFileSize(pathToKeyValueReader);
-        compactionCoordinator.compactPathToKeyValueAsync();
-        if (!isLongKeyMode) {
+        if (objectKeyToPath != null) {
             final DataFileReader<Bucket<K>> objectKeyToPathReader = objectKeyToPath.endWriting();
             statisticsUpdater.setFlushLeafKeysStoreFileSize(objectKeyToPathReader);
             compactionCoordinator.compactDiskStoreForObjectKeyToPathAsync();
         }
+        if (orderedKeyIndex != null) {
+            if (reconnectDeletedKeys != null) {
+                for (final K key : reconnectDeletedKeys) {
+                    // Skip keys, which putIfEqual() / deleteIfEqual() above left at other paths
+                    if (findPathInKeyIndex(key) == INVALID_PATH) {
+                        orderedKeyIndex.delete(serializeKey(key));
+                    }
+                }
+            }
+            orderedKeyIndex.endWriting();
+        }
+    }
+
+    /**
+     * Serializes a key using the table key serializer.
+     *
+     * @param key the key to serialize
+     * @return serialized key bytes
+     */
+    private byte[] serializeKey(final K key) {
+        final KeySerializer<K> keySerializer = tableConfig.getKeySerializer();
+        final byte[] bytes = new byte[keySerializer.getSerializedSize(key)];
+        keySerializer.serialize(key, BufferedData.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Builds the ordered key index from scratch using all leaves in the valid leaf path range.
+     * Keys are written to the index in batches, so the whole key set is never kept in memory.
+     *
+     * <p>The index is built in a temporary directory, which is renamed to the index directory
+     * only when the index is complete. If the process is stopped in the middle of a rebuild, the
+     * index directory doesn't exist on the next load, and the index is rebuilt again.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    private void rebuildOrderedKeyIndex() throws IOException {
+        final Path tempDir = dbPaths.orderedKeyIndexDirectory.resolveSibling(
+                dbPaths.orderedKeyIndexDirectory.getFileName() + ".tmp");
+        if (Files.exists(tempDir)) {
+            // Left by an interrupted rebuild
+            DataFileCommon.deleteDirectoryAndContents(tempDir);
+        }
+        final KeyRange leafPathRange = validLeafPathRange;
+        final long start = System.currentTimeMillis();
+        final int batchSize = 1_000_000;
+        long count = 0;
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir, tableName + "_orderedkeys_rebuild")) {
+            // Min valid leaf path is zero or less for empty tables, nothing to add to the index then
+            if (leafPathRange.getMinValidKey() > 0) {
+                index.startWriting();
+                for (long path = leafPathRange.getMinValidKey(); path <= leafPathRange.getMaxValidKey(); path++) {
+                    final VirtualLeafRecord<K, V> leafRecord = pathToKeyValue.get(path);
+                    if (leafRecord == null) {
+                        continue;
+                    }
+                    index.put(serializeKey(leafRecord.getKey()));
+                    if (++count % batchSize == 0) {
+                        index.endWriting();
+                        index.startWriting();
+                    }
+                }
+                index.endWriting();
+            }
+        }
+        Files.move(tempDir, dbPaths.orderedKeyIndexDirectory, StandardCopyOption.ATOMIC_MOVE);
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "[{}] Rebuilt ordered key index with {} keys in {} seconds",
+                tableName,
+                count,
+                (System.currentTimeMillis() - start) * UnitConstants.MILLISECONDS_TO_SECONDS);
+    }
+
+    /**
+     * Looks up a path for the given key in the key to path index, whichever index is used by this
+     * data source.
+     *
+     * @param key the key to look up
+     * @return the path, or INVALID_PATH if the key is not found
+     * @throws IOException if there was a problem reading the index from disk
+     */
+    private long findPathInKeyIndex(final K key) throws IOException {
+        if (isLongKeyMode) {
+            return longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH);
+        }
+        if (offHeapKeyToPath != null) {
+            return offHeapKeyToPath.get(key, INVALID_PATH);
+        }
+        return objectKeyToPath.get(key, INVALID_PATH);
     }
 
     /**
@@ -1215,29 +1739,31 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
      * If the key is deleted, it's still updated in the cache. It means no record with the given
      * key exists in the data source, so further lookups for the key are skipped.
      * <p>
-     * Cache index is calculated as the key's hash code % cache size. The cache is only updated,
-     * if the current record at this index has the given key. If the key is different, no update is
+     * Only cache entries with the given key are removed. If the key isn't cached, no update is
      * performed.
      *
      * @param key Virtual leaf record key
      */
-    @SuppressWarnings("unchecked")
     private void invalidateReadCache(final K key) {
         if (leafRecordCache == null) {
             return;
         }
-        final int cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-        final VirtualLeafRecord<K, V> cached = leafRecordCache[cacheIndex];
-        if ((cached != null) && key.equals(cached.getKey())) {
-            leafRecordCache[cacheIndex] = null;
+        leafRecordCache.invalidate(key);
+    }
+
+    /** Puts a leaf record to the leaf record cache, which must not be null, and counts evictions. */
+    private void cacheLeafRecord(final VirtualLeafRecord<K, V> leafRecord) {
+        assert leafRecordCache != null;
+        if (leafRecordCache.put(leafRecord)) {
+            statisticsUpdater.countLeafRecordCacheEvictions();
         }
     }
 
     FileStatisticAware getHashStoreDisk() {
-        return hashStoreDisk;
+        return (hashChunkStoreDisk != null) ? hashChunkStoreDisk : hashStoreDisk;
     }
 
-    FileStatisticAware getObjectKeyToPath() {
+    HalfDiskHashMap<K> getObjectKeyToPath() {
         return objectKeyToPath;
     }
 
@@ -1257,6 +1783,10 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         return longKeyToPath;
     }
 
+    OffHeapUser getOffHeapKeyToPath() {
+        return offHeapKeyToPath;
+    }
+
     LongList getPathToDiskLocationInternalNodes() {
         return pathToDiskLocationInternalNodes;
     }
@@ -31,7 +31,9 @@ public class MerkleDbPaths {
     public final Path hashStoreDiskDirectory;
     public final Path longKeyToPathFile;
     public final Path objectKeyToPathDirectory;
+    public final Path offHeapKeyToPathFile;
     public final Path pathToKeyValueDirectory;
+    public final Path orderedKeyIndexDirectory;
 
     /**
      * Create a set of all the sub-paths for stored data in a MerkleDb data source.
@@ -48,6 +50,8 @@ public class MerkleDbPaths {
         hashStoreDiskDirectory = storageDir.resolve("internalHashStoreDisk");
         longKeyToPathFile = storageDir.resolve("longKeyToPath.ll");
         objectKeyToPathDirectory = storageDir.resolve("objectKeyToPath");
+        offHeapKeyToPathFile = storageDir.resolve("offHeapKeyToPath.ohi");
         pathToKeyValueDirectory = storageDir.resolve("pathToHashKeyValue");
+        orderedKeyIndexDirectory = storageDir.resolve("orderedKeyIndex");
     }
 }
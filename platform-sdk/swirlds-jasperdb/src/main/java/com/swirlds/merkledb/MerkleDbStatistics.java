@@ -18,6 +18,7 @@ package com.swirlds.merkledb;
 
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.metrics.api.DoubleAccumulator;
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.FloatFormats;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.LongAccumulator;
@@ -58,22 +59,46 @@ public class MerkleDbStatistics {
     private LongAccumulator leafReads;
     /** Leaf keys - reads / s */
     private LongAccumulator leafKeyReads;
+    /** Leaf records cache - hits / s */
+    private LongAccumulator leafRecordCacheHits;
+    /** Leaf records cache - misses / s */
+    private LongAccumulator leafRecordCacheMisses;
+    /** Leaf records cache - evictions / s */
+    private LongAccumulator leafRecordCacheEvictions;
+    /** Data items read from memory-mapped files - reads / s */
+    private LongAccumulator mappedReads;
+    /** Data items read using file channels from memory-mapped files - reads / s */
+    private LongAccumulator mappedReadFallbacks;
+    /** Leaf key lookups rejected by the leaf keys Bloom filter without a disk read - reads / s */
+    private LongAccumulator bloomFilterAvoidedReads;
+    /** Leaf key lookups for missing key hash codes that passed the leaf keys Bloom filter - reads / s */
+    private LongAccumulator bloomFilterFalsePositives;
+    /** Observed false positive rate of the leaf keys Bloom filter, from 0.0 to 1.0 */
+    private DoubleGauge bloomFilterFalsePositiveRate;
 
     /** Hashes store - file count */
     private IntegerGauge hashesStoreFileCount;
     /** Hashes store - total file size in Mb */
     private IntegerGauge hashesStoreFileSizeMb;
+    /** Hashes store - live data ratio in percent */
+    private IntegerGauge hashesStoreLiveDataPercent;
     /** Leaves store - file count */
     private IntegerGauge leavesStoreFileCount;
     /** Leaves store - total file size in Mb */
     private IntegerGauge leavesStoreFileSizeMb;
+    /** Leaves store - live data ratio in percent */
+    private IntegerGauge leavesStoreLiveDataPercent;
     /** Leaf keys store - file count */
     private IntegerGauge leafKeysStoreFileCount;
     /** Leaf keys store - total file size in Mb */
     private IntegerGauge leafKeysStoreFileSizeMb;
+    /** Leaf keys store - live data ratio in percent */
+    private IntegerGauge leafKeysStoreLiveDataPercent;
     /** Total file size in Mb */
     // Should all file sizes be doubles?
     private IntegerGauge totalFileSizeMb;
+    /** Total size of files waiting for compaction in Mb */
+    private IntegerGauge compactionDebtMb;
 
     private LongAccumulator flushHashesWritten;
     private DoubleAccumulator flushHashesStoreFileSizeMb;
@@ -111,6 +136,8 @@ public class MerkleDbStatistics {
     private IntegerGauge offHeapLongKeysIndexMb;
     /** Off-heap usage in MB of object keys store bucket index */
     private IntegerGauge offHeapObjectKeyBucketsIndexMb;
+    /** Off-heap usage in MB of object keys off-heap hash index */
+    private IntegerGauge offHeapObjectKeysIndexMb;
     /** Off-heap usage in MB of hashes list in RAM */
     private IntegerGauge offHeapHashesListMb;
     /** Total data source off-heap usage in MB */
@@ -177,6 +204,38 @@ public class MerkleDbStatistics {
                 metrics, DS_PREFIX + READS_PREFIX + "leaves_" + label, "Number of leaf reads, " + label);
         leafKeyReads = buildLongAccumulator(
                 metrics, DS_PREFIX + READS_PREFIX + "leafKeys_" + label, "Number of leaf key reads, " + label);
+        leafRecordCacheHits = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafCacheHits_" + label,
+                "Number of leaf records cache hits, " + label);
+        leafRecordCacheMisses = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafCacheMisses_" + label,
+                "Number of leaf records cache misses, " + label);
+        leafRecordCacheEvictions = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafCacheEvictions_" + label,
+                "Number of leaf records cache evictions, " + label);
+        mappedReads = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "mapped_" + label,
+                "Number of data item reads from memory-mapped files, " + label);
+        mappedReadFallbacks = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "mappedFallbacks_" + label,
+                "Number of data item reads from memory-mapped files using file channels, " + label);
+        bloomFilterAvoidedReads = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "bloomFilterAvoided_" + label,
+                "Number of leaf key reads avoided by the Bloom filter, " + label);
+        bloomFilterFalsePositives = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "bloomFilterFalsePositives_" + label,
+                "Number of leaf key reads for missing key hash codes not rejected by the Bloom filter, " + label);
+        bloomFilterFalsePositiveRate = metrics.getOrCreate(
+                new DoubleGauge.Config(STAT_CATEGORY, DS_PREFIX + READS_PREFIX + "bloomFilterFpRate_" + label)
+                        .withDescription("Observed false positive rate of the leaf keys Bloom filter, " + label)
+                        .withFormat(FloatFormats.FORMAT_9_6));
 
         // File counts and sizes
         hashesStoreFileCount = metrics.getOrCreate(
@@ -186,6 +245,10 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "hashesStoreFileSizeMb_" + label,
                 "File size, hashes store, " + label + ", Mb");
+        hashesStoreLiveDataPercent = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "hashesStoreLiveDataPercent_" + label,
+                "Estimated live data ratio, hashes store, " + label + ", percent");
         leavesStoreFileCount = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + FILES_PREFIX + "leavesStoreFileCount_" + label)
                         .withDescription("File count, leaf keys store, " + label));
@@ -193,6 +256,10 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "leavesStoreFileSizeMb_" + label,
                 "File size, leaf keys store, " + label + ", Mb");
+        leavesStoreLiveDataPercent = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leavesStoreLiveDataPercent_" + label,
+                "Estimated live data ratio, leaves store, " + label + ", percent");
         leafKeysStoreFileCount = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + FILES_PREFIX + "leafKeysStoreFileCount_" + label)
                         .withDescription("File count, leaves store, " + label));
@@ -200,10 +267,18 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "leafKeysStoreFileSizeMb_" + label,
                 "File size, leaves store, " + label + ", Mb");
+        leafKeysStoreLiveDataPercent = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leafKeysStoreLiveDataPercent_" + label,
+                "Estimated live data ratio, leaf keys store, " + label + ", percent");
         totalFileSizeMb = buildIntegerGauge(
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "totalSizeMb_" + label,
                 "Total file size, data source, " + label + ", Mb");
+        compactionDebtMb = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "compactionDebtMb_" + label,
+                "Total size of files waiting for compaction, data source, " + label + ", Mb");
 
         // Flushes
         flushHashesWritten = buildLongAccumulator(
@@ -294,6 +369,9 @@ public class MerkleDbStatistics {
         offHeapObjectKeyBucketsIndexMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "objectKeyBucketsIndexMb_" + label)
                         .withDescription("Off-heap usage, object leaf key buckets store index, " + label + ", Mb"));
+        offHeapObjectKeysIndexMb = metrics.getOrCreate(
+                new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "objectKeysIndexMb_" + label)
+                        .withDescription("Off-heap usage, object leaf keys off-heap hash index, " + label + ", Mb"));
         offHeapHashesListMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "hashesListMb_" + label)
                         .withDescription("Off-heap usage, hashes list, " + label + ", Mb"));
@@ -329,6 +407,93 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Increments {@link #leafRecordCacheHits} stat by 1
+     */
+    public void countLeafRecordCacheHits() {
+        if (leafRecordCacheHits != null) {
+            leafRecordCacheHits.update(1);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheMisses} stat by 1
+     */
+    public void countLeafRecordCacheMisses() {
+        if (leafRecordCacheMisses != null) {
+            leafRecordCacheMisses.update(1);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheEvictions} stat by 1
+     */
+    public void countLeafRecordCacheEvictions() {
+        if (leafRecordCacheEvictions != null) {
+            leafRecordCacheEvictions.update(1);
+        }
+    }
+
+    /**
+     * Increments {@link #mappedReads} stat by the given value
+     *
+     * @param value
+     * 		the number of data items read from mapped memory
+     */
+    public void countMappedReads(final long value) {
+        if (mappedReads != null) {
+            mappedReads.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #mappedReadFallbacks} stat by the given value
+     *
+     * @param value
+     * 		the number of data items read using file channels from mapped files
+     */
+    public void countMappedReadFallbacks(final long value) {
+        if (mappedReadFallbacks != null) {
+            mappedReadFallbacks.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #bloomFilterAvoidedReads} stat by the given value
+     *
+     * @param value
+     * 		the number of leaf key reads avoided by the Bloom filter
+     */
+    public void countBloomFilterAvoidedReads(final long value) {
+        if (bloomFilterAvoidedReads != null) {
+            bloomFilterAvoidedReads.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #bloomFilterFalsePositives} stat by the given value
+     *
+     * @param value
+     * 		the number of Bloom filter false positives
+     */
+    public void countBloomFilterFalsePositives(final long value) {
+        if (bloomFilterFalsePositives != null) {
+            bloomFilterFalsePositives.update(value);
+        }
+    }
+
+    /**
+     * Set the current value for the {@link #bloomFilterFalsePositiveRate} stat
+     *
+     * @param value
+     * 		the observed false positive rate, from 0.0 to 1.0
+     */
+    public void setBloomFilterFalsePositiveRate(final double value) {
+        if (bloomFilterFalsePositiveRate != null) {
+            bloomFilterFalsePositiveRate.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #hashesStoreFileCount} stat
      *
@@ -353,6 +518,18 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #hashesStoreLiveDataPercent} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setHashesStoreLiveDataPercent(final int value) {
+        if (hashesStoreLiveDataPercent != null) {
+            hashesStoreLiveDataPercent.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #leafKeysStoreFileCount} stat
      *
@@ -377,6 +554,18 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #leafKeysStoreLiveDataPercent} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setLeafKeysStoreLiveDataPercent(final int value) {
+        if (leafKeysStoreLiveDataPercent != null) {
+            leafKeysStoreLiveDataPercent.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #leavesStoreFileCount} stat
      *
@@ -401,6 +590,18 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #leavesStoreLiveDataPercent} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setLeavesStoreLiveDataPercent(final int value) {
+        if (leavesStoreLiveDataPercent != null) {
+            leavesStoreLiveDataPercent.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #totalFileSizeMb} stat
      *
@@ -413,6 +614,18 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #compactionDebtMb} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setCompactionDebtMb(final int value) {
+        if (compactionDebtMb != null) {
+            compactionDebtMb.set(value);
+        }
+    }
+
     public void countFlushHashesWritten(final long value) {
         if (flushHashesWritten != null) {
             flushHashesWritten.update(value);
@@ -632,6 +845,17 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #offHeapObjectKeysIndexMb} stat
+     *
+     * @param value the value to set
+     */
+    public void setOffHeapObjectKeysIndexMb(final int value) {
+        if (offHeapObjectKeysIndexMb != null) {
+            offHeapObjectKeysIndexMb.set(value);
+        }
+    }
+
     /**
      * Set the current value for {@link #offHeapHashesListMb} stat
      *
@@ -23,9 +23,11 @@ import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.LongSummaryStatistics;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntConsumer;
 
 /**
@@ -41,8 +43,19 @@ public class MerkleDbStatisticsUpdater {
             .withDescription("the number of MerkleDb instances that have been created but not" + " released")
             .withFormat("%d");
 
+    private static final double UNIT_FRACTION_PERCENT = 100.0;
+
     private final MerkleDbStatistics statistics;
 
+    /** Total number of data items read from mapped memory, as of the last stats update */
+    private final AtomicLong lastMappedReadsCount = new AtomicLong(0);
+    /** Total number of data items read using file channels from mapped files, as of the last stats update */
+    private final AtomicLong lastMappedReadFallbacksCount = new AtomicLong(0);
+    /** Number of leaf key reads avoided by the Bloom filter at the previous stats update */
+    private final AtomicLong lastBloomFilterAvoidedReadsCount = new AtomicLong(0);
+    /** Number of Bloom filter false positives at the previous stats update */
+    private final AtomicLong lastBloomFilterFalsePositivesCount = new AtomicLong(0);
+
     public MerkleDbStatisticsUpdater(@NonNull final MerkleDbConfig config, @NonNull final String tableName) {
         statistics = new MerkleDbStatistics(config, tableName);
     }
@@ -90,6 +103,8 @@ public class MerkleDbStatisticsUpdater {
             statistics.setHashesStoreFileCount((int) internalHashesFileSizeStats.getCount());
             final int fileSizeInMb = (int) (internalHashesFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setHashesStoreFileSizeMb(fileSizeInMb);
+            statistics.setHashesStoreLiveDataPercent(
+                    (int) (dataSource.getHashStoreDisk().getLiveDataRatio() * UNIT_FRACTION_PERCENT));
             return fileSizeInMb;
         }
         return 0;
@@ -106,6 +121,8 @@ public class MerkleDbStatisticsUpdater {
         statistics.setLeavesStoreFileCount((int) leafDataFileSizeStats.getCount());
         final int fileSizeInMb = (int) (leafDataFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
         statistics.setLeavesStoreFileSizeMb(fileSizeInMb);
+        statistics.setLeavesStoreLiveDataPercent(
+                (int) (dataSource.getPathToKeyValue().getLiveDataRatio() * UNIT_FRACTION_PERCENT));
         return fileSizeInMb;
     }
 
@@ -122,6 +139,8 @@ public class MerkleDbStatisticsUpdater {
             statistics.setLeafKeysStoreFileCount((int) leafKeyFileSizeStats.getCount());
             final int fileSizeInMb = (int) (leafKeyFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setLeafKeysStoreFileSizeMb(fileSizeInMb);
+            statistics.setLeafKeysStoreLiveDataPercent(
+                    (int) (dataSource.getObjectKeyToPath().getLiveDataRatio() * UNIT_FRACTION_PERCENT));
             return fileSizeInMb;
         }
         return 0;
@@ -132,6 +151,54 @@ public class MerkleDbStatisticsUpdater {
         statistics.setTotalFileSizeMb(updateHashesStoreFileStats(dataSource)
                 + updateLeavesStoreFileStats(dataSource)
                 + updateLeafKeysStoreFileStats(dataSource));
+        updateMappedReadsStats(dataSource);
+        updateBloomFilterStats(dataSource);
+        statistics.setCompactionDebtMb(
+                (int) (dataSource.getCompactionCoordinator().getCompactionDebtBytes() * BYTES_TO_MEBIBYTES));
+    }
+
+    /**
+     * Updates memory-mapped reads stats with the number of reads from all stores since the
+     * previous update.
+     */
+    private void updateMappedReadsStats(final MerkleDbDataSource<?, ?> dataSource) {
+        long mappedReads = dataSource.getPathToKeyValue().getMappedReadsCount();
+        long mappedReadFallbacks = dataSource.getPathToKeyValue().getMappedReadFallbacksCount();
+        if (dataSource.getHashStoreDisk() != null) {
+            mappedReads += dataSource.getHashStoreDisk().getMappedReadsCount();
+            mappedReadFallbacks += dataSource.getHashStoreDisk().getMappedReadFallbacksCount();
+        }
+        if (dataSource.getObjectKeyToPath() != null) {
+            mappedReads += dataSource.getObjectKeyToPath().getMappedReadsCount();
+            mappedReadFallbacks += dataSource.getObjectKeyToPath().getMappedReadFallbacksCount();
+        }
+        statistics.countMappedReads(Math.max(0, mappedReads - lastMappedReadsCount.getAndSet(mappedReads)));
+        statistics.countMappedReadFallbacks(
+                Math.max(0, mappedReadFallbacks - lastMappedReadFallbacksCount.getAndSet(mappedReadFallbacks)));
+    }
+
+    /**
+     * Updates leaf keys Bloom filter stats with the number of avoided reads and false positives
+     * since the previous update. The false positive rate is the share of lookups for key hash
+     * codes missing in the map that were not rejected by the filter. Lookups of missing keys, which
+     * share a hash code with a key in the map, can't be rejected by the filter and aren't counted.
+     */
+    private void updateBloomFilterStats(final MerkleDbDataSource<?, ?> dataSource) {
+        final HalfDiskHashMap<?> keyToPath = dataSource.getObjectKeyToPath();
+        if ((keyToPath == null) || !keyToPath.isBloomFilterEnabled()) {
+            return;
+        }
+        final long avoided = keyToPath.getBloomFilterAvoidedReadsCount();
+        final long falsePositives = keyToPath.getBloomFilterFalsePositivesCount();
+        final long avoidedDelta = Math.max(0, avoided - lastBloomFilterAvoidedReadsCount.getAndSet(avoided));
+        final long falsePositivesDelta =
+                Math.max(0, falsePositives - lastBloomFilterFalsePositivesCount.getAndSet(falsePositives));
+        statistics.countBloomFilterAvoidedReads(avoidedDelta);
+        statistics.countBloomFilterFalsePositives(falsePositivesDelta);
+        if (avoidedDelta + falsePositivesDelta > 0) {
+            statistics.setBloomFilterFalsePositiveRate(
+                    (double) falsePositivesDelta / (avoidedDelta + falsePositivesDelta));
+        }
     }
 
     /**
@@ -146,6 +213,10 @@ public class MerkleDbStatisticsUpdater {
             totalOffHeapMemoryConsumption += updateOffHeapStat(
                     (OffHeapUser) dataSource.getObjectKeyToPath(), statistics::setOffHeapObjectKeyBucketsIndexMb);
         }
+        if (dataSource.getOffHeapKeyToPath() != null) {
+            totalOffHeapMemoryConsumption +=
+                    updateOffHeapStat(dataSource.getOffHeapKeyToPath(), statistics::setOffHeapObjectKeysIndexMb);
+        }
         if (dataSource.getHashStoreRam() != null) {
             totalOffHeapMemoryConsumption +=
                     updateOffHeapStat(dataSource.getHashStoreRam(), statistics::setOffHeapHashesListMb);
@@ -168,6 +239,21 @@ public class MerkleDbStatisticsUpdater {
         statistics.countHashReads();
     }
 
+    /** Updates statistics with number of leaf records cache hits. */
+    void countLeafRecordCacheHits() {
+        statistics.countLeafRecordCacheHits();
+    }
+
+    /** Updates statistics with number of leaf records cache misses. */
+    void countLeafRecordCacheMisses() {
+        statistics.countLeafRecordCacheMisses();
+    }
+
+    /** Updates statistics with number of leaf records cache evictions. */
+    void countLeafRecordCacheEvictions() {
+        statistics.countLeafRecordCacheEvictions();
+    }
+
     /** Increments count of leaves written during a flush*/
     void countFlushLeavesWritten() {
         statistics.countFlushLeavesWritten(1);
@@ -31,6 +31,7 @@ import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.serialize.KeyIndexType;
 import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.merkledb.serialize.ValueSerializer;
 import com.swirlds.virtualmap.VirtualKey;
@@ -53,8 +54,15 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
 
     private static final long CLASS_ID = 0xbb41e7eb9fcad23cL;
 
+    /** Max supported hash chunk height, must match max value of {@link MerkleDbConfig#hashChunkHeight()} */
+    public static final int MAX_HASH_CHUNK_HEIGHT = 8;
+
     private static final class ClassVersion {
         public static final int ORIGINAL = 1;
+        public static final int LEAF_COMPRESSION = 2;
+        public static final int OFF_HEAP_KEY_INDEX = 3;
+        public static final int HASH_CHUNKS = 4;
+        public static final int ORDERED_KEY_INDEX = 5;
     }
 
     private static final FieldDefinition FIELD_TABLECONFIG_HASHVERSION =
@@ -75,6 +83,14 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
             new FieldDefinition("maxNumberOfKeys", FieldType.UINT64, false, true, false, 8);
     private static final FieldDefinition FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD =
             new FieldDefinition("hashesRamToDiskThreshold", FieldType.UINT64, false, true, false, 9);
+    private static final FieldDefinition FIELD_TABLECONFIG_COMPRESSLEAVES =
+            new FieldDefinition("compressLeaves", FieldType.UINT32, false, true, false, 10);
+    private static final FieldDefinition FIELD_TABLECONFIG_OFFHEAPKEYINDEX =
+            new FieldDefinition("offHeapKeyIndex", FieldType.UINT32, false, true, false, 11);
+    private static final FieldDefinition FIELD_TABLECONFIG_HASHCHUNKHEIGHT =
+            new FieldDefinition("hashChunkHeight", FieldType.UINT32, false, true, false, 12);
+    private static final FieldDefinition FIELD_TABLECONFIG_ORDEREDKEYINDEX =
+            new FieldDefinition("orderedKeyIndex", FieldType.UINT32, false, true, false, 13);
 
     /**
      * Hash version.
@@ -124,6 +140,31 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
      */
     private boolean preferDiskBasedIndices = false;
 
+    /**
+     * Indicates whether to compress leaf records in data files. Compression saves disk space and
+     * disk I/O at the cost of some CPU time on flushes, compactions, and leaf reads from disk.
+     */
+    private boolean compressLeaves = false;
+
+    /**
+     * Indicates whether to use a fully in-memory off-heap hash index for keys, rather than a half
+     * disk hash map. Only applicable to keys of a fixed serialized size. See {@link
+     * #getKeyIndexType()} for details.
+     */
+    private boolean offHeapKeyIndex = false;
+
+    /**
+     * Height of sub-tree chunks to store internal hashes on disk. If zero, every internal hash is
+     * stored on disk as a separate data item. See {@link #getHashChunkHeight()} for details.
+     */
+    private int hashChunkHeight = 0;
+
+    /**
+     * Indicates whether to maintain an on-disk index of keys ordered by their serialized bytes, in
+     * addition to the key to path index. See {@link #isOrderedKeyIndex()} for details.
+     */
+    private boolean orderedKeyIndex = false;
+
     /**
      * Creates a new virtual table config with default values. This constructor should only be used
      * for deserialization.
@@ -170,6 +211,11 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
         maxNumberOfKeys = dbConfig.maxNumOfKeys();
         hashesRamToDiskThreshold = dbConfig.hashesRamToDiskThreshold();
+        final int keySize = keySerializer.getSerializedSize();
+        offHeapKeyIndex = (keySize != KeySerializer.VARIABLE_DATA_SIZE)
+                && (keySize <= dbConfig.offHeapKeyIndexMaxKeySize())
+                && (keySerializer.getIndexType() == KeyIndexType.GENERIC);
+        hashChunkHeight = dbConfig.hashChunkHeight();
     }
 
     public MerkleDbTableConfig(final ReadableSequentialData in) {
@@ -183,6 +229,10 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         keyVersion = 0;
         valueVersion = 0;
         preferDiskBasedIndices = false;
+        compressLeaves = false;
+        offHeapKeyIndex = false;
+        hashChunkHeight = 0;
+        orderedKeyIndex = false;
         maxNumberOfKeys = 0;
         hashesRamToDiskThreshold = 0;
 
@@ -210,6 +260,14 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
                 maxNumberOfKeys = in.readVarLong(false);
             } else if (fieldNum == FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD.number()) {
                 hashesRamToDiskThreshold = in.readVarLong(false);
+            } else if (fieldNum == FIELD_TABLECONFIG_COMPRESSLEAVES.number()) {
+                compressLeaves = in.readVarInt(false) != 0;
+            } else if (fieldNum == FIELD_TABLECONFIG_OFFHEAPKEYINDEX.number()) {
+                offHeapKeyIndex = in.readVarInt(false) != 0;
+            } else if (fieldNum == FIELD_TABLECONFIG_HASHCHUNKHEIGHT.number()) {
+                hashChunkHeight = in.readVarInt(false);
+            } else if (fieldNum == FIELD_TABLECONFIG_ORDEREDKEYINDEX.number()) {
+                orderedKeyIndex = in.readVarInt(false) != 0;
             } else {
                 throw new IllegalArgumentException("Unknown table config field: " + fieldNum);
             }
@@ -262,6 +320,26 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
                     FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
             size += ProtoWriterTools.sizeOfVarInt64(hashesRamToDiskThreshold);
         }
+        if (compressLeaves) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_COMPRESSLEAVES, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
+        if (offHeapKeyIndex) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_OFFHEAPKEYINDEX, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
+        if (hashChunkHeight != 0) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_HASHCHUNKHEIGHT, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(hashChunkHeight);
+        }
+        if (orderedKeyIndex) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_TABLECONFIG_ORDEREDKEYINDEX, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
         return size;
     }
 
@@ -295,6 +373,22 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
             ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD);
             out.writeVarLong(hashesRamToDiskThreshold, false);
         }
+        if (compressLeaves) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_COMPRESSLEAVES);
+            out.writeVarInt(1, false);
+        }
+        if (offHeapKeyIndex) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_OFFHEAPKEYINDEX);
+            out.writeVarInt(1, false);
+        }
+        if (hashChunkHeight != 0) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_HASHCHUNKHEIGHT);
+            out.writeVarInt(hashChunkHeight, false);
+        }
+        if (orderedKeyIndex) {
+            ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_ORDEREDKEYINDEX);
+            out.writeVarInt(1, false);
+        }
     }
 
     /**
@@ -433,6 +527,137 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         return this;
     }
 
+    /**
+     * Whether leaf records are compressed in data files.
+     *
+     * @return
+     *      Whether leaf records are compressed
+     */
+    public boolean isCompressLeaves() {
+        return compressLeaves;
+    }
+
+    /**
+     * Specifies whether leaf records are to be compressed in data files. The setting only affects
+     * new data files. Existing files are read as is and rewritten using the new setting, when
+     * compacted.
+     *
+     * @param compressLeaves
+     *      Whether leaf records are compressed
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig<K, V> compressLeaves(final boolean compressLeaves) {
+        this.compressLeaves = compressLeaves;
+        return this;
+    }
+
+    /**
+     * Whether a fully in-memory off-heap hash index is to be used for keys. For new table configs,
+     * it's enabled automatically, if the key serializer reports a fixed serialized key size, which
+     * doesn't exceed {@link MerkleDbConfig#offHeapKeyIndexMaxKeySize()}.
+     *
+     * @return
+     *      Whether an off-heap key index is used
+     */
+    public boolean isOffHeapKeyIndex() {
+        return offHeapKeyIndex;
+    }
+
+    /**
+     * Specifies whether a fully in-memory off-heap hash index is to be used for keys. The index
+     * can only be enabled for keys of a fixed serialized size.
+     *
+     * @param offHeapKeyIndex
+     *      Whether an off-heap key index is used
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig<K, V> offHeapKeyIndex(final boolean offHeapKeyIndex) {
+        if (offHeapKeyIndex && keySerializer.isVariableSize()) {
+            throw new IllegalArgumentException("Off-heap key index can only be used for fixed size keys");
+        }
+        this.offHeapKeyIndex = offHeapKeyIndex;
+        return this;
+    }
+
+    /**
+     * Height of sub-tree chunks to store internal hashes on disk. If greater than zero, internal
+     * hashes stored on disk are grouped into chunks. A chunk of height {@code h} contains hashes
+     * of all nodes in a sub-tree of height {@code h}, and it's read and written as a single data
+     * item. Chunks are aligned to ranks {@code 0, h, 2h}, and so on. If zero, every internal hash
+     * is stored on disk as a separate data item.
+     *
+     * @return
+     *      Hash chunk height, or zero if hash chunks aren't used
+     */
+    public int getHashChunkHeight() {
+        return hashChunkHeight;
+    }
+
+    /**
+     * Specifies the height of sub-tree chunks to store internal hashes on disk. This setting
+     * defines the format of internal hash data files, so it must not be changed for existing
+     * tables.
+     *
+     * @param hashChunkHeight
+     *      Hash chunk height, or zero to store every hash as a separate data item
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig<K, V> hashChunkHeight(final int hashChunkHeight) {
+        if ((hashChunkHeight < 0) || (hashChunkHeight > MAX_HASH_CHUNK_HEIGHT)) {
+            throw new IllegalArgumentException("Hash chunk height must be between 0 and " + MAX_HASH_CHUNK_HEIGHT);
+        }
+        this.hashChunkHeight = hashChunkHeight;
+        return this;
+    }
+
+    /**
+     * Whether an on-disk index of keys ordered by their serialized bytes is maintained for this
+     * table. The index is used to iterate over keys in a range of serialized bytes, for example,
+     * over all keys with a given prefix, without iterating over the whole table. The index is
+     * updated on every flush, so it adds some overhead to flushes and disk space usage.
+     *
+     * @return
+     *      Whether an ordered key index is maintained
+     */
+    public boolean isOrderedKeyIndex() {
+        return orderedKeyIndex;
+    }
+
+    /**
+     * Specifies whether an on-disk index of keys ordered by their serialized bytes is to be
+     * maintained for this table. If enabled for an existing table, the index is built from leaf
+     * data files when the table is loaded.
+     *
+     * @param orderedKeyIndex
+     *      Whether an ordered key index is maintained
+     * @return
+     *      This table config object
+     */
+    public MerkleDbTableConfig<K, V> orderedKeyIndex(final boolean orderedKeyIndex) {
+        this.orderedKeyIndex = orderedKeyIndex;
+        return this;
+    }
+
+    /**
+     * The type of key to path index to use for this table. If the key serializer requests
+     * {@link KeyIndexType#GENERIC} index, and an off-heap key index is enabled for this table,
+     * {@link KeyIndexType#OFF_HEAP_HASH} is used. Disk based indices preference takes precedence
+     * over the off-heap key index.
+     *
+     * @return
+     *      Key index type
+     */
+    public KeyIndexType getKeyIndexType() {
+        final KeyIndexType keyIndexType = keySerializer.getIndexType();
+        if ((keyIndexType == KeyIndexType.GENERIC) && offHeapKeyIndex && !preferDiskBasedIndices) {
+            return KeyIndexType.OFF_HEAP_HASH;
+        }
+        return keyIndexType;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -446,7 +671,7 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
      */
     @Override
     public int getVersion() {
-        return ClassVersion.ORIGINAL;
+        return ClassVersion.ORDERED_KEY_INDEX;
     }
 
     /**
@@ -463,6 +688,10 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         out.writeSerializable(keySerializer, true);
         out.writeShort(valueVersion);
         out.writeSerializable(valueSerializer, true);
+        out.writeBoolean(compressLeaves);
+        out.writeBoolean(offHeapKeyIndex);
+        out.writeInt(hashChunkHeight);
+        out.writeBoolean(orderedKeyIndex);
     }
 
     /**
@@ -479,6 +708,18 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         keySerializer = in.readSerializable();
         valueVersion = in.readShort();
         valueSerializer = in.readSerializable();
+        if (version >= ClassVersion.LEAF_COMPRESSION) {
+            compressLeaves = in.readBoolean();
+        }
+        if (version >= ClassVersion.OFF_HEAP_KEY_INDEX) {
+            offHeapKeyIndex = in.readBoolean();
+        }
+        if (version >= ClassVersion.HASH_CHUNKS) {
+            hashChunkHeight = in.readInt();
+        }
+        if (version >= ClassVersion.ORDERED_KEY_INDEX) {
+            orderedKeyIndex = in.readBoolean();
+        }
     }
 
     /**
@@ -490,6 +731,10 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
         final MerkleDbTableConfig<K, V> copy = new MerkleDbTableConfig<>(
                 hashVersion, hashType, keyVersion, keySerializer, valueVersion, valueSerializer);
         copy.preferDiskIndices(preferDiskBasedIndices);
+        copy.compressLeaves(compressLeaves);
+        copy.offHeapKeyIndex(offHeapKeyIndex);
+        copy.hashChunkHeight(hashChunkHeight);
+        copy.orderedKeyIndex(orderedKeyIndex);
         copy.hashesRamToDiskThreshold(hashesRamToDiskThreshold);
         copy.maxNumberOfKeys(maxNumberOfKeys);
         return copy;
@@ -508,6 +753,10 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
                 valueVersion,
                 valueSerializer,
                 preferDiskBasedIndices,
+                compressLeaves,
+                offHeapKeyIndex,
+                hashChunkHeight,
+                orderedKeyIndex,
                 maxNumberOfKeys,
                 hashesRamToDiskThreshold);
     }
@@ -521,6 +770,10 @@ public final class MerkleDbTableConfig<K extends VirtualKey, V extends VirtualVa
             return false;
         }
         return (preferDiskBasedIndices == other.preferDiskBasedIndices)
+                && (compressLeaves == other.compressLeaves)
+                && (offHeapKeyIndex == other.offHeapKeyIndex)
+                && (hashChunkHeight == other.hashChunkHeight)
+                && (orderedKeyIndex == other.orderedKeyIndex)
                 && (maxNumberOfKeys == other.maxNumberOfKeys)
                 && (hashesRamToDiskThreshold == other.hashesRamToDiskThreshold)
                 && (hashVersion == other.hashVersion)
@@ -29,12 +29,17 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.LongStream;
 import java.util.stream.StreamSupport;
@@ -139,6 +144,34 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     protected final long reservedBufferLength;
 
+    /**
+     * Chunk dirty flags, one per chunk. A flag is set, when the corresponding chunk is modified,
+     * and cleared, when the chunk is written to a file in {@link #writeToFile(Path)} or {@link
+     * #writeToFileIncrementally(Path)}. Flags are set after chunks are modified, and cleared
+     * before chunks are read for writing, so a chunk modified while it's being written is always
+     * rewritten by the next incremental write.
+     */
+    private final AtomicIntegerArray dirtyChunks;
+
+    /**
+     * The last file this list was written to or loaded from, or null if there is no such file. Used
+     * by {@link #writeToFileIncrementally(Path)} to copy chunks, which haven't changed since then.
+     */
+    private final AtomicReference<SnapshotFile> lastSnapshotFile = new AtomicReference<>();
+
+    /**
+     * A file written by {@link #writeToFile(Path)} or loaded in the constructor.
+     *
+     * @param path the file path
+     * @param headerSize the size of the file header, in bytes
+     * @param minValidIndex the min valid index stored in the file header
+     * @param size the list size, the file contains longs from minValidIndex to size - 1
+     * @param fileSize the file size, in bytes, to check the file hasn't been changed
+     * @param lastModified the file last modified time, to check the file hasn't been changed
+     */
+    private record SnapshotFile(
+            Path path, int headerSize, long minValidIndex, long size, long fileSize, FileTime lastModified) {}
+
     /**
      * Construct a new LongList with the specified number of longs per chunk and maximum number of
      * longs.
@@ -166,6 +199,7 @@ public abstract class AbstractLongList<C> implements LongList {
         // multiplyExact throws exception if we overflow and int
         memoryChunkSize = Math.multiplyExact(numLongsPerChunk, Long.BYTES);
         this.reservedBufferLength = reservedBufferLength;
+        dirtyChunks = new AtomicIntegerArray(chunkNum);
     }
 
     /**
@@ -188,6 +222,7 @@ public abstract class AbstractLongList<C> implements LongList {
             maxLongs = DEFAULT_MAX_LONGS_TO_STORE;
             currentFileHeaderSize = FILE_HEADER_SIZE_V2;
             chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
+            dirtyChunks = new AtomicIntegerArray(chunkList.length());
             onEmptyOrAbsentSourceFile(path);
         } else {
             try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
@@ -226,8 +261,19 @@ public abstract class AbstractLongList<C> implements LongList {
                     size.set((fileChannel.size() - FILE_HEADER_SIZE_V1) / Long.BYTES);
                 }
                 chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
+                dirtyChunks = new AtomicIntegerArray(chunkList.length());
                 readBodyFromFileChannelOnInit(file.getName(), fileChannel);
             }
+            // The list content is the same as in the file, so unchanged chunks can be copied from
+            // the file on the next incremental write
+            lastSnapshotFile.set(
+                    new SnapshotFile(
+                            path,
+                            currentFileHeaderSize,
+                            minValidIndex.get(),
+                            size.get(),
+                            Files.size(path),
+                            Files.getLastModifiedTime(path)));
         }
     }
 
@@ -306,6 +352,7 @@ public abstract class AbstractLongList<C> implements LongList {
         final C chunk = createOrGetChunk(index);
         final int subIndex = toIntExact(index % numLongsPerChunk);
         putToChunk(chunk, subIndex, value);
+        markChunkDirty(toIntExact(index / numLongsPerChunk));
     }
 
     /**
@@ -341,6 +388,7 @@ public abstract class AbstractLongList<C> implements LongList {
         final int subIndex = toIntExact(index % numLongsPerChunk);
         boolean result = putIfEqual(chunk, subIndex, oldValue, newValue);
         if (result) {
+            markChunkDirty(chunkIndex);
             // update the size if necessary
             size.getAndUpdate(oldSize -> index >= oldSize ? (index + 1) : oldSize);
         }
@@ -359,6 +407,25 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     protected abstract boolean putIfEqual(C chunk, int subIndex, long oldValue, long newValue);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean removeIfEqual(final long index, final long oldValue) {
+        checkIndex(index);
+        final int chunkIndex = toIntExact(index / numLongsPerChunk);
+        final C chunk = chunkList.get(chunkIndex);
+        if (chunk == null) {
+            return false;
+        }
+        final int subIndex = toIntExact(index % numLongsPerChunk);
+        final boolean result = putIfEqual(chunk, subIndex, oldValue, IMPERMISSIBLE_VALUE);
+        if (result) {
+            markChunkDirty(chunkIndex);
+        }
+        return result;
+    }
+
     /**
      * Implements CASable.get(index)
      *
@@ -413,13 +480,146 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     @Override
     public void writeToFile(final Path file) throws IOException {
+        final long headerMinValidIndex;
         try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
             // write header
-            writeHeader(fc);
+            headerMinValidIndex = writeHeaderImpl(fc);
+            // all chunks are about to be written, clear dirty flags before reading chunk data
+            for (int i = 0; i < dirtyChunks.length(); i++) {
+                dirtyChunks.set(i, 0);
+            }
             // write data
             writeLongsData(fc);
             fc.force(true);
         }
+        recordSnapshotFile(file, headerMinValidIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If this list was written to (or loaded from) a file before, and the file hasn't changed
+     * since then, chunks that haven't been modified since are copied from that file using {@link
+     * FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}. This avoids
+     * reading the chunks from memory or from the list's own storage, and on file systems with
+     * copy offload or reflinks the copy is done by the file system. Only modified chunks are
+     * written from the list. The resulting file has exactly the same format as a file written by
+     * {@link #writeToFile(Path)}, so no changes are needed to load it.
+     *
+     * <p>If there is no such previous file, or it has been changed or deleted, all data is
+     * written from the list.
+     */
+    @Override
+    public void writeToFileIncrementally(final Path file) throws IOException {
+        final SnapshotFile previous = lastSnapshotFile.get();
+        if ((previous == null) || !isUnchanged(previous)) {
+            writeToFile(file);
+            return;
+        }
+        final long headerMinValidIndex;
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                final FileChannel previousFc = FileChannel.open(previous.path(), StandardOpenOption.READ)) {
+            headerMinValidIndex = writeHeaderImpl(fc);
+            final long currentSize = size();
+            if (currentSize > headerMinValidIndex) {
+                final int firstChunkIndex = toIntExact(headerMinValidIndex / numLongsPerChunk);
+                final int lastChunkIndex = toIntExact((currentSize - 1) / numLongsPerChunk);
+                for (int i = firstChunkIndex; i <= lastChunkIndex; i++) {
+                    final long chunkStart = (long) i * numLongsPerChunk;
+                    final long from = max(headerMinValidIndex, chunkStart);
+                    final long to = min(currentSize, chunkStart + numLongsPerChunk);
+                    final boolean dirty = dirtyChunks.getAndSet(i, 0) != 0;
+                    if (!dirty && (from >= previous.minValidIndex()) && (to <= previous.size())) {
+                        final long previousOffset =
+                                previous.headerSize() + (from - previous.minValidIndex()) * Long.BYTES;
+                        MerkleDbFileUtils.completelyTransferTo(
+                                previousFc, previousOffset, (to - from) * Long.BYTES, fc);
+                    } else {
+                        final int fromSubIndex = toIntExact(from - chunkStart);
+                        final int toSubIndex = toIntExact(to - chunkStart);
+                        writeChunkData(fc, chunkList.get(i), fromSubIndex, toSubIndex);
+                    }
+                }
+            }
+            fc.force(true);
+        }
+        recordSnapshotFile(file, headerMinValidIndex);
+    }
+
+    /**
+     * Marks a chunk as modified. Must be called after the chunk is modified.
+     *
+     * @param chunkIndex the chunk index
+     */
+    private void markChunkDirty(final int chunkIndex) {
+        // Avoid volatile writes, if the chunk is already dirty
+        if (dirtyChunks.get(chunkIndex) == 0) {
+            dirtyChunks.set(chunkIndex, 1);
+        }
+    }
+
+    /**
+     * Stores information about a file this list has just been written to, so unchanged chunks
+     * can be copied from it on the next incremental write.
+     *
+     * @param file the file
+     * @param headerMinValidIndex min valid index written to the file header
+     * @throws IOException if the file attributes can't be read
+     */
+    private void recordSnapshotFile(final Path file, final long headerMinValidIndex) throws IOException {
+        final long fileSize = Files.size(file);
+        final long fileListSize = headerMinValidIndex + (fileSize - currentFileHeaderSize) / Long.BYTES;
+        lastSnapshotFile.set(new SnapshotFile(
+                file,
+                currentFileHeaderSize,
+                headerMinValidIndex,
+                fileListSize,
+                fileSize,
+                Files.getLastModifiedTime(file)));
+    }
+
+    /**
+     * Checks that a previously written file still exists and hasn't been changed since.
+     *
+     * @param snapshotFile the previously written file
+     * @return true if the file can be used to copy unchanged chunks from
+     */
+    private static boolean isUnchanged(final SnapshotFile snapshotFile) {
+        final Path path = snapshotFile.path();
+        try {
+            return Files.exists(path)
+                    && (Files.size(path) == snapshotFile.fileSize())
+                    && Files.getLastModifiedTime(path).equals(snapshotFile.lastModified());
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes longs from a chunk to the given file channel, at the channel's current position.
+     * Implementations should override this method, if chunk data can be written more efficiently
+     * than long by long.
+     *
+     * @param fc the file channel to write to
+     * @param chunk the chunk to write, may be null. If null, zeroes are written
+     * @param fromSubIndex the first index in the chunk to write, inclusive
+     * @param toSubIndex the last index in the chunk to write, exclusive
+     * @throws IOException if there was a problem writing longs
+     */
+    protected void writeChunkData(final FileChannel fc, final C chunk, final int fromSubIndex, final int toSubIndex)
+            throws IOException {
+        final int bufferLongs = min(toSubIndex - fromSubIndex, 64 * 1024);
+        final ByteBuffer buf = ByteBuffer.allocate(bufferLongs * Long.BYTES).order(ByteOrder.nativeOrder());
+        for (int i = fromSubIndex; i < toSubIndex; i++) {
+            if (!buf.hasRemaining()) {
+                buf.flip();
+                MerkleDbFileUtils.completelyWrite(fc, buf);
+                buf.clear();
+            }
+            buf.putLong(chunk != null ? lookupInChunk(chunk, i) : IMPERMISSIBLE_VALUE);
+        }
+        buf.flip();
+        MerkleDbFileUtils.completelyWrite(fc, buf);
     }
 
     /**
@@ -429,16 +629,29 @@ public abstract class AbstractLongList<C> implements LongList {
      * @throws IOException If there was a problem writing header
      */
     protected final void writeHeader(final FileChannel fc) throws IOException {
+        writeHeaderImpl(fc);
+    }
+
+    /**
+     * Write or rewrite header in file
+     *
+     * @param fc File channel on the file to write to
+     * @return min valid index written to the header
+     * @throws IOException If there was a problem writing header
+     */
+    private long writeHeaderImpl(final FileChannel fc) throws IOException {
+        final long headerMinValidIndex = minValidIndex.get();
         final ByteBuffer headerBuffer = ByteBuffer.allocate(currentFileHeaderSize);
         headerBuffer.rewind();
         headerBuffer.putInt(CURRENT_FILE_FORMAT_VERSION);
         headerBuffer.putInt(getNumLongsPerChunk());
         headerBuffer.putLong(maxLongs);
-        headerBuffer.putLong(minValidIndex.get());
+        headerBuffer.putLong(headerMinValidIndex);
         headerBuffer.flip();
         // always write at start of file
         MerkleDbFileUtils.completelyWrite(fc, headerBuffer, 0);
         fc.position(currentFileHeaderSize);
+        return headerMinValidIndex;
     }
 
     /**
@@ -515,6 +728,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 releaseChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -524,6 +738,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfElementsToCleanUp > 0) {
             partialChunkCleanup(chunk, true, numberOfElementsToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -531,6 +746,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, true, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
@@ -552,6 +768,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 releaseChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -561,6 +778,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfEntriesToCleanUp > 0) {
             partialChunkCleanup(chunk, false, numberOfEntriesToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -568,6 +786,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, false, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
@@ -663,6 +882,7 @@ public abstract class AbstractLongList<C> implements LongList {
         for (int i = 0; i < chunkList.length(); i++) {
             chunkList.set(i, null);
         }
+        lastSnapshotFile.set(null);
     }
 
     /**
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import com.swirlds.common.utility.NonCryptographicHashing;
+import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An off-heap blocked Bloom filter. The filter is split into 512-bit (cache line size) blocks. All
+ * bits for a single hash are set in a single block, so every add or lookup touches one cache line
+ * only, at the cost of a slightly higher false positive rate compared to a classic Bloom filter of
+ * the same size.
+ *
+ * <p>The filter doesn't store elements, it works with element hashes. Two elements with the same
+ * hash are indistinguishable. Elements can't be removed from the filter. If elements are removed
+ * from the underlying set, the filter has to be rebuilt from scratch to get rid of false positives
+ * caused by removed elements.
+ *
+ * <p>Elements may be added from multiple threads, and there can be multiple readers while writing
+ * is happening. Bits are set atomically with release semantics and read with acquire semantics.
+ */
+public final class BlockedBloomFilter implements OffHeapUser {
+
+    /** The version number for format of filter files */
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    /** Filter file header: version (int), number of hashes (int), number of blocks (long), added count (long) */
+    private static final int FILE_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    /** Bits per block */
+    private static final int BLOCK_BITS = 512;
+
+    /** Bytes per block */
+    private static final int BLOCK_BYTES = BLOCK_BITS / Byte.SIZE;
+
+    /** Max number of blocks in a single off-heap buffer */
+    private static final int BLOCKS_PER_CHUNK = (1 << 30) / BLOCK_BYTES;
+
+    /** Used to read and write filter longs with acquire / release semantics */
+    private static final VarHandle LONG_HANDLE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Number of bits set in a block per element */
+    private final int numHashes;
+
+    /** Total number of blocks */
+    private final long numBlocks;
+
+    /** Off-heap buffers with filter blocks */
+    private final ByteBuffer[] chunks;
+
+    /** Number of elements added to this filter */
+    private final AtomicLong addedCount = new AtomicLong();
+
+    /**
+     * Creates a new empty filter.
+     *
+     * @param expectedElements the expected number of elements in the filter, must be positive
+     * @param bitsPerElement the number of bits per element, must be positive. Higher values
+     *      result in lower false positive rates. For example, 10 bits per element give about 1%
+     *      false positives, when the filter is filled with the expected number of elements
+     */
+    public BlockedBloomFilter(final long expectedElements, final int bitsPerElement) {
+        if (expectedElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements must be positive: " + expectedElements);
+        }
+        if (bitsPerElement <= 0) {
+            throw new IllegalArgumentException("Bits per element must be positive: " + bitsPerElement);
+        }
+        // Optimal number of hashes is bits per element * ln(2)
+        numHashes = Math.max(1, Math.min(16, (int) Math.round(bitsPerElement * Math.log(2))));
+        numBlocks = Math.max(1, Math.multiplyExact(expectedElements, bitsPerElement) / BLOCK_BITS);
+        chunks = allocateChunks(numBlocks);
+    }
+
+    /**
+     * Creates a new filter and loads its content from a file written by {@link #writeToFile(Path)}.
+     *
+     * @param file the file to load the filter from
+     * @throws IOException if the file can't be read or is corrupted
+     */
+    public BlockedBloomFilter(final Path file) throws IOException {
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            if (MerkleDbFileUtils.completelyRead(fc, header) != FILE_HEADER_SIZE) {
+                throw new IOException("Corrupted Bloom filter file: " + file);
+            }
+            header.flip();
+            final int version = header.getInt();
+            if (version != FILE_FORMAT_VERSION) {
+                throw new IOException("Unsupported Bloom filter file version: " + version);
+            }
+            numHashes = header.getInt();
+            numBlocks = header.getLong();
+            addedCount.set(header.getLong());
+            if ((numHashes <= 0) || (numBlocks <= 0) || (fc.size() != FILE_HEADER_SIZE + numBlocks * BLOCK_BYTES)) {
+                throw new IOException("Corrupted Bloom filter file: " + file);
+            }
+            chunks = allocateChunks(numBlocks);
+            for (final ByteBuffer chunk : chunks) {
+                chunk.clear();
+                MerkleDbFileUtils.completelyRead(fc, chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds an element hash to this filter. This method is thread safe.
+     *
+     * @param hash the element hash
+     */
+    public void add(final long hash) {
+        final long h = NonCryptographicHashing.hash64(hash);
+        final ByteBuffer chunk = chunk(h);
+        final int blockOffset = blockOffset(h);
+        // Bit positions in the block are derived from a different mix of the hash than the block
+        // index, to make them independent
+        final long bitsHash = bitsHash(h);
+        int bits = (int) bitsHash;
+        final int step = (int) (bitsHash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            final int bit = bits & (BLOCK_BITS - 1);
+            final int offset = blockOffset + (bit >>> 6) * Long.BYTES;
+            final long mask = 1L << (bit & 63);
+            final long current = (long) LONG_HANDLE.getAcquire(chunk, offset);
+            if ((current & mask) == 0) {
+                LONG_HANDLE.getAndBitwiseOrRelease(chunk, offset, mask);
+            }
+            bits += step;
+        }
+        addedCount.incrementAndGet();
+    }
+
+    /**
+     * Checks whether an element with the given hash may be in this filter. If this method returns
+     * false, the element is definitely not in the filter. If it returns true, the element may or
+     * may not be in the filter.
+     *
+     * @param hash the element hash
+     * @return false if the element is definitely not in the filter, true otherwise
+     */
+    public boolean mightContain(final long hash) {
+        final long h = NonCryptographicHashing.hash64(hash);
+        final ByteBuffer chunk = chunk(h);
+        final int blockOffset = blockOffset(h);
+        // Bit positions in the block are derived from a different mix of the hash than the block
+        // index, to make them independent
+        final long bitsHash = bitsHash(h);
+        int bits = (int) bitsHash;
+        final int step = (int) (bitsHash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            final int bit = bits & (BLOCK_BITS - 1);
+            final long value = (long) LONG_HANDLE.getAcquire(chunk, blockOffset + (bit >>> 6) * Long.BYTES);
+            if ((value & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+            bits += step;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of elements added to this filter. Elements with the same hash added
+     * multiple times are counted multiple times.
+     *
+     * @return the number of added elements
+     */
+    public long getAddedCount() {
+        return addedCount.get();
+    }
+
+    /**
+     * Estimates the current false positive rate of this filter, based on the number of added
+     * elements.
+     *
+     * @return false positive rate estimation, from 0.0 to 1.0
+     */
+    public double getExpectedFalsePositiveRate() {
+        final double bitsPerElement = (double) numBlocks * BLOCK_BITS / Math.max(1, addedCount.get());
+        return Math.pow(1 - Math.exp(-numHashes / bitsPerElement), numHashes);
+    }
+
+    /**
+     * Writes this filter to the given file. If elements are added in parallel, they may or may
+     * not be present in the written filter.
+     *
+     * @param file the file to write to. If it exists, it's overwritten
+     * @throws IOException if the file can't be written
+     */
+    public void writeToFile(final Path file) throws IOException {
+        try (final FileChannel fc = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(FILE_FORMAT_VERSION);
+            header.putInt(numHashes);
+            header.putLong(numBlocks);
+            header.putLong(addedCount.get());
+            header.flip();
+            MerkleDbFileUtils.completelyWrite(fc, header);
+            for (final ByteBuffer chunk : chunks) {
+                MerkleDbFileUtils.completelyWrite(fc, chunk.duplicate().clear());
+            }
+            fc.force(true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOffHeapConsumption() {
+        return numBlocks * BLOCK_BYTES;
+    }
+
+    private ByteBuffer chunk(final long h) {
+        return chunks[(int) (blockIndex(h) / BLOCKS_PER_CHUNK)];
+    }
+
+    private int blockOffset(final long h) {
+        return (int) (blockIndex(h) % BLOCKS_PER_CHUNK) * BLOCK_BYTES;
+    }
+
+    private long blockIndex(final long h) {
+        // Maps the hash to [0, numBlocks) without modulo, see Lemire's "fast alternative to the
+        // modulo reduction". Block count doesn't have to be a power of two
+        return Math.unsignedMultiplyHigh(h, numBlocks);
+    }
+
+    private static long bitsHash(final long h) {
+        return Long.rotateLeft(h * 0x9E3779B97F4A7C15L, 32);
+    }
+
+    private static ByteBuffer[] allocateChunks(final long numBlocks) {
+        final int numChunks = Math.toIntExact((numBlocks + BLOCKS_PER_CHUNK - 1) / BLOCKS_PER_CHUNK);
+        final ByteBuffer[] chunks = new ByteBuffer[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            final long chunkBlocks = Math.min(BLOCKS_PER_CHUNK, numBlocks - (long) i * BLOCKS_PER_CHUNK);
+            chunks[i] = ByteBuffer.allocateDirect(Math.toIntExact(chunkBlocks * BLOCK_BYTES))
+                    .order(ByteOrder.nativeOrder());
+        }
+        return chunks;
+    }
+}
@@ -68,6 +68,17 @@ public interface LongList extends CASableLongIndex, Closeable {
      */
     void remove(long index);
 
+    /**
+     * Marks the index as not containing a valid long value, on the condition that the current long
+     * therein has a given value.
+     *
+     * @param index    the index to clear
+     * @param oldValue the value that must currently obtain at the index
+     * @return whether the index was cleared
+     * @throws IndexOutOfBoundsException if the index is negative or beyond the max capacity of the list
+     */
+    boolean removeIfEqual(long index, long oldValue);
+
     /**
      * Stores a long at the given index, on the condition that the current long therein has a given
      * value.
@@ -118,6 +129,23 @@ public interface LongList extends CASableLongIndex, Closeable {
      */
     void writeToFile(Path file) throws IOException;
 
+    /**
+     * Write all longs in this LongList into a file, same way as {@link #writeToFile(Path)}. If
+     * this list was written to a file before, implementations may reuse unchanged data from that
+     * file rather than write it all again, so the time to write the file is proportional to the
+     * amount of changes since the previous write rather than to the list size. Files written by
+     * this method have the same format as files written by {@link #writeToFile(Path)}.
+     *
+     * <p>By default, this method just calls {@link #writeToFile(Path)}.
+     *
+     * @param file The file to write into, it should not exist but its parent directory should exist
+     *             and be writable.
+     * @throws IOException If there was a problem creating or writing to the file.
+     */
+    default void writeToFileIncrementally(final Path file) throws IOException {
+        writeToFile(file);
+    }
+
     /**
      * After invocation of this method, {@link LongList#get(long)}) calls
      * will return {@link LongList#IMPERMISSIBLE_VALUE} for indices that
@@ -291,6 +291,22 @@ public class LongListDisk extends AbstractLongList<Long> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(
+            final FileChannel fc, final Long chunkOffset, final int fromSubIndex, final int toSubIndex)
+            throws IOException {
+        if (chunkOffset == null) {
+            super.writeChunkData(fc, null, fromSubIndex, toSubIndex);
+            return;
+        }
+        MerkleDbFileUtils.completelyTransferTo(
+                currentFileChannel,
+                chunkOffset + (long) fromSubIndex * Long.BYTES,
+                (long) (toSubIndex - fromSubIndex) * Long.BYTES,
+                fc);
+    }
+
     /**
      * Lookup a long in data
      *
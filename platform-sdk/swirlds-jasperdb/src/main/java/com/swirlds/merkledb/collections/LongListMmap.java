@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+import static com.swirlds.merkledb.MerkleDb.MERKLEDB_COMPONENT;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link LongList} that stores its contents in a temporary file, which is memory-mapped in
+ * chunks. Every chunk is a separate mapped region of the file, so the "chunk" containing the
+ * value for any given index is found the same way as in {@link LongListOffHeap}, and values are
+ * read and written directly in the mapped memory. Unlike {@link LongListOffHeap}, the list doesn't
+ * consume off-heap memory: its pages are backed by the OS page cache and can be evicted under
+ * memory pressure. Unlike {@link LongListDisk}, reads and writes don't need system calls.
+ * <p>
+ * Like in {@link LongListDisk}, if the list is created from a snapshot file, the file is copied to
+ * the temporary file, which doesn't contain the header, only the body.
+ * <p>
+ * Pages that aren't resident in memory are loaded on first access. To hide this latency for
+ * index ranges that are about to be read, the list can be asked to {@link #prefetch(long, long)}
+ * a range: the pages of the range are touched in the background on a shared prefetch thread.
+ * Sequential scans, {@link #forEach(LongAction)} and writing the list to a file, prefetch the
+ * next chunk while the current one is processed.
+ * <p>
+ * Released chunks stay mapped and are reused for new chunks. All mapped regions are unmapped when
+ * the list is closed.
+ *
+ * <p>Per the {@link LongList} contract, this class is thread-safe for both concurrent reads and
+ * writes.
+ */
+public final class LongListMmap extends AbstractLongList<LongListMmap.MappedChunk> {
+
+    private static final Logger logger = LogManager.getLogger(LongListMmap.class);
+
+    private static final String STORE_POSTFIX = "longListMmap";
+    private static final String DEFAULT_FILE_NAME = "LongListMmap.ll";
+
+    /** OS memory page size. Prefetching touches one byte in every page */
+    private static final int PAGE_SIZE = UNSAFE.pageSize();
+
+    /** Shared background thread to prefetch pages of all memory-mapped long lists */
+    private static ExecutorService prefetchExecutor = null;
+
+    /**
+     * A memory-mapped chunk.
+     *
+     * @param offset chunk offset in the temporary file
+     * @param buffer mapped region of the temporary file
+     * @param address memory address at which the mapped region begins
+     */
+    record MappedChunk(long offset, MappedByteBuffer buffer, long address) {}
+
+    /**
+     * Path to the temporary file used to store the data. The field is effectively immutable,
+     * however it can't be declared final, because in some cases it has to be initialized in
+     * {@link #readBodyFromFileChannelOnInit} or {@link #onEmptyOrAbsentSourceFile}, which are
+     * called from the constructor of the parent class.
+     */
+    private Path tempFile;
+
+    /** File channel to the temporary file. Effectively immutable, see {@link #tempFile} */
+    private FileChannel mappedFileChannel;
+
+    /** Offset in the temporary file for the next new chunk. Guarded by "this" */
+    private long nextChunkOffset;
+
+    /** Released chunks, which are still mapped, to be reused for new chunks */
+    private final Deque<MappedChunk> freeChunks = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Prefetch tasks hold the read lock while they access mapped memory. The list is closed, and
+     * the memory is unmapped, under the write lock.
+     */
+    private final ReadWriteLock prefetchLock = new ReentrantReadWriteLock();
+
+    /** Indicates whether the list is closed. Guarded by {@link #prefetchLock} */
+    private boolean closed;
+
+    /** Values read by prefetch tasks are accumulated here, so the reads aren't optimized away */
+    @SuppressWarnings("unused")
+    private long prefetchSink;
+
+    /**
+     * Create a {@link LongListMmap} with default parameters.
+     */
+    public LongListMmap() {
+        this(DEFAULT_NUM_LONGS_PER_CHUNK, DEFAULT_MAX_LONGS_TO_STORE, DEFAULT_RESERVED_BUFFER_LENGTH);
+    }
+
+    /**
+     * Create a {@link LongListMmap} with the specified chunk size.
+     *
+     * @param numLongsPerChunk number of longs in each chunk, a chunk is a separate mapped region
+     * @param maxLongs the maximum number of longs permissible for this LongList
+     * @param reservedBufferLength the number of indices before the minimal index to keep reserved
+     */
+    LongListMmap(final int numLongsPerChunk, final long maxLongs, final long reservedBufferLength) {
+        super(numLongsPerChunk, maxLongs, reservedBufferLength);
+        try {
+            openTempFile(DEFAULT_FILE_NAME);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create a {@link LongListMmap} from a file that was saved. If the file doesn't exist or is
+     * empty, the list is created empty.
+     *
+     * @param file the file to read from
+     * @throws IOException if there was a problem reading the file
+     */
+    public LongListMmap(final Path file) throws IOException {
+        this(file, DEFAULT_RESERVED_BUFFER_LENGTH);
+    }
+
+    LongListMmap(final Path file, final long reservedBufferLength) throws IOException {
+        super(file, reservedBufferLength);
+        // mappedFileChannel is initialized in readBodyFromFileChannelOnInit() or onEmptyOrAbsentSourceFile(),
+        // which are called from the constructor of the parent class
+        //noinspection ConstantValue
+        if (mappedFileChannel == null) {
+            throw new IllegalStateException("The temp file is not initialized");
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onEmptyOrAbsentSourceFile(final Path path) throws IOException {
+        openTempFile(path.toFile().getName());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void readBodyFromFileChannelOnInit(final String sourceFileName, final FileChannel fileChannel)
+            throws IOException {
+        openTempFile(sourceFileName);
+        final int totalNumberOfChunks = calculateNumberOfChunks(size());
+        final int firstChunkWithDataIndex = toIntExact(minValidIndex.get() / numLongsPerChunk);
+        final int minValidIndexInChunk = toIntExact(minValidIndex.get() % numLongsPerChunk);
+        // chunks are stored in the temp file contiguously, starting from the first chunk with data
+        for (int i = firstChunkWithDataIndex; i < totalNumberOfChunks; i++) {
+            final MappedChunk chunk = mapChunk((long) (i - firstChunkWithDataIndex) * memoryChunkSize);
+            // Slice so we don't mess with the mapped buffer pointers
+            final ByteBuffer buf = chunk.buffer().slice(0, memoryChunkSize);
+            if (i == firstChunkWithDataIndex) {
+                // all values before minValidIndexInChunk are zeroes
+                buf.position(minValidIndexInChunk * Long.BYTES);
+            }
+            MerkleDbFileUtils.completelyRead(fileChannel, buf);
+            chunkList.set(i, chunk);
+        }
+        nextChunkOffset = (long) (totalNumberOfChunks - firstChunkWithDataIndex) * memoryChunkSize;
+    }
+
+    private void openTempFile(final String fileName) throws IOException {
+        tempFile = LegacyTemporaryFileBuilder.buildTemporaryDirectory(STORE_POSTFIX).resolve(fileName);
+        mappedFileChannel = FileChannel.open(
+                tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private MappedChunk mapChunk(final long offset) throws IOException {
+        // the temp file is extended as needed, new regions are filled with zeroes
+        final MappedByteBuffer buffer = mappedFileChannel.map(MapMode.READ_WRITE, offset, memoryChunkSize);
+        return new MappedChunk(offset, buffer, LongListOffHeap.address(buffer));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void putToChunk(final MappedChunk chunk, final int subIndex, final long value) {
+        final long subIndexOffset = (long) subIndex * Long.BYTES;
+        UNSAFE.putLongVolatile(null, chunk.address() + subIndexOffset, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean putIfEqual(
+            final MappedChunk chunk, final int subIndex, final long oldValue, final long newValue) {
+        final long subIndexOffset = (long) subIndex * Long.BYTES;
+        return UNSAFE.compareAndSwapLong(null, chunk.address() + subIndexOffset, oldValue, newValue);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected long lookupInChunk(@NonNull final MappedChunk chunk, final long subIndex) {
+        final long subIndexOffset = subIndex * Long.BYTES;
+        return UNSAFE.getLongVolatile(null, chunk.address() + subIndexOffset);
+    }
+
+    /**
+     * Write the long data to file, This it is expected to be in one simple block of raw longs.
+     * While a chunk is written, the next chunk is prefetched in the background.
+     *
+     * @param fc The file channel to write to
+     * @throws IOException if there was a problem writing longs
+     */
+    @Override
+    protected void writeLongsData(final FileChannel fc) throws IOException {
+        final int totalNumOfChunks = calculateNumberOfChunks(size());
+        final long currentMinValidIndex = minValidIndex.get();
+        final int firstChunkWithDataIndex = toIntExact(currentMinValidIndex / numLongsPerChunk);
+        // write data
+        final ByteBuffer emptyBuffer = ByteBuffer.allocateDirect(memoryChunkSize);
+        try {
+            for (int i = firstChunkWithDataIndex; i < totalNumOfChunks; i++) {
+                prefetch((i + 1L) * numLongsPerChunk, (i + 2L) * numLongsPerChunk);
+                final MappedChunk chunk = chunkList.get(i);
+                final ByteBuffer nonNullBuffer = chunk != null ? chunk.buffer() : emptyBuffer;
+                // Slice so we don't mess with the byte buffer pointers.
+                // Also, the slice size has to be equal to the size of the buffer
+                final ByteBuffer buf = nonNullBuffer.slice(0, memoryChunkSize);
+                if (i == firstChunkWithDataIndex) {
+                    // writing starts from the first valid index in the first valid chunk
+                    final int firstValidIndexInChunk = toIntExact(currentMinValidIndex % numLongsPerChunk);
+                    buf.position(firstValidIndexInChunk * Long.BYTES);
+                } else {
+                    buf.position(0);
+                }
+                if (i == (totalNumOfChunks - 1)) {
+                    // last chunk, so set limit to only the data needed
+                    final long bytesWrittenSoFar = (long) memoryChunkSize * (long) i;
+                    final long remainingBytes = (size() * Long.BYTES) - bytesWrittenSoFar;
+                    buf.limit(toIntExact(remainingBytes));
+                } else {
+                    buf.limit(buf.capacity());
+                }
+                MerkleDbFileUtils.completelyWrite(fc, buf);
+            }
+        } finally {
+            // releasing memory allocated
+            UNSAFE.invokeCleaner(emptyBuffer);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(
+            final FileChannel fc, final MappedChunk chunk, final int fromSubIndex, final int toSubIndex)
+            throws IOException {
+        if (chunk == null) {
+            super.writeChunkData(fc, null, fromSubIndex, toSubIndex);
+            return;
+        }
+        // Slice so we don't mess with the byte buffer pointers
+        final ByteBuffer buf =
+                chunk.buffer().slice(fromSubIndex * Long.BYTES, (toSubIndex - fromSubIndex) * Long.BYTES);
+        MerkleDbFileUtils.completelyWrite(fc, buf);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>While values in a chunk are handled, the next chunk is prefetched in the background.
+     */
+    @Override
+    public <T extends Throwable> void forEach(final LongAction<T> action) throws InterruptedException, T {
+        final long max = size();
+        long i = minValidIndex.get();
+        while (i < max) {
+            final long chunkEnd = min(max, (i / numLongsPerChunk + 1) * numLongsPerChunk);
+            prefetch(chunkEnd, chunkEnd + numLongsPerChunk);
+            for (; i < chunkEnd; i++) {
+                final long value = get(i);
+                if (value != IMPERMISSIBLE_VALUE) {
+                    action.handle(i, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hints the list that values in the given index range are going to be accessed soon. Pages of
+     * the temporary file that back the range are loaded into memory in the background, if they
+     * aren't loaded yet. This is a portable equivalent of {@code madvise(MADV_WILLNEED)}. The
+     * method doesn't block. Indices outside the valid range of the list are ignored.
+     *
+     * @param fromIndex the first index to prefetch, inclusive
+     * @param toIndex the last index to prefetch, exclusive
+     */
+    public void prefetch(final long fromIndex, final long toIndex) {
+        final long from = max(fromIndex, minValidIndex.get());
+        final long to = min(toIndex, size());
+        if (from >= to) {
+            return;
+        }
+        getPrefetchExecutor().execute(() -> touchPages(from, to));
+    }
+
+    private void touchPages(final long fromIndex, final long toIndex) {
+        // if the list is being closed, just skip prefetching
+        if (!prefetchLock.readLock().tryLock()) {
+            return;
+        }
+        try {
+            if (closed) {
+                return;
+            }
+            long sink = 0;
+            long index = fromIndex;
+            while (index < toIndex) {
+                final int chunkIndex = toIntExact(index / numLongsPerChunk);
+                final long chunkStartIndex = (long) chunkIndex * numLongsPerChunk;
+                final long chunkEnd = min(toIndex, chunkStartIndex + numLongsPerChunk);
+                // released chunks stay mapped until the list is closed, so it's safe to touch them
+                final MappedChunk chunk = chunkList.get(chunkIndex);
+                if (chunk != null) {
+                    final long start = chunk.address() + (index - chunkStartIndex) * Long.BYTES;
+                    final long end = chunk.address() + (chunkEnd - chunkStartIndex) * Long.BYTES;
+                    for (long address = start; address < end; address += PAGE_SIZE) {
+                        sink += UNSAFE.getByte(address);
+                    }
+                    // the last page may be skipped above, if the range doesn't start at a page boundary
+                    sink += UNSAFE.getByte(end - 1);
+                }
+                index = chunkEnd;
+            }
+            prefetchSink = sink;
+        } finally {
+            prefetchLock.readLock().unlock();
+        }
+    }
+
+    private static synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(new ThreadConfiguration(getStaticThreadManager())
+                    .setComponent(MERKLEDB_COMPONENT)
+                    .setThreadName("Index prefetcher")
+                    .setExceptionHandler((t, ex) ->
+                            logger.error(EXCEPTION.getMarker(), "Uncaught exception during index prefetch", ex))
+                    .buildFactory());
+        }
+        return prefetchExecutor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected synchronized MappedChunk createChunk() {
+        final MappedChunk freeChunk = freeChunks.poll();
+        if (freeChunk != null) {
+            return freeChunk;
+        }
+        try {
+            final MappedChunk chunk = mapChunk(nextChunkOffset);
+            nextChunkOffset += memoryChunkSize;
+            return chunk;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Zeroes the chunk and keeps it mapped for further use.
+     *
+     * @param chunk chunk to release
+     */
+    @Override
+    protected void releaseChunk(@NonNull final MappedChunk chunk) {
+        UNSAFE.setMemory(chunk.address(), memoryChunkSize, (byte) 0);
+        freeChunks.add(chunk);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void partialChunkCleanup(
+            @NonNull final MappedChunk chunk, final boolean leftSide, final long entriesToCleanUp) {
+        if (leftSide) {
+            // cleans up all values up to newMinValidIndex in the first chunk
+            UNSAFE.setMemory(chunk.address(), entriesToCleanUp * Long.BYTES, (byte) 0);
+        } else {
+            // cleans up all values on the right side of the last chunk
+            final long offset = (numLongsPerChunk - entriesToCleanUp) * Long.BYTES;
+            UNSAFE.setMemory(chunk.address() + offset, entriesToCleanUp * Long.BYTES, (byte) 0);
+        }
+    }
+
+    /**
+     * Unmaps all chunks, closes and deletes the temporary file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void onClose() throws IOException {
+        prefetchLock.writeLock().lock();
+        try {
+            closed = true;
+            for (int i = 0; i < chunkList.length(); i++) {
+                final MappedChunk chunk = chunkList.get(i);
+                if (chunk != null) {
+                    UNSAFE.invokeCleaner(chunk.buffer());
+                }
+            }
+            MappedChunk freeChunk;
+            while ((freeChunk = freeChunks.poll()) != null) {
+                UNSAFE.invokeCleaner(freeChunk.buffer());
+            }
+        } finally {
+            prefetchLock.writeLock().unlock();
+        }
+        mappedFileChannel.close();
+        Files.deleteIfExists(tempFile);
+    }
+}
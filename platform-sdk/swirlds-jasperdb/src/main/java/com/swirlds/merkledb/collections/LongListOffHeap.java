@@ -195,6 +195,20 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(
+            final FileChannel fc, final ByteBuffer chunk, final int fromSubIndex, final int toSubIndex)
+            throws IOException {
+        if (chunk == null) {
+            super.writeChunkData(fc, null, fromSubIndex, toSubIndex);
+            return;
+        }
+        // Slice so we don't mess with the byte buffer pointers
+        final ByteBuffer buf = chunk.slice(fromSubIndex * Long.BYTES, (toSubIndex - fromSubIndex) * Long.BYTES);
+        MerkleDbFileUtils.completelyWrite(fc, buf);
+    }
+
     /**
      * Lookup a long in a data chunk.
      *
@@ -21,6 +21,7 @@ import com.swirlds.config.api.ConfigProperty;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.config.api.validation.ConfigViolation;
 import com.swirlds.config.api.validation.annotation.ConstraintMethod;
+import com.swirlds.config.api.validation.annotation.Max;
 import com.swirlds.config.api.validation.annotation.Min;
 import com.swirlds.config.api.validation.annotation.Positive;
 import com.swirlds.config.extensions.validators.DefaultConfigViolation;
@@ -64,10 +65,58 @@ import com.swirlds.config.extensions.validators.DefaultConfigViolation;
  * @param leafRecordCacheSize
  *      Cache size in bytes for reading virtual leaf records. Initialized in data source creation time from MerkleDb config.
  *      If the value is zero, leaf records cache isn't used.
+ * @param leafRecordCacheWays
+ *      Number of entries in each set of the set-associative leaf records cache. Keys mapped to the same set don't
+ *      evict each other, until the set is full. If the value is 1, the cache is direct-mapped.
  * @param maxFileChannelsPerFileReader
  *     Maximum number of file channels per file reader.
  * @param maxThreadsPerFileChannel
  *    Maximum number of threads per file channel.
+ * @param memoryMappedReadsEnabled
+ *    If true, completed (immutable) data files are memory-mapped, and data items are read from
+ *    the mapped memory rather than through file channels. Items that can't be served from the
+ *    mapping, e.g. crossing a mapped region boundary, are still read using file channels.
+ * @param compactionMaxBytesPerSecond
+ *    Compaction I/O budget, in bytes copied per second, shared by all compactions in the process.
+ *    Compaction threads pause between data items to stay within the budget. If zero, compaction
+ *    bandwidth isn't limited.
+ * @param compactionMaxItemsPerSecond
+ *    Compaction I/O budget, in data items copied per second, shared by all compactions in the
+ *    process. Every item copy is a random read, so this is effectively a read IOPS limit. If zero,
+ *    the number of items copied per second isn't limited.
+ * @param compactionGarbageThreshold
+ *    Min ratio of garbage (data items no longer referenced from the index) to all data items in a
+ *    file, from 0.0 to 1.0, for the file to be compacted. Only applies to files, which have already
+ *    been compacted at least once. Files created by flushes are always compacted. If zero, files
+ *    are compacted regardless of how much garbage they contain.
+ * @param incrementalIndexSnapshotsEnabled
+ *    If true, index files (path to disk location and bucket indices) are written incrementally on
+ *    snapshots. Index chunks, which haven't changed since the previous snapshot, are copied from
+ *    the previous snapshot file rather than written from the index, so snapshot time depends on
+ *    the number of changes rather than on the index size. Data files are always hard-linked.
+ * @param offHeapKeyIndexMaxKeySize
+ *    Max serialized key size, in bytes, for new tables to use a fully in-memory off-heap key to
+ *    path index instead of a half disk hash map. Only applies to keys of a fixed serialized size.
+ *    The index takes roughly twice the key size plus 16 bytes of off-heap memory per key. If zero,
+ *    the off-heap key index isn't used for new tables. Existing tables keep their index type.
+ * @param bloomFilterBitsPerKey
+ *    Number of bits per key in an off-heap Bloom filter in front of half disk hash map key to path
+ *    indexes. The filter lets lookups of missing keys skip bucket reads from disk. 10 bits per key
+ *    give about 1% false positives. If zero, Bloom filters aren't used.
+ * @param bloomFilterRebuildFalsePositiveRate
+ *    Observed false positive rate of a half disk hash map Bloom filter, greater than 0.0 and less
+ *    than 1.0, at which the filter is rebuilt from live buckets in the background. Deleted keys are
+ *    never removed from a filter, so its false positive rate grows over time. The rate is measured
+ *    over lookups of key hash codes that are not in the map.
+ * @param hashChunkHeight
+ *    Height of internal hash chunks for new tables. If greater than zero, internal hashes stored on
+ *    disk are grouped into sub-tree chunks of this height, and every chunk is read and written as a
+ *    single data item. A chunk contains up to {@code 2^hashChunkHeight - 1} hashes. If zero, every
+ *    hash is stored on disk as a separate data item. Existing tables keep their hash store format.
+ * @param memoryMappedIndicesEnabled
+ *    If true, tables that prefer disk based indices store path to disk location indices in
+ *    memory-mapped temporary files rather than access the files using file channels. Index pages
+ *    are cached by the OS, and sequential index scans prefetch pages in the background.
  */
 @ConfigData("merkleDb")
 public record MerkleDbConfig(
@@ -85,8 +134,21 @@ public record MerkleDbConfig(
         @ConfigProperty(defaultValue = "-1") int numHalfDiskHashMapFlushThreads,
         @ConfigProperty(defaultValue = "262144") int reservedBufferLengthForLeafList,
         @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize,
+        @Min(1) @ConfigProperty(defaultValue = "4") int leafRecordCacheWays,
         @Min(1) @ConfigProperty(defaultValue = "8") int maxFileChannelsPerFileReader,
-        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel) {
+        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel,
+        @ConfigProperty(defaultValue = "false") boolean memoryMappedReadsEnabled,
+        @Min(0) @ConfigProperty(defaultValue = "0") long compactionMaxBytesPerSecond,
+        @Min(0) @ConfigProperty(defaultValue = "0") int compactionMaxItemsPerSecond,
+        @ConstraintMethod("compactionGarbageThresholdValidation") @ConfigProperty(defaultValue = "0.0")
+                double compactionGarbageThreshold,
+        @ConfigProperty(defaultValue = "false") boolean incrementalIndexSnapshotsEnabled,
+        @Min(0) @ConfigProperty(defaultValue = "0") int offHeapKeyIndexMaxKeySize,
+        @Min(0) @ConfigProperty(defaultValue = "0") int bloomFilterBitsPerKey,
+        @ConstraintMethod("bloomFilterRebuildFalsePositiveRateValidation") @ConfigProperty(defaultValue = "0.05")
+                double bloomFilterRebuildFalsePositiveRate,
+        @Min(0) @Max(8) @ConfigProperty(defaultValue = "0") int hashChunkHeight,
+        @ConfigProperty(defaultValue = "false") boolean memoryMappedIndicesEnabled) {
 
     static double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -104,6 +166,34 @@ public record MerkleDbConfig(
         return null;
     }
 
+    public ConfigViolation compactionGarbageThresholdValidation(final Configuration configuration) {
+        final double compactionGarbageThreshold =
+                configuration.getConfigData(MerkleDbConfig.class).compactionGarbageThreshold();
+        if (!(compactionGarbageThreshold >= 0.0 && compactionGarbageThreshold <= 1.0)) {
+            return new DefaultConfigViolation(
+                    "compactionGarbageThreshold",
+                    "%s".formatted(compactionGarbageThreshold),
+                    true,
+                    "Cannot configure compactionGarbageThreshold to " + compactionGarbageThreshold
+                            + ", it must be in [0.0, 1.0]");
+        }
+        return null;
+    }
+
+    public ConfigViolation bloomFilterRebuildFalsePositiveRateValidation(final Configuration configuration) {
+        final double bloomFilterRebuildFalsePositiveRate =
+                configuration.getConfigData(MerkleDbConfig.class).bloomFilterRebuildFalsePositiveRate();
+        if (!(bloomFilterRebuildFalsePositiveRate > 0.0 && bloomFilterRebuildFalsePositiveRate < 1.0)) {
+            return new DefaultConfigViolation(
+                    "bloomFilterRebuildFalsePositiveRate",
+                    "%s".formatted(bloomFilterRebuildFalsePositiveRate),
+                    true,
+                    "Cannot configure bloomFilterRebuildFalsePositiveRate to " + bloomFilterRebuildFalsePositiveRate
+                            + ", it must be in (0.0, 1.0)");
+        }
+        return null;
+    }
+
     public int getNumHalfDiskHashMapFlushThreads() {
         final int numProcessors = Runtime.getRuntime().availableProcessors();
         final int threads = (numHalfDiskHashMapFlushThreads() == -1)
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limiter for data file compactions. Compaction threads report every copied data item to
+ * the throttle, and the throttle makes them sleep, if compactions in total go faster than the
+ * configured I/O budget: bytes per second and items (random reads) per second.
+ *
+ * <p>The throttle is a virtual clock. Every copied item moves the clock forward by the time it
+ * should take under the budget. If the clock is ahead of the real time, the thread sleeps till
+ * the real time catches up. Short sleeps are skipped, so threads don't sleep after every small
+ * item, but the debt accumulates and results in a longer sleep later. When compactions are idle,
+ * the clock lags behind the real time, but it's never more than {@link #MAX_BURST_NANOS} behind,
+ * so idle time doesn't turn into an unlimited burst allowance.
+ *
+ * <p>Threads only sleep in {@link #itemCopied(long, long, long)}, which is called between data
+ * items outside of any locks, so throttled compactions never block snapshots or flushes.
+ *
+ * <p>This class is thread safe.
+ */
+final class CompactionThrottle {
+
+    /** Sleeps shorter than this are skipped, and the time is accounted to subsequent items */
+    static final long MIN_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Max time the virtual clock may lag behind the real time, i.e. the max burst allowance */
+    static final long MAX_BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** The virtual clock, in System.nanoTime() units */
+    private long clockNanos = Long.MIN_VALUE;
+
+    /**
+     * Accounts a copied data item and sleeps, if needed, to keep compactions within the budget.
+     * If both budgets are zero, this method returns immediately.
+     *
+     * @param itemBytes the number of bytes copied
+     * @param maxBytesPerSecond bytes per second budget, or zero if unlimited
+     * @param maxItemsPerSecond items per second budget, or zero if unlimited
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    void itemCopied(final long itemBytes, final long maxBytesPerSecond, final long maxItemsPerSecond)
+            throws InterruptedException {
+        if ((maxBytesPerSecond <= 0) && (maxItemsPerSecond <= 0)) {
+            return;
+        }
+        final long cost = Math.max(
+                (maxBytesPerSecond > 0) ? itemBytes * TimeUnit.SECONDS.toNanos(1) / maxBytesPerSecond : 0,
+                (maxItemsPerSecond > 0) ? TimeUnit.SECONDS.toNanos(1) / maxItemsPerSecond : 0);
+        final long sleepNanos = advance(System.nanoTime(), cost);
+        if (sleepNanos >= MIN_SLEEP_NANOS) {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        }
+    }
+
+    /**
+     * Moves the virtual clock forward by the given cost.
+     *
+     * @param nowNanos current time
+     * @param costNanos time the item should take under the budget
+     * @return how long the calling thread should sleep, may be zero or negative
+     */
+    synchronized long advance(final long nowNanos, final long costNanos) {
+        if ((clockNanos == Long.MIN_VALUE) || (clockNanos - nowNanos < -MAX_BURST_NANOS)) {
+            clockNanos = nowNanos - MAX_BURST_NANOS;
+        }
+        clockNanos += costNanos;
+        return clockNanos - nowNanos;
+    }
+}
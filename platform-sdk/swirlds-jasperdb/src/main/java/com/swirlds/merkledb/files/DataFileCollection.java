@@ -46,6 +46,7 @@ import com.swirlds.merkledb.serialize.BaseSerializer;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -57,8 +58,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -129,6 +132,8 @@ public class DataFileCollection<D> implements Snapshotable {
     private final String legacyStoreName;
     /** Serializer responsible for serializing/deserializing data items into and out of files */
     private final BaseSerializer<D> dataItemSerializer;
+    /** Whether data items in new data files, including compacted files, are compressed */
+    private final boolean compressDataItems;
     /** True if this DataFileCollection was loaded from an existing set of files */
     private final boolean loadedFromExistingFiles;
     /** The index to use for the next file we create */
@@ -174,6 +179,11 @@ public class DataFileCollection<D> implements Snapshotable {
     private final ConcurrentSkipListSet<Integer> setOfNewFileIndexes =
             logger.isTraceEnabled() ? new ConcurrentSkipListSet<>() : null;
 
+    /** Number of data items read from mapped memory in files, which are already deleted */
+    private final AtomicLong deletedFilesMappedReadsCount = new AtomicLong(0);
+    /** Number of data items read using file channels from mapped files, which are already deleted */
+    private final AtomicLong deletedFilesMappedReadFallbacksCount = new AtomicLong(0);
+
     /**
      * Construct a new DataFileCollection.
      *
@@ -201,6 +211,7 @@ public class DataFileCollection<D> implements Snapshotable {
                 null,
                 dataItemSerializer,
                 loadedDataCallback,
+                false,
                 l -> new ImmutableIndexedObjectListUsingArray<DataFileReader<D>>(DataFileReader[]::new, l));
     }
 
@@ -230,6 +241,42 @@ public class DataFileCollection<D> implements Snapshotable {
             final BaseSerializer<D> dataItemSerializer,
             final LoadedDataCallback<D> loadedDataCallback)
             throws IOException {
+        this(dbConfig, storeDir, storeName, legacyStoreName, dataItemSerializer, loadedDataCallback, false);
+    }
+
+    /**
+     * Construct a new DataFileCollection with a custom legacy store name and optional data item
+     * compression. If data files and/or metadata file exist with the legacy store name prefix,
+     * they will be processed by this file collection at startup. New data files will be written
+     * with {@code storeName} as the prefix.
+     *
+     * <p>Compression only affects new data files. Existing files are read according to their
+     * metadata, whether they are compressed or not, and are rewritten using the current setting,
+     * when compacted.
+     *
+     * @param dbConfig MerkleDb dbConfig
+     * @param storeDir The directory to store data files
+     * @param storeName Base name for the data files, allowing more than one DataFileCollection to
+     *     share a directory
+     * @param legacyStoreName Base name for the data files. If not null, data files with this prefix
+     *     are processed by this file collection at startup same way as files prefixed with
+     *     storeName
+     * @param dataItemSerializer Serializer responsible for serializing/deserializing data items
+     *     into and out of files.
+     * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
+     *     not needed. Using this is expensive as it requires all files to be read and parsed.
+     * @param compressDataItems Whether to compress data items in new data files
+     * @throws IOException If there was a problem creating new data set or opening existing one
+     */
+    public DataFileCollection(
+            final MerkleDbConfig dbConfig,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final BaseSerializer<D> dataItemSerializer,
+            final LoadedDataCallback<D> loadedDataCallback,
+            final boolean compressDataItems)
+            throws IOException {
         this(
                 dbConfig,
                 storeDir,
@@ -237,6 +284,7 @@ public class DataFileCollection<D> implements Snapshotable {
                 legacyStoreName,
                 dataItemSerializer,
                 loadedDataCallback,
+                compressDataItems,
                 l -> new ImmutableIndexedObjectListUsingArray<DataFileReader<D>>(DataFileReader[]::new, l));
     }
 
@@ -257,6 +305,7 @@ public class DataFileCollection<D> implements Snapshotable {
      *     into and out of files.
      * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
      *     not needed. Using this is expensive as it requires all files to be read and parsed.
+     * @param compressDataItems Whether to compress data items in new data files
      * @param indexedObjectListConstructor Constructor for creating ImmutableIndexedObjectList
      *     instances.
      * @throws IOException If there was a problem creating new data set or opening existing one
@@ -268,6 +317,7 @@ public class DataFileCollection<D> implements Snapshotable {
             final String legacyStoreName,
             final BaseSerializer<D> dataItemSerializer,
             final LoadedDataCallback<D> loadedDataCallback,
+            final boolean compressDataItems,
             final Function<List<DataFileReader<D>>, ImmutableIndexedObjectList<DataFileReader<D>>>
                     indexedObjectListConstructor)
             throws IOException {
@@ -276,6 +326,7 @@ public class DataFileCollection<D> implements Snapshotable {
         this.storeName = storeName;
         this.legacyStoreName = legacyStoreName;
         this.dataItemSerializer = dataItemSerializer;
+        this.compressDataItems = compressDataItems;
         this.indexedObjectListConstructor = indexedObjectListConstructor;
 
         // check if exists, if so open existing files
@@ -344,6 +395,38 @@ public class DataFileCollection<D> implements Snapshotable {
                         .summaryStatistics();
     }
 
+    /**
+     * Get the number of data items read from mapped memory in all files of this collection,
+     * including files, which are already deleted.
+     *
+     * @return number of data items read from mapped memory
+     */
+    public long getMappedReadsCount() {
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        final long activeFilesCount = activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getMappedReadsCount)
+                        .sum();
+        return deletedFilesMappedReadsCount.get() + activeFilesCount;
+    }
+
+    /**
+     * Get the number of data items in all files of this collection, including files, which are
+     * already deleted, that couldn't be read from mapped memory and were read using file channels.
+     *
+     * @return number of data items read using file channels while the files are mapped
+     */
+    public long getMappedReadFallbacksCount() {
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        final long activeFilesCount = activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getMappedReadFallbacksCount)
+                        .sum();
+        return deletedFilesMappedReadFallbacksCount.get() + activeFilesCount;
+    }
+
     /** Close all the data files */
     public void close() throws IOException {
         // finish writing if we still are
@@ -362,6 +445,82 @@ public class DataFileCollection<D> implements Snapshotable {
         }
     }
 
+    /**
+     * Marks a data item as obsolete, i.e. no longer referenced from the index. This method is
+     * called, when an index entry pointing to the data item is overwritten or removed. It updates
+     * live data counters of the corresponding file, see {@link DataFileMetadata#getLiveItemCount()}.
+     * If the file doesn't exist anymore, e.g. it has been compacted, this method is no-op.
+     *
+     * <p>This method is thread safe.
+     *
+     * @param dataLocation data location of the obsolete item
+     */
+    public void markDataItemObsolete(final long dataLocation) {
+        if (dataLocation == LongList.IMPERMISSIBLE_VALUE) {
+            return;
+        }
+        final int fileIndex = fileIndexFromDataLocation(dataLocation);
+        final ImmutableIndexedObjectList<DataFileReader<D>> currentIndexedFileList = dataFiles.get();
+        if ((fileIndex < 0) || (currentIndexedFileList == null)) {
+            return;
+        }
+        final DataFileReader<D> file = currentIndexedFileList.get(fileIndex);
+        if (file != null) {
+            file.getMetadata().markItemObsolete();
+        }
+    }
+
+    /**
+     * Sets live data counters of all files in this collection from the given index. Obsolete item
+     * counters aren't stored in files, so this method is called once, when a store is loaded. It
+     * makes a single pass over the index and counts entries pointing to each file, so garbage that
+     * existed before the store was loaded is taken into account by compaction.
+     *
+     * <p>The index must only contain data locations in this collection.
+     *
+     * @param index the index of all live data items in this collection
+     * @throws IOException if the index can't be read
+     */
+    public void updateLiveItemCounts(final CASableLongIndex index) throws IOException {
+        final List<DataFileReader<D>> files = getAllCompletedFiles();
+        if (files.isEmpty()) {
+            return;
+        }
+        final int maxFileIndex =
+                files.stream().mapToInt(DataFileReader::getIndex).max().orElse(0);
+        final long[] liveItemCounts = new long[maxFileIndex + 1];
+        try {
+            index.forEach((key, dataLocation) -> {
+                final int fileIndex = fileIndexFromDataLocation(dataLocation);
+                if ((fileIndex >= 0) && (fileIndex <= maxFileIndex)) {
+                    liveItemCounts[fileIndex]++;
+                }
+            });
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while counting live data items in " + storeName, e);
+        }
+        for (final DataFileReader<D> file : files) {
+            file.getMetadata().setLiveItemCount(liveItemCounts[file.getIndex()]);
+        }
+    }
+
+    /**
+     * Get the estimated ratio of live data size to total size of all fully written files in this
+     * collection, from 0.0 to 1.0. See {@link DataFileReader#getLiveDataSize()}.
+     *
+     * @return live data ratio, or 1.0 if there are no files
+     */
+    public double getLiveDataRatio() {
+        long totalSize = 0;
+        long liveSize = 0;
+        for (final DataFileReader<D> file : getAllCompletedFiles()) {
+            totalSize += file.getSize();
+            liveSize += file.getLiveDataSize();
+        }
+        return (totalSize == 0) ? 1.0 : (double) liveSize / totalSize;
+    }
+
     /**
      * Start writing a new data file
      *
@@ -613,6 +772,46 @@ public class DataFileCollection<D> implements Snapshotable {
         return retryReadUsingIndex(index, keyIntoIndex, this::readDataItem);
     }
 
+    /**
+     * Read a data item from any file that has finished being written, asynchronously. The data
+     * location is looked up in the index on the calling thread, then the item is read using
+     * {@link DataFileReader#readDataItemAsync(long)}, so the calling thread isn't blocked on disk
+     * I/O.
+     *
+     * <p>If the file is closed or deleted by compaction while the read is in progress, or the
+     * async read fails, the item is read again using {@link #readDataItemUsingIndex(LongList, long)}
+     * with all its retries. It happens very rarely, so the blocking fallback on the thread that
+     * completes the async read is acceptable.
+     *
+     * @param index key-&gt;dataLocation index
+     * @param keyIntoIndex The key to lookup in index
+     * @return a future completed with the data item, or with null if not found in index. The future
+     *     is completed exceptionally, if the item can't be read after a number of retries
+     */
+    public CompletableFuture<D> readDataItemAsyncUsingIndex(final LongList index, final long keyIntoIndex) {
+        final long dataLocation = index.get(keyIntoIndex, LongList.IMPERMISSIBLE_VALUE);
+        if (dataLocation == LongList.IMPERMISSIBLE_VALUE) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<D> read;
+        try {
+            final DataFileReader<D> file = readerForDataLocation(dataLocation);
+            read = (file != null) ? file.readDataItemAsync(dataLocation) : CompletableFuture.completedFuture(null);
+        } catch (final IOException e) {
+            read = CompletableFuture.failedFuture(e);
+        }
+        return read.handle((item, error) -> {
+            if ((item != null) && (error == null)) {
+                return item;
+            }
+            try {
+                return readDataItemUsingIndex(index, keyIntoIndex);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /** {@inheritDoc} */
     @Override
     public void snapshot(final Path snapshotDirectory) throws IOException {
@@ -704,6 +903,8 @@ public class DataFileCollection<D> implements Snapshotable {
         // now close and delete all the files
         for (final DataFileReader<D> fileReader : files) {
             fileReader.close();
+            deletedFilesMappedReadsCount.addAndGet(fileReader.getMappedReadsCount());
+            deletedFilesMappedReadFallbacksCount.addAndGet(fileReader.getMappedReadFallbacksCount());
             Files.delete(fileReader.getPath());
         }
     }
@@ -721,7 +922,13 @@ public class DataFileCollection<D> implements Snapshotable {
             setOfNewFileIndexes.add(newFileIndex);
         }
         return new DataFileWriter<>(
-                storeName, storeDir, newFileIndex, dataItemSerializer, creationTime, compactionLevel);
+                storeName,
+                storeDir,
+                newFileIndex,
+                dataItemSerializer,
+                creationTime,
+                compactionLevel,
+                compressDataItems);
     }
 
     /**
@@ -130,6 +130,8 @@ public final class DataFileCommon {
             new FieldDefinition("itemsVersion", FieldType.UINT64, false, true, false, 5);
     static final FieldDefinition FIELD_DATAFILEMETADATA_COMPACTION_LEVEL =
             new FieldDefinition("compactionLevel", FieldType.UINT32, false, true, false, 6);
+    static final FieldDefinition FIELD_DATAFILEMETADATA_COMPRESSED =
+            new FieldDefinition("compressed", FieldType.BOOL, false, true, false, 7);
 
     static final String ERROR_DATAITEM_TOO_LARGE =
             "Data item is too large to write to a data file. Increase data file mapped byte buffer size";
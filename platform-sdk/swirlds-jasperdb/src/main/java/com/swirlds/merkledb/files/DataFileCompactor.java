@@ -62,6 +62,12 @@ public class DataFileCompactor<D> {
      */
     public static final int INITIAL_COMPACTION_LEVEL = 0;
 
+    /**
+     * Compaction I/O throttle. Shared by all compactors, so the I/O budget from MerkleDb config
+     * applies to all compactions in the process in total.
+     */
+    private static final CompactionThrottle COMPACTION_THROTTLE = new CompactionThrottle();
+
     private final MerkleDbConfig dbConfig;
 
     /**
@@ -243,6 +249,7 @@ public class DataFileCompactor<D> {
                     return;
                 }
                 final long fileOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+                final long itemSize;
                 // Take the lock. If a snapshot is started in a different thread, this call
                 // will block until the snapshot is done. The current file will be flushed,
                 // and current data file writer and reader will point to a new file
@@ -251,9 +258,13 @@ public class DataFileCompactor<D> {
                     final DataFileWriter<D> newFileWriter = currentWriter.get();
                     final BufferedData itemBytes = reader.readDataItemBytes(fileOffset);
                     assert itemBytes != null;
+                    itemSize = itemBytes.length();
                     long newLocation = newFileWriter.writeCopiedDataItem(itemBytes);
-                    // update the index
-                    index.putIfEqual(path, dataLocation, newLocation);
+                    // update the index. If the entry has been changed in parallel, e.g. by a flush,
+                    // the copied item is garbage in the new file right away
+                    if (!index.putIfEqual(path, dataLocation, newLocation)) {
+                        dataFileCollection.markDataItemObsolete(newLocation);
+                    }
                 } catch (final ClosedByInterruptException e) {
                     logger.info(
                             MERKLE_DB.getMarker(),
@@ -268,6 +279,10 @@ public class DataFileCompactor<D> {
                 } finally {
                     snapshotCompactionLock.release();
                 }
+                // If compactions go faster than the I/O budget, pause here, between data items
+                // and outside the lock, so snapshots aren't blocked
+                COMPACTION_THROTTLE.itemCopied(
+                        itemSize, dbConfig.compactionMaxBytesPerSecond(), dbConfig.compactionMaxItemsPerSecond());
             });
             allDataItemsProcessed = true;
         } finally {
@@ -404,8 +419,11 @@ public class DataFileCompactor<D> {
     public boolean compact() throws IOException, InterruptedException {
         final List<DataFileReader<D>> completedFiles = dataFileCollection.getAllCompletedFiles();
         reportFileSizeByLevel(completedFiles);
-        final List<DataFileReader<D>> filesToCompact =
-                compactionPlan(completedFiles, getMinNumberOfFilesToCompact(), dbConfig.maxCompactionLevel());
+        final List<DataFileReader<D>> filesToCompact = compactionPlan(
+                completedFiles,
+                getMinNumberOfFilesToCompact(),
+                dbConfig.maxCompactionLevel(),
+                dbConfig.compactionGarbageThreshold());
         if (filesToCompact.isEmpty()) {
             logger.debug(MERKLE_DB.getMarker(), "[{}] No need to compact, as the compaction plan is empty", storeName);
             return false;
@@ -466,6 +484,24 @@ public class DataFileCompactor<D> {
         return true;
     }
 
+    /**
+     * Returns compaction debt of the data file collection: total size of files, which would be
+     * compacted, if compaction was started now. Files being compacted at the moment are still
+     * included, until the compaction is complete. This value staying high or growing over time
+     * means compactions can't keep up with flushes, e.g. because the compaction I/O budget is too
+     * low.
+     *
+     * @return compaction debt, in bytes
+     */
+    public long getCompactionDebtBytes() {
+        final List<DataFileReader<D>> filesToCompact = compactionPlan(
+                dataFileCollection.getAllCompletedFiles(),
+                getMinNumberOfFilesToCompact(),
+                dbConfig.maxCompactionLevel(),
+                dbConfig.compactionGarbageThreshold());
+        return getSizeOfFiles(filesToCompact);
+    }
+
     private void reportFileSizeByLevel(List<DataFileReader<D>> allCompletedFiles) {
         if (reportFileSizeByLevelMetricFunction != null) {
             final Map<Integer, List<DataFileReader<D>>> readersByLevel = getReadersByLevel(allCompletedFiles);
@@ -501,6 +537,25 @@ public class DataFileCompactor<D> {
      */
     static <D> List<DataFileReader<D>> compactionPlan(
             List<DataFileReader<D>> dataFileReaders, int minNumberOfFilesToCompact, int maxCompactionLevel) {
+        return compactionPlan(dataFileReaders, minNumberOfFilesToCompact, maxCompactionLevel, 0.0);
+    }
+
+    /**
+     * This method creates a compaction plan like {@link #compactionPlan(List, int, int)}, but files
+     * from compaction levels above the initial level are only included to the plan, if they have
+     * enough garbage. Such files are usually large, and rewriting a file, which is mostly live,
+     * costs a lot of I/O and saves little space. Files from the initial level are always included.
+     *
+     * @param garbageThreshold min ratio of garbage (obsolete data items) to all data items in a
+     *      file, from 0.0 to 1.0, to include the file to the plan. See {@link
+     *      DataFileMetadata#getLiveItemRatio()}
+     * @return filter creating a compaction plan
+     */
+    static <D> List<DataFileReader<D>> compactionPlan(
+            List<DataFileReader<D>> dataFileReaders,
+            int minNumberOfFilesToCompact,
+            int maxCompactionLevel,
+            double garbageThreshold) {
         if (dataFileReaders.isEmpty()) {
             return dataFileReaders;
         }
@@ -522,7 +577,11 @@ public class DataFileCompactor<D> {
             if (readers == null || readers.size() < minNumberOfFilesToCompact - 1) {
                 break;
             }
-            readersToCompact.addAll(readers);
+            for (final DataFileReader<D> reader : readers) {
+                if (1.0 - reader.getMetadata().getLiveItemRatio() >= garbageThreshold) {
+                    readersToCompact.add(reader);
+                }
+            }
         }
         return readersToCompact;
     }
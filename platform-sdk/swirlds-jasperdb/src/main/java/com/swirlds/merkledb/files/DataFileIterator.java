@@ -58,6 +58,11 @@ public final class DataFileIterator<D> implements AutoCloseable {
 
     /** Buffer that is reused for reading each data item */
     private BufferedData dataItemBuffer;
+    /**
+     * Current data item bytes. If the file is not compressed, it's the same as {@link
+     * #dataItemBuffer}, otherwise it's the decompressed data item
+     */
+    private BufferedData dataItemData;
     /** Index of current data item this iterator is reading, zero being the first item, -1 being before start */
     private long currentDataItem = -1;
     /** The offset in bytes from start of file to the beginning of the current item. */
@@ -117,6 +122,7 @@ public final class DataFileIterator<D> implements AutoCloseable {
         if (!closed) {
             closed = true;
             dataItemBuffer = null;
+            dataItemData = null;
             inputStream.close();
         }
     }
@@ -136,6 +142,7 @@ public final class DataFileIterator<D> implements AutoCloseable {
         // Have we reached the end?
         if (currentDataItem >= metadata.getDataItemCount() - 1) {
             dataItemBuffer = null;
+            dataItemData = null;
             return false;
         }
 
@@ -146,6 +153,9 @@ public final class DataFileIterator<D> implements AutoCloseable {
             if (fieldNum == FIELD_DATAFILE_ITEMS.number()) {
                 final int currentDataItemSize = in.readVarInt(false);
                 dataItemBuffer = fillBuffer(currentDataItemSize);
+                dataItemData = metadata.isCompressed()
+                        ? DataItemCompression.decompress(dataItemBuffer)
+                        : dataItemBuffer;
                 currentDataItem++;
                 return true;
             } else if (fieldNum == FIELD_DATAFILE_METADATA.number()) {
@@ -167,7 +177,7 @@ public final class DataFileIterator<D> implements AutoCloseable {
      * 		been closed, or if the iterator is in the before-first or after-last states.
      */
     public D getDataItemData() {
-        return dataItemSerializer.deserialize(dataItemBuffer);
+        return dataItemSerializer.deserialize(dataItemData);
     }
 
     /**
@@ -18,6 +18,7 @@ package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILEMETADATA_COMPACTION_LEVEL;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILEMETADATA_COMPRESSED;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILEMETADATA_CREATION_NANOS;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILEMETADATA_CREATION_SECONDS;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILEMETADATA_INDEX;
@@ -32,10 +33,12 @@ import com.hedera.pbj.runtime.io.WritableSequentialData;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
 import com.hedera.pbj.runtime.io.stream.ReadableStreamingData;
 import com.swirlds.base.utility.ToStringBuilder;
+import com.swirlds.merkledb.collections.CASableLongIndex;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DataFile's metadata that is stored in the data file's footer
@@ -62,12 +65,28 @@ public final class DataFileMetadata {
      */
     private volatile long itemsCount;
 
+    /**
+     * The number of data items in the file, which are no longer referenced from the index, because
+     * the corresponding index entries have been overwritten or removed. This counter isn't stored
+     * in the file. When a store is loaded, it's set from the index, see {@link
+     * DataFileCollection#updateLiveItemCounts(CASableLongIndex)}, and then it's incremented by
+     * {@link DataFileCollection#markDataItemObsolete(long)}. The counter is an estimate: items
+     * obsoleted by key range changes aren't counted until the store is loaded again.
+     */
+    private final AtomicLong obsoleteItemsCount = new AtomicLong(0);
+
     /** Serialization version for data stored in the file */
     private final long serializationVersion;
 
     /** The level of compaction this file has. See {@link DataFileCompactor}*/
     private final byte compactionLevel;
 
+    /**
+     * Indicates whether data items in the file are compressed. See {@link DataItemCompression}
+     * for compressed data item format
+     */
+    private final boolean compressed;
+
     // Set in writeTo()
     private long dataItemCountHeaderOffset = 0;
 
@@ -86,12 +105,34 @@ public final class DataFileMetadata {
             final Instant creationDate,
             final long serializationVersion,
             final int compactionLevel) {
+        this(itemsCount, index, creationDate, serializationVersion, compactionLevel, false);
+    }
+
+    /**
+     * Create a new DataFileMetadata with complete set of data
+     *
+     * @param itemsCount The number of data items the file contains
+     * @param index The file index, in a data file collection
+     * @param creationDate The creation data of this file, this is critical as it is used when
+     *     merging two files to know which files data is newer.
+     * @param serializationVersion Serialization version for data stored in the file
+     * @param compactionLevel The level of compaction this file has
+     * @param compressed Whether data items in the file are compressed
+     */
+    public DataFileMetadata(
+            final long itemsCount,
+            final int index,
+            final Instant creationDate,
+            final long serializationVersion,
+            final int compactionLevel,
+            final boolean compressed) {
         this.itemsCount = itemsCount;
         this.index = index;
         this.creationDate = creationDate;
         this.serializationVersion = serializationVersion;
         assert compactionLevel >= 0 && compactionLevel < MAX_COMPACTION_LEVEL;
         this.compactionLevel = (byte) compactionLevel;
+        this.compressed = compressed;
     }
 
     /**
@@ -108,6 +149,7 @@ public final class DataFileMetadata {
         long itemsCount = 0;
         long serializationVersion = 0;
         byte compactionLevel = 0;
+        boolean compressed = false;
 
         // Read values from the file, skipping all data items
         try (final ReadableStreamingData in = new ReadableStreamingData(file)) {
@@ -136,6 +178,8 @@ public final class DataFileMetadata {
                                 final int compactionLevelInt = in.readVarInt(false);
                                 assert compactionLevelInt < MAX_COMPACTION_LEVEL;
                                 compactionLevel = (byte) compactionLevelInt;
+                            } else if (metadataFieldNum == FIELD_DATAFILEMETADATA_COMPRESSED.number()) {
+                                compressed = in.readVarInt(false) != 0;
                             } else {
                                 throw new IllegalArgumentException(
                                         "Unknown data file metadata field: " + metadataFieldNum);
@@ -163,6 +207,7 @@ public final class DataFileMetadata {
         this.itemsCount = itemsCount;
         this.serializationVersion = serializationVersion;
         this.compactionLevel = compactionLevel;
+        this.compressed = compressed;
     }
 
     void writeTo(final BufferedData out) {
@@ -190,6 +235,10 @@ public final class DataFileMetadata {
             ProtoWriterTools.writeTag(out, FIELD_DATAFILEMETADATA_COMPACTION_LEVEL);
             out.writeVarInt(compactionLevel, false);
         }
+        if (compressed) {
+            ProtoWriterTools.writeTag(out, FIELD_DATAFILEMETADATA_COMPRESSED);
+            out.writeVarInt(1, false);
+        }
     }
 
     /**
@@ -200,6 +249,43 @@ public final class DataFileMetadata {
         return itemsCount;
     }
 
+    /**
+     * Get the estimated number of data items in the file, which are still referenced from the
+     * index. If this method is called before the corresponding file is completely written, the
+     * return value is 0.
+     */
+    public long getLiveItemCount() {
+        return Math.max(0, itemsCount - obsoleteItemsCount.get());
+    }
+
+    /**
+     * Get the estimated ratio of live data items in the file to all data items in the file, from
+     * 0.0 (all items are garbage) to 1.0 (all items are live). Empty files and files, which are
+     * not fully written yet, are reported as fully live.
+     */
+    public double getLiveItemRatio() {
+        final long count = itemsCount;
+        return (count == 0) ? 1.0 : (double) getLiveItemCount() / count;
+    }
+
+    /**
+     * Increments the number of obsolete data items in the file. Called when an index entry that
+     * points to an item in the file is overwritten or removed.
+     */
+    void markItemObsolete() {
+        obsoleteItemsCount.incrementAndGet();
+    }
+
+    /**
+     * Sets the number of live data items in the file, as counted in the index. Called when a store
+     * is loaded, as obsolete item counters aren't stored in files.
+     *
+     * @param liveItemCount the number of index entries, which point to items in the file
+     */
+    void setLiveItemCount(final long liveItemCount) {
+        obsoleteItemsCount.set(Math.max(0, itemsCount - liveItemCount));
+    }
+
     /**
      * Updates number of data items in the file. This method must be called after metadata is
      * written to a file using {@link #writeTo(BufferedData)}.
@@ -260,6 +346,11 @@ public final class DataFileMetadata {
                     FIELD_DATAFILEMETADATA_COMPACTION_LEVEL, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
             size += ProtoWriterTools.sizeOfVarInt32(compactionLevel);
         }
+        if (compressed) {
+            size += ProtoWriterTools.sizeOfTag(
+                    FIELD_DATAFILEMETADATA_COMPRESSED, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
+            size += ProtoWriterTools.sizeOfVarInt32(1);
+        }
         return size;
     }
 
@@ -267,14 +358,21 @@ public final class DataFileMetadata {
         return compactionLevel;
     }
 
+    /** Whether data items in the file are compressed */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     /** toString for debugging */
     @Override
     public String toString() {
         return new ToStringBuilder(this)
                 .append("itemsCount", itemsCount)
+                .append("obsoleteItemsCount", obsoleteItemsCount.get())
                 .append("index", index)
                 .append("creationDate", creationDate)
                 .append("serializationVersion", serializationVersion)
+                .append("compressed", compressed)
                 .toString();
     }
 
@@ -294,6 +392,7 @@ public final class DataFileMetadata {
                 && index == that.index
                 && serializationVersion == that.serializationVersion
                 && compactionLevel == that.compactionLevel
+                && compressed == that.compressed
                 && Objects.equals(this.creationDate, that.creationDate);
     }
 
@@ -302,6 +401,6 @@ public final class DataFileMetadata {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(itemsCount, index, creationDate, serializationVersion, compactionLevel);
+        return Objects.hash(itemsCount, index, creationDate, serializationVersion, compactionLevel, compressed);
     }
 }
@@ -17,6 +17,7 @@
 package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
 
 import com.hedera.pbj.runtime.ProtoConstants;
@@ -30,17 +31,25 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The aim for a DataFileReader is to facilitate fast highly concurrent random reading of items from
@@ -66,6 +75,12 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
  *     // Data item version. May not be needed
  *     uint64 itemVersion = 5;
  *
+ *     // Compaction level
+ *     uint32 compactionLevel = 6;
+ *
+ *     // Whether data items are compressed, see DataItemCompression for compressed item format
+ *     bool compressed = 7;
+ *
  *     // Data items
  *     repeated bytes items = 11;
  * }
@@ -75,6 +90,14 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
  */
 public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFileReader<D>>, IndexedObject {
 
+    private static final Logger logger = LogManager.getLogger(DataFileReader.class);
+
+    /**
+     * Buffer size to read data item tag and size. If the whole item is small and fits into
+     * this buffer, there is no need to make an extra file read.
+     */
+    private static final int PRE_READ_BUF_SIZE = 2048;
+
     private static final ThreadLocal<ByteBuffer> BUFFER_CACHE = new ThreadLocal<>();
     private static final ThreadLocal<BufferedData> BUFFEREDDATA_CACHE = new ThreadLocal<>();
 
@@ -124,6 +147,53 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      */
     private final AtomicLong fileSizeBytes = new AtomicLong(0);
 
+    /**
+     * Max size of a single memory-mapped region of the file. Files larger than that are mapped
+     * using multiple regions. Data items, which cross region boundaries, are read using file
+     * channels rather than from mapped memory.
+     */
+    static final long MAPPED_REGION_SIZE = 1L << 30;
+
+    /**
+     * Max number of bytes taken by a data item header: a varint tag and a varint size. Used to
+     * check if the header of a data item can be read from a mapped region.
+     */
+    private static final int MAX_ITEM_HEADER_SIZE = 10;
+
+    /**
+     * Memory-mapped regions of this file. Only set when memory-mapped reads are enabled in
+     * MerkleDb config and the file is completed, so its content never changes. Reset to null,
+     * when this reader is closed.
+     *
+     * <p>Mapped regions are never unmapped explicitly. Buffers returned from {@link #read(long)}
+     * are slices of the mapped regions, and they may still be used by other threads after this
+     * reader is closed, e.g. when the file is deleted after compaction. The mapped memory is
+     * released by GC, when the last slice becomes unreachable. It's safe to delete the file in
+     * the meantime, the mapped pages stay accessible till then.
+     */
+    private final AtomicReference<MappedRegion[]> mappedRegions = new AtomicReference<>();
+
+    /** Number of data items read from mapped memory */
+    private final LongAdder mappedReadsCount = new LongAdder();
+
+    /** Number of data items read using file channels, although the file is memory-mapped */
+    private final LongAdder mappedReadFallbacksCount = new LongAdder();
+
+    /**
+     * A single memory-mapped region of the file.
+     *
+     * @param buffer the mapped buffer
+     * @param data a BufferedData wrapper around the buffer to read data item headers
+     */
+    private record MappedRegion(MappedByteBuffer buffer, BufferedData data) {}
+
+    /**
+     * Asynchronous file channel used by {@link #readDataItemAsync(long)}. Opened lazily on the
+     * first async read, so readers that are never used asynchronously don't hold an extra file
+     * handle. Closed and reset to null, when this reader is closed.
+     */
+    private final AtomicReference<AsynchronousFileChannel> asyncFileChannel = new AtomicReference<>();
+
     /**
      * Open an existing data file, reading the metadata from the file
      *
@@ -187,6 +257,9 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         } finally {
             fileCompleted.set(true);
         }
+        if (dbConfig.memoryMappedReadsEnabled()) {
+            mapFile();
+        }
     }
 
     /**
@@ -238,7 +311,7 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      */
     public D readDataItem(final long dataLocation) throws IOException {
         final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
-        final BufferedData data = read(byteOffset);
+        final BufferedData data = decompressIfNeeded(read(byteOffset));
         return data != null ? dataItemSerializer.deserialize(data) : null;
     }
 
@@ -247,13 +320,131 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      *
      * @param dataLocation the file index combined with the offset for the starting block of the
      *     data in the file
-     * @return data item bytes
+     * @return data item bytes, uncompressed if the file is compressed
      * @throws IOException if there was a problem reading from data file
      * @throws ClosedChannelException if the data file was closed
      */
     public BufferedData readDataItemBytes(final long dataLocation) throws IOException {
         final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
-        return read(byteOffset);
+        return decompressIfNeeded(read(byteOffset));
+    }
+
+    /**
+     * Read data item from file at dataLocation asynchronously and deserialize it to a Java object.
+     * Deserialization happens on the thread that completes the read.
+     *
+     * @param dataLocation data item location, which combines data file index and offset in the file
+     * @return a future completed with the deserialized data item, or with null if the data file
+     *      was closed. The future is completed exceptionally, if there was a problem reading from
+     *      the file
+     */
+    public CompletableFuture<D> readDataItemAsync(final long dataLocation) {
+        return readDataItemBytesAsync(dataLocation)
+                .thenApply(data -> data != null ? dataItemSerializer.deserialize(data) : null);
+    }
+
+    /**
+     * Read data item bytes from file at dataLocation asynchronously. The calling thread is not
+     * blocked on disk I/O, which allows callers to have many reads in flight at the same time and
+     * lets the OS and the storage device reorder and batch them.
+     *
+     * <p>If the file is memory-mapped, and the item can be read from mapped memory, the returned
+     * future is already completed. Otherwise, the item is read using an asynchronous file channel.
+     * Unlike {@link #readDataItemBytes(long)}, a new buffer is allocated for every call, since the
+     * read may complete on any thread.
+     *
+     * @param dataLocation the file index combined with the offset for the starting block of the
+     *     data in the file
+     * @return a future completed with data item bytes, or with null if the data file was closed
+     */
+    public CompletableFuture<BufferedData> readDataItemBytesAsync(final long dataLocation) {
+        final CompletableFuture<BufferedData> stored = readStoredDataItemBytesAsync(dataLocation);
+        if (!metadata.isCompressed()) {
+            return stored;
+        }
+        return stored.thenApply(data -> {
+            try {
+                return decompressIfNeeded(data);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Read data item bytes, as they are stored in the file, at dataLocation asynchronously. If
+     * the file is compressed, the returned bytes are compressed, too.
+     *
+     * @param dataLocation the file index combined with the offset for the starting block of the
+     *     data in the file
+     * @return a future completed with stored data item bytes, or with null if the data file was
+     *      closed
+     */
+    private CompletableFuture<BufferedData> readStoredDataItemBytesAsync(final long dataLocation) {
+        final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+        final MappedRegion[] regions = mappedRegions.get();
+        if (regions != null) {
+            final BufferedData mappedData = readMapped(regions, byteOffset);
+            if (mappedData != null) {
+                mappedReadsCount.increment();
+                return CompletableFuture.completedFuture(mappedData);
+            }
+            mappedReadFallbacksCount.increment();
+        }
+        final AsynchronousFileChannel channel;
+        try {
+            channel = getAsyncFileChannel();
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (channel == null) {
+            // The reader was closed, the caller should retry with a new reader
+            return CompletableFuture.completedFuture(null);
+        }
+        final ByteBuffer header = ByteBuffer.allocate(PRE_READ_BUF_SIZE);
+        return readCompletely(channel, header, byteOffset).thenCompose(headerBytesRead -> {
+            header.flip();
+            final BufferedData headerData = BufferedData.wrap(header);
+            final int tag = headerData.getVarInt(0, false);
+            assert tag
+                    == ((FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET)
+                            | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal());
+            final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+            final int size = headerData.getVarInt(sizeOfTag, false);
+            final int itemStart = sizeOfTag + ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+            // Check if the whole data item is already read in the header
+            if (headerBytesRead >= itemStart + size) {
+                return CompletableFuture.completedFuture(BufferedData.wrap(header.slice(itemStart, size)));
+            }
+            // Otherwise read it separately
+            final ByteBuffer item = ByteBuffer.allocate(size);
+            return readCompletely(channel, item, byteOffset + itemStart).thenApply(itemBytesRead -> {
+                assert itemBytesRead == size : "Failed to read all data item bytes";
+                item.flip();
+                return BufferedData.wrap(item);
+            });
+        });
+    }
+
+    /**
+     * Get the number of data items read from mapped memory. Always zero, if memory-mapped reads
+     * are disabled in MerkleDb config.
+     *
+     * @return number of data items read from mapped memory
+     */
+    public long getMappedReadsCount() {
+        return mappedReadsCount.sum();
+    }
+
+    /**
+     * Get the number of data items, which couldn't be read from mapped memory and were read
+     * using file channels instead. Always zero, if memory-mapped reads are disabled in MerkleDb
+     * config.
+     *
+     * @return number of data items read using file channels while the file is mapped
+     */
+    public long getMappedReadFallbacksCount() {
+        return mappedReadFallbacksCount.sum();
     }
 
     /**
@@ -266,6 +457,18 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         return fileSizeBytes.get();
     }
 
+    /**
+     * Get the estimated size of live data items in this file, in bytes. The estimate is based
+     * on file size and the ratio of live items to all items in the file, see {@link
+     * DataFileMetadata#getLiveItemRatio()}. This method should only be called for files available
+     * to compaction, i.e. after they are fully written.
+     *
+     * @return estimated live data size in bytes
+     */
+    public long getLiveDataSize() {
+        return (long) (getSize() * metadata.getLiveItemRatio());
+    }
+
     /** Equals for use when comparing in collections, based on matching file paths */
     @SuppressWarnings("rawtypes")
     @Override
@@ -326,6 +529,12 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     @Override
     public void close() throws IOException {
         open.set(false);
+        // Mapped regions are not unmapped here, see javadoc for mappedRegions
+        mappedRegions.set(null);
+        final AsynchronousFileChannel asyncChannel = asyncFileChannel.getAndSet(null);
+        if (asyncChannel != null) {
+            asyncChannel.close();
+        }
         for (int i = 0; i < maxFileChannels; i++) {
             final FileChannel fileChannel = fileChannels.getAndSet(i, null);
             if (fileChannel != null) {
@@ -414,11 +623,161 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         fileChannelsInUse.decrementAndGet();
     }
 
+    /**
+     * Memory-maps this file, which must be completed. If the file can't be mapped, for example,
+     * because of insufficient virtual address space, a warning is logged, and all data items are
+     * read using file channels.
+     */
+    private void mapFile() {
+        final long fileSize = getSize();
+        final int regionsCount = (int) ((fileSize + MAPPED_REGION_SIZE - 1) / MAPPED_REGION_SIZE);
+        final MappedRegion[] regions = new MappedRegion[regionsCount];
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < regionsCount; i++) {
+                final long regionStart = i * MAPPED_REGION_SIZE;
+                final long regionSize = Math.min(MAPPED_REGION_SIZE, fileSize - regionStart);
+                final MappedByteBuffer buffer =
+                        fileChannel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+                regions[i] = new MappedRegion(buffer, BufferedData.wrap(buffer));
+            }
+        } catch (final IOException | UnsupportedOperationException e) {
+            logger.warn(EXCEPTION.getMarker(), "Failed to memory-map data file {}, using file channels", path, e);
+            return;
+        }
+        // The reader may be closed in parallel, don't expose mapped regions in this case
+        if (isOpen()) {
+            mappedRegions.set(regions);
+        }
+    }
+
+    /**
+     * Reads a data item from mapped memory. Returned buffer is a slice of a mapped region, no
+     * data is copied.
+     *
+     * @param regions mapped regions of this file
+     * @param byteOffsetInFile offset of the data item in the file
+     * @return data item bytes, or null if the item can't be read from mapped memory, for
+     *      example, if it crosses a boundary between mapped regions
+     */
+    private BufferedData readMapped(final MappedRegion[] regions, final long byteOffsetInFile) {
+        final int regionIndex = (int) (byteOffsetInFile / MAPPED_REGION_SIZE);
+        if (regionIndex >= regions.length) {
+            return null;
+        }
+        final MappedRegion region = regions[regionIndex];
+        final int offsetInRegion = (int) (byteOffsetInFile % MAPPED_REGION_SIZE);
+        final int regionSize = region.buffer().capacity();
+        // The last region ends at the end of file, so all item headers in it can be read. In other
+        // regions, check the header doesn't cross the region boundary
+        if ((regionIndex < regions.length - 1) && (offsetInRegion + MAX_ITEM_HEADER_SIZE > regionSize)) {
+            return null;
+        }
+        final BufferedData regionData = region.data();
+        final int tag = regionData.getVarInt(offsetInRegion, false);
+        assert tag
+                == ((FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal());
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int size = regionData.getVarInt(offsetInRegion + sizeOfTag, false);
+        final int sizeOfSize = ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+        final int itemStart = offsetInRegion + sizeOfTag + sizeOfSize;
+        if (itemStart + size > regionSize) {
+            return null;
+        }
+        // ByteBuffer.slice(int, int) is absolute and doesn't change the mapped buffer state, so
+        // it's safe to call from multiple threads
+        return BufferedData.wrap(region.buffer().slice(itemStart, size));
+    }
+
+    /**
+     * Decompresses data item bytes read from this file, if the file is compressed. Otherwise,
+     * returns the bytes as is.
+     *
+     * @param data data item bytes as they are stored in the file, may be null
+     * @return uncompressed data item bytes, or null if the provided bytes are null
+     * @throws IOException if compressed data item bytes are corrupted
+     */
+    private BufferedData decompressIfNeeded(final BufferedData data) throws IOException {
+        return ((data != null) && metadata.isCompressed()) ? DataItemCompression.decompress(data) : data;
+    }
+
+    /**
+     * Returns an asynchronous file channel to read this file, opening it if needed. This method
+     * is safe to call from multiple threads.
+     *
+     * @return the async file channel, or null if this reader is closed
+     * @throws IOException if the channel can't be opened
+     */
+    private AsynchronousFileChannel getAsyncFileChannel() throws IOException {
+        AsynchronousFileChannel channel = asyncFileChannel.get();
+        if (channel != null) {
+            return channel;
+        }
+        if (!isOpen()) {
+            return null;
+        }
+        channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        if (!asyncFileChannel.compareAndSet(null, channel)) {
+            // Opened by a different thread in parallel
+            channel.close();
+            return asyncFileChannel.get();
+        }
+        // If this reader was closed in parallel, the channel may have been set after close()
+        // reset it, so close it here
+        if (!isOpen() && asyncFileChannel.compareAndSet(channel, null)) {
+            channel.close();
+            return null;
+        }
+        return channel;
+    }
+
+    /**
+     * Reads bytes from an async file channel to the given buffer, till the buffer is full or
+     * the end of file is reached.
+     *
+     * @param channel the channel to read from
+     * @param buffer the buffer to read to, from its current position to its limit
+     * @param position the position in the file to start reading from
+     * @return a future completed with the number of bytes read
+     */
+    private static CompletableFuture<Integer> readCompletely(
+            final AsynchronousFileChannel channel, final ByteBuffer buffer, final long position) {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        final int startBufferPosition = buffer.position();
+        final CompletionHandler<Integer, Void> handler = new CompletionHandler<>() {
+            @Override
+            public void completed(final Integer bytesRead, final Void attachment) {
+                final int totalBytesRead = buffer.position() - startBufferPosition;
+                if ((bytesRead < 0) || !buffer.hasRemaining()) {
+                    result.complete(totalBytesRead);
+                } else {
+                    try {
+                        channel.read(buffer, position + totalBytesRead, null, this);
+                    } catch (final RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            }
+
+            @Override
+            public void failed(final Throwable e, final Void attachment) {
+                result.completeExceptionally(e);
+            }
+        };
+        try {
+            channel.read(buffer, position, null, handler);
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * Read bytesToRead bytes of data from the file starting at byteOffsetInFile unless we reach the
      * end of file. If we reach the end of file then returned buffer's limit will be set to the
      * number of bytes read and be less than bytesToRead.
      *
+     * <p>If the file is memory-mapped, the data item is read from mapped memory, when possible.
+     *
      * @param byteOffsetInFile Offset to start reading at
      * @return ByteBuffer containing read data. This is a reused per thread buffer, so you can use
      *     it till your thread calls read again.
@@ -426,9 +785,15 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      * @throws ClosedChannelException if the file was closed
      */
     private BufferedData read(final long byteOffsetInFile) throws IOException {
-        // Buffer size to read data item tag and size. If the whole item is small and
-        // fits into this buffer, there is no need to make an extra file read
-        final int PRE_READ_BUF_SIZE = 2048;
+        final MappedRegion[] regions = mappedRegions.get();
+        if (regions != null) {
+            final BufferedData mappedData = readMapped(regions, byteOffsetInFile);
+            if (mappedData != null) {
+                mappedReadsCount.increment();
+                return mappedData;
+            }
+            mappedReadFallbacksCount.increment();
+        }
         ByteBuffer readBB = BUFFER_CACHE.get();
         BufferedData readBuf = BUFFEREDDATA_CACHE.get();
         if (readBuf == null) {
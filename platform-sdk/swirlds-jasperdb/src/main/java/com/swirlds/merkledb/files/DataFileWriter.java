@@ -45,6 +45,9 @@ import java.time.Instant;
  *
  * <p>Protobuf schema: see {@link DataFileReader} for details.
  *
+ * <p>If compression is enabled, every data item is compressed individually, see {@link
+ * DataItemCompression} for details.
+ *
  * @param <D> Data item type
  */
 public final class DataFileWriter<D> {
@@ -80,6 +83,11 @@ public final class DataFileWriter<D> {
      */
     private long dataItemCount = 0;
 
+    /** Data item compression, or null if data items are written uncompressed */
+    private final DataItemCompression compression;
+    /** Buffer to serialize data items to before compression, or null if compression is disabled */
+    private BufferedData serializationBuffer;
+
     /**
      * Create a new data file in the given directory, in append mode. Puts the object into "writing"
      * mode (i.e. creates a lock file. So you'd better start writing data and be sure to finish it
@@ -90,6 +98,7 @@ public final class DataFileWriter<D> {
      * @param index the index number for this file
      * @param dataItemSerializer Serializer for converting raw data to/from data items
      * @param creationTime the time stamp for the creation time for this file
+     * @param compactionLevel the compaction level of this file
      */
     public DataFileWriter(
             final String filePrefix,
@@ -99,14 +108,41 @@ public final class DataFileWriter<D> {
             final Instant creationTime,
             final int compactionLevel)
             throws IOException {
+        this(filePrefix, dataFileDir, index, dataItemSerializer, creationTime, compactionLevel, false);
+    }
+
+    /**
+     * Create a new data file in the given directory, in append mode. Puts the object into "writing"
+     * mode (i.e. creates a lock file. So you'd better start writing data and be sure to finish it
+     * off).
+     *
+     * @param filePrefix string prefix for all files, must not contain "_" chars
+     * @param dataFileDir the path to directory to create the data file in
+     * @param index the index number for this file
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param creationTime the time stamp for the creation time for this file
+     * @param compactionLevel the compaction level of this file
+     * @param compressed whether to compress data items written to this file
+     */
+    public DataFileWriter(
+            final String filePrefix,
+            final Path dataFileDir,
+            final int index,
+            final BaseSerializer<D> dataItemSerializer,
+            final Instant creationTime,
+            final int compactionLevel,
+            final boolean compressed)
+            throws IOException {
         this.dataItemSerializer = dataItemSerializer;
+        this.compression = compressed ? new DataItemCompression() : null;
         this.path = createDataFilePath(filePrefix, dataFileDir, index, creationTime, DataFileCommon.FILE_EXTENSION);
         metadata = new DataFileMetadata(
                 0, // data item count will be updated later in finishWriting()
                 index,
                 creationTime,
                 dataItemSerializer.getCurrentDataVersion(),
-                compactionLevel);
+                compactionLevel,
+                compressed);
         Files.createFile(path);
         writeHeader();
     }
@@ -173,6 +209,9 @@ public final class DataFileWriter<D> {
      * @throws IOException If there was a problem writing the data item
      */
     public synchronized long writeCopiedDataItem(final BufferedData dataItemData) throws IOException {
+        if (compression != null) {
+            return writeCompressedDataItem(dataItemData);
+        }
         // capture the current write position for beginning of data item
         final long currentWritingMmapPos = writingPbjData.position();
         final long byteOffset = mmapPositionInFile + currentWritingMmapPos;
@@ -200,6 +239,17 @@ public final class DataFileWriter<D> {
      * @throws IOException if there was a problem appending data to file
      */
     public synchronized long storeDataItem(final D dataItem) throws IOException {
+        if (compression != null) {
+            final int dataItemSize = dataItemSerializer.getSerializedSize(dataItem);
+            if ((serializationBuffer == null) || (serializationBuffer.capacity() < dataItemSize)) {
+                serializationBuffer = BufferedData.allocate(dataItemSize);
+            }
+            serializationBuffer.reset();
+            serializationBuffer.limit(dataItemSize);
+            dataItemSerializer.serialize(dataItem, serializationBuffer);
+            serializationBuffer.position(0);
+            return writeCompressedDataItem(serializationBuffer);
+        }
         // find offset for the start of this new data item, we assume we always write data in a
         // whole number of blocks
         final long currentWritingMmapPos = writingPbjData.position();
@@ -225,6 +275,31 @@ public final class DataFileWriter<D> {
         return DataFileCommon.dataLocation(metadata.getIndex(), byteOffset);
     }
 
+    /**
+     * Compresses a data item and writes it to the file.
+     *
+     * @param dataItemData a buffer containing the item's uncompressed data
+     * @return New data location in this file where it was written
+     * @throws IOException If there was a problem writing the data item
+     */
+    private long writeCompressedDataItem(final BufferedData dataItemData) throws IOException {
+        final long byteOffset = mmapPositionInFile + writingPbjData.position();
+        compression.compress(dataItemData);
+        final int size = compression.getCompressedItemSize();
+        if (writingPbjData.remaining() < ProtoWriterTools.sizeOfDelimited(FIELD_DATAFILE_ITEMS, size)) {
+            moveWritingBuffer(byteOffset);
+        }
+        try {
+            ProtoWriterTools.writeDelimited(
+                    writingPbjData, FIELD_DATAFILE_ITEMS, size, compression::writeCompressedItem);
+        } catch (final BufferOverflowException e) {
+            // Buffer overflow here means the mapped buffer is smaller than even a single data item
+            throw new IOException(DataFileCommon.ERROR_DATAITEM_TOO_LARGE, e);
+        }
+        dataItemCount++;
+        return DataFileCommon.dataLocation(metadata.getIndex(), byteOffset);
+    }
+
     /**
      * When you finished append to a new file, call this to seal the file and make it read only for
      * reading.
@@ -241,6 +316,10 @@ public final class DataFileWriter<D> {
         // release all the resources
         DataFileCommon.closeMmapBuffer(writingHeaderMmap);
         DataFileCommon.closeMmapBuffer(writingMmap);
+        if (compression != null) {
+            compression.close();
+        }
+        serializationBuffer = null;
 
         try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
             channel.truncate(totalFileSize);
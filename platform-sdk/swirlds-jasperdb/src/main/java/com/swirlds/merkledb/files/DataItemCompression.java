@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.hedera.pbj.runtime.ProtoWriterTools;
+import com.hedera.pbj.runtime.io.WritableSequentialData;
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Data item compression in data files.
+ *
+ * <p>Data items are compressed one by one, so data locations stay the same as for uncompressed
+ * files, and reading a single item only requires to decompress this item. In a compressed data
+ * file, every data item is stored as
+ *
+ * <p><pre>
+ * message CompressedItem {
+ *
+ *     // Uncompressed data item size, varint
+ *     uint32 size;
+ *
+ *     // Deflate compressed data item bytes, or raw data item bytes, if compression
+ *     // doesn't make the item smaller
+ *     bytes data;
+ * }
+ * </pre>
+ *
+ * <p>Compressed data is always smaller than the uncompressed data item, so if the number of
+ * stored bytes is equal to the uncompressed size, the item is stored as is.
+ *
+ * <p>Instances of this class are used to compress data items and are not thread safe. Data items
+ * are decompressed using a static {@link #decompress(BufferedData)} method, which can be called
+ * from any thread.
+ */
+final class DataItemCompression {
+
+    /** Deflate level. Fast compression is preferred, since items are compressed during flushes */
+    private static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+    /** Inflaters to decompress data items, one per thread, to avoid native memory allocations */
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+    private final Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+
+    /** Uncompressed data item bytes */
+    private byte[] rawBytes = new byte[0];
+
+    /** Compressed data item bytes */
+    private byte[] compressedBytes = new byte[0];
+
+    /** Uncompressed size of the last compressed data item */
+    private int rawSize;
+
+    /** Size of the last data item after compression, or raw size, if the item isn't compressed */
+    private int storedSize;
+
+    /**
+     * Compresses a data item. After this call, compressed item size and bytes are available via
+     * {@link #getCompressedItemSize()} and {@link #writeCompressedItem(WritableSequentialData)}.
+     *
+     * @param itemBytes data item bytes, from the current position to the limit. Buffer position
+     *      is moved to the limit
+     */
+    void compress(final BufferedData itemBytes) {
+        rawSize = Math.toIntExact(itemBytes.remaining());
+        if (rawBytes.length < rawSize) {
+            rawBytes = new byte[rawSize];
+            compressedBytes = new byte[rawSize];
+        }
+        itemBytes.readBytes(rawBytes, 0, rawSize);
+        deflater.reset();
+        deflater.setInput(rawBytes, 0, rawSize);
+        deflater.finish();
+        // Compressed output is limited to raw size - 1 bytes. If it isn't enough, the item is not
+        // compressible and is stored as is
+        final int compressedSize = deflater.deflate(compressedBytes, 0, Math.max(0, rawSize - 1));
+        storedSize = deflater.finished() ? compressedSize : rawSize;
+    }
+
+    /**
+     * Returns the size of the last compressed data item, as it's stored in a data file.
+     *
+     * @return compressed data item size in bytes
+     */
+    int getCompressedItemSize() {
+        return ProtoWriterTools.sizeOfUnsignedVarInt32(rawSize) + storedSize;
+    }
+
+    /**
+     * Writes the last compressed data item to the given output.
+     *
+     * @param out the output to write to
+     */
+    void writeCompressedItem(final WritableSequentialData out) {
+        out.writeVarInt(rawSize, false);
+        out.writeBytes(storedSize < rawSize ? compressedBytes : rawBytes, 0, storedSize);
+    }
+
+    /**
+     * Releases native resources used by this object. It must not be used after this call.
+     */
+    void close() {
+        deflater.end();
+    }
+
+    /**
+     * Decompresses a data item. Compressed bytes are read from the given buffer, from its current
+     * position to the limit.
+     *
+     * @param compressedItem compressed data item bytes
+     * @return uncompressed data item bytes
+     * @throws IOException if the compressed data is corrupted
+     */
+    static BufferedData decompress(final BufferedData compressedItem) throws IOException {
+        final int size = compressedItem.readVarInt(false);
+        final int storedSize = Math.toIntExact(compressedItem.remaining());
+        if (storedSize == size) {
+            // The item is stored uncompressed
+            return compressedItem.slice(compressedItem.position(), size);
+        }
+        final byte[] in = new byte[storedSize];
+        compressedItem.readBytes(in);
+        final byte[] out = new byte[size];
+        final Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setInput(in);
+        try {
+            final int inflated = inflater.inflate(out);
+            if ((inflated != size) || !inflater.finished()) {
+                throw new IOException("Failed to decompress data item, expected " + size + " bytes, got " + inflated);
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Failed to decompress data item", e);
+        }
+        return BufferedData.wrap(out);
+    }
+}
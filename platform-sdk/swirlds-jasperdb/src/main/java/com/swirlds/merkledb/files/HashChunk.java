@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * A chunk of internal node hashes. A chunk contains hashes of all nodes in a sub-tree of a fixed
+ * height. Chunks are aligned to ranks, which are multiples of the height: chunks of height 3
+ * start at ranks 0, 3, 6, and so on. The root node is in chunk 0, together with nodes at ranks 1
+ * and 2. Every node at rank 3 is a root of a chunk, which also contains the node's descendants at
+ * ranks 4 and 5, and so on.
+ * <p>
+ * Chunk IDs are dense: chunk 0 is the one with the root node, then chunks rooted at the first
+ * chunk rank from left to right, then chunks rooted at the second chunk rank, and so on. Chunk
+ * IDs of all paths in a tree don't exceed {@link #getMaxChunkId(long, int)} for the tree's last
+ * path.
+ * <p>
+ * Within a chunk, hashes are stored in the same order as nodes are numbered in a tree: the chunk
+ * root first, then its children, and so on. Hashes, which are not set, are stored as all zero
+ * bytes. Only {@link DigestType#SHA_384} hashes are supported.
+ */
+public final class HashChunk {
+
+    /** Hash digest type, must be the same as used by virtual hash records */
+    static final DigestType DIGEST_TYPE = VirtualHashRecordSerializer.DEFAULT_DIGEST;
+
+    /** Chunk ID */
+    private final long id;
+
+    /** Chunk height */
+    private final int height;
+
+    /** Hash bytes, {@link #getChunkSize(int)} hashes one after another */
+    private final byte[] hashes;
+
+    /**
+     * Creates a new chunk with no hashes set.
+     *
+     * @param id chunk ID
+     * @param height chunk height
+     */
+    public HashChunk(final long id, final int height) {
+        this(id, height, new byte[getChunkSize(height) * DIGEST_TYPE.digestLength()]);
+    }
+
+    /**
+     * Creates a new chunk with the given hash bytes. The array is used as is, not copied.
+     *
+     * @param id chunk ID
+     * @param height chunk height
+     * @param hashes hash bytes
+     */
+    HashChunk(final long id, final int height, @NonNull final byte[] hashes) {
+        if (height <= 0) {
+            throw new IllegalArgumentException("Wrong hash chunk height: " + height);
+        }
+        if (hashes.length != getChunkSize(height) * DIGEST_TYPE.digestLength()) {
+            throw new IllegalArgumentException("Wrong hash chunk size: " + hashes.length);
+        }
+        this.id = id;
+        this.height = height;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Returns the number of hashes in a chunk of the given height.
+     *
+     * @param height chunk height
+     * @return number of hashes in a chunk
+     */
+    public static int getChunkSize(final int height) {
+        return (1 << height) - 1;
+    }
+
+    /**
+     * Returns the ID of the chunk, which contains the given path.
+     *
+     * @param path virtual node path
+     * @param height chunk height
+     * @return chunk ID
+     */
+    public static long getChunkId(final long path, final int height) {
+        final int rank = getRank(path);
+        final int chunkRootRank = rank - rank % height;
+        final long chunkRootPath = ((path + 1) >>> (rank - chunkRootRank)) - 1;
+        // Number of chunks at all chunk ranks above the chunk root rank: 1 + 2^h + 2^2h + ...
+        final long firstChunkIdInRank = ((1L << chunkRootRank) - 1) / ((1L << height) - 1);
+        return firstChunkIdInRank + (chunkRootPath + 1 - (1L << chunkRootRank));
+    }
+
+    /**
+     * Returns the max chunk ID for all paths from 0 to the given path. Note that it may be greater
+     * than the chunk ID of the path itself. For example, if the path is the first path in its rank,
+     * but the rank is not a chunk root rank, the path's chunk is the first chunk in the chunk rank,
+     * while all other nodes in the chunk rank are in the tree, too.
+     *
+     * @param lastPath the last virtual node path
+     * @param height chunk height
+     * @return max chunk ID
+     */
+    public static long getMaxChunkId(final long lastPath, final int height) {
+        final int rank = getRank(lastPath);
+        final int chunkRootRank = rank - rank % height;
+        if (rank == chunkRootRank) {
+            return getChunkId(lastPath, height);
+        }
+        // The last path at the chunk root rank
+        return getChunkId((1L << (chunkRootRank + 1)) - 2, height);
+    }
+
+    /**
+     * Returns the index of the given path in its chunk.
+     *
+     * @param path virtual node path
+     * @param height chunk height
+     * @return hash index in the chunk, from 0 to {@link #getChunkSize(int)} - 1
+     */
+    public static int getIndexInChunk(final long path, final int height) {
+        final int rank = getRank(path);
+        final int depth = rank % height;
+        final long chunkRootPath = ((path + 1) >>> depth) - 1;
+        return (int) ((1L << depth) - 1 + (path + 1 - ((chunkRootPath + 1) << depth)));
+    }
+
+    private static int getRank(final long path) {
+        if (path < 0) {
+            throw new IllegalArgumentException("Negative path: " + path);
+        }
+        return Long.SIZE - 1 - Long.numberOfLeadingZeros(path + 1);
+    }
+
+    /**
+     * Returns chunk ID.
+     *
+     * @return chunk ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns chunk height.
+     *
+     * @return chunk height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns a hash at the given index in this chunk.
+     *
+     * @param index hash index, see {@link #getIndexInChunk(long, int)}
+     * @return the hash, or null if the hash is not set
+     */
+    @Nullable
+    public Hash getHash(final int index) {
+        final int digestLength = DIGEST_TYPE.digestLength();
+        final int from = index * digestLength;
+        final int to = from + digestLength;
+        for (int i = from; i < to; i++) {
+            if (hashes[i] != 0) {
+                return new Hash(Arrays.copyOfRange(hashes, from, to), DIGEST_TYPE);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets a hash at the given index in this chunk.
+     *
+     * @param index hash index, see {@link #getIndexInChunk(long, int)}
+     * @param hash the hash, or null to clear the hash
+     */
+    public void setHash(final int index, @Nullable final Hash hash) {
+        final int digestLength = DIGEST_TYPE.digestLength();
+        if (hash == null) {
+            Arrays.fill(hashes, index * digestLength, (index + 1) * digestLength, (byte) 0);
+        } else {
+            if (hash.getDigestType() != DIGEST_TYPE) {
+                throw new IllegalArgumentException("Only " + DIGEST_TYPE + " hashes are supported");
+            }
+            hash.getBytes().getBytes(0, hashes, index * digestLength, digestLength);
+        }
+    }
+
+    /**
+     * Creates a copy of this chunk.
+     *
+     * @return chunk copy
+     */
+    public HashChunk copy() {
+        return new HashChunk(id, height, hashes.clone());
+    }
+
+    /**
+     * Returns hash bytes of this chunk. The array is not copied, so it must not be modified.
+     *
+     * @return hash bytes
+     */
+    byte[] getHashBytes() {
+        return hashes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "HashChunk{id=" + id + ", height=" + height + "}";
+    }
+}
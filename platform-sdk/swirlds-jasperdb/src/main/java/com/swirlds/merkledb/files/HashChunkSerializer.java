@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+
+import com.hedera.pbj.runtime.FieldDefinition;
+import com.hedera.pbj.runtime.FieldType;
+import com.hedera.pbj.runtime.ProtoConstants;
+import com.hedera.pbj.runtime.ProtoWriterTools;
+import com.hedera.pbj.runtime.io.ReadableSequentialData;
+import com.hedera.pbj.runtime.io.WritableSequentialData;
+import com.swirlds.merkledb.MerkleDbTableConfig;
+import com.swirlds.merkledb.serialize.BaseSerializer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Serializer to store and read hash chunks in MerkleDb data files. Chunk height isn't stored in
+ * data files, it's a table config property. All chunks in a store are of the same height.
+ *
+ * <p>Protobuf schema:
+ *
+ * <p><pre>
+ * message HashChunk {
+ *
+ *     // Chunk ID
+ *     optional fixed64 id = 1;
+ *
+ *     // Hashes, (2^height - 1) * 48 bytes. Always DigestType.SHA_384 for now
+ *     bytes hashes = 2;
+ * }
+ * </pre>
+ */
+public final class HashChunkSerializer implements BaseSerializer<HashChunk> {
+
+    private static final FieldDefinition FIELD_HASHCHUNK_ID =
+            new FieldDefinition("id", FieldType.FIXED64, false, true, false, 1);
+    private static final FieldDefinition FIELD_HASHCHUNK_HASHES =
+            new FieldDefinition("hashes", FieldType.BYTES, false, true, false, 2);
+
+    private static final long CURRENT_SERIALIZATION_VERSION = 1;
+
+    /** Chunk height */
+    private final int height;
+
+    /** Hash bytes length in every chunk */
+    private final int hashesLength;
+
+    /**
+     * Creates a new serializer for chunks of the given height.
+     *
+     * @param height chunk height
+     */
+    public HashChunkSerializer(final int height) {
+        if ((height <= 0) || (height > MerkleDbTableConfig.MAX_HASH_CHUNK_HEIGHT)) {
+            throw new IllegalArgumentException("Wrong hash chunk height: " + height);
+        }
+        this.height = height;
+        this.hashesLength = HashChunk.getChunkSize(height) * HashChunk.DIGEST_TYPE.digestLength();
+    }
+
+    @Override
+    public long getCurrentDataVersion() {
+        return CURRENT_SERIALIZATION_VERSION;
+    }
+
+    @Override
+    @Deprecated(forRemoval = true)
+    public int getSerializedSize() {
+        return VARIABLE_DATA_SIZE;
+    }
+
+    @Override
+    public int getTypicalSerializedSize() {
+        return ProtoWriterTools.sizeOfTag(FIELD_HASHCHUNK_ID, ProtoConstants.WIRE_TYPE_FIXED_64_BIT)
+                + Long.BYTES
+                + ProtoWriterTools.sizeOfDelimited(FIELD_HASHCHUNK_HASHES, hashesLength);
+    }
+
+    @Override
+    public int getSerializedSize(@NonNull final HashChunk data) {
+        int size = 0;
+        if (data.getId() != 0) {
+            size += ProtoWriterTools.sizeOfTag(FIELD_HASHCHUNK_ID, ProtoConstants.WIRE_TYPE_FIXED_64_BIT) + Long.BYTES;
+        }
+        size += ProtoWriterTools.sizeOfDelimited(FIELD_HASHCHUNK_HASHES, hashesLength);
+        return size;
+    }
+
+    @Override
+    public void serialize(@NonNull final HashChunk chunk, @NonNull final WritableSequentialData out) {
+        if (chunk.getHeight() != height) {
+            throw new IllegalArgumentException(
+                    "Wrong hash chunk height: " + chunk.getHeight() + ", expected: " + height);
+        }
+        if (chunk.getId() != 0) {
+            ProtoWriterTools.writeTag(out, FIELD_HASHCHUNK_ID);
+            // Use long instead of var long to keep the size fixed
+            out.writeLong(chunk.getId());
+        }
+        ProtoWriterTools.writeDelimited(
+                out, FIELD_HASHCHUNK_HASHES, hashesLength, o -> o.writeBytes(chunk.getHashBytes()));
+    }
+
+    @Override
+    public HashChunk deserialize(@NonNull final ReadableSequentialData in) {
+        // default values
+        long id = 0;
+        byte[] hashes = null;
+
+        // read fields, they may be in any order or even missing at all
+        while (in.hasRemaining()) {
+            final int tag = in.readVarInt(false);
+            final int fieldNum = tag >> TAG_FIELD_OFFSET;
+            if (fieldNum == FIELD_HASHCHUNK_ID.number()) {
+                id = in.readLong();
+            } else if (fieldNum == FIELD_HASHCHUNK_HASHES.number()) {
+                final int length = in.readVarInt(false);
+                if (length != hashesLength) {
+                    throw new IllegalArgumentException(
+                            "Wrong hash chunk length: " + length + ", expected: " + hashesLength);
+                }
+                hashes = new byte[length];
+                in.readBytes(hashes);
+            } else {
+                throw new IllegalArgumentException("Unknown hash chunk field: " + fieldNum);
+            }
+        }
+
+        if (hashes == null) {
+            throw new IllegalArgumentException("Missing hash chunk hashes, chunk ID: " + id);
+        }
+        return new HashChunk(id, height, hashes);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if ((o == null) || (getClass() != o.getClass())) {
+            return false;
+        }
+        return height == ((HashChunkSerializer) o).height;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return height;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.merkledb.FileStatisticAware;
+import com.swirlds.merkledb.Snapshotable;
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+
+/**
+ * On disk store for internal node hashes, where hashes are grouped into {@link HashChunk chunks}.
+ * Every chunk is stored in data files as a single data item, so all hashes of a sub-tree are read
+ * from disk in a single read. The index maps chunk IDs rather than paths to data locations.
+ * <p>
+ * Hashes are updated in chunks, too. When a hash is put to the store, the corresponding chunk is
+ * loaded from disk (or created, if it doesn't exist yet), the hash is updated in the chunk, and
+ * the whole chunk is written to disk in {@link #endWriting()}. If a flush only updates a few
+ * hashes in a chunk, this results in some write amplification, which is the price for fewer and
+ * larger reads.
+ * <p>
+ * Reads are thread safe. Every thread keeps the last chunk it read, so consecutive reads of hashes
+ * from the same chunk don't hit the disk. The cached chunk is only reused if its data location is
+ * still the same as in the index, i.e. the chunk hasn't been updated or compacted since. Writes
+ * ({@link #startWriting(long)}, {@link #put(long, Hash)}, and {@link #endWriting()}) must be done
+ * from a single thread.
+ */
+public class HashChunkStore implements AutoCloseable, Snapshotable, FileStatisticAware {
+
+    /** Chunk height */
+    private final int height;
+
+    /** Chunk ID to data location index */
+    private final LongList index;
+
+    /** Underlying store for chunks */
+    private final MemoryIndexDiskKeyValueStore<HashChunk> store;
+
+    /** Chunks updated in the current writing session, by chunk ID */
+    private final Map<Long, HashChunk> dirtyChunks = new HashMap<>();
+
+    /** The last chunk read by the current thread, together with its data location */
+    private final ThreadLocal<LocatedChunk> lastReadChunk = new ThreadLocal<>();
+
+    private record LocatedChunk(long dataLocation, HashChunk chunk) {}
+
+    /**
+     * Creates a new hash chunk store.
+     *
+     * @param config MerkleDb config
+     * @param storeDir the directory to store data files in
+     * @param storeName the name of the store
+     * @param height chunk height
+     * @param chunkIdToDiskLocationIndex chunk ID to data location index. If the index is empty, it's
+     *     rebuilt from the data files
+     * @throws IOException if there was a problem opening data files
+     */
+    public HashChunkStore(
+            @NonNull final MerkleDbConfig config,
+            @NonNull final Path storeDir,
+            @NonNull final String storeName,
+            final int height,
+            @NonNull final LongList chunkIdToDiskLocationIndex)
+            throws IOException {
+        this.height = height;
+        this.index = chunkIdToDiskLocationIndex;
+        final boolean indexEmpty = chunkIdToDiskLocationIndex.size() == 0;
+        store = new MemoryIndexDiskKeyValueStore<>(
+                config,
+                storeDir,
+                storeName,
+                null,
+                new HashChunkSerializer(height),
+                indexEmpty ? (dataLocation, chunk) -> index.put(chunk.getId(), dataLocation) : null,
+                chunkIdToDiskLocationIndex);
+    }
+
+    /**
+     * Returns chunk height.
+     *
+     * @return chunk height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Starts a writing session.
+     *
+     * @param maxValidPath the last valid virtual node path. Chunks with greater IDs than the max
+     *     chunk ID for this path are removed from the index
+     * @throws IOException if there was a problem opening a new data file
+     */
+    public void startWriting(final long maxValidPath) throws IOException {
+        dirtyChunks.clear();
+        store.startWriting(0, HashChunk.getMaxChunkId(maxValidPath, height));
+    }
+
+    /**
+     * Updates a hash in this store. The hash isn't written to disk until {@link #endWriting()}.
+     *
+     * @param path virtual node path
+     * @param hash node hash
+     * @throws IOException if there was a problem reading the hash chunk from disk
+     */
+    public void put(final long path, @NonNull final Hash hash) throws IOException {
+        final long chunkId = HashChunk.getChunkId(path, height);
+        HashChunk chunk = dirtyChunks.get(chunkId);
+        if (chunk == null) {
+            // Chunks read from the store are new objects, they can be updated in place
+            chunk = store.get(chunkId);
+            if (chunk == null) {
+                chunk = new HashChunk(chunkId, height);
+            }
+            dirtyChunks.put(chunkId, chunk);
+        }
+        chunk.setHash(HashChunk.getIndexInChunk(path, height), hash);
+    }
+
+    /**
+     * Writes all updated chunks to disk, in chunk ID order, and ends the writing session.
+     *
+     * @return data file reader for the file written
+     * @throws IOException if there was a problem writing chunks to disk
+     */
+    @Nullable
+    public DataFileReader<HashChunk> endWriting() throws IOException {
+        final List<HashChunk> chunks = new ArrayList<>(dirtyChunks.values());
+        dirtyChunks.clear();
+        chunks.sort(Comparator.comparingLong(HashChunk::getId));
+        for (final HashChunk chunk : chunks) {
+            store.put(chunk.getId(), chunk);
+        }
+        return store.endWriting();
+    }
+
+    /**
+     * Reads a hash from this store.
+     *
+     * @param path virtual node path
+     * @return the hash, or null if the hash isn't stored
+     * @throws IOException if there was a problem reading the hash chunk from disk
+     */
+    @Nullable
+    public Hash get(final long path) throws IOException {
+        final HashChunk chunk = getChunk(HashChunk.getChunkId(path, height));
+        return (chunk != null) ? chunk.getHash(HashChunk.getIndexInChunk(path, height)) : null;
+    }
+
+    /**
+     * Reads a hash chunk from this store. If the chunk is the last one read by the current thread,
+     * and it hasn't been changed since, the cached chunk is returned. Returned chunks must not be
+     * modified.
+     *
+     * @param chunkId chunk ID
+     * @return the chunk, or null if the chunk isn't stored
+     * @throws IOException if there was a problem reading the hash chunk from disk
+     */
+    @Nullable
+    public HashChunk getChunk(final long chunkId) throws IOException {
+        final long dataLocation = index.get(chunkId, LongList.IMPERMISSIBLE_VALUE);
+        if (dataLocation == LongList.IMPERMISSIBLE_VALUE) {
+            return null;
+        }
+        final LocatedChunk last = lastReadChunk.get();
+        if ((last != null) && (last.dataLocation() == dataLocation) && (last.chunk().getId() == chunkId)) {
+            return last.chunk();
+        }
+        final HashChunk chunk = store.get(chunkId);
+        if (chunk != null) {
+            lastReadChunk.set(new LocatedChunk(dataLocation, chunk));
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the data location of the chunk, which contains the given path, or {@link
+     * LongList#IMPERMISSIBLE_VALUE}, if the chunk isn't stored. Used to order reads.
+     *
+     * @param path virtual node path
+     * @return the chunk data location
+     */
+    public long getDataLocation(final long path) {
+        return index.get(HashChunk.getChunkId(path, height), LongList.IMPERMISSIBLE_VALUE);
+    }
+
+    /**
+     * Returns the underlying data file collection, used to set up compaction.
+     *
+     * @return the data file collection
+     */
+    public DataFileCollection<HashChunk> getFileCollection() {
+        return store.getFileCollection();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void snapshot(final Path snapshotDirectory) throws IOException {
+        store.snapshot(snapshotDirectory);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public LongSummaryStatistics getFilesSizeStatistics() {
+        return store.getFilesSizeStatistics();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getMappedReadsCount() {
+        return store.getMappedReadsCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getMappedReadFallbacksCount() {
+        return store.getMappedReadFallbacksCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getLiveDataRatio() {
+        return store.getLiveDataRatio();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "HashChunkStore{height=" + height + ", files=" + store.getFileCollection().getNumOfFiles() + "}";
+    }
+}
@@ -95,13 +95,54 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
             final LoadedDataCallback<D> loadedDataCallback,
             final LongList keyToDiskLocationIndex)
             throws IOException {
+        this(
+                config,
+                storeDir,
+                storeName,
+                legacyStoreName,
+                dataItemSerializer,
+                loadedDataCallback,
+                keyToDiskLocationIndex,
+                false);
+    }
+
+    /**
+     * Construct a new MemoryIndexDiskKeyValueStore with optional data item compression
+     *
+     * @param storeDir The directory to store data files in
+     * @param storeName The name for the data store, this allows more than one data store in a single directory.
+     * @param legacyStoreName Base name for the data store. If not null, the store will process files with this prefix at startup. New files in the store will be prefixed with {@code storeName}
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param loadedDataCallback call back for handing loaded data from existing files on startup. Can be null if not needed.
+     * @param keyToDiskLocationIndex The index to use for keys to disk locations
+     * @param compressDataItems Whether to compress data items in new data files
+     * @throws IOException If there was a problem opening data files
+     */
+    public MemoryIndexDiskKeyValueStore(
+            final MerkleDbConfig config,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final BaseSerializer<D> dataItemSerializer,
+            final LoadedDataCallback<D> loadedDataCallback,
+            final LongList keyToDiskLocationIndex,
+            final boolean compressDataItems)
+            throws IOException {
         this.storeName = storeName;
         index = keyToDiskLocationIndex;
         // create store dir
         Files.createDirectories(storeDir);
         // create file collection
         fileCollection = new DataFileCollection<>(
-                config, storeDir, storeName, legacyStoreName, dataItemSerializer, loadedDataCallback);
+                config,
+                storeDir,
+                storeName,
+                legacyStoreName,
+                dataItemSerializer,
+                loadedDataCallback,
+                compressDataItems);
+        // obsolete item counters aren't stored in files, restore them from the index
+        fileCollection.updateLiveItemCounts(index);
         // no limits for the keys on init
         minValidKey = new AtomicLong(0);
         maxValidKey = new AtomicLong(Long.MAX_VALUE);
@@ -132,8 +173,18 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
      */
     public void put(final long key, final D dataItem) throws IOException {
         final long dataLocation = fileCollection.storeDataItem(dataItem);
-        // store data location in index
-        index.put(key, dataLocation);
+        // store data location in index. Compaction may move the current entry in parallel, so the
+        // entry is replaced atomically to mark exactly the overwritten data item as obsolete
+        long oldDataLocation;
+        do {
+            oldDataLocation = index.get(key, LongList.IMPERMISSIBLE_VALUE);
+            if (oldDataLocation == LongList.IMPERMISSIBLE_VALUE) {
+                // compaction never creates new index entries
+                index.put(key, dataLocation);
+                break;
+            }
+        } while (!index.putIfEqual(key, oldDataLocation, dataLocation));
+        fileCollection.markDataItemObsolete(oldDataLocation);
     }
 
     /**
@@ -231,6 +282,27 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedReadsCount() {
+        return fileCollection.getMappedReadsCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedReadFallbacksCount() {
+        return fileCollection.getMappedReadFallbacksCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getLiveDataRatio() {
+        return fileCollection.getLiveDataRatio();
+    }
+
     public DataFileCollection<D> getFileCollection() {
         return fileCollection;
     }
@@ -31,7 +31,9 @@ import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.virtualmap.VirtualKey;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -40,6 +42,12 @@ import org.apache.logging.log4j.Logger;
  * of bucket entries. Entries contain key hash codes (as a single bucket may contain keys
  * with different hash codes), values, and full serialized key bytes.
  *
+ * <p>Bucket data is kept in serialized form. In addition, key hash codes and offsets of all
+ * entries are stored in compact arrays, so lookups scan hash codes first and only parse entries
+ * with matching hash codes. If the key serializer {@link KeySerializer#supportsRawKeyComparison()
+ * supports raw key comparison}, keys in the matching entries are compared by their serialized
+ * bytes, otherwise using {@link KeySerializer#equals(BufferedData, VirtualKey)}.
+ *
  * <p>This class is not fully thread safe. Buckets may be updated in one thread and then
  * accessed from different threads, this use case is supported. However, buckets aren't
  * designed to be updated concurrently from multiple threads.
@@ -92,9 +100,15 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
     private static final int METADATA_SIZE =
             ProtoWriterTools.sizeOfTag(FIELD_BUCKET_INDEX, ProtoConstants.WIRE_TYPE_FIXED_32_BIT) + Integer.BYTES;
 
+    /** Initial capacity of entry hash code and offset arrays */
+    private static final int INITIAL_ENTRY_CAPACITY = 16;
+
     /** Key serializer */
     protected final KeySerializer<K> keySerializer;
 
+    /** Indicates whether keys are compared by their serialized bytes */
+    private final boolean rawKeyComparison;
+
     /**
      * Bucket pool this bucket is managed by, optional. If not null, the bucket is
      * released back to the pool on close.
@@ -107,6 +121,15 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
 
     private int entryCount = 0;
 
+    /** Key hash codes of the first {@link #entryCount} entries, in the order of entries in bucket data */
+    private int[] entryHashCodes = new int[INITIAL_ENTRY_CAPACITY];
+
+    /** Offsets of the first {@link #entryCount} entries in bucket data */
+    private long[] entryOffsets = new long[INITIAL_ENTRY_CAPACITY];
+
+    /** Serialized key to look up, only used if keys are compared by their serialized bytes */
+    private BufferedData lookupKeyBytes;
+
     /**
      * Create a new bucket with the default size.
      *
@@ -123,6 +146,7 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
      */
     protected Bucket(final KeySerializer<K> keySerializer, final ReusableBucketPool<K> bucketPool) {
         this.keySerializer = keySerializer;
+        this.rawKeyComparison = keySerializer.supportsRawKeyComparison();
         this.bucketPool = bucketPool;
         this.bucketData = BufferedData.allocate(METADATA_SIZE);
         clear();
@@ -222,6 +246,32 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
         }
     }
 
+    /**
+     * Checks whether this bucket contains an entry with the given key hash code.
+     *
+     * @param keyHashCode the int hash for the key
+     * @return true if there is an entry with the hash code, false otherwise
+     */
+    public boolean containsKeyHashCode(final int keyHashCode) {
+        for (int i = 0; i < entryCount; i++) {
+            if (entryHashCodes[i] == keyHashCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls the given consumer for the key hash code of every entry in this bucket.
+     *
+     * @param action the consumer to call
+     */
+    public void forEachKeyHashCode(final IntConsumer action) {
+        for (int i = 0; i < entryCount; i++) {
+            action.accept(entryHashCodes[i]);
+        }
+    }
+
     /**
      * Put a key/value entry into this bucket.
      *
@@ -268,7 +318,7 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
                 }
                 bucketData.position(0); // limit() doesn't work if the new limit is less than the current pos
                 bucketData.limit(result.entryOffset() + remainderSize);
-                entryCount--;
+                removeEntryRef(result.entryIndex(), result.entrySize());
             } else {
                 // entry not found, nothing to delete
             }
@@ -287,7 +337,7 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
             }
             // add a new entry
             writeNewEntry(keyHashCode, value, key);
-            checkLargestBucket(++entryCount);
+            checkLargestBucket(entryCount);
         }
     }
 
@@ -311,6 +361,7 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
             ProtoWriterTools.writeDelimited(
                     out, FIELD_BUCKETENTRY_KEYBYTES, keySize, t -> keySerializer.serialize(key, t));
         });
+        addEntryRef(entryOffset, hashCode);
     }
 
     public void readFrom(final ReadableSequentialData in) {
@@ -329,8 +380,9 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
                 bucketData.skip(Integer.BYTES);
             } else if (fieldNum == FIELD_BUCKET_ENTRIES.number()) {
                 final int entryBytesSize = bucketData.readVarInt(false);
-                bucketData.skip(entryBytesSize);
-                entryCount++;
+                final long nextEntryOffset = bucketData.position() + entryBytesSize;
+                addEntryRef(fieldOffset, readEntryHashCode(nextEntryOffset));
+                bucketData.position(nextEntryOffset);
             } else {
                 logger.error(
                         MERKLE_DB.getMarker(),
@@ -354,71 +406,144 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
     // =================================================================================================================
     // Private API
 
+    private void addEntryRef(final long entryOffset, final int hashCode) {
+        if (entryCount == entryHashCodes.length) {
+            entryHashCodes = Arrays.copyOf(entryHashCodes, entryCount * 2);
+            entryOffsets = Arrays.copyOf(entryOffsets, entryCount * 2);
+        }
+        entryHashCodes[entryCount] = hashCode;
+        entryOffsets[entryCount] = entryOffset;
+        entryCount++;
+    }
+
+    private void removeEntryRef(final int entryIndex, final int entrySize) {
+        final int entriesToMove = entryCount - entryIndex - 1;
+        System.arraycopy(entryHashCodes, entryIndex + 1, entryHashCodes, entryIndex, entriesToMove);
+        System.arraycopy(entryOffsets, entryIndex + 1, entryOffsets, entryIndex, entriesToMove);
+        entryCount--;
+        // all entries after the removed one are shifted left in bucket data
+        for (int i = entryIndex; i < entryCount; i++) {
+            entryOffsets[i] -= entrySize;
+        }
+    }
+
+    /**
+     * Reads key hash code of a bucket entry. Bucket data position must be at the start of
+     * the entry fields, right after entry size.
+     *
+     * @param nextEntryOffset offset of the next entry, i.e. the end of the entry to read
+     * @return key hash code, or zero (protobuf default) if the entry has no hash code field
+     */
+    private int readEntryHashCode(final long nextEntryOffset) {
+        while (bucketData.position() < nextEntryOffset) {
+            final int entryTag = bucketData.readVarInt(false);
+            final int entryFieldNum = entryTag >> TAG_FIELD_OFFSET;
+            if (entryFieldNum == FIELD_BUCKETENTRY_HASHCODE.number()) {
+                return bucketData.readInt();
+            } else if (entryFieldNum == FIELD_BUCKETENTRY_VALUE.number()) {
+                bucketData.skip(Long.BYTES);
+            } else if (entryFieldNum == FIELD_BUCKETENTRY_KEYBYTES.number()) {
+                bucketData.skip(bucketData.readVarInt(false));
+            } else {
+                throw new IllegalArgumentException("Unknown bucket entry field: " + entryFieldNum);
+            }
+        }
+        return 0;
+    }
+
     private FindResult findEntry(final int keyHashCode, final K key) {
-        bucketData.resetPosition();
-        while (bucketData.hasRemaining()) {
-            final long fieldOffset = bucketData.position();
-            final int tag = bucketData.readVarInt(false);
-            final int fieldNum = tag >> TAG_FIELD_OFFSET;
-            if (fieldNum == FIELD_BUCKET_INDEX.number()) {
-                bucketData.skip(Integer.BYTES);
-            } else if (fieldNum == FIELD_BUCKET_ENTRIES.number()) {
-                final int entrySize = bucketData.readVarInt(false);
-                final long nextEntryOffset = bucketData.position() + entrySize;
+        boolean lookupKeySerialized = false;
+        for (int i = 0; i < entryCount; i++) {
+            if (entryHashCodes[i] != keyHashCode) {
+                continue;
+            }
+            final long fieldOffset = entryOffsets[i];
+            bucketData.position(fieldOffset);
+            bucketData.readVarInt(false); // entries field tag
+            final int entrySize = bucketData.readVarInt(false);
+            final long nextEntryOffset = bucketData.position() + entrySize;
+            long entryValueOffset = -1;
+            long entryValue = 0;
+            long entryKeyBytesOffset = -1;
+            int entryKeyBytesSize = -1;
+            while (bucketData.position() < nextEntryOffset) {
+                final int entryTag = bucketData.readVarInt(false);
+                final int entryFieldNum = entryTag >> TAG_FIELD_OFFSET;
+                if (entryFieldNum == FIELD_BUCKETENTRY_HASHCODE.number()) {
+                    bucketData.skip(Integer.BYTES);
+                } else if (entryFieldNum == FIELD_BUCKETENTRY_VALUE.number()) {
+                    entryValueOffset = bucketData.position();
+                    entryValue = bucketData.readLong();
+                } else if (entryFieldNum == FIELD_BUCKETENTRY_KEYBYTES.number()) {
+                    entryKeyBytesSize = bucketData.readVarInt(false);
+                    entryKeyBytesOffset = bucketData.position();
+                    bucketData.skip(entryKeyBytesSize);
+                } else {
+                    throw new IllegalArgumentException("Unknown bucket entry field: " + entryFieldNum);
+                }
+            }
+            if ((entryValueOffset == -1) || (entryKeyBytesOffset == -1)) {
+                logger.warn(MERKLE_DB.getMarker(), "Broken bucket entry");
+                continue;
+            }
+            final boolean keyMatches;
+            if (rawKeyComparison) {
+                if (!lookupKeySerialized) {
+                    serializeLookupKey(key);
+                    lookupKeySerialized = true;
+                }
+                keyMatches = lookupKeyBytesEqual(entryKeyBytesOffset, entryKeyBytesSize);
+            } else {
                 final long oldLimit = bucketData.limit();
-                bucketData.limit(nextEntryOffset);
+                bucketData.position(entryKeyBytesOffset);
+                bucketData.limit(entryKeyBytesOffset + entryKeyBytesSize);
                 try {
-                    int entryHashCode = -1;
-                    long entryValueOffset = -1;
-                    long entryValue = 0;
-                    long entryKeyBytesOffset = -1;
-                    int entryKeyBytesSize = -1;
-                    while (bucketData.hasRemaining()) {
-                        final int entryTag = bucketData.readVarInt(false);
-                        final int entryFieldNum = entryTag >> TAG_FIELD_OFFSET;
-                        if (entryFieldNum == FIELD_BUCKETENTRY_HASHCODE.number()) {
-                            entryHashCode = bucketData.readInt();
-                            if (entryHashCode != keyHashCode) {
-                                break;
-                            }
-                        } else if (entryFieldNum == FIELD_BUCKETENTRY_VALUE.number()) {
-                            entryValueOffset = bucketData.position();
-                            entryValue = bucketData.readLong();
-                        } else if (entryFieldNum == FIELD_BUCKETENTRY_KEYBYTES.number()) {
-                            entryKeyBytesSize = bucketData.readVarInt(false);
-                            entryKeyBytesOffset = bucketData.position();
-                            bucketData.skip(entryKeyBytesSize);
-                        } else {
-                            throw new IllegalArgumentException("Unknown bucket entry field: " + entryFieldNum);
-                        }
-                    }
-                    if (entryHashCode == keyHashCode) {
-                        if ((entryValueOffset == -1) || (entryKeyBytesOffset == -1)) {
-                            logger.warn(MERKLE_DB.getMarker(), "Broken bucket entry");
-                        } else {
-                            bucketData.position(entryKeyBytesOffset);
-                            bucketData.limit(entryKeyBytesOffset + entryKeyBytesSize);
-                            if (keySerializer.equals(bucketData, key)) {
-                                return new FindResult(
-                                        true,
-                                        fieldOffset,
-                                        Math.toIntExact(nextEntryOffset - fieldOffset),
-                                        entryValueOffset,
-                                        entryValue);
-                            }
-                        }
-                    }
+                    keyMatches = keySerializer.equals(bucketData, key);
                 } finally {
                     bucketData.limit(oldLimit);
-                    bucketData.position(nextEntryOffset);
                 }
-            } else {
-                throw new IllegalArgumentException("Unknown bucket field: " + fieldNum);
+            }
+            if (keyMatches) {
+                return new FindResult(
+                        true,
+                        i,
+                        fieldOffset,
+                        Math.toIntExact(nextEntryOffset - fieldOffset),
+                        entryValueOffset,
+                        entryValue);
             }
         }
         return FindResult.NOT_FOUND;
     }
 
+    private void serializeLookupKey(final K key) {
+        final int keySize = keySerializer.getSerializedSize(key);
+        if ((lookupKeyBytes == null) || (lookupKeyBytes.capacity() < keySize)) {
+            lookupKeyBytes = BufferedData.allocate(keySize);
+        }
+        lookupKeyBytes.position(0);
+        lookupKeyBytes.limit(keySize);
+        keySerializer.serialize(key, lookupKeyBytes);
+    }
+
+    private boolean lookupKeyBytesEqual(final long keyBytesOffset, final int keyBytesSize) {
+        if (keyBytesSize != lookupKeyBytes.limit()) {
+            return false;
+        }
+        int i = 0;
+        for (; i + Long.BYTES <= keyBytesSize; i += Long.BYTES) {
+            if (bucketData.getLong(keyBytesOffset + i) != lookupKeyBytes.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < keyBytesSize; i++) {
+            if (bucketData.getByte(keyBytesOffset + i) != lookupKeyBytes.getByte(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /** toString for debugging */
     @Override
     public String toString() {
@@ -429,12 +554,14 @@ public sealed class Bucket<K extends VirtualKey> implements Closeable permits Pa
 
     /**
      * Simple record for entry lookup results. If an entry is found, "found" is set to true,
-     * "entryOffset" is the entry offset in bytes in the bucket buffer, entrySize is the size of entry in
-     * bytes, and "entryValue" is the entry value. If no entity is found, "found" is false, "entryOffset"
-     * and "entrySize" are -1, and "entryValue" is undefined.
+     * "entryIndex" is the entry index in the bucket, "entryOffset" is the entry offset in bytes in
+     * the bucket buffer, entrySize is the size of entry in bytes, and "entryValue" is the entry value.
+     * If no entity is found, "found" is false, "entryIndex", "entryOffset" and "entrySize" are -1,
+     * and "entryValue" is undefined.
      */
-    private record FindResult(boolean found, long entryOffset, int entrySize, long entryValueOffset, long entryValue) {
+    private record FindResult(
+            boolean found, int entryIndex, long entryOffset, int entrySize, long entryValueOffset, long entryValue) {
 
-        static FindResult NOT_FOUND = new FindResult(false, -1, -1, -1, -1);
+        static FindResult NOT_FOUND = new FindResult(false, -1, -1, -1, -1, -1);
     }
 }
@@ -25,6 +25,7 @@ import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.FileStatisticAware;
 import com.swirlds.merkledb.Snapshotable;
+import com.swirlds.merkledb.collections.BlockedBloomFilter;
 import com.swirlds.merkledb.collections.CASableLongIndex;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListDisk;
@@ -40,14 +41,19 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.tuple.primitive.IntObjectPair;
@@ -76,6 +82,8 @@ public class HalfDiskHashMap<K extends VirtualKey>
     private static final String METADATA_FILENAME_SUFFIX = "_metadata.hdhm";
     /** Bucket index file name suffix with extension */
     private static final String BUCKET_INDEX_FILENAME_SUFFIX = "_bucket_index.ll";
+    /** Key Bloom filter file name suffix with extension */
+    private static final String BLOOM_FILTER_FILENAME_SUFFIX = "_bloom_filter.bf";
     /**
      * A marker to indicate that a value should be deleted from the map, or that there is
      * no old value to compare against in putIfEqual/deleteIfEqual
@@ -117,6 +125,39 @@ public class HalfDiskHashMap<K extends VirtualKey>
     private final long mapSize;
     /** The name to use for the files prefix on disk */
     private final String storeName;
+    /** Whether to write the bucket index incrementally on snapshots */
+    private final boolean incrementalIndexSnapshots;
+    /**
+     * Bloom filter of hash codes of all keys in this map, or null if Bloom filters are disabled.
+     * Lookups of keys rejected by the filter don't read buckets from disk. Deleted keys are not
+     * removed from the filter, they are dropped when the filter is rebuilt from live buckets, see
+     * {@link #rebuildKeyFilterIfNeeded()}
+     */
+    @Nullable
+    private volatile BlockedBloomFilter keyFilter;
+    /**
+     * The key filter being rebuilt in the background, or null if no rebuild is in progress. While
+     * the filter is rebuilt, new keys are added to both filters
+     */
+    @Nullable
+    private volatile BlockedBloomFilter rebuildingKeyFilter;
+    /** Number of bits per key in the key filter */
+    private final int keyFilterBitsPerKey;
+    /** Observed false positive rate, at which the key filter is rebuilt */
+    private final double keyFilterRebuildFalsePositiveRate;
+    /** Number of lookups rejected by the key filter */
+    private final LongAdder bloomFilterAvoidedReads = new LongAdder();
+    /**
+     * Number of lookups passed through the key filter, although no key with the same hash code was
+     * in the map
+     */
+    private final LongAdder bloomFilterFalsePositives = new LongAdder();
+    /** Number of lookups rejected by the current key filter since it was built */
+    private final LongAdder keyFilterAvoidedReadsSinceBuild = new LongAdder();
+    /** Number of false positives of the current key filter since it was built */
+    private final LongAdder keyFilterFalsePositivesSinceBuild = new LongAdder();
+    /** Set when this map is closed, to stop a key filter rebuild in progress */
+    private volatile boolean closed = false;
 
     private final BucketSerializer<K> bucketSerializer;
     /** Store for session data during a writing transaction */
@@ -130,6 +171,15 @@ public class HalfDiskHashMap<K extends VirtualKey>
     /** Executor for parallel bucket reads/updates in {@link #endWriting()} */
     private static volatile ExecutorService flushExecutor = null;
 
+    /** Executor for background key filter rebuilds, see {@link #rebuildKeyFilterIfNeeded()} */
+    private static volatile ExecutorService keyFilterRebuildExecutor = null;
+
+    /**
+     * The min number of lookups of missing key hash codes since the key filter was built, before its
+     * observed false positive rate is checked against the rebuild threshold
+     */
+    private static final long KEY_FILTER_REBUILD_MIN_SAMPLES = 10_000;
+
     private static ExecutorService getFlushExecutor() {
         ExecutorService exec = flushExecutor;
         if (exec == null) {
@@ -152,6 +202,25 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return exec;
     }
 
+    private static ExecutorService getKeyFilterRebuildExecutor() {
+        ExecutorService exec = keyFilterRebuildExecutor;
+        if (exec == null) {
+            synchronized (HalfDiskHashMap.class) {
+                exec = keyFilterRebuildExecutor;
+                if (exec == null) {
+                    exec = Executors.newSingleThreadExecutor(new ThreadConfiguration(getStaticThreadManager())
+                            .setComponent(MERKLEDB_COMPONENT)
+                            .setThreadName("HalfDiskHashMap Key Filter Rebuilding")
+                            .setExceptionHandler((t, ex) -> logger.error(
+                                    EXCEPTION.getMarker(), "Uncaught exception during key filter rebuilding", ex))
+                            .buildFactory());
+                    keyFilterRebuildExecutor = exec;
+                }
+            }
+        }
+        return exec;
+    }
+
     /**
      * Construct a new HalfDiskHashMap
      *
@@ -182,11 +251,16 @@ public class HalfDiskHashMap<K extends VirtualKey>
             throws IOException {
         this.mapSize = mapSize;
         this.storeName = storeName;
+        this.incrementalIndexSnapshots = config.incrementalIndexSnapshotsEnabled();
+        this.keyFilterBitsPerKey = config.bloomFilterBitsPerKey();
+        this.keyFilterRebuildFalsePositiveRate = config.bloomFilterRebuildFalsePositiveRate();
         Path indexFile = storeDir.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX);
         // create bucket serializer
         this.bucketSerializer = new BucketSerializer<>(keySerializer);
         // load or create new
         LoadedDataCallback<Bucket<K>> loadedDataCallback;
+        final Path keyFilterFile = storeDir.resolve(storeName + BLOOM_FILTER_FILENAME_SUFFIX);
+        boolean rebuildKeyFilter = false;
         if (Files.exists(storeDir)) {
             // load metadata
             Path metaDataFile = storeDir.resolve(storeName + METADATA_FILENAME_SUFFIX);
@@ -234,6 +308,18 @@ public class HalfDiskHashMap<K extends VirtualKey>
                 loadedDataCallback = (dataLocation, bucket) ->
                         bucketIndexToBucketLocation.put(bucket.getBucketIndex(), dataLocation);
             }
+            // load the key filter, or rebuild it from all buckets in data files. Stale bucket
+            // versions add some false positives, until the filter is rebuilt next time
+            if (config.bloomFilterBitsPerKey() > 0) {
+                if (Files.exists(keyFilterFile) && !forceIndexRebuilding) {
+                    keyFilter = new BlockedBloomFilter(keyFilterFile);
+                } else {
+                    keyFilter = new BlockedBloomFilter(mapSize, config.bloomFilterBitsPerKey());
+                    rebuildKeyFilter = true;
+                }
+            } else {
+                keyFilter = null;
+            }
         } else {
             // create store dir
             Files.createDirectories(storeDir);
@@ -245,6 +331,9 @@ public class HalfDiskHashMap<K extends VirtualKey>
             numOfBuckets = Integer.highestOneBit(minimumBuckets) * 2;
             // we are new so no need for a loadedDataCallback
             loadedDataCallback = null;
+            keyFilter = config.bloomFilterBitsPerKey() > 0
+                    ? new BlockedBloomFilter(mapSize, config.bloomFilterBitsPerKey())
+                    : null;
             logger.info(
                     MERKLE_DB.getMarker(),
                     "HalfDiskHashMap [{}] created with minimumBuckets={} and numOfBuckets={}",
@@ -252,10 +341,21 @@ public class HalfDiskHashMap<K extends VirtualKey>
                     minimumBuckets,
                     numOfBuckets);
         }
+        if (rebuildKeyFilter) {
+            final LoadedDataCallback<Bucket<K>> indexCallback = loadedDataCallback;
+            loadedDataCallback = (dataLocation, bucket) -> {
+                if (indexCallback != null) {
+                    indexCallback.newIndexEntry(dataLocation, bucket);
+                }
+                bucket.forEachKeyHashCode(keyFilter::add);
+            };
+        }
         // create file collection
         fileCollection = new DataFileCollection<>(
                 // Need: propagate MerkleDb config from the database
                 config, storeDir, storeName, legacyStoreName, bucketSerializer, loadedDataCallback);
+        // obsolete item counters aren't stored in files, restore them from the index
+        fileCollection.updateLiveItemCounts(bucketIndexToBucketLocation);
     }
 
     /**
@@ -272,7 +372,17 @@ public class HalfDiskHashMap<K extends VirtualKey>
         // create snapshot directory if needed
         Files.createDirectories(snapshotDirectory);
         // write index to file
-        bucketIndexToBucketLocation.writeToFile(snapshotDirectory.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX));
+        final Path indexFile = snapshotDirectory.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX);
+        if (incrementalIndexSnapshots) {
+            bucketIndexToBucketLocation.writeToFileIncrementally(indexFile);
+        } else {
+            bucketIndexToBucketLocation.writeToFile(indexFile);
+        }
+        // write key filter to file
+        final BlockedBloomFilter filter = keyFilter;
+        if (filter != null) {
+            filter.writeToFile(snapshotDirectory.resolve(storeName + BLOOM_FILTER_FILENAME_SUFFIX));
+        }
         // snapshot files
         fileCollection.snapshot(snapshotDirectory);
         // write metadata
@@ -290,10 +400,16 @@ public class HalfDiskHashMap<K extends VirtualKey>
      */
     @Override
     public long getOffHeapConsumption() {
+        final BlockedBloomFilter filter = keyFilter;
+        final BlockedBloomFilter rebuilding = rebuildingKeyFilter;
+        long consumption = (filter != null) ? filter.getOffHeapConsumption() : 0;
+        if (rebuilding != null) {
+            consumption += rebuilding.getOffHeapConsumption();
+        }
         if (bucketIndexToBucketLocation instanceof LongListOffHeap offheapIndex) {
-            return offheapIndex.getOffHeapConsumption();
+            consumption += offheapIndex.getOffHeapConsumption();
         }
-        return 0;
+        return consumption;
     }
 
     /**
@@ -303,6 +419,65 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedReadsCount() {
+        return fileCollection.getMappedReadsCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getMappedReadFallbacksCount() {
+        return fileCollection.getMappedReadFallbacksCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getLiveDataRatio() {
+        return fileCollection.getLiveDataRatio();
+    }
+
+    /**
+     * Checks if this map has a key Bloom filter.
+     *
+     * @return true if lookups are checked against a key Bloom filter, false otherwise
+     */
+    public boolean isBloomFilterEnabled() {
+        return keyFilter != null;
+    }
+
+    /**
+     * Get the number of lookups, which didn't read buckets from disk, because the keys were
+     * rejected by the key Bloom filter.
+     *
+     * @return the number of avoided bucket reads
+     */
+    public long getBloomFilterAvoidedReadsCount() {
+        return bloomFilterAvoidedReads.sum();
+    }
+
+    /**
+     * Get the number of lookups, which passed through the key Bloom filter, but the keys were
+     * not found in this map.
+     *
+     * @return the number of key Bloom filter false positives
+     */
+    public long getBloomFilterFalsePositivesCount() {
+        return bloomFilterFalsePositives.sum();
+    }
+
+    /**
+     * Checks whether the key filter is being rebuilt in the background.
+     *
+     * @return true if a key filter rebuild is in progress, false otherwise
+     */
+    public boolean isKeyFilterRebuildInProgress() {
+        return rebuildingKeyFilter != null;
+    }
+
     /**
      * Close this HalfDiskHashMap's data files. Once closed this HalfDiskHashMap can not be reused.
      * You should make sure you call close before system exit otherwise any files being written
@@ -312,6 +487,7 @@ public class HalfDiskHashMap<K extends VirtualKey>
      */
     @Override
     public void close() throws IOException {
+        closed = true;
         bucketIndexToBucketLocation.close();
         fileCollection.close();
     }
@@ -358,6 +534,7 @@ public class HalfDiskHashMap<K extends VirtualKey>
     public void put(final K key, final long value) {
         final BucketMutation<K> bucketMap = findBucketForUpdate(key, INVALID_VALUE, value);
         bucketMap.put(key, value);
+        addToKeyFilter(key, value);
     }
 
     /**
@@ -381,6 +558,7 @@ public class HalfDiskHashMap<K extends VirtualKey>
     public void putIfEqual(final K key, final long oldValue, final long value) {
         final BucketMutation<K> bucketMap = findBucketForUpdate(key, oldValue, value);
         bucketMap.putIfEqual(key, oldValue, value);
+        addToKeyFilter(key, value);
     }
 
     /**
@@ -455,15 +633,35 @@ public class HalfDiskHashMap<K extends VirtualKey>
                     }
                     try (final Bucket<K> bucket = res.bucket) {
                         final int bucketIndex = bucket.getBucketIndex();
+                        long oldBucketLocation;
                         if (bucket.isEmpty()) {
-                            // bucket is missing or empty, remove it from the index
-                            bucketIndexToBucketLocation.remove(bucketIndex);
+                            // bucket is missing or empty, remove it from the index. Compaction may move
+                            // the bucket in parallel, so the entry is cleared atomically too
+                            do {
+                                oldBucketLocation =
+                                        bucketIndexToBucketLocation.get(bucketIndex, LongList.IMPERMISSIBLE_VALUE);
+                                if (oldBucketLocation == LongList.IMPERMISSIBLE_VALUE) {
+                                    break;
+                                }
+                            } while (!bucketIndexToBucketLocation.removeIfEqual(bucketIndex, oldBucketLocation));
                         } else {
                             // save bucket
                             final long bucketLocation = fileCollection.storeDataItem(bucket);
-                            // update bucketIndexToBucketLocation
-                            bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
+                            // update bucketIndexToBucketLocation. Compaction may move the bucket in
+                            // parallel, so the entry is replaced atomically to mark exactly the
+                            // overwritten bucket version as obsolete
+                            do {
+                                oldBucketLocation =
+                                        bucketIndexToBucketLocation.get(bucketIndex, LongList.IMPERMISSIBLE_VALUE);
+                                if (oldBucketLocation == LongList.IMPERMISSIBLE_VALUE) {
+                                    bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
+                                    break;
+                                }
+                            } while (!bucketIndexToBucketLocation.putIfEqual(
+                                    bucketIndex, oldBucketLocation, bucketLocation));
                         }
+                        // the previous version of the bucket is garbage now
+                        fileCollection.markDataItemObsolete(oldBucketLocation);
                     } finally {
                         ++processed;
                     }
@@ -479,9 +677,75 @@ public class HalfDiskHashMap<K extends VirtualKey>
 
         // clear put cache
         oneTransactionsData = null;
+        rebuildKeyFilterIfNeeded();
         return dataFileReader;
     }
 
+    /**
+     * Starts a background rebuild of the key filter, if its observed false positive rate has
+     * reached the configured threshold. Keys deleted from this map are never removed from the
+     * filter, so the rate grows over time, also across restarts, as the filter is saved with
+     * snapshots. Must be called on the writing thread at the end of a writing session, when all
+     * keys put so far are in buckets referenced from the bucket index. Keys put after this call
+     * are added to the new filter directly.
+     */
+    private void rebuildKeyFilterIfNeeded() {
+        if ((keyFilter == null) || (rebuildingKeyFilter != null)) {
+            return;
+        }
+        final long falsePositives = keyFilterFalsePositivesSinceBuild.sum();
+        final long lookups = falsePositives + keyFilterAvoidedReadsSinceBuild.sum();
+        if ((lookups < KEY_FILTER_REBUILD_MIN_SAMPLES)
+                || ((double) falsePositives / lookups < keyFilterRebuildFalsePositiveRate)) {
+            return;
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Rebuilding key filter of {}, observed false positive rate = {}",
+                storeName,
+                (double) falsePositives / lookups);
+        final BlockedBloomFilter newFilter = new BlockedBloomFilter(mapSize, keyFilterBitsPerKey);
+        rebuildingKeyFilter = newFilter;
+        getKeyFilterRebuildExecutor().execute(() -> rebuildKeyFilter(newFilter));
+    }
+
+    /**
+     * Adds key hash codes from all live buckets to the given filter, and then replaces the current
+     * key filter with it. Lookups use the current filter until the new one is ready.
+     *
+     * @param newFilter the filter to fill
+     */
+    private void rebuildKeyFilter(final BlockedBloomFilter newFilter) {
+        try {
+            bucketIndexToBucketLocation.forEach((bucketIndex, bucketLocation) -> {
+                if (closed) {
+                    throw new IOException("HalfDiskHashMap " + storeName + " is closed");
+                }
+                try (final Bucket<K> bucket =
+                        fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
+                    if (bucket != null) {
+                        bucket.forEachKeyHashCode(newFilter::add);
+                    }
+                }
+            });
+            // The new filter must be set before the rebuilding filter is cleared, so keys put in
+            // parallel are added to the new filter, see addToKeyFilter()
+            keyFilter = newFilter;
+            keyFilterAvoidedReadsSinceBuild.reset();
+            keyFilterFalsePositivesSinceBuild.reset();
+            logger.info(MERKLE_DB.getMarker(), "Key filter of {} rebuilt", storeName);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info(MERKLE_DB.getMarker(), "Key filter rebuild of {} interrupted", storeName);
+        } catch (final IOException | UncheckedIOException e) {
+            if (!closed) {
+                logger.error(EXCEPTION.getMarker(), "Failed to rebuild key filter of {}", storeName, e);
+            }
+        } finally {
+            rebuildingKeyFilter = null;
+        }
+    }
+
     /**
      * Reads a bucket with a given index from disk, updates given keys in it, and puts the bucket to
      * a queue. If an exception is thrown, it's put to the queue instead, so the number of {@code
@@ -527,13 +791,106 @@ public class HalfDiskHashMap<K extends VirtualKey>
             throw new IllegalArgumentException("Can not get a null key");
         }
         final int keyHash = key.hashCode();
+        if (!mightContainKey(keyHash)) {
+            return notFoundValue;
+        }
         final int bucketIndex = computeBucketIndex(keyHash);
+        long value = notFoundValue;
         try (final Bucket<K> bucket = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
             if (bucket != null) {
-                return bucket.findValue(keyHash, key, notFoundValue);
+                value = bucket.findValue(keyHash, key, notFoundValue);
             }
+            countKeyFilterResult(bucket, keyHash, value, notFoundValue);
         }
-        return notFoundValue;
+        return value;
+    }
+
+    /**
+     * Get a value from this map asynchronously. The bucket for the key is read from disk without
+     * blocking the calling thread, so callers can issue many lookups at once and keep the disk
+     * queue full, which is much faster on NVMe drives than one blocking read at a time. The bucket
+     * is searched and released back to the bucket pool on the thread that completes the read.
+     *
+     * @param key The key to get value for
+     * @param notFoundValue the value to return if the key was not found
+     * @return a future completed with the value retrieved from the map or {notFoundValue} if no
+     *     value was stored for the given key. The future is completed exceptionally, if there was
+     *     a problem reading from the map
+     */
+    public CompletableFuture<Long> getAsync(final K key, final long notFoundValue) {
+        if (key == null) {
+            throw new IllegalArgumentException("Can not get a null key");
+        }
+        final int keyHash = key.hashCode();
+        if (!mightContainKey(keyHash)) {
+            return CompletableFuture.completedFuture(notFoundValue);
+        }
+        final int bucketIndex = computeBucketIndex(keyHash);
+        return fileCollection
+                .readDataItemAsyncUsingIndex(bucketIndexToBucketLocation, bucketIndex)
+                .thenApply(bucket -> {
+                    long value = notFoundValue;
+                    if (bucket != null) {
+                        try (bucket) {
+                            value = bucket.findValue(keyHash, key, notFoundValue);
+                            countKeyFilterResult(bucket, keyHash, value, notFoundValue);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    } else {
+                        countKeyFilterResult(null, keyHash, value, notFoundValue);
+                    }
+                    return value;
+                });
+    }
+
+    /**
+     * Get values for multiple keys from this map. Keys are grouped by buckets, and every bucket is
+     * read from disk only once, no matter how many of the given keys fall into it. Buckets are
+     * read in the order of bucket indices, which is the order they are written to data files
+     * during flushes, so reads from the same file are mostly sequential.
+     *
+     * @param keys The keys to get values for, must not contain nulls
+     * @param notFoundValue the value to use for keys not found in the map
+     * @return an array of values, one per key in the same order as in {@code keys}
+     * @throws IOException If there was a problem reading from the map
+     */
+    public long[] get(final List<K> keys, final long notFoundValue) throws IOException {
+        final int count = keys.size();
+        final long[] values = new long[count];
+        Arrays.fill(values, notFoundValue);
+        // Bucket index in the upper 32 bits, key position in the list in the lower 32 bits. After
+        // sorting, all keys from the same bucket are next to each other
+        final long[] bucketsAndPositions = new long[count];
+        int lookupCount = 0;
+        for (int i = 0; i < count; i++) {
+            final K key = keys.get(i);
+            if (key == null) {
+                throw new IllegalArgumentException("Can not get a null key");
+            }
+            // keys rejected by the key filter are not in the map, their buckets are not read
+            if (mightContainKey(key.hashCode())) {
+                bucketsAndPositions[lookupCount++] = ((long) computeBucketIndex(key.hashCode()) << 32) | i;
+            }
+        }
+        Arrays.sort(bucketsAndPositions, 0, lookupCount);
+        int i = 0;
+        while (i < lookupCount) {
+            final int bucketIndex = (int) (bucketsAndPositions[i] >>> 32);
+            try (final Bucket<K> bucket =
+                    fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
+                while ((i < lookupCount) && ((int) (bucketsAndPositions[i] >>> 32) == bucketIndex)) {
+                    final int position = (int) bucketsAndPositions[i];
+                    final K key = keys.get(position);
+                    if (bucket != null) {
+                        values[position] = bucket.findValue(key.hashCode(), key, notFoundValue);
+                    }
+                    countKeyFilterResult(bucket, key.hashCode(), values[position], notFoundValue);
+                    i++;
+                }
+            }
+        }
+        return values;
     }
 
     // =================================================================================================================
@@ -578,6 +935,67 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return (numOfBuckets - 1) & keyHash;
     }
 
+    /**
+     * Adds a key to the key filter, if the filter is enabled and the value is not a deletion
+     * marker. Keys are added before the writing session is ended, it's safe, since it can only
+     * result in false positives.
+     *
+     * @param key the key to add
+     * @param value the key value
+     */
+    private void addToKeyFilter(final K key, final long value) {
+        if (value == INVALID_VALUE) {
+            return;
+        }
+        // The rebuilding filter must be read before the current filter, see rebuildKeyFilter()
+        final BlockedBloomFilter rebuilding = rebuildingKeyFilter;
+        if (rebuilding != null) {
+            rebuilding.add(key.hashCode());
+        }
+        final BlockedBloomFilter filter = keyFilter;
+        if (filter != null) {
+            filter.add(key.hashCode());
+        }
+    }
+
+    /**
+     * Checks the key filter for the given key hash code. If the filter is disabled, always
+     * returns true.
+     *
+     * @param keyHash the int hash for key
+     * @return false if the key is definitely not in this map, true otherwise
+     */
+    private boolean mightContainKey(final int keyHash) {
+        final BlockedBloomFilter filter = keyFilter;
+        if ((filter == null) || filter.mightContain(keyHash)) {
+            return true;
+        }
+        bloomFilterAvoidedReads.increment();
+        keyFilterAvoidedReadsSinceBuild.increment();
+        return false;
+    }
+
+    /**
+     * Counts a key filter false positive, if the filter is enabled, and a key that passed through
+     * the filter was not found in the map, and no other key with the same hash code was found
+     * either. The filter works with key hash codes, so it can't reject keys, which share a hash
+     * code with a key in the map; such lookups are not counted as false positives.
+     *
+     * @param bucket the bucket the key was looked up in, or null if there is no such bucket
+     * @param keyHash the int hash for the key
+     * @param value the value found for the key
+     * @param notFoundValue the value used for missing keys
+     */
+    private void countKeyFilterResult(
+            @Nullable final Bucket<K> bucket, final int keyHash, final long value, final long notFoundValue) {
+        if ((keyFilter != null)
+                && (value == notFoundValue)
+                && ((bucket == null) || !bucket.containsKeyHashCode(keyHash))) {
+            bloomFilterFalsePositives.increment();
+            keyFilterFalsePositivesSinceBuild.increment();
+        }
+    }
+
     private record ReadBucketResult<K extends VirtualKey>(Bucket<K> bucket, Throwable error) {
         public ReadBucketResult {
             assert (bucket != null) ^ (error != null);
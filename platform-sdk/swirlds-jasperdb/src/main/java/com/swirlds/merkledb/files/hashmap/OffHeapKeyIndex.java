@@ -0,0 +1,515 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import static com.swirlds.merkledb.files.DataFileCommon.closeMmapBuffer;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.common.utility.NonCryptographicHashing;
+import com.swirlds.merkledb.collections.OffHeapUser;
+import com.swirlds.merkledb.serialize.KeySerializer;
+import com.swirlds.virtualmap.VirtualKey;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A fully in-memory key to path index for keys of a fixed serialized size. It's an open addressing
+ * hash table with linear probing, stored in off-heap memory. Every table slot contains a path
+ * (long) followed by serialized key bytes, padded to a multiple of 8 bytes. No Java objects are
+ * created per entry, and looking up a key doesn't require any disk reads, which is the main
+ * difference from {@link HalfDiskHashMap}. The price is memory: every key takes roughly {@code
+ * 2 * (8 + keySize)} bytes of off-heap memory, so this index should only be used for small keys.
+ *
+ * <p>Deleted keys are marked with tombstones, which keep key bytes. A slot, once taken by a key,
+ * is never reused for a different key. When the number of used slots (live keys and tombstones)
+ * exceeds the max load factor, all live keys are copied to a new table, and the new table replaces
+ * the old one. The old table is never modified after that, it's just released to GC.
+ *
+ * <p>Snapshots are written to memory-mapped files. The file contains a header followed by all
+ * table slots as is, so loading a snapshot is a plain memory copy without rehashing.
+ *
+ * <p><b>IMPORTANT: This implementation assumes a single writing thread. There can be multiple
+ * readers while writing is happening.</b> Readers never see partially written keys: key bytes
+ * are written to a slot before the slot path is published with release semantics, and key bytes
+ * in a slot never change after that.
+ *
+ * @param <K> the type of keys
+ */
+public final class OffHeapKeyIndex<K extends VirtualKey> implements AutoCloseable, OffHeapUser {
+
+    /** The version number for format of index snapshot files */
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    /** Snapshot file header: version (int), key size (int), capacity (long), size (long) */
+    private static final int FILE_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    /** Slot value for a slot that has never been used */
+    private static final long EMPTY = 0;
+
+    /** Slot value for a deleted key. Key bytes in the slot are kept */
+    private static final long DELETED = -1;
+
+    /** Max ratio of used slots, including tombstones, to table capacity */
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    /** Min table capacity, in slots. Must be a power of two */
+    private static final long MIN_CAPACITY = 1 << 12;
+
+    /** Max size of a single off-heap buffer, in bytes */
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    /** Used to read and write slot values with acquire / release semantics */
+    private static final VarHandle SLOT_VALUE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Key serializer. All keys are serialized to {@link #keySize} bytes */
+    private final KeySerializer<K> keySerializer;
+
+    /** Serialized key size in bytes */
+    private final int keySize;
+
+    /** Slot size in bytes: path plus key bytes, padded to a multiple of 8 bytes */
+    private final int slotSize;
+
+    /** Per-thread buffers to serialize keys to */
+    private final ThreadLocal<KeyBuffer> keyBuffers;
+
+    /** Current table. Replaced when the table is rebuilt */
+    private volatile Table table;
+
+    /** Number of live keys. Only updated by the writing thread */
+    private volatile long size;
+
+    /** Number of used slots, live keys and tombstones. Only accessed by the writing thread */
+    private long usedSlots;
+
+    /**
+     * Creates a new empty index.
+     *
+     * @param keySerializer key serializer, must report a fixed serialized key size
+     */
+    public OffHeapKeyIndex(@NonNull final KeySerializer<K> keySerializer) {
+        this.keySerializer = Objects.requireNonNull(keySerializer);
+        keySize = keySerializer.getSerializedSize();
+        if (keySize <= 0) {
+            throw new IllegalArgumentException("Off-heap key index only supports fixed size keys");
+        }
+        slotSize = Long.BYTES + paddedKeySize(keySize);
+        keyBuffers = ThreadLocal.withInitial(() -> new KeyBuffer(paddedKeySize(keySize)));
+        table = new Table(MIN_CAPACITY, slotSize);
+        size = 0;
+        usedSlots = 0;
+    }
+
+    /**
+     * Creates a new index and loads its content from a snapshot file written by {@link
+     * #writeToFile(Path)}. If the file doesn't exist, the index is empty.
+     *
+     * @param keySerializer key serializer, must report a fixed serialized key size
+     * @param file the snapshot file to load from
+     * @throws IOException if the file can't be read, or it's written for a different key size
+     */
+    public OffHeapKeyIndex(@NonNull final KeySerializer<K> keySerializer, @NonNull final Path file)
+            throws IOException {
+        this(keySerializer);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            final int version;
+            final int fileKeySize;
+            final long capacity;
+            final long fileSize;
+            final MappedByteBuffer header = fc.map(MapMode.READ_ONLY, 0, FILE_HEADER_SIZE);
+            try {
+                version = header.getInt();
+                fileKeySize = header.getInt();
+                capacity = header.getLong();
+                fileSize = header.getLong();
+            } finally {
+                closeMmapBuffer(header);
+            }
+            if (version != FILE_FORMAT_VERSION) {
+                throw new IOException("Unsupported off-heap key index file version: " + version);
+            }
+            if (fileKeySize != keySize) {
+                throw new IOException("Off-heap key index file key size " + fileKeySize + " doesn't match "
+                        + "the key serializer, expected " + keySize);
+            }
+            if ((capacity < MIN_CAPACITY)
+                    || (Long.bitCount(capacity) != 1)
+                    || (fc.size() != FILE_HEADER_SIZE + capacity * slotSize)) {
+                throw new IOException("Corrupted off-heap key index file: " + file);
+            }
+            final Table loaded = new Table(capacity, slotSize);
+            long offset = FILE_HEADER_SIZE;
+            for (final ByteBuffer chunk : loaded.chunks) {
+                final MappedByteBuffer mapped = fc.map(MapMode.READ_ONLY, offset, chunk.capacity());
+                try {
+                    chunk.clear();
+                    chunk.put(mapped);
+                    chunk.clear();
+                } finally {
+                    closeMmapBuffer(mapped);
+                }
+                offset += chunk.capacity();
+            }
+            table = loaded;
+            size = fileSize;
+            // Only live keys are counted in the file header, tombstones are counted here
+            usedSlots = loaded.countUsedSlots();
+        }
+    }
+
+    /**
+     * Returns the path for the given key.
+     *
+     * @param key the key to look up
+     * @param notFoundValue the value to return, if the key isn't in the index
+     * @return the path, or {@code notFoundValue} if the key is not found
+     */
+    public long get(@NonNull final K key, final long notFoundValue) {
+        final KeyBuffer keyBuffer = serialize(key);
+        final Table t = table;
+        long slot = keyBuffer.hash & t.mask;
+        for (long i = 0; i < t.capacity; i++) {
+            final ByteBuffer chunk = t.chunk(slot);
+            final int offset = t.offset(slot);
+            final long value = (long) SLOT_VALUE.getAcquire(chunk, offset);
+            if (value == EMPTY) {
+                return notFoundValue;
+            }
+            if (keyEquals(chunk, offset, keyBuffer)) {
+                return value == DELETED ? notFoundValue : value - 1;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return notFoundValue;
+    }
+
+    /**
+     * Puts a key to path mapping to the index. If the key is already in the index, its path is
+     * updated. Must only be called from the writing thread.
+     *
+     * @param key the key
+     * @param path the path, must not be negative
+     */
+    public void put(@NonNull final K key, final long path) {
+        if (path < 0) {
+            throw new IllegalArgumentException("Path must not be negative: " + path);
+        }
+        final KeyBuffer keyBuffer = serialize(key);
+        if (usedSlots + 1 > (long) (table.capacity * MAX_LOAD_FACTOR)) {
+            rebuild();
+        }
+        final Table t = table;
+        long slot = keyBuffer.hash & t.mask;
+        while (true) {
+            final ByteBuffer chunk = t.chunk(slot);
+            final int offset = t.offset(slot);
+            final long value = (long) SLOT_VALUE.getAcquire(chunk, offset);
+            if (value == EMPTY) {
+                // Write key bytes first, then publish the slot
+                writeKey(chunk, offset, keyBuffer);
+                SLOT_VALUE.setRelease(chunk, offset, path + 1);
+                usedSlots++;
+                size++;
+                return;
+            }
+            if (keyEquals(chunk, offset, keyBuffer)) {
+                if (value == DELETED) {
+                    size++;
+                }
+                SLOT_VALUE.setRelease(chunk, offset, path + 1);
+                return;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Deletes a key from the index. Must only be called from the writing thread.
+     *
+     * @param key the key to delete
+     */
+    public void delete(@NonNull final K key) {
+        deleteIfEqual(key, DELETED);
+    }
+
+    /**
+     * Deletes a key from the index, if it's currently mapped to the given path. Must only be
+     * called from the writing thread.
+     *
+     * @param key the key to delete
+     * @param oldPath the path the key must be mapped to, or a negative value to delete the key
+     *      regardless of its path
+     */
+    public void deleteIfEqual(@NonNull final K key, final long oldPath) {
+        final KeyBuffer keyBuffer = serialize(key);
+        final Table t = table;
+        long slot = keyBuffer.hash & t.mask;
+        for (long i = 0; i < t.capacity; i++) {
+            final ByteBuffer chunk = t.chunk(slot);
+            final int offset = t.offset(slot);
+            final long value = (long) SLOT_VALUE.getAcquire(chunk, offset);
+            if (value == EMPTY) {
+                return;
+            }
+            if (keyEquals(chunk, offset, keyBuffer)) {
+                if ((value != DELETED) && ((oldPath < 0) || (value - 1 == oldPath))) {
+                    SLOT_VALUE.setRelease(chunk, offset, DELETED);
+                    size--;
+                }
+                return;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys in the index.
+     *
+     * @return the number of keys
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the current table capacity, in slots.
+     *
+     * @return table capacity
+     */
+    public long capacity() {
+        return table.capacity;
+    }
+
+    /**
+     * Writes a snapshot of this index to the given file. The file is memory-mapped, and all
+     * table slots are copied to it as is. Must not be called in parallel with writes.
+     *
+     * @param file the file to write to. If it exists, it's overwritten
+     * @throws IOException if the file can't be written
+     */
+    public void writeToFile(@NonNull final Path file) throws IOException {
+        final Table t = table;
+        try (final FileChannel fc = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final MappedByteBuffer header = fc.map(MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+            try {
+                header.putInt(FILE_FORMAT_VERSION);
+                header.putInt(keySize);
+                header.putLong(t.capacity);
+                header.putLong(size);
+                header.force();
+            } finally {
+                closeMmapBuffer(header);
+            }
+            long offset = FILE_HEADER_SIZE;
+            for (final ByteBuffer chunk : t.chunks) {
+                final MappedByteBuffer mapped = fc.map(MapMode.READ_WRITE, offset, chunk.capacity());
+                try {
+                    mapped.put(chunk.duplicate().clear());
+                    mapped.force();
+                } finally {
+                    closeMmapBuffer(mapped);
+                }
+                offset += chunk.capacity();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOffHeapConsumption() {
+        return table.capacity * slotSize;
+    }
+
+    /**
+     * Releases the index memory. Off-heap buffers are released by GC, since there may still be
+     * readers using them.
+     */
+    @Override
+    public void close() {
+        table = new Table(MIN_CAPACITY, slotSize);
+        size = 0;
+        usedSlots = 0;
+    }
+
+    /**
+     * Copies all live keys to a new table, sized for the current number of keys, and replaces the
+     * current table with it. Tombstones are dropped. Readers using the old table continue to see
+     * consistent data, since the old table isn't modified.
+     */
+    private void rebuild() {
+        final Table oldTable = table;
+        final long liveKeys = size;
+        long newCapacity = MIN_CAPACITY;
+        while ((liveKeys + 1) > (long) (newCapacity * MAX_LOAD_FACTOR / 2)) {
+            newCapacity <<= 1;
+        }
+        final Table newTable = new Table(newCapacity, slotSize);
+        final int paddedKeySize = slotSize - Long.BYTES;
+        for (long oldSlot = 0; oldSlot < oldTable.capacity; oldSlot++) {
+            final ByteBuffer oldChunk = oldTable.chunk(oldSlot);
+            final int oldOffset = oldTable.offset(oldSlot);
+            final long value = (long) SLOT_VALUE.getAcquire(oldChunk, oldOffset);
+            if ((value == EMPTY) || (value == DELETED)) {
+                continue;
+            }
+            long slot = hash(oldChunk, oldOffset + Long.BYTES, paddedKeySize) & newTable.mask;
+            while (newTable.chunk(slot).getLong(newTable.offset(slot)) != EMPTY) {
+                slot = (slot + 1) & newTable.mask;
+            }
+            final ByteBuffer chunk = newTable.chunk(slot);
+            final int offset = newTable.offset(slot);
+            chunk.put(offset, oldChunk, oldOffset, slotSize);
+        }
+        usedSlots = liveKeys;
+        // The new table is published with a volatile write, after all its slots are written
+        table = newTable;
+    }
+
+    private KeyBuffer serialize(final K key) {
+        Objects.requireNonNull(key);
+        final KeyBuffer keyBuffer = keyBuffers.get();
+        final BufferedData out = keyBuffer.out;
+        out.position(0);
+        keySerializer.serialize(key, out);
+        if (out.position() != keySize) {
+            throw new IllegalStateException(
+                    "Key serialized to " + out.position() + " bytes, expected " + keySize + " bytes");
+        }
+        keyBuffer.hash = hash(keyBuffer.longs, 0, keyBuffer.longs.capacity());
+        return keyBuffer;
+    }
+
+    private boolean keyEquals(final ByteBuffer chunk, final int slotOffset, final KeyBuffer keyBuffer) {
+        final ByteBuffer longs = keyBuffer.longs;
+        final int keyOffset = slotOffset + Long.BYTES;
+        for (int i = 0; i < longs.capacity(); i += Long.BYTES) {
+            if (chunk.getLong(keyOffset + i) != longs.getLong(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeKey(final ByteBuffer chunk, final int slotOffset, final KeyBuffer keyBuffer) {
+        final ByteBuffer longs = keyBuffer.longs;
+        final int keyOffset = slotOffset + Long.BYTES;
+        for (int i = 0; i < longs.capacity(); i += Long.BYTES) {
+            chunk.putLong(keyOffset + i, longs.getLong(i));
+        }
+    }
+
+    /**
+     * Hashes padded key bytes. The same function is used for keys serialized to key buffers and
+     * for keys stored in table slots, both buffers must use native byte order.
+     */
+    private static long hash(final ByteBuffer buffer, final int offset, final int length) {
+        long hash = length;
+        for (int i = 0; i < length; i += Long.BYTES) {
+            hash = NonCryptographicHashing.hash64(hash, buffer.getLong(offset + i));
+        }
+        // Use high bits, they are better mixed, and table masks take low bits
+        return hash ^ (hash >>> 32);
+    }
+
+    private static int paddedKeySize(final int keySize) {
+        return (keySize + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * A buffer to serialize keys to. Bytes after the key size, up to the padded key size, are
+     * always zeroes.
+     */
+    private static final class KeyBuffer {
+        private final ByteBuffer longs;
+        private final BufferedData out;
+        private long hash;
+
+        private KeyBuffer(final int paddedKeySize) {
+            final byte[] bytes = new byte[paddedKeySize];
+            longs = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+            out = BufferedData.wrap(bytes);
+        }
+    }
+
+    /**
+     * Hash table slots, split into off-heap chunks. Capacity and the number of slots per chunk are
+     * powers of two.
+     */
+    private static final class Table {
+        private final long capacity;
+        private final long mask;
+        private final int slotSize;
+        private final int slotsPerChunkShift;
+        private final long slotInChunkMask;
+        private final ByteBuffer[] chunks;
+
+        private Table(final long capacity, final int slotSize) {
+            assert Long.bitCount(capacity) == 1;
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.slotSize = slotSize;
+            final long slotsPerChunk = Math.min(capacity, Integer.highestOneBit(MAX_CHUNK_SIZE / slotSize));
+            slotsPerChunkShift = Long.numberOfTrailingZeros(slotsPerChunk);
+            slotInChunkMask = slotsPerChunk - 1;
+            chunks = new ByteBuffer[Math.toIntExact(capacity / slotsPerChunk)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(Math.toIntExact(slotsPerChunk * slotSize))
+                        .order(ByteOrder.nativeOrder());
+            }
+        }
+
+        private ByteBuffer chunk(final long slot) {
+            return chunks[(int) (slot >>> slotsPerChunkShift)];
+        }
+
+        private int offset(final long slot) {
+            return (int) (slot & slotInChunkMask) * slotSize;
+        }
+
+        private long countUsedSlots() {
+            long count = 0;
+            for (long slot = 0; slot < capacity; slot++) {
+                if (chunk(slot).getLong(offset(slot)) != EMPTY) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.ordered;
+
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+
+import com.swirlds.merkledb.files.ordered.SortedKeyRun.Cursor;
+import com.swirlds.merkledb.files.ordered.SortedKeyRun.Entry;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An on-disk index of serialized keys ordered by their bytes, in unsigned lexicographic order. It
+ * complements key to path indices, which are hash based and can only look up individual keys, with
+ * range scans: all keys in a given range of serialized bytes, for example, all keys with a given
+ * prefix, can be found without iterating over the whole table.
+ *
+ * <p>The index is a simple log-structured merge tree. Key updates are collected in memory between
+ * {@link #startWriting()} and {@link #endWriting()} calls, and then written to disk as a new
+ * immutable {@link SortedKeyRun sorted run}. Deleted keys are stored as tombstones. Newer runs
+ * take precedence over older runs. To keep the number of runs logarithmic to the number of keys,
+ * after a new run is written, the two newest runs are merged while the newer one isn't much
+ * smaller than the older one. Tombstones are dropped, when the oldest run is merged.
+ *
+ * <p>Range scans merge all runs on the fly. Keys are read in pages of limited size, every page
+ * is read under a read lock, so runs can be merged and deleted between pages. Iterators are
+ * weakly consistent: keys added or removed while an iterator is in use may or may not be
+ * returned by the iterator.
+ *
+ * <p><b>IMPORTANT: This implementation assumes a single writing thread. There can be multiple
+ * readers while writing is happening.</b>
+ */
+public final class OrderedKeyIndex implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(OrderedKeyIndex.class);
+
+    /** Run file name extension */
+    private static final String RUN_FILE_EXTENSION = ".okr";
+
+    /** Run file name pattern. Group 1 is the run index */
+    private static final Pattern RUN_FILE_NAME_PATTERN = Pattern.compile("run_(\\d+)\\" + RUN_FILE_EXTENSION);
+
+    /** Max number of keys read under a single read lock in range scans */
+    private static final int PAGE_SIZE = 1024;
+
+    /**
+     * The two newest runs are merged, if the older run contains less than this number of times more
+     * entries than the newer run.
+     */
+    private static final int MERGE_SIZE_RATIO = 2;
+
+    /** Max number of runs. If there are more runs after a flush, runs are merged regardless of sizes */
+    private static final int MAX_RUNS = 32;
+
+    /** Orders keys in unsigned lexicographic order of their bytes */
+    private static final Comparator<byte[]> KEY_COMPARATOR = Arrays::compareUnsigned;
+
+    /** Index directory */
+    private final Path storeDir;
+
+    /** Index name, used for logging */
+    private final String storeName;
+
+    /** Index runs, from the oldest to the newest. Replaced as a whole under the write lock */
+    private volatile List<SortedKeyRun> runs;
+
+    /** Guards run list changes and reads from runs */
+    private final ReadWriteLock runsLock = new ReentrantReadWriteLock();
+
+    /** Index of the next run to write */
+    private long nextRunIndex;
+
+    /** Key updates collected since {@link #startWriting()}, or null if not writing */
+    private TreeMap<byte[], Boolean> batch;
+
+    /**
+     * Creates a new index in the given directory. If the directory contains run files, they are
+     * loaded. If the directory doesn't exist, it's created, and the index is empty.
+     *
+     * @param storeDir index directory
+     * @param storeName index name, used for logging
+     * @throws IOException if an I/O error occurred
+     */
+    public OrderedKeyIndex(@NonNull final Path storeDir, @NonNull final String storeName) throws IOException {
+        this.storeDir = Objects.requireNonNull(storeDir);
+        this.storeName = Objects.requireNonNull(storeName);
+        Files.createDirectories(storeDir);
+        final List<SortedKeyRun> loaded = new ArrayList<>();
+        try (final Stream<Path> files = Files.list(storeDir)) {
+            for (final Path file : files.toList()) {
+                final Matcher matcher =
+                        RUN_FILE_NAME_PATTERN.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    loaded.add(SortedKeyRun.open(file, Long.parseLong(matcher.group(1))));
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong(SortedKeyRun::getRunIndex));
+        runs = List.copyOf(loaded);
+        nextRunIndex = loaded.isEmpty() ? 0 : loaded.get(loaded.size() - 1).getRunIndex() + 1;
+        logger.info(MERKLE_DB.getMarker(), "[{}] Loaded ordered key index with {} runs", storeName, loaded.size());
+    }
+
+    /**
+     * Starts collecting key updates for a new run.
+     */
+    public void startWriting() {
+        if (batch != null) {
+            throw new IllegalStateException("Ordered key index is already in writing mode");
+        }
+        batch = new TreeMap<>(KEY_COMPARATOR);
+    }
+
+    /**
+     * Adds a key to the index. Must be called between {@link #startWriting()} and {@link
+     * #endWriting()}.
+     *
+     * @param keyBytes serialized key
+     */
+    public void put(@NonNull final byte[] keyBytes) {
+        checkWriting().put(keyBytes, Boolean.FALSE);
+    }
+
+    /**
+     * Removes a key from the index. Must be called between {@link #startWriting()} and {@link
+     * #endWriting()}. If the key is added in the same batch, either before or after this call,
+     * the key stays in the index. It's consistent with how key to path indices handle leaves,
+     * which are moved to different paths during reconnects.
+     *
+     * @param keyBytes serialized key
+     */
+    public void delete(@NonNull final byte[] keyBytes) {
+        checkWriting().putIfAbsent(keyBytes, Boolean.TRUE);
+    }
+
+    /**
+     * Writes all key updates collected since {@link #startWriting()} to a new run, and then merges
+     * runs, if needed.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    public void endWriting() throws IOException {
+        final TreeMap<byte[], Boolean> updates = checkWriting();
+        batch = null;
+        if (updates.isEmpty()) {
+            return;
+        }
+        final Iterator<Entry> entries = updates.entrySet().stream()
+                .map(e -> new Entry(e.getKey(), e.getValue()))
+                .iterator();
+        final long runIndex = nextRunIndex++;
+        final SortedKeyRun newRun = SortedKeyRun.write(runFile(runIndex), runIndex, entries);
+        runsLock.writeLock().lock();
+        try {
+            final List<SortedKeyRun> newRuns = new ArrayList<>(runs);
+            newRuns.add(newRun);
+            runs = List.copyOf(newRuns);
+        } finally {
+            runsLock.writeLock().unlock();
+        }
+        mergeRunsIfNeeded();
+    }
+
+    /**
+     * Gets an iterator over all keys in the index, which are greater or equal to the given from key,
+     * and less than the given to key. Keys are returned in unsigned lexicographic order of their
+     * bytes. The iterator is weakly consistent, see class docs for details.
+     *
+     * @param fromKey the lower bound, inclusive
+     * @param toKey the upper bound, exclusive, or null if there is no upper bound
+     * @return the iterator over keys in the range
+     */
+    public Iterator<byte[]> keyRange(@NonNull final byte[] fromKey, @Nullable final byte[] toKey) {
+        Objects.requireNonNull(fromKey);
+        return new Iterator<>() {
+            private List<byte[]> page = List.of();
+            private int pageIndex = 0;
+            private byte[] nextFrom = fromKey;
+            private boolean exhausted = false;
+
+            @Override
+            public boolean hasNext() {
+                if (pageIndex < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                try {
+                    page = readPage(nextFrom, toKey, PAGE_SIZE);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                pageIndex = 0;
+                if (page.size() < PAGE_SIZE) {
+                    exhausted = true;
+                } else {
+                    // The smallest key greater than the last key in the page
+                    final byte[] last = page.get(page.size() - 1);
+                    nextFrom = Arrays.copyOf(last, last.length + 1);
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(pageIndex++);
+            }
+        };
+    }
+
+    /**
+     * Number of runs in the index. Used in tests and stats.
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Copies all index runs to the given directory. Run files are immutable, so they are just
+     * hard-linked. This method must not be called concurrently with {@link #endWriting()}.
+     *
+     * @param snapshotDir the directory to copy runs to
+     * @throws IOException if an I/O error occurred
+     */
+    public void snapshot(@NonNull final Path snapshotDir) throws IOException {
+        Files.createDirectories(snapshotDir);
+        runsLock.readLock().lock();
+        try {
+            for (final SortedKeyRun run : runs) {
+                final Path file = run.getFile();
+                Files.createLink(snapshotDir.resolve(file.getFileName()), file);
+            }
+        } finally {
+            runsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Closes all index runs.
+     */
+    @Override
+    public void close() throws IOException {
+        runsLock.writeLock().lock();
+        try {
+            for (final SortedKeyRun run : runs) {
+                run.close();
+            }
+            runs = List.of();
+        } finally {
+            runsLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OrderedKeyIndex{name=" + storeName + ", runs=" + runs + "}";
+    }
+
+    private TreeMap<byte[], Boolean> checkWriting() {
+        if (batch == null) {
+            throw new IllegalStateException("Ordered key index isn't in writing mode");
+        }
+        return batch;
+    }
+
+    private Path runFile(final long runIndex) {
+        return storeDir.resolve("run_" + runIndex + RUN_FILE_EXTENSION);
+    }
+
+    /**
+     * Reads up to the given number of live keys in the given range from all runs.
+     */
+    private List<byte[]> readPage(final byte[] fromKey, final byte[] toKey, final int maxKeys) throws IOException {
+        final List<byte[]> result = new ArrayList<>(Math.min(maxKeys, 64));
+        runsLock.readLock().lock();
+        try {
+            final RunMerger merger = new RunMerger(runs, fromKey);
+            while (result.size() < maxKeys) {
+                final Entry entry = merger.next();
+                if ((entry == null) || ((toKey != null) && (KEY_COMPARATOR.compare(entry.key(), toKey) >= 0))) {
+                    break;
+                }
+                if (!entry.deleted()) {
+                    result.add(entry.key());
+                }
+            }
+        } finally {
+            runsLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Merges the two newest runs while the newer run isn't much smaller than the older one, or
+     * while there are too many runs.
+     */
+    private void mergeRunsIfNeeded() throws IOException {
+        while (true) {
+            final List<SortedKeyRun> current = runs;
+            final int count = current.size();
+            if (count < 2) {
+                return;
+            }
+            final SortedKeyRun older = current.get(count - 2);
+            final SortedKeyRun newer = current.get(count - 1);
+            if ((older.getEntryCount() >= newer.getEntryCount() * MERGE_SIZE_RATIO) && (count <= MAX_RUNS)) {
+                return;
+            }
+            // If the older run is the oldest one, there is nothing left for tombstones to hide
+            final boolean dropTombstones = count == 2;
+            final long runIndex = nextRunIndex++;
+            final SortedKeyRun merged;
+            // Runs are immutable, so they can be read without locks by the writing thread
+            final RunMerger merger = new RunMerger(List.of(older, newer), new byte[0]);
+            final Iterator<Entry> entries = new Iterator<>() {
+                private Entry next = advance();
+
+                private Entry advance() {
+                    try {
+                        Entry e = merger.next();
+                        while (dropTombstones && (e != null) && e.deleted()) {
+                            e = merger.next();
+                        }
+                        return e;
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Entry next() {
+                    final Entry e = next;
+                    next = advance();
+                    return e;
+                }
+            };
+            try {
+                merged = SortedKeyRun.write(runFile(runIndex), runIndex, entries);
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            runsLock.writeLock().lock();
+            try {
+                final List<SortedKeyRun> newRuns = new ArrayList<>(current.subList(0, count - 2));
+                newRuns.add(merged);
+                runs = List.copyOf(newRuns);
+                older.close();
+                newer.close();
+            } finally {
+                runsLock.writeLock().unlock();
+            }
+            Files.delete(older.getFile());
+            Files.delete(newer.getFile());
+        }
+    }
+
+    /**
+     * Merges entries from multiple runs in key order. If a key is present in multiple runs, only
+     * the entry from the newest run is returned.
+     */
+    private static final class RunMerger {
+
+        private final PriorityQueue<Cursor> queue = new PriorityQueue<>((c1, c2) -> {
+            final int cmp = KEY_COMPARATOR.compare(c1.current().key(), c2.current().key());
+            if (cmp != 0) {
+                return cmp;
+            }
+            // Newer runs first
+            return Long.compare(c2.run().getRunIndex(), c1.run().getRunIndex());
+        });
+
+        RunMerger(final List<SortedKeyRun> runs, final byte[] fromKey) throws IOException {
+            for (final SortedKeyRun run : runs) {
+                final Cursor cursor = run.cursor(fromKey);
+                if (cursor != null) {
+                    queue.add(cursor);
+                }
+            }
+        }
+
+        Entry next() throws IOException {
+            final Cursor top = queue.poll();
+            if (top == null) {
+                return null;
+            }
+            final Entry entry = top.current();
+            if (top.advance()) {
+                queue.add(top);
+            }
+            // Skip the same key in older runs
+            while (!queue.isEmpty()
+                    && (KEY_COMPARATOR.compare(queue.peek().current().key(), entry.key()) == 0)) {
+                final Cursor older = queue.poll();
+                if (older.advance()) {
+                    queue.add(older);
+                }
+            }
+            return entry;
+        }
+    }
+}
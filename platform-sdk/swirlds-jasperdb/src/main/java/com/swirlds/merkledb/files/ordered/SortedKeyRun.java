@@ -0,0 +1,405 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.ordered;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable file with serialized keys sorted in unsigned lexicographic order of their bytes.
+ * Every key is either a live key or a tombstone, which marks the key as deleted in all older runs.
+ * Runs are written once by {@link #write(Path, long, Iterator)} and never modified after that.
+ *
+ * <p>File format: a header, which is format version (int) and number of entries (long), followed
+ * by entries. Every entry is key length (int), entry type (byte), and key bytes.
+ *
+ * <p>Every {@link #SPARSE_INDEX_STEP}-th key and its file offset are kept in memory. To find the
+ * first key greater or equal to a given key, the sparse index is searched first, and then at most
+ * {@link #SPARSE_INDEX_STEP} entries are read from the file. Run reads use positional reads, so
+ * multiple cursors can read the same run concurrently.
+ */
+final class SortedKeyRun implements AutoCloseable {
+
+    /** The version number for format of run files */
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    /** Run file header: version (int), number of entries (long) */
+    private static final int FILE_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /** Entry header: key length (int), entry type (byte) */
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES + 1;
+
+    /** Entry type for live keys */
+    private static final byte TYPE_PUT = 1;
+
+    /** Entry type for deleted keys */
+    private static final byte TYPE_DELETE = 0;
+
+    /** Every N-th key is stored in the sparse in-memory index */
+    static final int SPARSE_INDEX_STEP = 64;
+
+    /** Buffer size for reading and writing run files */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** A single run entry: serialized key bytes and whether the key is deleted */
+    record Entry(@NonNull byte[] key, boolean deleted) {}
+
+    /** Run file */
+    private final Path file;
+
+    /** Run index. Runs with greater indices are newer and take precedence over older runs */
+    private final long runIndex;
+
+    /** Number of entries in the run, including tombstones */
+    private final long entryCount;
+
+    /** Every {@link #SPARSE_INDEX_STEP}-th key in the run */
+    private final byte[][] sparseKeys;
+
+    /** File offsets of keys in {@link #sparseKeys} */
+    private final long[] sparseOffsets;
+
+    /** Channel to read the run file */
+    private final FileChannel channel;
+
+    private SortedKeyRun(
+            final Path file,
+            final long runIndex,
+            final long entryCount,
+            final byte[][] sparseKeys,
+            final long[] sparseOffsets)
+            throws IOException {
+        this.file = file;
+        this.runIndex = runIndex;
+        this.entryCount = entryCount;
+        this.sparseKeys = sparseKeys;
+        this.sparseOffsets = sparseOffsets;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * Writes a new run file and opens it for reading.
+     *
+     * @param file the file to write to, must not exist
+     * @param runIndex run index
+     * @param entries run entries, sorted by keys in unsigned lexicographic order, without duplicates
+     * @return the new run
+     * @throws IOException if an I/O error occurred
+     */
+    static SortedKeyRun write(
+            @NonNull final Path file, final long runIndex, @NonNull final Iterator<Entry> entries)
+            throws IOException {
+        final List<byte[]> sparseKeys = new ArrayList<>();
+        final List<Long> sparseOffsets = new ArrayList<>();
+        long count = 0;
+        try (final OutputStream fileOut = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW);
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE))) {
+            out.writeInt(FILE_FORMAT_VERSION);
+            // Number of entries isn't known yet, it's updated below
+            out.writeLong(0);
+            long offset = FILE_HEADER_SIZE;
+            byte[] prevKey = null;
+            while (entries.hasNext()) {
+                final Entry entry = entries.next();
+                final byte[] key = entry.key();
+                assert (prevKey == null) || (Arrays.compareUnsigned(prevKey, key) < 0) : "Keys must be sorted";
+                if (count % SPARSE_INDEX_STEP == 0) {
+                    sparseKeys.add(key);
+                    sparseOffsets.add(offset);
+                }
+                out.writeInt(key.length);
+                out.writeByte(entry.deleted() ? TYPE_DELETE : TYPE_PUT);
+                out.write(key);
+                offset += ENTRY_HEADER_SIZE + key.length;
+                prevKey = key;
+                count++;
+            }
+        }
+        try (final FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            final ByteBuffer countBuf = ByteBuffer.allocate(Long.BYTES);
+            countBuf.putLong(count).flip();
+            ch.write(countBuf, Integer.BYTES);
+            ch.force(true);
+        }
+        return new SortedKeyRun(
+                file,
+                runIndex,
+                count,
+                sparseKeys.toArray(new byte[0][]),
+                sparseOffsets.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Opens an existing run file. The whole file is scanned to build the sparse index.
+     *
+     * @param file the run file
+     * @param runIndex run index
+     * @return the run
+     * @throws IOException if an I/O error occurred, or the file is corrupted
+     */
+    static SortedKeyRun open(@NonNull final Path file, final long runIndex) throws IOException {
+        final long count;
+        final List<byte[]> sparseKeys = new ArrayList<>();
+        final List<Long> sparseOffsets = new ArrayList<>();
+        try (final FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            readFully(ch, header, 0);
+            header.flip();
+            final int version = header.getInt();
+            if (version != FILE_FORMAT_VERSION) {
+                throw new IOException("Unsupported sorted key run file version: " + version + ", file: " + file);
+            }
+            count = header.getLong();
+            final Reader reader = new Reader(ch, FILE_HEADER_SIZE);
+            for (long i = 0; i < count; i++) {
+                final long offset = reader.position();
+                final Entry entry = reader.next();
+                if (entry == null) {
+                    throw new IOException("Sorted key run file is truncated: " + file);
+                }
+                if (i % SPARSE_INDEX_STEP == 0) {
+                    sparseKeys.add(entry.key());
+                    sparseOffsets.add(offset);
+                }
+            }
+        }
+        return new SortedKeyRun(
+                file,
+                runIndex,
+                count,
+                sparseKeys.toArray(new byte[0][]),
+                sparseOffsets.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Run file.
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Run index. Runs with greater indices are newer.
+     */
+    long getRunIndex() {
+        return runIndex;
+    }
+
+    /**
+     * Number of entries in this run, including tombstones.
+     */
+    long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Creates a new cursor positioned at the first entry with key greater or equal to the given key.
+     * The cursor must only be used while this run is open.
+     *
+     * @param fromKey the key to start from, inclusive
+     * @return the cursor, or null if all keys in this run are less than the given key
+     * @throws IOException if an I/O error occurred
+     */
+    Cursor cursor(@NonNull final byte[] fromKey) throws IOException {
+        if (entryCount == 0) {
+            return null;
+        }
+        // Find the last sparse key less or equal to fromKey
+        int lo = 0;
+        int hi = sparseKeys.length - 1;
+        int start = 0;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Arrays.compareUnsigned(sparseKeys[mid], fromKey) <= 0) {
+                start = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        final Reader reader = new Reader(channel, sparseOffsets[start]);
+        long remaining = entryCount - (long) start * SPARSE_INDEX_STEP;
+        while (remaining > 0) {
+            final Entry entry = reader.next();
+            remaining--;
+            if (entry == null) {
+                throw new IOException("Sorted key run file is truncated: " + file);
+            }
+            if (Arrays.compareUnsigned(entry.key(), fromKey) >= 0) {
+                return new Cursor(this, reader, entry, remaining);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Closes this run. Cursors created for this run can't be used after that.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "SortedKeyRun{file=" + file + ", entries=" + entryCount + "}";
+    }
+
+    private static void readFully(final FileChannel ch, final ByteBuffer buf, final long position)
+            throws IOException {
+        long pos = position;
+        while (buf.hasRemaining()) {
+            final int read = ch.read(buf, pos);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            pos += read;
+        }
+    }
+
+    /**
+     * A cursor over run entries, in key order. Cursors aren't thread safe.
+     */
+    static final class Cursor {
+
+        private final SortedKeyRun run;
+
+        private final Reader reader;
+
+        private Entry current;
+
+        private long remaining;
+
+        private Cursor(final SortedKeyRun run, final Reader reader, final Entry current, final long remaining) {
+            this.run = run;
+            this.reader = reader;
+            this.current = current;
+            this.remaining = remaining;
+        }
+
+        /**
+         * The run this cursor reads from.
+         */
+        SortedKeyRun run() {
+            return run;
+        }
+
+        /**
+         * The current entry.
+         */
+        Entry current() {
+            return current;
+        }
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return false if there are no more entries in the run
+         * @throws IOException if an I/O error occurred
+         */
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                current = null;
+                return false;
+            }
+            current = reader.next();
+            remaining--;
+            if (current == null) {
+                throw new IOException("Sorted key run file is truncated: " + run.file);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads run entries sequentially from the given file position using positional reads.
+     */
+    private static final class Reader {
+
+        private final FileChannel channel;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+
+        /** File position of the first byte in the buffer */
+        private long bufferPosition;
+
+        private Reader(final FileChannel channel, final long position) {
+            this.channel = Objects.requireNonNull(channel);
+            this.bufferPosition = position;
+        }
+
+        /** File position of the next entry */
+        long position() {
+            return bufferPosition + buffer.position();
+        }
+
+        /**
+         * Reads the next entry.
+         *
+         * @return the entry, or null if the end of file is reached
+         */
+        Entry next() throws IOException {
+            if (!ensureAvailable(ENTRY_HEADER_SIZE)) {
+                return null;
+            }
+            final int keyLength = buffer.getInt(buffer.position());
+            if (!ensureAvailable(ENTRY_HEADER_SIZE + keyLength)) {
+                return null;
+            }
+            buffer.getInt();
+            final byte type = buffer.get();
+            final byte[] key = new byte[keyLength];
+            buffer.get(key);
+            return new Entry(key, type == TYPE_DELETE);
+        }
+
+        /** Makes sure the buffer has at least the given number of bytes available */
+        private boolean ensureAvailable(final int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            bufferPosition += buffer.position();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+            buffer.clear();
+            while (buffer.position() < bytes) {
+                final int read = channel.read(buffer, bufferPosition + buffer.position());
+                if (read < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
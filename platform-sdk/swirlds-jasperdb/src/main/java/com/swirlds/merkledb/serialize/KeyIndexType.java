@@ -30,5 +30,13 @@ public enum KeyIndexType {
      * Index that assumes the keys are sequential longs without any gaps and implement
      * {@link com.swirlds.virtualmap.VirtualLongKey}. This index is 100% in memory, so use with care.
      */
-    SEQUENTIAL_INCREMENTING_LONGS
+    SEQUENTIAL_INCREMENTING_LONGS,
+
+    /**
+     * Index that keeps keys of a small fixed serialized size in an off-heap open addressing hash
+     * table. This index is 100% in memory, no disk reads are needed to look up a key. Key
+     * serializers don't report this type themselves, it's picked by table configs, see
+     * {@link com.swirlds.merkledb.MerkleDbTableConfig#getKeyIndexType()}.
+     */
+    OFF_HEAP_HASH
 }
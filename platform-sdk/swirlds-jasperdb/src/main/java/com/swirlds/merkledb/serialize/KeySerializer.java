@@ -69,6 +69,25 @@ public interface KeySerializer<K extends VirtualKey> extends BaseSerializer<K>,
      */
     boolean equals(@NonNull BufferedData buffer, @NonNull K keyToCompare);
 
+    /**
+     * Indicates whether keys can be compared by their serialized bytes. If this method returns
+     * true, serialization must be canonical: two keys are equal if and only if bytes written for
+     * them by {@link #serialize(Object, com.hedera.pbj.runtime.io.WritableSequentialData)} are
+     * identical. In this case hash map buckets serialize a key to look up once, and compare its
+     * bytes to serialized keys in the bucket directly, without calling {@link
+     * #equals(BufferedData, VirtualKey)} for every candidate entry.
+     *
+     * <p>By default, raw key comparison isn't supported. It should only be enabled for key formats
+     * with a single possible encoding per key, e.g. fixed layouts. Keys in formats like protobuf may
+     * be stored in a different, but equivalent encoding, for example by an earlier software version,
+     * and such keys would never match.
+     *
+     * @return true if keys can be compared by their serialized bytes
+     */
+    default boolean supportsRawKeyComparison() {
+        return false;
+    }
+
     @Override
     default void serialize(@NonNull final SerializableDataOutputStream out) throws IOException {
         // most key serializers are stateless, so there is nothing to serialize
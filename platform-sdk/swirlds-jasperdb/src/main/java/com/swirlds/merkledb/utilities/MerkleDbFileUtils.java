@@ -182,4 +182,43 @@ public final class MerkleDbFileUtils {
         }
         return totalBytesTransferred;
     }
+
+    /**
+     * Transfers exactly {@code bytesToTransfer} bytes from a file channel, starting at the given
+     * position, to a destination channel at its current position. Unlike {@link
+     * #completelyTransferFrom(FileChannel, ReadableByteChannel, long, long)}, it's an error, if the
+     * source channel has fewer bytes than requested.
+     *
+     * <p>srcChannel's position is unchanged. dstChannel's position is updated if it has a position.
+     * See also: {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+     *
+     * @param srcChannel
+     * 		the source file channel to transfer data from.
+     * @param srcPosition
+     * 		the absolute byte position in srcChannel to start reading data from.
+     * @param bytesToTransfer
+     * 		number of bytes to transfer.
+     * @param dstChannel
+     * 		the destination channel to transfer data to.
+     * @throws IOException
+     * 		if an exception occurs while trying to transfer data, or if the end of the source
+     * 		channel is reached before all bytes are transferred.
+     */
+    public static void completelyTransferTo(
+            final FileChannel srcChannel,
+            final long srcPosition,
+            final long bytesToTransfer,
+            final WritableByteChannel dstChannel)
+            throws IOException {
+        long totalBytesTransferred = 0;
+        while (totalBytesTransferred < bytesToTransfer) {
+            final long bytesTransferred = srcChannel.transferTo(
+                    srcPosition + totalBytesTransferred, bytesToTransfer - totalBytesTransferred, dstChannel);
+            if (bytesTransferred <= 0) {
+                throw new IOException("Failed to transfer " + bytesToTransfer + " bytes from position " + srcPosition
+                        + ", only " + totalBytesTransferred + " bytes transferred");
+            }
+            totalBytesTransferred += bytesTransferred;
+        }
+    }
 }
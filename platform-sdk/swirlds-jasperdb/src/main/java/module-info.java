@@ -25,6 +25,7 @@ open module com.swirlds.merkledb {
     exports com.swirlds.merkledb.config;
     exports com.swirlds.merkledb.files;
     exports com.swirlds.merkledb.files.hashmap;
+    exports com.swirlds.merkledb.files.ordered;
     exports com.swirlds.merkledb.serialize;
     exports com.swirlds.merkledb.utilities;
 
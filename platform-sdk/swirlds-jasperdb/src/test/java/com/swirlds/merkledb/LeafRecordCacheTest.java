@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeVirtualValue;
+import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import org.junit.jupiter.api.Test;
+
+class LeafRecordCacheTest {
+
+    private static VirtualLeafRecord<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> record(final int i) {
+        return new VirtualLeafRecord<>(i, new ExampleLongKeyFixedSize(i), new ExampleFixedSizeVirtualValue(i));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new LeafRecordCache<>(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LeafRecordCache<>(16, 0));
+        assertEquals(2, new LeafRecordCache<>(2, 4).capacity());
+    }
+
+    @Test
+    void putGetInvalidate() {
+        final LeafRecordCache<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> cache =
+                new LeafRecordCache<>(64, 4);
+        for (int i = 0; i < 16; i++) {
+            assertFalse(cache.put(record(i)), "No evictions expected in an empty cache");
+        }
+        for (int i = 0; i < 16; i++) {
+            final var cached = cache.get(new ExampleLongKeyFixedSize(i));
+            assertNotNull(cached, "Record " + i + " should be cached");
+            assertEquals(i, cached.getPath());
+        }
+        cache.invalidate(new ExampleLongKeyFixedSize(3));
+        assertNull(cache.get(new ExampleLongKeyFixedSize(3)));
+        assertNotNull(cache.get(new ExampleLongKeyFixedSize(4)));
+    }
+
+    @Test
+    void replaceSameKey() {
+        final LeafRecordCache<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> cache =
+                new LeafRecordCache<>(4, 4);
+        cache.put(record(1));
+        final var updated = new VirtualLeafRecord<>(
+                100, new ExampleLongKeyFixedSize(1), new ExampleFixedSizeVirtualValue(100));
+        assertFalse(cache.put(updated), "Replacing a record with the same key is not an eviction");
+        assertSame(updated, cache.get(new ExampleLongKeyFixedSize(1)));
+    }
+
+    @Test
+    void referencedEntriesSurviveEviction() {
+        // A single set of 4 ways, all keys map to it
+        final LeafRecordCache<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> cache =
+                new LeafRecordCache<>(4, 4);
+        for (int i = 0; i < 4; i++) {
+            cache.put(record(i));
+        }
+        // Key 0 is hot
+        assertNotNull(cache.get(new ExampleLongKeyFixedSize(0)));
+        // Stream of cold keys
+        for (int i = 4; i < 7; i++) {
+            assertTrue(cache.put(record(i)), "The set is full, an eviction is expected");
+        }
+        assertNotNull(cache.get(new ExampleLongKeyFixedSize(0)), "Referenced entry must get a second chance");
+    }
+
+    @Test
+    void directMapped() {
+        final LeafRecordCache<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> cache =
+                new LeafRecordCache<>(1, 1);
+        cache.put(record(1));
+        assertTrue(cache.put(record(2)));
+        assertNull(cache.get(new ExampleLongKeyFixedSize(1)));
+        assertNotNull(cache.get(new ExampleLongKeyFixedSize(2)));
+    }
+}
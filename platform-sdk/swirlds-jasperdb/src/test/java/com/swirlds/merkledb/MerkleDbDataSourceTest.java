@@ -18,6 +18,7 @@ package com.swirlds.merkledb;
 
 import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyEquals;
 import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyFalse;
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyTrue;
 import static com.swirlds.common.test.fixtures.junit.tags.TestQualifierTags.TIMING_SENSITIVE;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.checkDirectMemoryIsCleanedUpToLessThanBaseUsage;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.getDirectMemoryUsedBytes;
@@ -39,6 +40,7 @@ import com.swirlds.common.constructable.ConstructableRegistry;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
 import com.swirlds.common.test.fixtures.junit.tags.TestQualifierTags;
+import com.swirlds.merkledb.files.HashChunkStore;
 import com.swirlds.merkledb.serialize.KeyIndexType;
 import com.swirlds.merkledb.test.fixtures.ExampleByteArrayVirtualValue;
 import com.swirlds.merkledb.test.fixtures.TestType;
@@ -59,6 +61,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import org.junit.jupiter.api.AfterEach;
@@ -244,6 +247,50 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void batchLoadLeavesAndHashes(final TestType testType) throws IOException {
+        final int count = 1_000;
+        // Half of the hashes in RAM, half on disk
+        createAndApplyDataSource(testDirectory, "testBatch", testType, count, count * 3 / 2, dataSource -> {
+            dataSource.saveRecords(
+                    count,
+                    count * 2,
+                    IntStream.range(0, count * 2).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                    IntStream.range(count, count * 2)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                    Stream.empty());
+            // Shuffled existing keys, plus some keys that don't exist
+            final Random random = new Random(1234);
+            final List<Integer> indices = new ArrayList<>();
+            final List<VirtualLongKey> keys = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final int index = count + random.nextInt(count * 2);
+                indices.add(index);
+                keys.add(testType.dataType().createVirtualLongKey(index));
+            }
+            final List<VirtualLeafRecord<VirtualLongKey, ExampleByteArrayVirtualValue>> records =
+                    dataSource.loadLeafRecords(keys);
+            assertEquals(keys.size(), records.size());
+            for (int i = 0; i < keys.size(); i++) {
+                final int index = indices.get(i);
+                if (index < count * 2) {
+                    assertEqualsAndPrint(testType.dataType().createVirtualLeafRecord(index), records.get(i));
+                } else {
+                    assertNull(records.get(i), "Key " + index + " should not be found");
+                }
+            }
+            // Second call is served from the leaf record cache, results must be the same
+            assertEquals(records, dataSource.loadLeafRecords(keys));
+
+            final long[] paths = random.longs(count, 0, count * 3).toArray();
+            final Hash[] hashes = dataSource.loadHashes(paths);
+            for (int i = 0; i < paths.length; i++) {
+                assertEquals(dataSource.loadHash(paths[i]), hashes[i], "Unexpected hash for path " + paths[i]);
+            }
+        });
+    }
+
     @ParameterizedTest
     @Tag(TestQualifierTags.TIME_CONSUMING)
     @EnumSource(TestType.class)
@@ -342,6 +389,80 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void saveRecordsUpdatesAllStores(final TestType testType) throws IOException {
+        final int count = 1_000;
+        createAndApplyDataSource(testDirectory, "testParallelSave", testType, count, count, dataSource -> {
+            // Hashes, leaves, and key to path mappings are written in parallel
+            dataSource.saveRecords(
+                    count,
+                    count * 2,
+                    IntStream.range(0, count * 2).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                    IntStream.range(count, count * 2)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                    Stream.empty());
+            // Update hashes and every other leaf value, and delete the last leaf
+            dataSource.saveRecords(
+                    count,
+                    count * 2 - 1,
+                    IntStream.range(0, count * 2 - 1)
+                            .mapToObj(i -> MerkleDbDataSourceTest.createVirtualInternalRecord(i, i + 1)),
+                    IntStream.range(count, count * 2 - 1)
+                            .filter(i -> i % 2 == 0)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i, i, i + 1)),
+                    Stream.of(testType.dataType().createVirtualLeafRecord(count * 2 - 1)));
+
+            for (int i = 0; i < count; i++) {
+                assertHash(dataSource, i, i + 1);
+            }
+            for (int i = count; i < count * 2 - 1; i++) {
+                assertLeaf(testType, dataSource, i, i, i + 1, (i % 2 == 0) ? i + 1 : i);
+            }
+            assertEquals(
+                    INVALID_PATH,
+                    dataSource.findKey(testType.dataType().createVirtualLongKey(count * 2 - 1)),
+                    "Deleted key should not be found");
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void saveRecordsWaitsForStoreTasksOnFailure(final TestType testType) throws IOException {
+        final int count = 1_000;
+        createAndApplyDataSource(testDirectory, "testFailedSave", testType, count, count, dataSource -> {
+            dataSource.saveRecords(
+                    count,
+                    count * 2,
+                    IntStream.range(0, count * 2).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                    IntStream.range(count, count * 2)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                    Stream.empty());
+            // The last dirty leaf path is beyond the leaf index capacity, writing it to the path to
+            // key/value store fails on the current thread, while hashes and key to path mappings are
+            // being written on store threads
+            final long invalidLeafPath = 5_000_000_000L;
+            final List<VirtualLeafRecord<VirtualLongKey, ExampleByteArrayVirtualValue>> dirtyLeaves =
+                    new ArrayList<>();
+            IntStream.range(count, count * 2)
+                    .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i, i, i + 1))
+                    .forEach(dirtyLeaves::add);
+            dirtyLeaves.add(testType.dataType().createVirtualLeafRecord(invalidLeafPath, count * 3, count * 3));
+            assertThrows(
+                    IndexOutOfBoundsException.class,
+                    () -> dataSource.saveRecords(
+                            count,
+                            count * 2,
+                            IntStream.range(0, count * 2)
+                                    .mapToObj(i -> MerkleDbDataSourceTest.createVirtualInternalRecord(i, i + 1)),
+                            dirtyLeaves.stream(),
+                            Stream.empty()),
+                    "Saving a leaf beyond the index capacity should fail");
+            // The hashes store task must be complete, when saveRecords() fails
+            IntStream.range(0, count * 2).forEach(i -> assertHash(dataSource, i, i + 1));
+        });
+    }
+
     @Test
     @Tag(TIMING_SENSITIVE)
     void preservesInterruptStatusWhenInterruptedSavingRecords() throws IOException {
@@ -478,6 +599,78 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(
+            value = TestType.class,
+            names = {"fixed_fixed", "variable_variable"})
+    @Tag(TIMING_SENSITIVE)
+    void hashChunksFlushCompactSnapshotRestore(final TestType testType) throws IOException {
+        final int count = 1000;
+        final int flushes = 10;
+        final int hashChunkHeight = 3;
+        final String tableName = "vm";
+        final Path originalDbPath = testDirectory.resolve("merkledb-hashChunks-" + testType);
+        final Path snapshotDbPath = testDirectory.resolve("merkledb-hashChunks-" + testType + "_SNAPSHOT");
+        // All hashes are on disk, in the hash chunk store
+        final MerkleDbDataSource<VirtualLongKey, ExampleByteArrayVirtualValue> dataSource =
+                testType.dataType().createDataSource(originalDbPath, tableName, count, 0, true, false, hashChunkHeight);
+        final int tableId = dataSource.getTableId();
+        try {
+            assertTrue(dataSource.getHashStoreDisk() instanceof HashChunkStore, "Hash chunk store should be used");
+            // Every flush updates all hashes, so every flush makes all chunks in previous files garbage
+            for (int f = 0; f < flushes; f++) {
+                final int version = f;
+                dataSource.saveRecords(
+                        count,
+                        count * 2,
+                        IntStream.range(0, count * 2).mapToObj(i -> createVirtualInternalRecord(i, i + version)),
+                        IntStream.range(count, count * 2)
+                                .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                        Stream.empty());
+            }
+            // Compaction is started in the background after flushes
+            assertEventuallyTrue(
+                    () -> dataSource.getHashStoreDisk().getFilesSizeStatistics().getCount() < flushes,
+                    Duration.ofSeconds(10),
+                    "Hash chunk files should have been compacted");
+            reinitializeDirectMemoryUsage();
+            IntStream.range(0, count * 2).forEach(i -> assertHash(dataSource, i, i + flushes - 1));
+            // Batch loads are sorted by chunk data location
+            final long[] paths = new Random(1234).longs(count, 0, count * 2).toArray();
+            final Hash[] hashes = dataSource.loadHashes(paths);
+            for (int i = 0; i < paths.length; i++) {
+                assertEquals(hash((int) paths[i] + flushes - 1), hashes[i], "Unexpected hash for path " + paths[i]);
+            }
+
+            dataSource.getDatabase().snapshot(snapshotDbPath, dataSource);
+        } finally {
+            dataSource.close();
+        }
+
+        final MerkleDb snapshotDb = MerkleDb.getInstance(snapshotDbPath);
+        final MerkleDbPaths snapshotPaths = new MerkleDbPaths(snapshotDb.getTableDir(tableName, tableId));
+        // The internal node index is rebuilt from the hash chunk files
+        Files.delete(snapshotPaths.pathToDiskLocationInternalNodesFile);
+        final MerkleDbDataSource<VirtualLongKey, ExampleByteArrayVirtualValue> snapshotDataSource =
+                snapshotDb.getDataSource(tableName, false);
+        try {
+            assertTrue(
+                    snapshotDataSource.getHashStoreDisk() instanceof HashChunkStore,
+                    "Restored table should keep its hash store format");
+            IntStream.range(0, count * 2).forEach(i -> assertHash(snapshotDataSource, i, i + flushes - 1));
+            IntStream.range(count, count * 2).forEach(i -> assertLeaf(testType, snapshotDataSource, i, i, i + flushes - 1, i));
+            final long[] paths = LongStream.range(0, count * 2).toArray();
+            final Hash[] hashes = snapshotDataSource.loadHashes(paths);
+            for (int i = 0; i < paths.length; i++) {
+                assertEquals(hash(i + flushes - 1), hashes[i], "Unexpected hash for path " + i);
+            }
+        } finally {
+            snapshotDataSource.close();
+        }
+        assertEventuallyEquals(
+                0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
+    }
+
     @Test
     @Tag(TestQualifierTags.TIME_CONSUMING)
     void preservesInterruptStatusWhenInterruptedClosing() throws IOException {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
+import com.swirlds.merkledb.files.DataFileCommon;
+import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeVirtualValue;
+import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeVirtualValueSerializer;
+import com.swirlds.merkledb.test.fixtures.ExampleLongLongKeyFixedSize;
+import com.swirlds.virtualmap.VirtualMap;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for key range iteration over MerkleDb data sources with an ordered key index, and over
+ * virtual maps backed by such data sources.
+ */
+class MerkleDbKeyRangeTest {
+
+    private static Path testDirectory;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        testDirectory = LegacyTemporaryFileBuilder.buildTemporaryFile("MerkleDbKeyRangeTest");
+        final ConstructableRegistry registry = ConstructableRegistry.getInstance();
+        registry.registerConstructables("com.swirlds.merkledb");
+        registry.registerConstructables("com.swirlds.virtualmap");
+        registry.registerConstructables("com.swirlds.common");
+    }
+
+    private static MerkleDbTableConfig<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> tableConfig() {
+        return new MerkleDbTableConfig<>(
+                        (short) 1,
+                        DigestType.SHA_384,
+                        (short) 1,
+                        new ExampleLongLongKeyFixedSize.Serializer(),
+                        (short) 1,
+                        new ExampleFixedSizeVirtualValueSerializer())
+                .preferDiskIndices(false)
+                .maxNumberOfKeys(1000)
+                .orderedKeyIndex(true);
+    }
+
+    /**
+     * Keys are serialized as two big-endian longs, so keys with non-negative first longs are
+     * ordered by the first long.
+     */
+    private static ExampleLongLongKeyFixedSize key(final long i) {
+        return new ExampleLongLongKeyFixedSize(i);
+    }
+
+    private static Bytes keyBytes(final long i) {
+        return Bytes.wrap(
+                ByteBuffer.allocate(Long.BYTES * 2).putLong(i).putLong(Long.MAX_VALUE - i).array());
+    }
+
+    private static VirtualLeafRecord<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> leaf(
+            final long path, final long i) {
+        return new VirtualLeafRecord<>(path, key(i), new ExampleFixedSizeVirtualValue((int) i));
+    }
+
+    private static List<Long> keys(final Iterator<ExampleLongLongKeyFixedSize> iterator) {
+        final List<Long> keys = new ArrayList<>();
+        iterator.forEachRemaining(k -> keys.add(k.getValue()));
+        return keys;
+    }
+
+    @Test
+    void virtualMapMergesCachedAndStoredKeys() throws InterruptedException {
+        MerkleDb.setDefaultPath(testDirectory.resolve("virtualMap"));
+        final VirtualMap<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> map =
+                new VirtualMap<>("keyRange", new MerkleDbDataSourceBuilder<>(tableConfig()));
+        // Even keys are flushed to the data source
+        for (int i = 0; i < 100; i += 2) {
+            map.put(key(i), new ExampleFixedSizeVirtualValue(i));
+        }
+        final VirtualRootNode<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> root = map.getRight();
+        root.enableFlush();
+        final VirtualMap<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> copy = map.copy();
+        map.release();
+        root.waitUntilFlushed();
+        try {
+            // Odd keys are only in the node cache
+            for (int i = 1; i < 50; i += 2) {
+                copy.put(key(i), new ExampleFixedSizeVirtualValue(i));
+            }
+            // Removed keys are still in the data source, but not in the map
+            copy.remove(key(10));
+            copy.remove(key(20));
+            // Updated key is both in the data source and in the node cache
+            copy.put(key(30), new ExampleFixedSizeVirtualValue(300));
+
+            final List<Long> expected = LongStream.range(5, 41)
+                    .filter(i -> (i % 2 == 1) || ((i != 10) && (i != 20)))
+                    .boxed()
+                    .toList();
+            assertEquals(expected, keys(copy.keyRangeIterator(keyBytes(5), keyBytes(41))));
+
+            final List<Long> all = keys(copy.keyRangeIterator(Bytes.EMPTY, null));
+            assertEquals(copy.size(), all.size(), "All keys in the map should be returned");
+            for (int i = 1; i < all.size(); i++) {
+                assertTrue(all.get(i - 1) < all.get(i), "Keys should be returned in ascending order");
+            }
+        } finally {
+            copy.release();
+        }
+    }
+
+    @Test
+    void reconnectDeletionOfMovedKeyKeepsKeyInIndex() throws IOException {
+        final MerkleDb db = MerkleDb.getInstance(testDirectory.resolve("reconnect"));
+        final MerkleDbDataSource<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> dataSource =
+                db.createDataSource("reconnect", tableConfig(), false);
+        try {
+            dataSource.saveRecords(1, 2, Stream.empty(), Stream.of(leaf(1, 1), leaf(2, 2)), Stream.empty(), false);
+            // Reconnect moves key 1 to a different path in one flush...
+            dataSource.saveRecords(2, 4, Stream.empty(), Stream.of(leaf(3, 1), leaf(4, 3)), Stream.empty(), true);
+            // ...and deletes it at its old path in the next one. Key 3 is deleted at its current path
+            dataSource.saveRecords(2, 4, Stream.empty(), Stream.empty(), Stream.of(leaf(1, 1), leaf(4, 3)), true);
+
+            assertEquals(3, dataSource.findKey(key(1)), "Key 1 should stay at its new path");
+            assertEquals(List.of(1L, 2L), keys(dataSource.keyRangeIterator(Bytes.EMPTY, null)));
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void interruptedIndexRebuildIsRedone() throws IOException {
+        final String tableName = "rebuild";
+        final MerkleDb db = MerkleDb.getInstance(testDirectory.resolve("rebuild"));
+        final Path snapshotDbPath = testDirectory.resolve("rebuild_SNAPSHOT");
+        final MerkleDbDataSource<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> dataSource =
+                db.createDataSource(tableName, tableConfig(), false);
+        final int tableId = dataSource.getTableId();
+        try {
+            dataSource.saveRecords(
+                    4, 8, Stream.empty(), IntStream.rangeClosed(4, 8).mapToObj(i -> leaf(i, i)), Stream.empty(), false);
+            db.snapshot(snapshotDbPath, dataSource);
+        } finally {
+            dataSource.close();
+        }
+
+        // Simulate a rebuild stopped before its temporary directory was renamed
+        final MerkleDb snapshotDb = MerkleDb.getInstance(snapshotDbPath);
+        final MerkleDbPaths snapshotPaths = new MerkleDbPaths(snapshotDb.getTableDir(tableName, tableId));
+        DataFileCommon.deleteDirectoryAndContents(snapshotPaths.orderedKeyIndexDirectory);
+        final Path tempDir = snapshotPaths.orderedKeyIndexDirectory.resolveSibling("orderedKeyIndex.tmp");
+        Files.createDirectories(tempDir);
+        Files.write(tempDir.resolve("run_0.okr"), new byte[] {1, 2, 3});
+
+        final MerkleDbDataSource<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> restored =
+                snapshotDb.getDataSource(tableName, false);
+        try {
+            assertEquals(List.of(4L, 5L, 6L, 7L, 8L), keys(restored.keyRangeIterator(Bytes.EMPTY, null)));
+            assertTrue(Files.exists(snapshotPaths.orderedKeyIndexDirectory), "Index should be rebuilt");
+            assertFalse(Files.exists(tempDir), "Temporary rebuild directory should be renamed");
+        } finally {
+            restored.close();
+        }
+    }
+}
@@ -22,9 +22,12 @@ import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.constructable.ConstructableRegistry;
 import com.swirlds.common.crypto.DigestType;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.serialize.KeyIndexType;
 import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeVirtualValue;
 import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeVirtualValueSerializer;
 import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
+import com.swirlds.merkledb.test.fixtures.ExampleLongKeyVariableSize;
+import com.swirlds.merkledb.test.fixtures.ExampleLongLongKeyFixedSize;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import org.junit.jupiter.api.Assertions;
@@ -73,4 +76,76 @@ class MerkleDbTableConfigTest {
         // default MerkleDbConfig values
         Assertions.assertEquals(0, restored.getHashesRamToDiskThreshold());
     }
+
+    @Test
+    void compressLeavesTest() throws IOException {
+        final MerkleDbTableConfig<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> tableConfig =
+                new MerkleDbTableConfig<>(
+                        (short) 1, DigestType.SHA_384,
+                        (short) 1, new ExampleLongKeyFixedSize.Serializer(),
+                        (short) 1, new ExampleFixedSizeVirtualValueSerializer());
+        Assertions.assertFalse(tableConfig.isCompressLeaves(), "Leaves are not compressed by default");
+        tableConfig.compressLeaves(true);
+        Assertions.assertTrue(tableConfig.copy().isCompressLeaves());
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (final WritableStreamingData out = new WritableStreamingData(bout)) {
+            tableConfig.writeTo(out);
+        }
+        Assertions.assertEquals(tableConfig.pbjSizeInBytes(), bout.size());
+        final MerkleDbTableConfig<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> restored;
+        try (final ReadableStreamingData in = new ReadableStreamingData(bout.toByteArray())) {
+            restored = new MerkleDbTableConfig<>(in);
+        }
+        Assertions.assertTrue(restored.isCompressLeaves());
+        Assertions.assertEquals(tableConfig, restored);
+    }
+
+    @Test
+    void offHeapKeyIndexTest() throws IOException {
+        final MerkleDbTableConfig<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> tableConfig =
+                new MerkleDbTableConfig<>(
+                        (short) 1, DigestType.SHA_384,
+                        (short) 1, new ExampleLongLongKeyFixedSize.Serializer(),
+                        (short) 1, new ExampleFixedSizeVirtualValueSerializer());
+        // Off-heap key index max key size is zero by default
+        Assertions.assertFalse(tableConfig.isOffHeapKeyIndex());
+        Assertions.assertEquals(KeyIndexType.GENERIC, tableConfig.getKeyIndexType());
+        tableConfig.offHeapKeyIndex(true);
+        Assertions.assertEquals(KeyIndexType.OFF_HEAP_HASH, tableConfig.getKeyIndexType());
+        Assertions.assertEquals(KeyIndexType.OFF_HEAP_HASH, tableConfig.copy().getKeyIndexType());
+
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (final WritableStreamingData out = new WritableStreamingData(bout)) {
+            tableConfig.writeTo(out);
+        }
+        Assertions.assertEquals(tableConfig.pbjSizeInBytes(), bout.size());
+        final MerkleDbTableConfig<ExampleLongLongKeyFixedSize, ExampleFixedSizeVirtualValue> restored;
+        try (final ReadableStreamingData in = new ReadableStreamingData(bout.toByteArray())) {
+            restored = new MerkleDbTableConfig<>(in);
+        }
+        Assertions.assertTrue(restored.isOffHeapKeyIndex());
+        Assertions.assertEquals(tableConfig, restored);
+
+        // Disk based indices take precedence
+        tableConfig.preferDiskIndices(true);
+        Assertions.assertEquals(KeyIndexType.GENERIC, tableConfig.getKeyIndexType());
+
+        // Sequential long keys use long key index regardless of the setting
+        final MerkleDbTableConfig<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> longKeyConfig =
+                new MerkleDbTableConfig<>(
+                        (short) 1, DigestType.SHA_384,
+                        (short) 1, new ExampleLongKeyFixedSize.Serializer(),
+                        (short) 1, new ExampleFixedSizeVirtualValueSerializer());
+        longKeyConfig.offHeapKeyIndex(true);
+        Assertions.assertEquals(KeyIndexType.SEQUENTIAL_INCREMENTING_LONGS, longKeyConfig.getKeyIndexType());
+
+        // Variable size keys are not supported
+        final MerkleDbTableConfig<ExampleLongKeyVariableSize, ExampleFixedSizeVirtualValue> variableKeyConfig =
+                new MerkleDbTableConfig<>(
+                        (short) 1, DigestType.SHA_384,
+                        (short) 1, new ExampleLongKeyVariableSize.Serializer(),
+                        (short) 1, new ExampleFixedSizeVirtualValueSerializer());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> variableKeyConfig.offHeapKeyIndex(true));
+    }
 }
@@ -22,6 +22,7 @@ import static com.swirlds.merkledb.collections.AbstractLongList.FILE_HEADER_SIZE
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.checkDirectMemoryIsCleanedUpToLessThanBaseUsage;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.getDirectMemoryUsedBytes;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -186,6 +187,22 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
                 "putIfEqual did not put when it should have");
     }
 
+    @Test
+    @Order(4)
+    void testRemoveIfEqual() {
+        try (final AbstractLongList<?> list = createFullyParameterizedLongListWith(10, 100)) {
+            list.put(5, 123);
+
+            assertFalse(list.removeIfEqual(5, 124), "removeIfEqual removed when it should have not");
+            assertEquals(123, list.get(5, DEFAULT_VALUE), "removeIfEqual removed when it should have not");
+
+            assertTrue(list.removeIfEqual(5, 123), "removeIfEqual did not remove when it should have");
+            assertEquals(DEFAULT_VALUE, list.get(5, DEFAULT_VALUE), "removeIfEqual did not remove when it should have");
+
+            assertFalse(list.removeIfEqual(50, 123), "removeIfEqual removed from a missing chunk");
+        }
+    }
+
     @Test
     @Order(5)
     void chunkSizeFactoryWorks() {
@@ -196,6 +213,95 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
         checkNumLongsPerChunk(subject2mbChunks, expectedNum);
     }
 
+    @Test
+    @Order(7)
+    void writeToFileIncrementally(@TempDir final Path tempDir) throws IOException {
+        final int numLongsPerChunk = 100;
+        final int size = 10_000;
+        final int maxLongs = size * 2;
+        final Path fullFile = tempDir.resolve("LongListFull.ll");
+        final Path incrementalFile = tempDir.resolve("LongListIncremental.ll");
+        final Path nextIncrementalFile = tempDir.resolve("LongListIncremental2.ll");
+        // values expected in the list, 0 if not set
+        final long[] expected = new long[maxLongs];
+        try (final T list = createFullyParameterizedLongListWith(numLongsPerChunk, maxLongs)) {
+            for (int i = 0; i < size; i++) {
+                list.put(i, i + 1);
+                expected[i] = i + 1;
+            }
+            // no previous snapshot, a full snapshot is written
+            list.writeToFileIncrementally(fullFile);
+            // update a few chunks, grow the list, and drop some chunks at the beginning
+            list.put(150, 1_000_000);
+            list.put(5_555, 2_000_000);
+            expected[5_555] = 2_000_000;
+            for (int i = size; i < size + 250; i++) {
+                list.put(i, i + 1);
+                expected[i] = i + 1;
+            }
+            list.updateValidRange(1_050, size + 249);
+            list.writeToFileIncrementally(incrementalFile);
+            assertIncrementalFileMatches(
+                    numLongsPerChunk,
+                    maxLongs,
+                    expected,
+                    1_050,
+                    size + 249,
+                    incrementalFile,
+                    tempDir.resolve("LongListExpected.ll"));
+            // delete the previous snapshot, the next incremental snapshot must fall back to a full write
+            Files.delete(incrementalFile);
+            list.put(7_000, 3_000_000);
+            expected[7_000] = 3_000_000;
+            list.writeToFileIncrementally(nextIncrementalFile);
+            assertIncrementalFileMatches(
+                    numLongsPerChunk,
+                    maxLongs,
+                    expected,
+                    1_050,
+                    size + 249,
+                    nextIncrementalFile,
+                    tempDir.resolve("LongListExpected2.ll"));
+            try (final T loaded = createLongListFromFile(nextIncrementalFile)) {
+                assertEquals(list.size(), loaded.size(), "Loaded list size should match");
+                for (int i = 1_050; i < size + 250; i++) {
+                    assertEquals(expected[i], loaded.get(i, 0), "Longs don't match for " + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the expected values to a full snapshot using a separate list, so the list under test,
+     * including its last snapshot file and dirty chunks, isn't changed, and compares the snapshot
+     * with the given incremental snapshot.
+     */
+    private void assertIncrementalFileMatches(
+            final int numLongsPerChunk,
+            final long maxLongs,
+            final long[] expected,
+            final long minValidIndex,
+            final long maxValidIndex,
+            final Path incrementalFile,
+            final Path expectedFile)
+            throws IOException {
+        try (final T expectedList = createFullyParameterizedLongListWith(numLongsPerChunk, maxLongs)) {
+            for (long i = minValidIndex; i <= maxValidIndex; i++) {
+                if (expected[(int) i] != 0) {
+                    expectedList.put(i, expected[(int) i]);
+                }
+            }
+            expectedList.updateValidRange(minValidIndex, maxValidIndex);
+            expectedList.writeToFile(expectedFile);
+        }
+        assertEquals(
+                Files.size(expectedFile), Files.size(incrementalFile), "Incremental snapshot size should match");
+        assertEquals(
+                -1L,
+                Files.mismatch(expectedFile, incrementalFile),
+                "Incremental snapshot should be identical to a full snapshot");
+    }
+
     @SuppressWarnings("resource")
     @Test
     @Order(6)
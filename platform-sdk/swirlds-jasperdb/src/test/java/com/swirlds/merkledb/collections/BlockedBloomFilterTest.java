@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlockedBloomFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(100, 0));
+    }
+
+    @Test
+    void emptyFilter() {
+        final BlockedBloomFilter filter = new BlockedBloomFilter(1000, 10);
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(filter.mightContain(i), "Empty filter must not contain anything");
+        }
+        assertEquals(0, filter.getAddedCount());
+    }
+
+    @Test
+    void noFalseNegatives() {
+        final int count = 100_000;
+        final BlockedBloomFilter filter = new BlockedBloomFilter(count, 10);
+        for (int i = 0; i < count; i++) {
+            filter.add(i * 31L);
+        }
+        assertEquals(count, filter.getAddedCount());
+        for (int i = 0; i < count; i++) {
+            assertTrue(filter.mightContain(i * 31L), "Added element " + i + " must be found");
+        }
+    }
+
+    @Test
+    void falsePositiveRate() {
+        final int count = 100_000;
+        final BlockedBloomFilter filter = new BlockedBloomFilter(count, 10);
+        for (int i = 0; i < count; i++) {
+            filter.add(i);
+        }
+        int falsePositives = 0;
+        for (int i = count; i < count * 2; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+        // About 1% is expected for 10 bits per element, blocking makes it slightly higher
+        final double rate = (double) falsePositives / count;
+        assertTrue(rate < 0.03, "False positive rate is too high: " + rate);
+        assertTrue(filter.getExpectedFalsePositiveRate() < 0.03);
+    }
+
+    @Test
+    void writeAndLoad() throws IOException {
+        final Path file = tempDir.resolve("filter.bf");
+        final int count = 10_000;
+        final BlockedBloomFilter filter = new BlockedBloomFilter(count, 8);
+        for (int i = 0; i < count; i++) {
+            filter.add(i);
+        }
+        filter.writeToFile(file);
+        final BlockedBloomFilter loaded = new BlockedBloomFilter(file);
+        assertEquals(filter.getAddedCount(), loaded.getAddedCount());
+        assertEquals(filter.getOffHeapConsumption(), loaded.getOffHeapConsumption());
+        for (int i = 0; i < count * 2; i++) {
+            assertEquals(filter.mightContain(i), loaded.mightContain(i), "Loaded filter must match for " + i);
+        }
+        // The loaded filter is writable
+        loaded.add(-1);
+        assertTrue(loaded.mightContain(-1));
+        // Corrupted file
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> new BlockedBloomFilter(file));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
+import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_MAX_LONGS_TO_STORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LongListMmapTest extends AbstractLongListTest<LongListMmap> {
+
+    @TempDir
+    Path testDirectory;
+
+    @Override
+    protected LongListMmap createLongList() {
+        return new LongListMmap();
+    }
+
+    @Override
+    protected LongListMmap createLongListWithChunkSizeInMb(final int chunkSizeInMb) {
+        final int impliedLongsPerChunk = Math.toIntExact((((long) chunkSizeInMb * MEBIBYTES_TO_BYTES) / Long.BYTES));
+        return new LongListMmap(impliedLongsPerChunk, DEFAULT_MAX_LONGS_TO_STORE, 0);
+    }
+
+    @Override
+    protected LongListMmap createFullyParameterizedLongListWith(final int numLongsPerChunk, final long maxLongs) {
+        return new LongListMmap(numLongsPerChunk, maxLongs, 0);
+    }
+
+    @Override
+    protected LongListMmap createLongListFromFile(final Path file) throws IOException {
+        return new LongListMmap(file);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 5000, 9999, 10000}) // chunk size is 10K longs
+    void testPersistListWithNonZeroMinValidIndex(final int chunkOffset) throws IOException {
+        try (final LongListMmap list = createFullyParameterizedLongListWith(
+                getSampleSize() / 100, // 100 chunks
+                getSampleSize())) {
+            for (int i = 1; i < getSampleSize(); i++) {
+                list.put(i, i);
+            }
+
+            list.updateValidRange(getSampleSize() / 2 + chunkOffset, list.size() - 1);
+
+            final Path file = testDirectory.resolve("LongListMmapHalfEmpty.ll");
+            // write longList data
+            list.writeToFile(file);
+
+            try (final LongListMmap longListFromFile = createLongListFromFile(file)) {
+                assertEquals(list.size(), longListFromFile.size());
+                for (int i = 0; i < longListFromFile.size(); i++) {
+                    assertEquals(list.get(i), longListFromFile.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void releasedChunksAreReused() {
+        final int longsPerChunk = 100;
+        try (final LongListMmap list = new LongListMmap(longsPerChunk, 100_000, 0)) {
+            for (int i = 1; i < 10 * longsPerChunk; i++) {
+                list.put(i, i);
+            }
+            // release the first five chunks, they are zeroed and kept for reuse
+            list.updateValidRange(5 * longsPerChunk, list.size() - 1);
+            // new chunks are created from the released ones, they must contain no stale values
+            for (int i = 10 * longsPerChunk; i < 15 * longsPerChunk; i += 2) {
+                list.put(i, i);
+            }
+            for (int i = 10 * longsPerChunk; i < 15 * longsPerChunk; i++) {
+                assertEquals(i % 2 == 0 ? i : 0, list.get(i), "Wrong value at index " + i);
+            }
+            for (int i = 5 * longsPerChunk; i < 10 * longsPerChunk; i++) {
+                assertEquals(i, list.get(i), "Wrong value at index " + i);
+            }
+        }
+    }
+
+    @Test
+    void prefetchAndForEach() throws InterruptedException {
+        final int longsPerChunk = 1_000;
+        final int size = 50_000;
+        try (final LongListMmap list = new LongListMmap(longsPerChunk, size, 0)) {
+            for (int i = 1; i < size; i++) {
+                list.put(i, i + 1);
+            }
+            list.updateValidRange(1_500, size - 1);
+            // out of range and empty ranges are ignored
+            list.prefetch(-100, 100);
+            list.prefetch(size, size * 2L);
+            list.prefetch(2_000, 1_000);
+            list.prefetch(0, size);
+            final AtomicLong count = new AtomicLong();
+            list.forEach((index, value) -> {
+                assertEquals(index + 1, value, "Wrong value at index " + index);
+                count.incrementAndGet();
+            });
+            assertEquals(size - 1_500, count.get(), "Wrong number of valid index entries");
+        }
+    }
+}
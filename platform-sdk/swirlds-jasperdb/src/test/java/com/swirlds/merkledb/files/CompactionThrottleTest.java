@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.merkledb.files.CompactionThrottle.MAX_BURST_NANOS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CompactionThrottleTest {
+
+    @Test
+    void unlimitedBudgetDoesNotSleep() throws InterruptedException {
+        final CompactionThrottle throttle = new CompactionThrottle();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            throttle.itemCopied(1024, 0, 0);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "No sleeps expected");
+    }
+
+    @Test
+    void virtualClockAdvancesByCost() {
+        final CompactionThrottle throttle = new CompactionThrottle();
+        final long now = 1_000_000_000L;
+        // The clock starts with a full burst allowance
+        assertEquals(-MAX_BURST_NANOS + 10, throttle.advance(now, 10));
+        assertEquals(-MAX_BURST_NANOS + 20, throttle.advance(now, 10));
+        // Burst allowance is used up, threads must sleep
+        assertEquals(20 + MAX_BURST_NANOS, throttle.advance(now, 2 * MAX_BURST_NANOS));
+        // Once the real time catches up, no more sleeps
+        assertTrue(throttle.advance(now + 3 * MAX_BURST_NANOS, 10) < 0);
+    }
+
+    @Test
+    void idleTimeIsNotAccumulated() {
+        final CompactionThrottle throttle = new CompactionThrottle();
+        throttle.advance(0, 10);
+        // After a long idle period, only MAX_BURST_NANOS can be spent without sleeping
+        final long now = TimeUnit.HOURS.toNanos(1);
+        assertEquals(-MAX_BURST_NANOS + 10, throttle.advance(now, 10));
+        assertEquals(10, throttle.advance(now, MAX_BURST_NANOS));
+    }
+
+    @Test
+    void bytesBudgetIsEnforced() throws InterruptedException {
+        final CompactionThrottle throttle = new CompactionThrottle();
+        final long start = System.nanoTime();
+        // 10 items of 100Kb each at 2Mb/s is about 0.5 seconds, minus the burst allowance
+        for (int i = 0; i < 10; i++) {
+            throttle.itemCopied(100 * 1024, 2 * 1024 * 1024, 0);
+        }
+        final long took = System.nanoTime() - start;
+        assertTrue(took >= TimeUnit.MILLISECONDS.toNanos(350), "Compaction must be throttled, took " + took);
+    }
+}
@@ -329,6 +329,7 @@ class DataFileCollectionTest {
                             null,
                             testType.dataItemSerializer,
                             testCallback,
+                            false,
                             l -> new SlowImmutableIndexedObjectListUsingArray<DataFileReader<long[]>>(
                                     DataFileReader[]::new, l));
                     fileCollectionMap.put(testType, reopenedFileCollection);
@@ -151,6 +151,20 @@ class DataFileCompactorTest {
         assertEquals(initialLevel3, result.get(2));
     }
 
+    @Test
+    void testCompactionPlanMultiLevel_garbageThreshold() {
+        // firstLevel1 is mostly live, firstLevel2 is mostly garbage
+        when(firstLevel1.getMetadata().getLiveItemRatio()).thenReturn(0.9);
+        when(firstLevel2.getMetadata().getLiveItemRatio()).thenReturn(0.2);
+        List<? extends DataFileReader<Object>> result = compactionPlan(
+                Arrays.asList(initialLevel1, initialLevel2, initialLevel3, firstLevel1, firstLevel2), 3, 5, 0.5);
+        assertEquals(4, result.size());
+        assertEquals(initialLevel1, result.get(0));
+        assertEquals(initialLevel2, result.get(1));
+        assertEquals(initialLevel3, result.get(2));
+        assertEquals(firstLevel2, result.get(3));
+    }
+
     @Test
     void testCompactionPlanMultiLevel_noInitialLevelFiles() {
         List<? extends DataFileReader<Object>> result =
@@ -16,17 +16,22 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCompactor.INITIAL_COMPACTION_LEVEL;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
 import com.swirlds.common.config.singleton.ConfigurationHolder;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeDataSerializer;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 
 class DataFileReaderTest {
@@ -132,6 +137,37 @@ class DataFileReaderTest {
         assertEquals(2, dataFileReader.leaseFileChannel());
     }
 
+    @Test
+    void testMemoryMappedReads(@TempDir final Path tempDir) throws IOException {
+        final MerkleDbConfig mappedConfig = new TestConfigBuilder()
+                .withValue("merkleDb.memoryMappedReadsEnabled", true)
+                .getOrCreateConfig()
+                .getConfigData(MerkleDbConfig.class);
+        final ExampleFixedSizeDataSerializer serializer = new ExampleFixedSizeDataSerializer();
+        final DataFileWriter<long[]> writer =
+                new DataFileWriter<>("mapped", tempDir, 1, serializer, Instant.now(), INITIAL_COMPACTION_LEVEL);
+        final int count = 1000;
+        final long[] locations = new long[count];
+        for (int i = 0; i < count; i++) {
+            locations[i] = writer.storeDataItem(new long[] {i, i + 10_000});
+        }
+        writer.finishWriting();
+
+        try (final DataFileReader<long[]> reader =
+                new DataFileReader<>(mappedConfig, writer.getPath(), serializer, writer.getMetadata())) {
+            // Not mapped till the file is completed
+            assertArrayEquals(new long[] {0, 10_000}, reader.readDataItem(locations[0]));
+            assertEquals(0, reader.getMappedReadsCount());
+
+            reader.setFileCompleted();
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(new long[] {i, i + 10_000}, reader.readDataItem(locations[i]));
+            }
+            assertEquals(count, reader.getMappedReadsCount());
+            assertEquals(0, reader.getMappedReadFallbacksCount());
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         file.deleteOnExit();
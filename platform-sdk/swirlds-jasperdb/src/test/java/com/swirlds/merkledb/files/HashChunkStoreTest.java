@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.swirlds.common.config.singleton.ConfigurationHolder;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.test.fixtures.RandomUtils;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HashChunkStoreTest {
+
+    private static final int HEIGHT = 3;
+
+    /** Temporary directory provided by JUnit */
+    @SuppressWarnings("unused")
+    @TempDir
+    Path testDirectory;
+
+    private static Hash[] writeHashes(final HashChunkStore store, final long lastPath, final long seed)
+            throws IOException {
+        final Random random = new Random(seed);
+        final Hash[] hashes = new Hash[(int) lastPath + 1];
+        store.startWriting(lastPath);
+        for (int path = 0; path <= lastPath; path++) {
+            hashes[path] = RandomUtils.randomHash(random);
+            store.put(path, hashes[path]);
+        }
+        store.endWriting();
+        return hashes;
+    }
+
+    @Test
+    void writeReadUpdate() throws IOException {
+        final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        final Path storeDir = testDirectory.resolve("writeReadUpdate");
+        final LongListOffHeap index = new LongListOffHeap();
+        try (final HashChunkStore store = new HashChunkStore(dbConfig, storeDir, "hashChunks", HEIGHT, index)) {
+            final long lastPath = 200;
+            final Hash[] hashes = writeHashes(store, lastPath, 1);
+            for (int path = 0; path <= lastPath; path++) {
+                assertEquals(hashes[path], store.get(path), "Wrong hash for path " + path);
+            }
+            // Paths 7, 15, and 16 are in the same chunk, which is read once and cached
+            final HashChunk chunk = store.getChunk(HashChunk.getChunkId(7, HEIGHT));
+            assertSame(chunk, store.getChunk(HashChunk.getChunkId(16, HEIGHT)));
+
+            // Update a single hash, other hashes in its chunk must be preserved
+            final Hash updated = RandomUtils.randomHash(new Random(2));
+            store.startWriting(lastPath);
+            store.put(15, updated);
+            store.endWriting();
+            assertEquals(updated, store.get(15));
+            assertEquals(hashes[7], store.get(7));
+            assertEquals(hashes[16], store.get(16));
+            // The chunk was rewritten, the cached copy must not be used
+            assertEquals(updated, store.getChunk(HashChunk.getChunkId(7, HEIGHT)).getHash(1));
+
+            // Shrink the tree, chunks beyond the new max chunk ID are gone
+            store.startWriting(6);
+            store.endWriting();
+            assertEquals(hashes[6], store.get(6));
+            assertNull(store.getChunk(HashChunk.getChunkId(7, HEIGHT)));
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void rebuildIndexOnLoad() throws IOException {
+        final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        final Path storeDir = testDirectory.resolve("rebuildIndexOnLoad");
+        final long lastPath = 100;
+        final Hash[] hashes;
+        final LongListOffHeap index = new LongListOffHeap();
+        try (final HashChunkStore store = new HashChunkStore(dbConfig, storeDir, "hashChunks", HEIGHT, index)) {
+            writeHashes(store, lastPath, 3);
+            hashes = writeHashes(store, lastPath, 4);
+        } finally {
+            index.close();
+        }
+        final LongListOffHeap newIndex = new LongListOffHeap();
+        try (final HashChunkStore store = new HashChunkStore(dbConfig, storeDir, "hashChunks", HEIGHT, newIndex)) {
+            for (int path = 0; path <= lastPath; path++) {
+                assertEquals(hashes[path], store.get(path), "Wrong hash for path " + path);
+            }
+        } finally {
+            newIndex.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.test.fixtures.RandomUtils;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HashChunkTest {
+
+    @Test
+    void chunkIdsHeightThree() {
+        // Chunk 0: paths 0-6, chunks 1-8: sub-trees rooted at paths 7-14
+        for (long path = 0; path < 7; path++) {
+            assertEquals(0, HashChunk.getChunkId(path, 3));
+            assertEquals((int) path, HashChunk.getIndexInChunk(path, 3));
+        }
+        assertEquals(1, HashChunk.getChunkId(7, 3));
+        assertEquals(0, HashChunk.getIndexInChunk(7, 3));
+        // Children of 7 are 15 and 16, grandchildren are 31-34
+        assertEquals(1, HashChunk.getChunkId(15, 3));
+        assertEquals(1, HashChunk.getIndexInChunk(15, 3));
+        assertEquals(1, HashChunk.getChunkId(16, 3));
+        assertEquals(2, HashChunk.getIndexInChunk(16, 3));
+        assertEquals(1, HashChunk.getChunkId(34, 3));
+        assertEquals(6, HashChunk.getIndexInChunk(34, 3));
+        assertEquals(8, HashChunk.getChunkId(14, 3));
+        // The first path at rank 6 is 63, its chunk is the first one at rank 6
+        assertEquals(9, HashChunk.getChunkId(63, 3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 8})
+    void chunkIdsAreDenseAndIndicesUnique(final int height) {
+        final long lastPath = 5000;
+        final Set<Long> chunkIds = new HashSet<>();
+        final Set<String> locations = new HashSet<>();
+        long maxChunkId = -1;
+        for (long path = 0; path <= lastPath; path++) {
+            final long chunkId = HashChunk.getChunkId(path, height);
+            final int index = HashChunk.getIndexInChunk(path, height);
+            assertTrue(index >= 0 && index < HashChunk.getChunkSize(height), "Wrong index " + index);
+            assertTrue(locations.add(chunkId + ":" + index), "Duplicate location for path " + path);
+            chunkIds.add(chunkId);
+            maxChunkId = Math.max(maxChunkId, chunkId);
+            assertEquals(maxChunkId, HashChunk.getMaxChunkId(path, height), "Wrong max chunk ID for " + path);
+        }
+        // Dense: all chunk IDs from 0 to max are used
+        assertEquals(maxChunkId + 1, chunkIds.size());
+    }
+
+    @Test
+    void getAndSetHashes() {
+        final Random random = new Random(17);
+        final HashChunk chunk = new HashChunk(5, 4);
+        assertEquals(5, chunk.getId());
+        assertEquals(4, chunk.getHeight());
+        final int size = HashChunk.getChunkSize(4);
+        assertEquals(15, size);
+        final Hash[] hashes = new Hash[size];
+        for (int i = 0; i < size; i++) {
+            assertNull(chunk.getHash(i));
+            hashes[i] = RandomUtils.randomHash(random);
+            chunk.setHash(i, hashes[i]);
+        }
+        final HashChunk copy = chunk.copy();
+        chunk.setHash(3, null);
+        for (int i = 0; i < size; i++) {
+            assertEquals(i == 3 ? null : hashes[i], chunk.getHash(i));
+            assertEquals(hashes[i], copy.getHash(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> chunk.setHash(0, new Hash(DigestType.SHA_512)));
+    }
+
+    @Test
+    void serializeDeserialize() {
+        final Random random = new Random(42);
+        final HashChunkSerializer serializer = new HashChunkSerializer(3);
+        assertEquals(serializer, new HashChunkSerializer(3));
+        assertNotEquals(serializer, new HashChunkSerializer(4));
+        for (final long id : new long[] {0, 1, 12345}) {
+            final HashChunk chunk = new HashChunk(id, 3);
+            for (int i = 0; i < HashChunk.getChunkSize(3); i += 2) {
+                chunk.setHash(i, RandomUtils.randomHash(random));
+            }
+            final BufferedData out = BufferedData.allocate(serializer.getTypicalSerializedSize());
+            serializer.serialize(chunk, out);
+            assertEquals(serializer.getSerializedSize(chunk), out.position());
+            out.flip();
+            final HashChunk read = serializer.deserialize(out);
+            assertEquals(id, read.getId());
+            assertEquals(3, read.getHeight());
+            assertArrayEquals(chunk.getHashBytes(), read.getHashBytes());
+        }
+        final BufferedData out = BufferedData.allocate(1024);
+        assertThrows(IllegalArgumentException.class, () -> serializer.serialize(new HashChunk(1, 2), out));
+    }
+}
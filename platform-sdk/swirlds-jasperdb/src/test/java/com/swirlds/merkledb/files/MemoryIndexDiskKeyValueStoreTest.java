@@ -33,6 +33,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -168,6 +169,96 @@ class MemoryIndexDiskKeyValueStoreTest {
                         + "MB");
     }
 
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void liveDataAccounting(final FilesTestType testType) throws Exception {
+        final Path tempDir = testDirectory.resolve("liveDataAccounting");
+        final LongListOffHeap index = new LongListOffHeap();
+        final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        final MemoryIndexDiskKeyValueStore<long[]> store = new MemoryIndexDiskKeyValueStore<>(
+                dbConfig, tempDir, "liveDataAccounting", null, testType.dataItemSerializer, null, index);
+        try {
+            writeBatch(testType, store, 0, 1000, 1000, 1);
+            assertEquals(1.0, store.getLiveDataRatio(), "All data must be live after the first flush");
+            // overwrite half of the items
+            writeBatch(testType, store, 0, 500, 1000, 2);
+            final List<DataFileReader<long[]>> files = store.getFileCollection().getAllCompletedFiles();
+            assertEquals(2, files.size());
+            assertEquals(1000, files.get(0).getMetadata().getDataItemCount());
+            assertEquals(500, files.get(0).getMetadata().getLiveItemCount());
+            assertEquals(0.5, files.get(0).getMetadata().getLiveItemRatio(), 0.0001);
+            assertEquals(500, files.get(1).getMetadata().getLiveItemCount());
+            assertEquals(1.0, files.get(1).getMetadata().getLiveItemRatio(), 0.0001);
+            final double liveRatio = store.getLiveDataRatio();
+            assertTrue(liveRatio > 0.5 && liveRatio < 1.0, "Unexpected live data ratio " + liveRatio);
+        } finally {
+            store.close();
+        }
+        // obsolete item counters aren't stored in files, they must be restored from the index
+        final MemoryIndexDiskKeyValueStore<long[]> reloaded = new MemoryIndexDiskKeyValueStore<>(
+                dbConfig, tempDir, "liveDataAccounting", null, testType.dataItemSerializer, null, index);
+        try {
+            final List<DataFileReader<long[]>> files = reloaded.getFileCollection().getAllCompletedFiles();
+            assertEquals(2, files.size());
+            assertEquals(500, files.get(0).getMetadata().getLiveItemCount());
+            assertEquals(0.5, files.get(0).getMetadata().getLiveItemRatio(), 0.0001);
+            assertEquals(500, files.get(1).getMetadata().getLiveItemCount());
+            assertEquals(1.0, files.get(1).getMetadata().getLiveItemRatio(), 0.0001);
+        } finally {
+            reloaded.close();
+            index.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void compressedDataItems(final FilesTestType testType) throws Exception {
+        final Path tempDir = testDirectory.resolve("compressedDataItems");
+        final String storeName = "compressedDataItems";
+        final LongListOffHeap index = new LongListOffHeap();
+        final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        final MemoryIndexDiskKeyValueStore<long[]> store = new MemoryIndexDiskKeyValueStore<>(
+                dbConfig, tempDir, storeName, null, testType.dataItemSerializer, null, index, true);
+        try {
+            writeBatch(testType, store, 0, 1000, 1000, 1);
+            writeBatch(testType, store, 500, 500, 1000, 2);
+            for (final DataFileReader<long[]> file : store.getFileCollection().getAllCompletedFiles()) {
+                assertTrue(file.getMetadata().isCompressed(), "Data files must be compressed");
+            }
+            checkRange(testType, store, 0, 500, 1);
+            checkRange(testType, store, 500, 500, 2);
+            // Compacted data items are compressed, too
+            final DataFileCompactor<long[]> compactor =
+                    new DataFileCompactor<>(dbConfig, storeName, store.fileCollection, index, null, null, null, null) {
+                        @Override
+                        int getMinNumberOfFilesToCompact() {
+                            return 1;
+                        }
+                    };
+            assertTrue(compactor.compact(), "Compaction is expected to run");
+            final List<DataFileReader<long[]>> files = store.getFileCollection().getAllCompletedFiles();
+            assertEquals(1, files.size());
+            assertTrue(files.get(0).getMetadata().isCompressed(), "Compacted file must be compressed");
+            checkRange(testType, store, 0, 500, 1);
+            checkRange(testType, store, 500, 500, 2);
+            // Iterate over the compressed file
+            int itemsCount = 0;
+            try (final DataFileIterator<long[]> iterator = files.get(0).createIterator()) {
+                while (iterator.next()) {
+                    final long[] dataItem = iterator.getDataItemData();
+                    if (dataItem.length > 1) {
+                        assertEquals(dataItem[0] < 500 ? dataItem[0] + 1 : dataItem[0] + 2, dataItem[1]);
+                    }
+                    itemsCount++;
+                }
+            }
+            assertEquals(1000, itemsCount);
+        } finally {
+            store.close();
+            index.close();
+        }
+    }
+
     void createDataAndCheckImpl(final FilesTestType testType) throws Exception {
         // let's store hashes as easy test class
         final Path tempDir = testDirectory.resolve("DataFileTest");
@@ -26,7 +26,9 @@ import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
 import com.swirlds.merkledb.test.fixtures.ExampleLongKeyVariableSize;
 import com.swirlds.virtualmap.VirtualLongKey;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.Function;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -285,6 +287,57 @@ class BucketTest {
         assertDoesNotThrow(() -> bucket.putValue(key1, INVALID_VALUE, 1));
     }
 
+    @ParameterizedTest
+    @EnumSource(KeyType.class)
+    void testBucketHashCodeCollisions(final KeyType keyType) throws IOException {
+        // keys (i << 32) | i all have the same hash code, zero
+        final VirtualLongKey[] collidingKeys = new VirtualLongKey[20];
+        for (int i = 0; i < collidingKeys.length; i++) {
+            collidingKeys[i] = keyType.keyConstructor.apply(((long) (i + 1) << 32) | (i + 1));
+            assertEquals(0, collidingKeys[i].hashCode(), "Keys must have colliding hash codes");
+        }
+        final Bucket<VirtualLongKey> bucket = new Bucket<>(keyType.keySerializer);
+        for (int i = 0; i < collidingKeys.length; i++) {
+            bucket.putValue(collidingKeys[i], collidingKeys[i].getKeyAsLong() + 100);
+            // some keys with other hash codes in between
+            bucket.putValue(keyType.keyConstructor.apply((long) i + 1), i + 101);
+        }
+        assertEquals(collidingKeys.length * 2, bucket.getBucketEntryCount(), "Check we have correct count");
+        // delete every third colliding key, entries after deleted ones are shifted in bucket data
+        for (int i = 0; i < collidingKeys.length; i += 3) {
+            bucket.putValue(collidingKeys[i], INVALID_VALUE);
+        }
+        // update a key after a deleted one
+        bucket.putValue(collidingKeys[4], collidingKeys[4].getKeyAsLong() + 100);
+        checkCollidingKeys(keyType, bucket, collidingKeys);
+
+        // check the same after the bucket is written and read back
+        final BufferedData buf = BufferedData.allocate(bucket.sizeInBytes());
+        bucket.writeTo(buf);
+        buf.flip();
+        final Bucket<VirtualLongKey> bucket2 = new Bucket<>(keyType.keySerializer);
+        bucket2.readFrom(buf);
+        checkCollidingKeys(keyType, bucket2, collidingKeys);
+        final List<Integer> hashCodes = new ArrayList<>();
+        bucket2.forEachKeyHashCode(hashCodes::add);
+        assertEquals(bucket2.getBucketEntryCount(), hashCodes.size(), "Wrong number of hash codes");
+    }
+
+    private void checkCollidingKeys(
+            final KeyType keyType, final Bucket<VirtualLongKey> bucket, final VirtualLongKey[] collidingKeys)
+            throws IOException {
+        for (int i = 0; i < collidingKeys.length; i++) {
+            final VirtualLongKey key = collidingKeys[i];
+            if (i % 3 == 0) {
+                assertEquals(-1, bucket.findValue(key.hashCode(), key, -1), "Deleted key should not be found");
+            } else {
+                checkKey(bucket, key);
+            }
+            final VirtualLongKey otherKey = keyType.keyConstructor.apply((long) i + 1);
+            assertEquals(i + 101, bucket.findValue(otherKey.hashCode(), otherKey, -1), "Wrong value for other key");
+        }
+    }
+
     private void checkKey(Bucket<VirtualLongKey> bucket, VirtualLongKey key) {
         var findResult =
                 assertDoesNotThrow(() -> bucket.findValue(key.hashCode(), key, -1), "No exception should be thrown");
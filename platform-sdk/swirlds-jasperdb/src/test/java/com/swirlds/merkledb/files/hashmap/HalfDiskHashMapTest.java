@@ -16,11 +16,15 @@
 
 package com.swirlds.merkledb.files.hashmap;
 
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyFalse;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.FilesTestType;
@@ -28,8 +32,13 @@ import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
 import com.swirlds.virtualmap.VirtualLongKey;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -186,6 +195,195 @@ class HalfDiskHashMapTest {
         checkData(testType, map, 600, 400, 1);
     }
 
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void batchGet(FilesTestType testType) throws Exception {
+        // create map
+        final HalfDiskHashMap<VirtualLongKey> map = createNewTempMap(testType, 1000);
+        createSomeData(testType, map, 0, 1000, 3);
+        // random keys, some missing, some duplicated
+        final Random random = new Random(4321);
+        final List<VirtualLongKey> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            keys.add(testType.createVirtualLongKey(random.nextInt(1500)));
+        }
+        final long[] values = map.get(keys, -1);
+        assertEquals(keys.size(), values.length);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(map.get(keys.get(i), -1), values[i], "Batch and single key results must match");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void asyncGet(FilesTestType testType) throws Exception {
+        // create map
+        final HalfDiskHashMap<VirtualLongKey> map = createNewTempMap(testType, 1000);
+        createSomeData(testType, map, 0, 1000, 5);
+        // issue all reads at once, then wait for results
+        final List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            futures.add(map.getAsync(testType.createVirtualLongKey(i), -1));
+        }
+        for (int i = 0; i < 1500; i++) {
+            final long expected = map.get(testType.createVirtualLongKey(i), -1);
+            assertEquals(expected, futures.get(i).get(), "Async and sync results must match");
+        }
+        assertEquals(-1, futures.get(1200).get(), "Missing key must not be found");
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void bloomFilter(FilesTestType testType) throws Exception {
+        final MerkleDbConfig filterConfig = new TestConfigBuilder()
+                .withValue("merkleDb.bloomFilterBitsPerKey", 10)
+                .getOrCreateConfig()
+                .getConfigData(MerkleDbConfig.class);
+        final Path storeDir = tempDirPath.resolve("bloomFilter_" + testType.name());
+        final Path snapshotDir = tempDirPath.resolve("bloomFilterSnapshot_" + testType.name());
+        final int count = 10_000;
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                filterConfig,
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                storeDir,
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            assertTrue(map.isBloomFilterEnabled());
+            createSomeData(testType, map, 0, count, 1);
+            checkData(testType, map, 0, count, 1);
+            // missing keys, most of them must be rejected by the filter
+            for (int i = count; i < count * 2; i++) {
+                assertEquals(-1, map.get(testType.createVirtualLongKey(i), -1), "Key " + i + " must not be found");
+            }
+            assertEquals(count, map.getBloomFilterAvoidedReadsCount() + map.getBloomFilterFalsePositivesCount());
+            assertTrue(
+                    map.getBloomFilterFalsePositivesCount() < count / 20,
+                    "Too many false positives: " + map.getBloomFilterFalsePositivesCount());
+            map.snapshot(snapshotDir);
+        }
+        // load with the filter from the snapshot
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                filterConfig,
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                snapshotDir,
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            checkData(testType, map, 0, count, 1);
+            assertEquals(-1, map.get(testType.createVirtualLongKey(count * 3), -1));
+        }
+        // rebuild the filter from data files
+        Files.delete(snapshotDir.resolve("HalfDiskHashMapTest_bloom_filter.bf"));
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                filterConfig,
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                snapshotDir,
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            checkData(testType, map, 0, count, 1);
+            for (int i = count; i < count * 2; i++) {
+                assertEquals(-1, map.get(testType.createVirtualLongKey(i), -1), "Key " + i + " must not be found");
+            }
+            assertTrue(map.getBloomFilterAvoidedReadsCount() > count / 2, "Rebuilt filter must reject missing keys");
+        }
+        // the filter is not used, if disabled in config
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                dbConfig,
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                snapshotDir,
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            assertFalse(map.isBloomFilterEnabled());
+            checkData(testType, map, 0, count, 1);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void bloomFilterRebuild(FilesTestType testType) throws Exception {
+        final MerkleDbConfig filterConfig = new TestConfigBuilder()
+                .withValue("merkleDb.bloomFilterBitsPerKey", 10)
+                .withValue("merkleDb.bloomFilterRebuildFalsePositiveRate", 0.5)
+                .getOrCreateConfig()
+                .getConfigData(MerkleDbConfig.class);
+        final int count = 20_000;
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                filterConfig,
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                tempDirPath.resolve("bloomFilterRebuild_" + testType.name()),
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            createSomeData(testType, map, 0, count, 1);
+            // delete the first half of the keys, they stay in the filter
+            map.startWriting();
+            for (int i = 0; i < count / 2; i++) {
+                map.delete(testType.createVirtualLongKey(i));
+            }
+            map.endWriting();
+            assertFalse(map.isKeyFilterRebuildInProgress(), "The filter has no false positives yet");
+            // lookups of deleted keys pass through the filter
+            for (int i = 0; i < count / 2; i++) {
+                assertEquals(-1, map.get(testType.createVirtualLongKey(i), -1), "Key " + i + " must not be found");
+            }
+            assertTrue(
+                    map.getBloomFilterFalsePositivesCount() > count / 4,
+                    "Deleted keys must be false positives: " + map.getBloomFilterFalsePositivesCount());
+            // the next writing session starts a rebuild, keys put during the rebuild must not be lost
+            map.startWriting();
+            map.endWriting();
+            createSomeData(testType, map, count, count / 10, 1);
+            assertEventuallyFalse(
+                    map::isKeyFilterRebuildInProgress, Duration.ofSeconds(30), "The filter must be rebuilt");
+            checkData(testType, map, count / 2, count / 2 + count / 10, 1);
+            final long avoidedBefore = map.getBloomFilterAvoidedReadsCount();
+            for (int i = 0; i < count / 2; i++) {
+                assertEquals(-1, map.get(testType.createVirtualLongKey(i), -1), "Key " + i + " must not be found");
+            }
+            assertTrue(
+                    map.getBloomFilterAvoidedReadsCount() - avoidedBefore > count / 4,
+                    "The rebuilt filter must reject deleted keys");
+        }
+    }
+
+    @Test
+    void hashCodeCollisionsAreNotFalsePositives() throws IOException {
+        final MerkleDbConfig filterConfig = new TestConfigBuilder()
+                .withValue("merkleDb.bloomFilterBitsPerKey", 10)
+                .getOrCreateConfig()
+                .getConfigData(MerkleDbConfig.class);
+        final FilesTestType testType = FilesTestType.fixed;
+        try (final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                filterConfig,
+                1000,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                tempDirPath.resolve("hashCodeCollisions"),
+                "HalfDiskHashMapTest",
+                null,
+                false)) {
+            // both keys have hash code 34
+            final VirtualLongKey key = new CollidableFixedLongKey(1234);
+            final VirtualLongKey missingKey = new CollidableFixedLongKey(4334);
+            map.startWriting();
+            map.put(key, 1);
+            map.endWriting();
+            assertEquals(-1, map.get(missingKey, -1), "Key must not be found");
+            assertEquals(0, map.getBloomFilterAvoidedReadsCount());
+            assertEquals(
+                    0,
+                    map.getBloomFilterFalsePositivesCount(),
+                    "A key sharing a hash code with a key in the map is not a filter false positive");
+        }
+    }
+
     @Test
     void testOverwritesWithCollision() throws IOException {
         final FilesTestType testType = FilesTestType.fixed;
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.merkledb.test.fixtures.ExampleLongKeyVariableSize;
+import com.swirlds.merkledb.test.fixtures.ExampleLongLongKeyFixedSize;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapKeyIndexTest {
+
+    private static final long INVALID_PATH = -1;
+
+    @TempDir
+    Path tempDir;
+
+    private static ExampleLongLongKeyFixedSize key(final long i) {
+        return new ExampleLongLongKeyFixedSize(i);
+    }
+
+    @Test
+    void variableSizeKeysRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new OffHeapKeyIndex<>(new ExampleLongKeyVariableSize.Serializer()));
+    }
+
+    @Test
+    void putGetDelete() {
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> index =
+                new OffHeapKeyIndex<>(new ExampleLongLongKeyFixedSize.Serializer())) {
+            final int count = 100_000;
+            for (int i = 0; i < count; i++) {
+                index.put(key(i), i + 1);
+            }
+            assertEquals(count, index.size());
+            assertTrue(index.capacity() > count, "Index must grow to fit all keys");
+            for (int i = 0; i < count; i++) {
+                assertEquals(i + 1, index.get(key(i), INVALID_PATH), "Wrong path for key " + i);
+            }
+            assertEquals(INVALID_PATH, index.get(key(count), INVALID_PATH));
+
+            // Update
+            index.put(key(5), 555);
+            assertEquals(555, index.get(key(5), INVALID_PATH));
+            assertEquals(count, index.size());
+
+            // Delete
+            index.delete(key(10));
+            assertEquals(INVALID_PATH, index.get(key(10), INVALID_PATH));
+            assertEquals(count - 1, index.size());
+            index.deleteIfEqual(key(11), 1);
+            assertEquals(12, index.get(key(11), INVALID_PATH), "Key mapped to a different path must stay");
+            index.deleteIfEqual(key(11), 12);
+            assertEquals(INVALID_PATH, index.get(key(11), INVALID_PATH));
+            assertEquals(count - 2, index.size());
+
+            // Re-insert a deleted key
+            index.put(key(10), 1010);
+            assertEquals(1010, index.get(key(10), INVALID_PATH));
+            assertEquals(count - 1, index.size());
+        }
+    }
+
+    @Test
+    void tombstonesAreDroppedOnRebuild() {
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> index =
+                new OffHeapKeyIndex<>(new ExampleLongLongKeyFixedSize.Serializer())) {
+            // Many different keys, but never more than 100 live keys at a time
+            for (int i = 0; i < 100_000; i++) {
+                index.put(key(i), i);
+                if (i >= 100) {
+                    index.delete(key(i - 100));
+                }
+            }
+            assertEquals(100, index.size());
+            assertEquals(4096, index.capacity(), "Index must not grow, if the number of live keys is small");
+            for (int i = 100_000 - 100; i < 100_000; i++) {
+                assertEquals(i, index.get(key(i), INVALID_PATH));
+            }
+            assertEquals(INVALID_PATH, index.get(key(0), INVALID_PATH));
+        }
+    }
+
+    @Test
+    void snapshotAndLoad() throws IOException {
+        final Path file = tempDir.resolve("offHeapKeyIndex.ohi");
+        final int count = 50_000;
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> index =
+                new OffHeapKeyIndex<>(new ExampleLongLongKeyFixedSize.Serializer())) {
+            for (int i = 0; i < count; i++) {
+                index.put(key(i), i * 3L);
+            }
+            index.delete(key(7));
+            index.writeToFile(file);
+        }
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> loaded =
+                new OffHeapKeyIndex<>(new ExampleLongLongKeyFixedSize.Serializer(), file)) {
+            assertEquals(count - 1, loaded.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i == 7 ? INVALID_PATH : i * 3L, loaded.get(key(i), INVALID_PATH));
+            }
+            // The loaded index is writable
+            loaded.put(key(7), 7);
+            loaded.put(key(count), count);
+            assertEquals(7, loaded.get(key(7), INVALID_PATH));
+            assertEquals(count, loaded.get(key(count), INVALID_PATH));
+        }
+        // Missing file results in an empty index
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> empty = new OffHeapKeyIndex<>(
+                new ExampleLongLongKeyFixedSize.Serializer(), tempDir.resolve("missing.ohi"))) {
+            assertEquals(0, empty.size());
+        }
+    }
+
+    @Test
+    void concurrentReadsDuringWrites() throws InterruptedException {
+        try (final OffHeapKeyIndex<ExampleLongLongKeyFixedSize> index =
+                new OffHeapKeyIndex<>(new ExampleLongLongKeyFixedSize.Serializer())) {
+            final int stableCount = 1_000;
+            for (int i = 0; i < stableCount; i++) {
+                index.put(key(i), i);
+            }
+            final AtomicBoolean done = new AtomicBoolean(false);
+            final AtomicReference<String> error = new AtomicReference<>();
+            final Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    for (int i = 0; i < stableCount; i++) {
+                        final long path = index.get(key(i), INVALID_PATH);
+                        if (path != i) {
+                            error.set("Key " + i + " mapped to " + path);
+                            return;
+                        }
+                    }
+                }
+            });
+            reader.start();
+            // Writes cause multiple table rebuilds, stable keys must always be found
+            for (int i = stableCount; i < 200_000; i++) {
+                index.put(key(i), i);
+            }
+            done.set(true);
+            reader.join();
+            assertEquals(null, error.get(), "Reader must always see stable keys");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.ordered;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderedKeyIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Big-endian key bytes, so unsigned byte order matches numeric order for non-negative values */
+    private static byte[] key(final long i) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(i).array();
+    }
+
+    private static long value(final byte[] key) {
+        return ByteBuffer.wrap(key).getLong();
+    }
+
+    private static List<Long> collect(final Iterator<byte[]> it) {
+        final List<Long> result = new ArrayList<>();
+        it.forEachRemaining(k -> result.add(value(k)));
+        return result;
+    }
+
+    private static List<Long> range(final long from, final long to, final long step) {
+        final List<Long> result = new ArrayList<>();
+        for (long i = from; i < to; i += step) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Test
+    void writingModeChecks() throws IOException {
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir.resolve("index"), "test")) {
+            assertThrows(IllegalStateException.class, () -> index.put(key(1)));
+            assertThrows(IllegalStateException.class, index::endWriting);
+            index.startWriting();
+            assertThrows(IllegalStateException.class, index::startWriting);
+            index.endWriting();
+            assertEquals(0, index.getRunCount(), "Empty batches must not create runs");
+        }
+    }
+
+    @Test
+    void rangeScansAcrossRuns() throws IOException {
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir.resolve("index"), "test")) {
+            // Even keys in one run, odd keys in many small runs
+            index.startWriting();
+            for (long i = 0; i < 10_000; i += 2) {
+                index.put(key(i));
+            }
+            index.endWriting();
+            for (long batch = 0; batch < 10; batch++) {
+                index.startWriting();
+                for (long i = 1 + batch * 1_000; i < (batch + 1) * 1_000; i += 2) {
+                    index.put(key(i));
+                }
+                index.endWriting();
+            }
+            assertTrue(index.getRunCount() < 11, "Runs must be merged");
+            assertEquals(range(0, 10_000, 1), collect(index.keyRange(new byte[0], null)));
+            assertEquals(range(1_234, 5_678, 1), collect(index.keyRange(key(1_234), key(5_678))));
+            assertEquals(List.of(), collect(index.keyRange(key(20_000), null)));
+            assertEquals(List.of(), collect(index.keyRange(key(100), key(100))));
+        }
+    }
+
+    @Test
+    void deletedKeysAreHidden() throws IOException {
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir.resolve("index"), "test")) {
+            index.startWriting();
+            for (long i = 0; i < 5_000; i++) {
+                index.put(key(i));
+            }
+            index.endWriting();
+            // Delete every third key in a small run, so it isn't merged with the big one
+            index.startWriting();
+            for (long i = 0; i < 1_000; i += 3) {
+                index.delete(key(i));
+            }
+            // A key deleted and added in the same batch stays
+            index.delete(key(1));
+            index.put(key(1));
+            index.put(key(10_000));
+            index.delete(key(10_000));
+            index.endWriting();
+
+            final List<Long> expected = new ArrayList<>();
+            for (long i = 0; i < 5_000; i++) {
+                if ((i >= 1_000) || (i % 3 != 0)) {
+                    expected.add(i);
+                }
+            }
+            expected.add(10_000L);
+            assertEquals(expected, collect(index.keyRange(new byte[0], null)));
+
+            // Re-add a deleted key
+            index.startWriting();
+            index.put(key(3));
+            index.endWriting();
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L), collect(index.keyRange(key(1), key(6))));
+        }
+    }
+
+    @Test
+    void variableLengthKeysArePrefixOrdered() throws IOException {
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir.resolve("index"), "test")) {
+            index.startWriting();
+            index.put(new byte[] {1});
+            index.put(new byte[] {1, 0});
+            index.put(new byte[] {1, (byte) 0xFF});
+            index.put(new byte[] {2});
+            index.put(new byte[] {(byte) 0x80});
+            index.endWriting();
+            final List<byte[]> keys = new ArrayList<>();
+            index.keyRange(new byte[] {1}, new byte[] {2}).forEachRemaining(keys::add);
+            assertEquals(3, keys.size());
+            assertEquals(1, keys.get(0).length);
+            assertEquals(2, keys.get(1).length);
+            assertEquals((byte) 0xFF, keys.get(2)[1]);
+            // Bytes are compared as unsigned
+            final Iterator<byte[]> it = index.keyRange(new byte[] {3}, null);
+            assertTrue(it.hasNext());
+            assertEquals((byte) 0x80, it.next()[0]);
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void snapshotAndReload() throws IOException {
+        final Path snapshotDir = tempDir.resolve("snapshot");
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(tempDir.resolve("index"), "test")) {
+            for (long batch = 0; batch < 5; batch++) {
+                index.startWriting();
+                for (long i = batch; i < 3_000; i += 5) {
+                    index.put(key(i));
+                }
+                if (batch > 0) {
+                    index.delete(key(batch - 1));
+                }
+                index.endWriting();
+            }
+            index.snapshot(snapshotDir);
+        }
+        try (final OrderedKeyIndex index = new OrderedKeyIndex(snapshotDir, "test")) {
+            assertEquals(range(4, 3_000, 1), collect(index.keyRange(new byte[0], null)));
+            // The loaded index must accept new runs
+            index.startWriting();
+            index.put(key(0));
+            index.endWriting();
+            assertEquals(range(0, 1, 1), collect(index.keyRange(new byte[0], key(4))));
+        }
+    }
+}
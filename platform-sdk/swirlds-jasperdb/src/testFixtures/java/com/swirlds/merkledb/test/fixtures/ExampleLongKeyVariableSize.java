@@ -240,6 +240,12 @@ public class ExampleLongKeyVariableSize implements VirtualLongKey {
             return value == keyToCompare.getKeyAsLong();
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public boolean supportsRawKeyComparison() {
+            return true;
+        }
+
         /** {@inheritDoc} */
         @Override
         public int hashCode() {
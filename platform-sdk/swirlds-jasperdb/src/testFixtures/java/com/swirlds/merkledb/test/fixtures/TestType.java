@@ -221,6 +221,19 @@ public enum TestType {
                 final boolean enableMerging,
                 boolean preferDiskBasedIndexes)
                 throws IOException {
+            return createDataSource(
+                    dbPath, name, size, hashesRamToDiskThreshold, enableMerging, preferDiskBasedIndexes, 0);
+        }
+
+        public MerkleDbDataSource<VirtualLongKey, ExampleByteArrayVirtualValue> createDataSource(
+                final Path dbPath,
+                final String name,
+                final int size,
+                final long hashesRamToDiskThreshold,
+                final boolean enableMerging,
+                final boolean preferDiskBasedIndexes,
+                final int hashChunkHeight)
+                throws IOException {
             final MerkleDb database = MerkleDb.getInstance(dbPath);
             final MerkleDbTableConfig<? extends VirtualLongKey, ? extends ExampleByteArrayVirtualValue> tableConfig =
                     new MerkleDbTableConfig<>(
@@ -229,7 +242,8 @@ public enum TestType {
                                     (short) valueSerializer.getCurrentDataVersion(), valueSerializer)
                             .preferDiskIndices(preferDiskBasedIndexes)
                             .maxNumberOfKeys(size * 10L)
-                            .hashesRamToDiskThreshold(hashesRamToDiskThreshold);
+                            .hashesRamToDiskThreshold(hashesRamToDiskThreshold)
+                            .hashChunkHeight(hashChunkHeight);
             MerkleDbDataSource dataSource =
                     database.createDataSource(name, (MerkleDbTableConfig) tableConfig, enableMerging);
             dataSource.registerMetrics(getMetrics());
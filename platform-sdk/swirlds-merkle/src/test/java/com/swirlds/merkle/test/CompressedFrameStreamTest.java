@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkle.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
+import com.swirlds.common.merkle.synchronization.config.ReconnectConfig_;
+import com.swirlds.common.merkle.synchronization.streams.CompressedFrameInputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedFrameOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedStreams;
+import com.swirlds.common.test.fixtures.junit.tags.TestComponentTags;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Compressed Frame Stream Test")
+class CompressedFrameStreamTest {
+
+    private static final int FRAME_SIZE = 1024;
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Round Trip")
+    void roundTrip() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompressedFrameOutputStream out = new CompressedFrameOutputStream(bytes, FRAME_SIZE);
+
+        // Compressible data, spans multiple frames
+        final byte[] data = new byte[10 * FRAME_SIZE + 17];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        out.write(data, 0, 100);
+        out.flush();
+        out.write(data[100]);
+        out.write(data, 101, data.length - 101);
+        out.flush();
+        // Empty flushes don't produce frames
+        out.flush();
+        out.close();
+
+        assertEquals(data.length, out.getRawBytes(), "all raw bytes should be sent");
+        assertEquals(bytes.size(), out.getCompressedBytes(), "all frame bytes should be counted");
+        assertTrue(out.getCompressedBytes() < out.getRawBytes(), "data should be compressed");
+
+        final CompressedFrameInputStream in =
+                new CompressedFrameInputStream(new ByteArrayInputStream(bytes.toByteArray()), FRAME_SIZE);
+        final byte[] read = new DataInputStream(in).readNBytes(data.length + 1);
+        assertArrayEquals(data, read, "read bytes should match written bytes");
+        assertEquals(-1, in.read(), "stream should be at its end");
+        assertEquals(out.getRawBytes(), in.getRawBytes(), "raw byte counts should match");
+        assertEquals(out.getCompressedBytes(), in.getCompressedBytes(), "compressed byte counts should match");
+    }
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Incompressible Data")
+    void incompressibleData() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompressedFrameOutputStream out = new CompressedFrameOutputStream(bytes, FRAME_SIZE);
+
+        final byte[] data = new byte[3 * FRAME_SIZE];
+        new Random(42).nextBytes(data);
+        out.write(data);
+        out.close();
+
+        // Random frames are stored, so frame overhead is only the headers
+        assertEquals(data.length + 3 * 3 * Integer.BYTES, out.getCompressedBytes(), "frames should be stored");
+
+        final CompressedFrameInputStream in =
+                new CompressedFrameInputStream(new ByteArrayInputStream(bytes.toByteArray()), FRAME_SIZE);
+        assertArrayEquals(data, in.readAllBytes(), "read bytes should match written bytes");
+    }
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Frames Are Not Over-Read")
+    void framesAreNotOverRead() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompressedFrameOutputStream out = new CompressedFrameOutputStream(bytes, FRAME_SIZE);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+        // Data written to the underlying stream after frames, like reconnect signatures
+        bytes.write(new byte[] {4, 5});
+
+        final ByteArrayInputStream underlying = new ByteArrayInputStream(bytes.toByteArray());
+        final CompressedFrameInputStream in = new CompressedFrameInputStream(underlying, FRAME_SIZE);
+        assertArrayEquals(new byte[] {1, 2, 3}, in.readNBytes(3), "framed bytes should be read");
+        assertArrayEquals(new byte[] {4, 5}, underlying.readAllBytes(), "trailing bytes should not be consumed");
+    }
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Corrupted Frame")
+    void corruptedFrame() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompressedFrameOutputStream out = new CompressedFrameOutputStream(bytes, FRAME_SIZE);
+        final byte[] data = new byte[FRAME_SIZE];
+        new Random(7).nextBytes(data);
+        out.write(data);
+        out.close();
+
+        final byte[] corrupted = bytes.toByteArray();
+        corrupted[corrupted.length - 10] ^= 0x01;
+        final CompressedFrameInputStream in =
+                new CompressedFrameInputStream(new ByteArrayInputStream(corrupted), FRAME_SIZE);
+        assertThrows(IOException.class, in::readAllBytes, "checksum mismatch should be detected");
+
+        final CompressedFrameInputStream small =
+                new CompressedFrameInputStream(new ByteArrayInputStream(bytes.toByteArray()), FRAME_SIZE / 2);
+        assertThrows(IOException.class, small::readAllBytes, "frames larger than max frame size should be rejected");
+    }
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Negotiation")
+    void negotiation() throws IOException {
+        assertTrue(negotiate(true, true), "compression should be used if enabled on both sides");
+        assertFalse(negotiate(true, false), "compression should not be used if disabled on one side");
+        assertFalse(negotiate(false, true), "compression should not be used if disabled on one side");
+        assertFalse(negotiate(false, false), "compression should not be used if disabled on both sides");
+    }
+
+    @Test
+    @Tag(TestComponentTags.RECONNECT)
+    @DisplayName("Different Frame Sizes")
+    void differentFrameSizes() throws IOException {
+        // The teacher is configured with larger frames than the learner accepts
+        final ByteArrayOutputStream teacherBytes = new ByteArrayOutputStream();
+        final CompressedStreams teacher = CompressedStreams.negotiate(
+                buildConfig(true, FRAME_SIZE * 4),
+                new MerkleDataInputStream(new ByteArrayInputStream(handshake(true, FRAME_SIZE))),
+                new MerkleDataOutputStream(teacherBytes));
+        assertTrue(teacher.isCompressed(), "compression should be used if enabled on both sides");
+
+        final byte[] data = new byte[FRAME_SIZE * 10];
+        new Random(42).nextBytes(data);
+        teacher.getOutputStream().write(data);
+        teacher.flush();
+        teacher.close();
+
+        // The learner reads the teacher handshake, then the frames
+        final CompressedStreams learner = CompressedStreams.negotiate(
+                buildConfig(true, FRAME_SIZE),
+                new MerkleDataInputStream(new ByteArrayInputStream(teacherBytes.toByteArray())),
+                new MerkleDataOutputStream(new ByteArrayOutputStream()));
+        assertTrue(learner.isCompressed(), "compression should be used if enabled on both sides");
+        final byte[] read = new byte[data.length];
+        learner.getInputStream().readFully(read);
+        learner.close();
+        assertArrayEquals(data, read, "frames should use the smaller frame size of the two sides");
+    }
+
+    private static boolean negotiate(final boolean teacherCompress, final boolean learnerCompress) throws IOException {
+        final ReconnectConfig teacherConfig = buildConfig(teacherCompress, FRAME_SIZE);
+        final ReconnectConfig learnerConfig = buildConfig(learnerCompress, FRAME_SIZE);
+
+        // Handshakes are written before they are read, so each side can be negotiated in turn
+        final CompressedStreams teacher = CompressedStreams.negotiate(
+                teacherConfig,
+                new MerkleDataInputStream(new ByteArrayInputStream(handshake(learnerCompress, FRAME_SIZE))),
+                new MerkleDataOutputStream(new ByteArrayOutputStream()));
+        final CompressedStreams learner = CompressedStreams.negotiate(
+                learnerConfig,
+                new MerkleDataInputStream(new ByteArrayInputStream(handshake(teacherCompress, FRAME_SIZE))),
+                new MerkleDataOutputStream(new ByteArrayOutputStream()));
+
+        assertEquals(teacher.isCompressed(), learner.isCompressed(), "both sides should agree");
+        return learner.isCompressed();
+    }
+
+    private static byte[] handshake(final boolean compress, final int frameSize) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final MerkleDataOutputStream out = new MerkleDataOutputStream(bytes);
+        out.writeBoolean(compress);
+        out.writeInt(frameSize);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ReconnectConfig buildConfig(final boolean compress, final int frameSize) {
+        return new TestConfigBuilder()
+                .withValue(ReconnectConfig_.COMPRESS_STREAM, compress)
+                .withValue(ReconnectConfig_.COMPRESSED_STREAM_FRAME_SIZE, frameSize)
+                .getOrCreateConfig()
+                .getConfigData(ReconnectConfig.class);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.test.fixtures.WeightGenerators;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.gossip.sync.SyncInputStream;
+import com.swirlds.platform.gossip.sync.SyncOutputStream;
+import com.swirlds.platform.internal.EventImpl;
+import com.swirlds.platform.network.compression.GossipCompression;
+import com.swirlds.platform.network.compression.GossipCompressionDictionary;
+import com.swirlds.platform.system.StaticSoftwareVersion;
+import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
+import com.swirlds.platform.test.event.source.EventSourceFactory;
+import com.swirlds.platform.test.fixtures.event.IndexedEvent;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import com.swirlds.platform.test.fixtures.event.source.EventSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of sending events between two nodes over a loopback connection with each gossip
+ * compression codec. The benchmark thread writes a batch of events and flushes, as a sync does, and waits until the
+ * peer has read all of them. The compression ratio of each codec is printed at the end of every iteration.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class GossipCompressionBenchmark {
+
+    @Param({"NONE", "DEFLATE", "DEFLATE_FAST", "DEFLATE_DICTIONARY"})
+    public GossipCompression compression;
+
+    @Param({"39"})
+    public int numNodes;
+
+    @Param({"10000"})
+    public int numEvents;
+
+    /** The number of events written before each flush */
+    @Param({"100"})
+    public int batchSize;
+
+    @Param({"0"})
+    public long seed;
+
+    private List<IndexedEvent> events;
+    private int nextEvent;
+
+    private ServerSocket serverSocket;
+    private Socket senderSocket;
+    private Socket receiverSocket;
+    private SyncOutputStream out;
+    private Thread receiver;
+
+    private long sent;
+    private final AtomicLong received = new AtomicLong();
+
+    @Setup
+    public void setup() throws IOException, ConstructableRegistryException {
+        ConstructableRegistry.getInstance().registerConstructables("com.swirlds.platform.system");
+        final List<EventSource<?>> eventSources =
+                EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes));
+        final PlatformContext platformContext =
+                TestPlatformContextBuilder.create().build();
+        final StandardGraphGenerator generator = new StandardGraphGenerator(platformContext, seed, eventSources);
+        events = new StandardEventEmitter(generator).emitEvents(numEvents);
+        StaticSoftwareVersion.setSoftwareVersion(events.get(0).getBaseEvent().getSoftwareVersion());
+
+        // Train the dictionary on the events, as a node would during earlier syncs
+        final GossipCompressionDictionary dictionary = new GossipCompressionDictionary();
+        for (final EventImpl event : events) {
+            dictionary.sample(event.getBaseEvent());
+        }
+        final byte[] presetDictionary = dictionary.getDictionary();
+
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        senderSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        receiverSocket = serverSocket.accept();
+        senderSocket.setTcpNoDelay(true);
+        receiverSocket.setTcpNoDelay(true);
+
+        final int bufferSize = 8 * 1024;
+        out = SyncOutputStream.createSyncOutputStream(
+                platformContext, senderSocket.getOutputStream(), bufferSize, compression, presetDictionary, null);
+        final SyncInputStream in = SyncInputStream.createSyncInputStream(
+                platformContext, receiverSocket.getInputStream(), bufferSize, compression, presetDictionary);
+
+        receiver = new Thread(
+                () -> {
+                    try {
+                        while (true) {
+                            in.readEventData();
+                            received.incrementAndGet();
+                        }
+                    } catch (final IOException e) {
+                        // the socket was closed by tearDown()
+                    }
+                },
+                "gossip-compression-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        senderSocket.close();
+        receiverSocket.close();
+        serverSocket.close();
+        receiver.join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCompressionRatio() {
+        final long wireBytes = out.getConnectionByteCounter().getAndResetCount();
+        final long rawBytes = out.isCompressed() ? out.getAndResetUncompressedByteCount() : wireBytes;
+        final double compressionMillis = out.getAndResetCompressionNanos() / 1_000_000.0;
+        System.out.printf(
+                "%n%s: %d bytes sent for %d bytes of events, ratio %.2f, %.0f ms compressing%n",
+                compression,
+                wireBytes,
+                rawBytes,
+                wireBytes == 0 ? 0.0 : (double) rawBytes / wireBytes,
+                compressionMillis);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void sendBatch() throws IOException {
+        for (int i = 0; i < batchSize; i++) {
+            out.writeEventData(events.get(nextEvent));
+            nextEvent = (nextEvent + 1) % events.size();
+        }
+        out.flush();
+        sent += batchSize;
+
+        while (received.get() < sent) {
+            if (!receiver.isAlive()) {
+                throw new UncheckedIOException(new IOException("the receiver stopped"));
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
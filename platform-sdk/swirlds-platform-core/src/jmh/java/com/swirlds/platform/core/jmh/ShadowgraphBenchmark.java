@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import static com.swirlds.platform.consensus.ConsensusConstants.ROUND_NEGATIVE_INFINITY;
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+import static com.swirlds.platform.system.events.EventConstants.FIRST_GENERATION;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.test.fixtures.WeightGenerators;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.gossip.NoOpIntakeEventCounter;
+import com.swirlds.platform.gossip.shadowgraph.ShadowEvent;
+import com.swirlds.platform.gossip.shadowgraph.Shadowgraph;
+import com.swirlds.platform.gossip.shadowgraph.ShadowgraphInsertionException;
+import com.swirlds.platform.internal.EventImpl;
+import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
+import com.swirlds.platform.test.event.source.EventSourceFactory;
+import com.swirlds.platform.test.fixtures.event.IndexedEvent;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import com.swirlds.platform.test.fixtures.event.source.EventSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the shadowgraph under concurrent sync sessions. One thread adds events and expires old generations, as
+ * the intake pipeline does, while the other threads act as sync sessions with peers: they read tips, look up
+ * shadow events by hash, and search for ancestors.
+ */
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ShadowgraphBenchmark {
+
+    @Param({"39"})
+    public int numNodes;
+
+    @Param({"50000"})
+    public int numEvents;
+
+    /** The number of the most recent generations kept in the shadowgraph */
+    @Param({"25"})
+    public int nonExpiredGenerations;
+
+    @Param({"0"})
+    public long seed;
+
+    private List<IndexedEvent> events;
+
+    /** Indices of self parents in {@link #events}, or -1 */
+    private int[] selfParents;
+
+    /** Indices of other parents in {@link #events}, or -1 */
+    private int[] otherParents;
+
+    private Shadowgraph shadowgraph;
+
+    // Intake thread state
+    private EventImpl[] linked;
+    private int nextEvent;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        final List<EventSource<?>> eventSources =
+                EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes));
+        final PlatformContext platformContext =
+                TestPlatformContextBuilder.create().build();
+        final StandardGraphGenerator generator = new StandardGraphGenerator(platformContext, seed, eventSources);
+        final StandardEventEmitter emitter = new StandardEventEmitter(generator);
+        events = emitter.emitEvents(numEvents);
+
+        final Map<Hash, Integer> indices = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            indices.put(events.get(i).getBaseHash(), i);
+        }
+        selfParents = new int[events.size()];
+        otherParents = new int[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            final EventImpl event = events.get(i);
+            selfParents[i] = parentIndex(indices, event.getSelfParent());
+            otherParents[i] = parentIndex(indices, event.getOtherParent());
+        }
+
+        shadowgraph = new Shadowgraph(
+                platformContext, emitter.getGraphGenerator().getAddressBook(), new NoOpIntakeEventCounter());
+        linked = new EventImpl[events.size()];
+        restart();
+    }
+
+    private static int parentIndex(final Map<Hash, Integer> indices, final EventImpl parent) {
+        return parent == null ? -1 : indices.getOrDefault(parent.getBaseHash(), -1);
+    }
+
+    /**
+     * Start adding events from the beginning of the generated graph. Expired events are cleared by the shadowgraph,
+     * so events are re-linked every time they are added.
+     */
+    private void restart() {
+        shadowgraph.clear();
+        shadowgraph.updateEventWindow(EventWindow.getGenesisEventWindow(GENERATION_THRESHOLD));
+        nextEvent = 0;
+    }
+
+    /**
+     * Intake: add the next event, and expire old generations once per round of events.
+     */
+    @Benchmark
+    @Group("sync")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void intake() throws ShadowgraphInsertionException {
+        if (nextEvent == events.size()) {
+            restart();
+        }
+        final int i = nextEvent++;
+        final EventImpl event = new EventImpl(
+                events.get(i).getBaseEvent(),
+                selfParents[i] >= 0 ? linked[selfParents[i]] : null,
+                otherParents[i] >= 0 ? linked[otherParents[i]] : null);
+        linked[i] = event;
+        shadowgraph.addEvent(event);
+        if (i % numNodes == 0) {
+            final long expiredThreshold = Math.max(FIRST_GENERATION, event.getGeneration() - nonExpiredGenerations);
+            shadowgraph.updateEventWindow(new EventWindow(
+                    ROUND_NEGATIVE_INFINITY, expiredThreshold, expiredThreshold, GENERATION_THRESHOLD));
+        }
+    }
+
+    /**
+     * A sync session: read the tips, look them up by hash as if received from a peer, and find their ancestors.
+     */
+    @Benchmark
+    @Group("sync")
+    @GroupThreads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void peer(final Blackhole bh) {
+        final List<ShadowEvent> tips = shadowgraph.getTips();
+        final List<Hash> tipHashes = new ArrayList<>(tips.size());
+        for (final ShadowEvent tip : tips) {
+            tipHashes.add(tip.getEventBaseHash());
+        }
+        bh.consume(shadowgraph.shadows(tipHashes));
+        final Set<ShadowEvent> ancestors = shadowgraph.findAncestors(tips, e -> true);
+        bh.consume(ancestors.size());
+    }
+}
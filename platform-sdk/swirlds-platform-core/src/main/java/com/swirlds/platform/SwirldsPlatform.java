@@ -238,7 +238,7 @@ public class SwirldsPlatform implements Platform {
                 .getConfigData(PcesConfig.class)
                 .replayHealthThreshold();
         final PcesReplayer pcesReplayer = new PcesReplayer(
-                platformContext.getTime(),
+                platformContext,
                 platformWiring.getPcesReplayerEventOutput(),
                 platformWiring::flushIntakePipeline,
                 platformWiring::flushTransactionHandler,
@@ -450,8 +450,17 @@ public class SwirldsPlatform implements Platform {
     private void replayPreconsensusEvents() {
         platformWiring.getStatusActionSubmitter().submitStatusAction(new StartedReplayingEventsAction());
 
-        final IOIterator<GossipEvent> iterator =
-                initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
+        final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+        final IOIterator<GossipEvent> iterator;
+        if (pcesConfig.parallelReplay()) {
+            final int parallelism = pcesConfig.replayParallelism() > 0
+                    ? pcesConfig.replayParallelism()
+                    : Runtime.getRuntime().availableProcessors();
+            iterator = initialPcesFiles.getParallelEventIterator(
+                    platformContext, initialAncientThreshold, startingRound, parallelism);
+        } else {
+            iterator = initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
+        }
 
         logger.info(
                 STARTUP.getMarker(),
@@ -20,13 +20,16 @@ import com.swirlds.platform.event.GossipEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
- * Default implementation of the {@link EventHasher}.
+ * Default implementation of the {@link EventHasher}. Events that already have a hash, such as events hashed while
+ * being read during parallel PCES replay, are not hashed again.
  */
 public class DefaultEventHasher implements EventHasher {
     @Override
     @NonNull
     public GossipEvent hashEvent(@NonNull final GossipEvent event) {
-        new StatefulEventHasher().hashEvent(event);
+        if (event.getHash() == null) {
+            new StatefulEventHasher().hashEvent(event);
+        }
         return event;
     }
 }
@@ -16,11 +16,14 @@
 
 package com.swirlds.platform.event.preconsensus;
 
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
 import static com.swirlds.common.units.DataUnit.UNIT_BYTES;
 import static com.swirlds.common.units.DataUnit.UNIT_MEGABYTES;
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 
+import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.common.utility.LongRunningAverage;
 import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.AncientMode;
@@ -30,9 +33,15 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -144,6 +153,39 @@ public class DefaultPcesWriter implements PcesWriter {
      */
     private final Deque<Long> flushRequests = new ArrayDeque<>();
 
+    /**
+     * If true then events are forced to the storage device before they are reported as durable.
+     */
+    private final boolean syncOnFlush;
+
+    /**
+     * Runs syncs in the background, so events can be written while previously written events are being synced. Null
+     * if {@link #syncOnFlush} is false.
+     */
+    private final ExecutorService syncExecutor;
+
+    /**
+     * Sync metrics. Null if {@link #syncOnFlush} is false.
+     */
+    private final PcesSyncMetrics syncMetrics;
+
+    /**
+     * The sync currently running in the background, or null if there is none.
+     */
+    private Future<?> syncInFlight;
+
+    /**
+     * The highest event sequence number that becomes durable when {@link #syncInFlight} completes.
+     */
+    private long syncInFlightUpTo = -1;
+
+    /**
+     * The highest event sequence number that must be synced to satisfy outstanding flush requests.
+     */
+    private long syncRequestedUpTo = -1;
+
+    private final Time time;
+
     /**
      * Constructor
      *
@@ -165,6 +207,19 @@ public class DefaultPcesWriter implements PcesWriter {
         minimumSpan = config.minimumSpan();
 
         this.fileManager = fileManager;
+        this.time = platformContext.getTime();
+
+        syncOnFlush = config.syncOnFlush();
+        if (syncOnFlush) {
+            syncExecutor = Executors.newSingleThreadExecutor(new ThreadConfiguration(getStaticThreadManager())
+                    .setComponent("platform")
+                    .setThreadName("pces-sync")
+                    .buildFactory());
+            syncMetrics = new PcesSyncMetrics(platformContext.getMetrics());
+        } else {
+            syncExecutor = null;
+            syncMetrics = null;
+        }
 
         fileType = platformContext
                         .getConfiguration()
@@ -187,15 +242,23 @@ public class DefaultPcesWriter implements PcesWriter {
 
     /**
      * Consider outstanding flush requests and perform a flush if needed.
+     * <p>
+     * If {@link #syncOnFlush} is true, then the flush is a sync that runs in the background. Flush requests that
+     * arrive while a sync is running are committed together by the next sync.
      *
-     * @return true if a flush was performed, otherwise false
+     * @return true if a flush was performed (or a background sync has completed), otherwise false
      */
     private boolean processFlushRequests() {
+        // Events that are durable, or will be durable once the running or the requested sync completes
+        final long coveredEvent = syncOnFlush
+                ? Math.max(lastFlushedEvent, Math.max(syncInFlightUpTo, syncRequestedUpTo))
+                : lastFlushedEvent;
+
         boolean flushRequired = false;
         while (!flushRequests.isEmpty() && flushRequests.peekFirst() <= lastWrittenEvent) {
             final long flushRequest = flushRequests.removeFirst();
 
-            if (flushRequest > lastFlushedEvent) {
+            if (flushRequest > coveredEvent) {
                 flushRequired = true;
             }
         }
@@ -205,16 +268,70 @@ public class DefaultPcesWriter implements PcesWriter {
                 logger.error(EXCEPTION.getMarker(), "Flush required, but no file is open. This should never happen");
             }
 
+            if (syncOnFlush) {
+                syncRequestedUpTo = lastWrittenEvent;
+            } else {
+                try {
+                    currentMutableFile.flush();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                lastFlushedEvent = lastWrittenEvent;
+            }
+        }
+
+        return syncOnFlush ? processSyncs() : flushRequired;
+    }
+
+    /**
+     * Collect the background sync if it has completed, then start a new background sync if one is requested and none
+     * is running.
+     *
+     * @return true if a background sync has completed, making more events durable
+     */
+    private boolean processSyncs() {
+        boolean syncCompleted = false;
+        if (syncInFlight != null && syncInFlight.isDone()) {
+            awaitSyncInFlight();
+            syncCompleted = true;
+        }
+
+        if (syncInFlight == null && syncRequestedUpTo > lastFlushedEvent) {
+            final PcesMutableFile file = currentMutableFile;
             try {
-                currentMutableFile.flush();
+                // Pass buffered data to the file on this thread, the sync thread only forces it to the device
+                file.flush();
             } catch (final IOException e) {
                 throw new UncheckedIOException(e);
             }
-
-            lastFlushedEvent = lastWrittenEvent;
+            final long eventCount = lastWrittenEvent - lastFlushedEvent;
+            syncInFlightUpTo = lastWrittenEvent;
+            syncInFlight = syncExecutor.submit(() -> {
+                final Instant start = time.now();
+                file.sync();
+                syncMetrics.reportSync(Duration.between(start, time.now()), eventCount);
+                return null;
+            });
         }
 
-        return flushRequired;
+        return syncCompleted;
+    }
+
+    /**
+     * Wait for the background sync to complete, and mark the events it covers as durable.
+     */
+    private void awaitSyncInFlight() {
+        try {
+            syncInFlight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for preconsensus events to be synced", e);
+        } catch (final ExecutionException e) {
+            throw new UncheckedIOException(new IOException("unable to sync preconsensus event file", e.getCause()));
+        }
+        syncInFlight = null;
+        lastFlushedEvent = Math.max(lastFlushedEvent, syncInFlightUpTo);
     }
 
     /**
@@ -285,6 +402,18 @@ public class DefaultPcesWriter implements PcesWriter {
         return processFlushRequests() ? lastFlushedEvent : null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Long checkForCompletedSync(@NonNull final Instant now) {
+        if (syncInFlight == null) {
+            return null;
+        }
+        return processSyncs() ? lastFlushedEvent : null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -336,6 +465,16 @@ public class DefaultPcesWriter implements PcesWriter {
             if (!bootstrapMode) {
                 averageSpanUtilization.add(previousSpan);
             }
+            if (syncOnFlush) {
+                // All events written to the file are reported as durable once it is closed
+                if (syncInFlight != null) {
+                    awaitSyncInFlight();
+                }
+                currentMutableFile.flush();
+                final Instant start = time.now();
+                currentMutableFile.sync();
+                syncMetrics.reportSync(Duration.between(start, time.now()), lastWrittenEvent - lastFlushedEvent);
+            }
             currentMutableFile.close();
             lastFlushedEvent = lastWrittenEvent;
 
@@ -409,14 +548,24 @@ public class DefaultPcesWriter implements PcesWriter {
     }
 
     /**
-     * Close the current mutable file.
+     * {@inheritDoc}
      */
+    @Override
     public void closeCurrentMutableFile() {
-        if (currentMutableFile != null) {
-            try {
-                currentMutableFile.close();
-            } catch (final IOException e) {
-                throw new UncheckedIOException(e);
+        try {
+            if (currentMutableFile != null) {
+                if (syncInFlight != null) {
+                    awaitSyncInFlight();
+                }
+                try {
+                    currentMutableFile.close();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        } finally {
+            if (syncExecutor != null) {
+                syncExecutor.shutdown();
             }
         }
     }
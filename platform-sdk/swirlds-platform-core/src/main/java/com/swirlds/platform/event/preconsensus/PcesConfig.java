@@ -85,6 +85,20 @@ import java.time.Duration;
  *                                             durability buffer component
  * @param replayHealthThreshold                if the system is unhealthy (i.e. overloaded) for more than this amount of
  *                                             time, pause PCES replay until the system is able to catch up.
+ * @param syncOnFlush                          if true, then events are forced to the storage device before they are
+ *                                             reported as durable. Syncs run on a dedicated thread, and each sync
+ *                                             covers all events written before it starts. If false, then events are
+ *                                             reported as durable once they are flushed to the operating system.
+ * @param syncHeartbeatPeriod                  the period of the heartbeats sent to the PCES writer when
+ *                                             syncOnFlush is enabled, which it uses to report completed syncs when
+ *                                             no other input arrives. While events keep arriving, completed syncs are
+ *                                             reported on the next event, so this only bounds the extra latency when
+ *                                             the writer is idle.
+ * @param parallelReplay                       if true, then at startup preconsensus event files are memory mapped,
+ *                                             and are deserialized and hashed by several threads. Events are replayed
+ *                                             in the same order either way.
+ * @param replayParallelism                    the number of threads that read files when parallelReplay is enabled.
+ *                                             If not positive, the number of available processors is used.
  */
 @ConfigData("event.preconsensus")
 public record PcesConfig(
@@ -105,4 +119,8 @@ public record PcesConfig(
         @ConfigProperty(defaultValue = "false") boolean forceIgnorePcesSignatures,
         @ConfigProperty(defaultValue = "1m") Duration roundDurabilityBufferHeartbeatPeriod,
         @ConfigProperty(defaultValue = "1m") Duration suspiciousRoundDurabilityDuration,
-        @ConfigProperty(defaultValue = "5s") Duration replayHealthThreshold) {}
+        @ConfigProperty(defaultValue = "5s") Duration replayHealthThreshold,
+        @ConfigProperty(defaultValue = "false") boolean syncOnFlush,
+        @ConfigProperty(defaultValue = "10ms") Duration syncHeartbeatPeriod,
+        @ConfigProperty(defaultValue = "false") boolean parallelReplay,
+        @ConfigProperty(defaultValue = "0") int replayParallelism) {}
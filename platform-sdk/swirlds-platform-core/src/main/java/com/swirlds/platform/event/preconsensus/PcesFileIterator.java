@@ -27,6 +27,11 @@ import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -54,14 +59,39 @@ public class PcesFileIterator implements IOIterator<GossipEvent> {
     public PcesFileIterator(
             @NonNull final PcesFile fileDescriptor, final long lowerBound, @NonNull final AncientMode fileType)
             throws IOException {
+        this(fileDescriptor, lowerBound, fileType, false);
+    }
+
+    /**
+     * Create a new iterator that walks over events in a preconsensus event file.
+     *
+     * @param fileDescriptor describes a preconsensus event file
+     * @param lowerBound     the lower bound for all events to be returned, corresponds to either generation or birth
+     *                       round depending on the {@link PcesFile} type
+     * @param fileType       the type of file to read
+     * @param memoryMapped   if true then the file is memory mapped instead of being read through a buffered stream.
+     *                       The file must not be written to while it is being read.
+     */
+    public PcesFileIterator(
+            @NonNull final PcesFile fileDescriptor,
+            final long lowerBound,
+            @NonNull final AncientMode fileType,
+            final boolean memoryMapped)
+            throws IOException {
 
         this.lowerBound = lowerBound;
         this.fileType = Objects.requireNonNull(fileType);
         counter = new CountingStreamExtension();
-        stream = new SerializableDataInputStream(new ExtendableInputStream(
-                new BufferedInputStream(
-                        new FileInputStream(fileDescriptor.getPath().toFile())),
-                counter));
+        final InputStream source;
+        if (memoryMapped) {
+            try (final FileChannel channel = FileChannel.open(fileDescriptor.getPath(), StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                source = new ByteBufferInputStream(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } else {
+            source = new BufferedInputStream(new FileInputStream(fileDescriptor.getPath().toFile()));
+        }
+        stream = new SerializableDataInputStream(new ExtendableInputStream(source, counter));
 
         try {
             final int fileVersion = stream.readInt();
@@ -132,4 +162,47 @@ public class PcesFileIterator implements IOIterator<GossipEvent> {
             next = null;
         }
     }
+
+    /**
+     * An input stream that reads from a byte buffer, such as a memory mapped file.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(@NonNull final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@NonNull final byte[] bytes, final int offset, final int length) {
+            Objects.checkFromIndexSize(offset, length, bytes.length);
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
 }
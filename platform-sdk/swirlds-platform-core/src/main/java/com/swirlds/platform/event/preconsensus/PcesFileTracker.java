@@ -19,6 +19,7 @@ package com.swirlds.platform.event.preconsensus;
 import static com.swirlds.logging.legacy.LogMarker.STARTUP;
 import static com.swirlds.platform.event.preconsensus.PcesFileManager.NO_LOWER_BOUND;
 
+import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.utility.RandomAccessDeque;
 import com.swirlds.common.utility.UnmodifiableIterator;
 import com.swirlds.platform.event.AncientMode;
@@ -171,6 +172,28 @@ public class PcesFileTracker {
         return new PcesMultiFileIterator(lowerBound, getFileIterator(lowerBound, startingRound), fileType);
     }
 
+    /**
+     * Get an iterator that walks over all events starting with a specified lower bound, the same as
+     * {@link #getEventIterator(long, long)}. Files are memory mapped, and are deserialized and hashed in parallel.
+     * <p>
+     * Note: this method only works at system startup time, using this iterator after startup has undefined behavior.
+     *
+     * @param platformContext the platform context
+     * @param lowerBound      the desired lower bound, see {@link #getEventIterator(long, long)}
+     * @param startingRound   the round to start iterating from
+     * @param parallelism     the number of threads that read files
+     * @return an iterator that walks over events
+     */
+    @NonNull
+    public PcesParallelFileIterator getParallelEventIterator(
+            @NonNull final PlatformContext platformContext,
+            final long lowerBound,
+            final long startingRound,
+            final int parallelism) {
+        return new PcesParallelFileIterator(
+                platformContext, lowerBound, getFileIterator(lowerBound, startingRound), fileType, parallelism);
+    }
+
     /**
      * Get an iterator that walks over all event files currently being tracked, in order.
      * <p>
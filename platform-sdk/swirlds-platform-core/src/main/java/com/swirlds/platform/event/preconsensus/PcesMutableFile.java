@@ -22,11 +22,13 @@ import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.platform.event.GossipEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Represents a preconsensus event file that can be written to.
@@ -55,6 +57,16 @@ public class PcesMutableFile {
      */
     private final SerializableDataOutputStream out;
 
+    /**
+     * The channel the output stream writes to. Used to force written data to the storage device.
+     */
+    private final FileChannel channel;
+
+    /**
+     * True once the directory entry for this file has been forced to the storage device.
+     */
+    private volatile boolean directorySynced = false;
+
     /**
      * Create a new preconsensus event file that can be written to.
      *
@@ -69,10 +81,13 @@ public class PcesMutableFile {
 
         this.descriptor = descriptor;
         counter = new CountingStreamExtension(false);
+        channel = FileChannel.open(
+                descriptor.getPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
         out = new SerializableDataOutputStream(new ExtendableOutputStream(
-                new BufferedOutputStream(
-                        new FileOutputStream(descriptor.getPath().toFile())),
-                counter));
+                new BufferedOutputStream(Channels.newOutputStream(channel)), counter));
         out.writeInt(FILE_VERSION);
         highestAncientIdentifierInFile = descriptor.getLowerBound();
     }
@@ -129,12 +144,41 @@ public class PcesMutableFile {
     }
 
     /**
-     * Flush the file.
+     * Flush the file. Buffered data is passed to the operating system, but it may not be on the storage device yet.
      */
     public void flush() throws IOException {
         out.flush();
     }
 
+    /**
+     * Force all data flushed to this file to the storage device. Data still buffered in the stream is not forced, call
+     * {@link #flush()} first. File content is forced without unrelated file metadata, the same as {@code fdatasync}.
+     * The first call also forces the parent directory, so that the file itself survives a crash.
+     * <p>
+     * May be called on a different thread than the one writing to the file, but not concurrently with
+     * {@link #close()}.
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+        if (!directorySynced) {
+            syncDirectory();
+            directorySynced = true;
+        }
+    }
+
+    /**
+     * Force the directory entry of this file to the storage device.
+     */
+    private void syncDirectory() {
+        try (final FileChannel directory =
+                FileChannel.open(descriptor.getPath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (final UnsupportedOperationException | IOException e) {
+            // Directories can't be opened or forced on some platforms (e.g. Windows), where
+            // file metadata is made durable together with the file instead
+        }
+    }
+
     /**
      * Close the file.
      */
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+
+import com.swirlds.base.time.Time;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.io.IOIterator;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.platform.event.AncientMode;
+import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.platform.event.hashing.StatefulEventHasher;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates over the events in a series of event files, returning the same events in the same order as
+ * {@link PcesMultiFileIterator}. Files are memory mapped, deserialized and hashed by a pool of threads, several files
+ * ahead of the file currently being returned.
+ * <p>
+ * Events are not length prefixed, so event boundaries within a file are only known after parsing it. Each file is
+ * therefore read by a single thread, and files are the unit of parallelism.
+ */
+public class PcesParallelFileIterator implements IOIterator<GossipEvent> {
+
+    /**
+     * The events read from a single file.
+     *
+     * @param events          the events in the file, in file order
+     * @param hasPartialEvent true if the file ended with a partial event
+     */
+    private record FileContents(@NonNull List<GossipEvent> events, boolean hasPartialEvent) {}
+
+    private final Iterator<PcesFile> fileIterator;
+    private final AncientMode fileType;
+    private final long lowerBound;
+    private final Time time;
+    private final PcesReplayMetrics metrics;
+
+    private final ExecutorService executor;
+
+    /**
+     * The maximum number of files that are being read, or have been read but not yet returned.
+     */
+    private final int readAhead;
+
+    /**
+     * Files being read, in file order.
+     */
+    private final Deque<Future<FileContents>> pendingFiles = new ArrayDeque<>();
+
+    private Iterator<GossipEvent> currentEvents = Collections.emptyIterator();
+    private int truncatedFileCount = 0;
+
+    /**
+     * Create an iterator that walks over events in a series of event files.
+     *
+     * @param platformContext the platform context
+     * @param lowerBound      the minimum ancient indicator of events to return, events with lower ancient indicators
+     *                        are not returned
+     * @param fileIterator    an iterator that walks over event files
+     * @param fileType        the type of file to read
+     * @param parallelism     the number of threads that read files
+     */
+    public PcesParallelFileIterator(
+            @NonNull final PlatformContext platformContext,
+            final long lowerBound,
+            @NonNull final Iterator<PcesFile> fileIterator,
+            @NonNull final AncientMode fileType,
+            final int parallelism) {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        }
+
+        this.fileIterator = Objects.requireNonNull(fileIterator);
+        this.lowerBound = lowerBound;
+        this.fileType = Objects.requireNonNull(fileType);
+        this.time = platformContext.getTime();
+        this.metrics = new PcesReplayMetrics(platformContext.getMetrics());
+
+        readAhead = parallelism * 2;
+        executor = Executors.newFixedThreadPool(
+                parallelism,
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent("platform")
+                        .setThreadName("pces-replay-reader")
+                        .buildFactory());
+
+        submitFiles();
+    }
+
+    /**
+     * Start reading files until {@link #readAhead} files are pending.
+     */
+    private void submitFiles() {
+        while (pendingFiles.size() < readAhead && fileIterator.hasNext()) {
+            final PcesFile file = fileIterator.next();
+            pendingFiles.addLast(executor.submit(() -> readFile(file)));
+        }
+    }
+
+    /**
+     * Read and hash all events in a file. Called on a reader thread.
+     *
+     * @param file the file to read
+     * @return the events in the file
+     */
+    @NonNull
+    private FileContents readFile(@NonNull final PcesFile file) throws IOException {
+        final long decodeStart = time.nanoTime();
+        final List<GossipEvent> events = new ArrayList<>();
+        final PcesFileIterator iterator = new PcesFileIterator(file, lowerBound, fileType, true);
+        while (iterator.hasNext()) {
+            events.add(iterator.next());
+        }
+
+        final long hashStart = time.nanoTime();
+        final StatefulEventHasher hasher = new StatefulEventHasher();
+        for (final GossipEvent event : events) {
+            hasher.hashEvent(event);
+        }
+        final long hashEnd = time.nanoTime();
+
+        metrics.addDecodeTime(hashStart - decodeStart);
+        metrics.addHashTime(hashEnd - hashStart);
+
+        return new FileContents(events, iterator.hasPartialEvent());
+    }
+
+    /**
+     * Wait for the next file to be read.
+     *
+     * @return the contents of the next file
+     */
+    @NonNull
+    private FileContents awaitNextFile() throws IOException {
+        final Future<FileContents> future = pendingFiles.removeFirst();
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IOException("interrupted while reading preconsensus event files", e);
+        } catch (final ExecutionException e) {
+            close();
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("unable to read preconsensus event file", e.getCause());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() throws IOException {
+        while (!currentEvents.hasNext()) {
+            if (pendingFiles.isEmpty()) {
+                close();
+                return false;
+            }
+
+            final FileContents contents = awaitNextFile();
+            if (contents.hasPartialEvent()) {
+                truncatedFileCount++;
+            }
+            currentEvents = contents.events().iterator();
+            submitFiles();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public GossipEvent next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("iterator is empty, can not get next element");
+        }
+        return currentEvents.next();
+    }
+
+    /**
+     * Get the number of files that had partial event data at the end. This can happen if JVM is shut down abruptly
+     * while and event is being written to disk.
+     *
+     * @return the number of files that had partial event data at the end that have been encountered so far
+     */
+    public int getTruncatedFileCount() {
+        return truncatedFileCount;
+    }
+
+    /**
+     * Stop the reader threads. Called automatically once all events have been returned.
+     */
+    @Override
+    public void close() {
+        for (final Future<FileContents> future : pendingFiles) {
+            future.cancel(true);
+        }
+        pendingFiles.clear();
+        executor.shutdownNow();
+    }
+}
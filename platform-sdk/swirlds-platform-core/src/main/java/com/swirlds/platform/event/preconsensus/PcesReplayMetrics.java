@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import com.swirlds.metrics.api.LongGauge;
+import com.swirlds.metrics.api.Metrics;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics that break the time spent replaying preconsensus events at startup down by stage. Each metric holds the
+ * total time spent in its stage, in milliseconds. Decode and hash times are summed over all reader threads, so with
+ * parallel replay they may exceed the wall clock time of the replay.
+ */
+class PcesReplayMetrics {
+
+    private static final String CATEGORY = "platform";
+
+    private static final LongGauge.Config READ_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayReadMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time the PCES replayer spent waiting for the next event to be read from disk");
+    private final LongGauge read;
+
+    private static final LongGauge.Config DECODE_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayDecodeMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time spent deserializing events by parallel PCES replay, summed over all threads");
+    private final LongGauge decode;
+    private final AtomicLong decodeNanos = new AtomicLong();
+
+    private static final LongGauge.Config HASH_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayHashMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time spent hashing events by parallel PCES replay, summed over all threads");
+    private final LongGauge hash;
+    private final AtomicLong hashNanos = new AtomicLong();
+
+    private static final LongGauge.Config HEALTH_WAIT_CONFIG = new LongGauge.Config(
+                    CATEGORY, "pcesReplayHealthWaitMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time the PCES replayer spent waiting for the system to become healthy");
+    private final LongGauge healthWait;
+
+    private static final LongGauge.Config FORWARD_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayForwardMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time the PCES replayer spent passing events to the intake pipeline");
+    private final LongGauge forward;
+
+    private static final LongGauge.Config FLUSH_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayFlushMillis")
+            .withUnit("milliseconds")
+            .withDescription("Time the PCES replayer spent flushing the intake and transaction handling pipelines");
+    private final LongGauge flush;
+
+    private static final LongGauge.Config TOTAL_CONFIG = new LongGauge.Config(CATEGORY, "pcesReplayTotalMillis")
+            .withUnit("milliseconds")
+            .withDescription("Wall clock time of the PCES replay");
+    private final LongGauge total;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics the metrics system
+     */
+    PcesReplayMetrics(@NonNull final Metrics metrics) {
+        read = metrics.getOrCreate(READ_CONFIG);
+        decode = metrics.getOrCreate(DECODE_CONFIG);
+        hash = metrics.getOrCreate(HASH_CONFIG);
+        healthWait = metrics.getOrCreate(HEALTH_WAIT_CONFIG);
+        forward = metrics.getOrCreate(FORWARD_CONFIG);
+        flush = metrics.getOrCreate(FLUSH_CONFIG);
+        total = metrics.getOrCreate(TOTAL_CONFIG);
+    }
+
+    /**
+     * Add time spent deserializing events. May be called on any thread.
+     *
+     * @param nanos the time spent, in nanoseconds
+     */
+    void addDecodeTime(final long nanos) {
+        decode.set(TimeUnit.NANOSECONDS.toMillis(decodeNanos.addAndGet(nanos)));
+    }
+
+    /**
+     * Add time spent hashing events. May be called on any thread.
+     *
+     * @param nanos the time spent, in nanoseconds
+     */
+    void addHashTime(final long nanos) {
+        hash.set(TimeUnit.NANOSECONDS.toMillis(hashNanos.addAndGet(nanos)));
+    }
+
+    /**
+     * Report the stages timed by the replayer once the replay is complete.
+     *
+     * @param readNanos       time spent waiting for events to be read
+     * @param healthWaitNanos time spent waiting for the system to become healthy
+     * @param forwardNanos    time spent passing events to the intake pipeline
+     * @param flushNanos      time spent flushing pipelines
+     * @param totalNanos      wall clock time of the replay
+     */
+    void reportReplay(
+            final long readNanos,
+            final long healthWaitNanos,
+            final long forwardNanos,
+            final long flushNanos,
+            final long totalNanos) {
+        read.set(TimeUnit.NANOSECONDS.toMillis(readNanos));
+        healthWait.set(TimeUnit.NANOSECONDS.toMillis(healthWaitNanos));
+        forward.set(TimeUnit.NANOSECONDS.toMillis(forwardNanos));
+        flush.set(TimeUnit.NANOSECONDS.toMillis(flushNanos));
+        total.set(TimeUnit.NANOSECONDS.toMillis(totalNanos));
+    }
+}
@@ -22,6 +22,7 @@ import static com.swirlds.logging.legacy.LogMarker.STARTUP;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.swirlds.base.time.Time;
+import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.formatting.UnitFormatter;
 import com.swirlds.common.io.IOIterator;
 import com.swirlds.common.wiring.wires.output.StandardOutputWire;
@@ -46,6 +47,7 @@ public class PcesReplayer {
     private static final Logger logger = LogManager.getLogger(PcesReplayer.class);
 
     private final Time time;
+    private final PcesReplayMetrics metrics;
 
     private final StandardOutputWire<GossipEvent> eventOutputWire;
 
@@ -58,7 +60,7 @@ public class PcesReplayer {
     /**
      * Constructor
      *
-     * @param time                     a source of time
+     * @param platformContext          the platform context
      * @param eventOutputWire          the wire to put events on, to be replayed
      * @param flushIntake              a runnable that flushes the intake pipeline
      * @param flushTransactionHandling a runnable that flushes the transaction handling pipeline
@@ -67,14 +69,15 @@ public class PcesReplayer {
      *                                 overwhelmed
      */
     public PcesReplayer(
-            final @NonNull Time time,
+            final @NonNull PlatformContext platformContext,
             final @NonNull StandardOutputWire<GossipEvent> eventOutputWire,
             final @NonNull Runnable flushIntake,
             final @NonNull Runnable flushTransactionHandling,
             final @NonNull Supplier<ReservedSignedState> latestImmutableState,
             final @NonNull Supplier<Boolean> isSystemHealthy) {
 
-        this.time = Objects.requireNonNull(time);
+        this.time = platformContext.getTime();
+        this.metrics = new PcesReplayMetrics(platformContext.getMetrics());
         this.eventOutputWire = Objects.requireNonNull(eventOutputWire);
         this.flushIntake = Objects.requireNonNull(flushIntake);
         this.flushTransactionHandling = Objects.requireNonNull(flushTransactionHandling);
@@ -162,13 +165,28 @@ public class PcesReplayer {
             }
         }
 
+        final long startNanos = time.nanoTime();
+        long readNanos = 0;
+        long healthWaitNanos = 0;
+        long forwardNanos = 0;
+
         int eventCount = 0;
         int transactionCount = 0;
         try {
-            while (eventIterator.hasNext()) {
+            while (true) {
+                final long readStart = time.nanoTime();
+                final boolean hasNext = eventIterator.hasNext();
+                final long readEnd = time.nanoTime();
+                readNanos += readEnd - readStart;
+                if (!hasNext) {
+                    break;
+                }
+
                 // If the system is not keeping up with the rate at which we are replaying PCES, we need to wait
                 // until it catches up before we can continue.
                 waitUntilHealthy();
+                final long healthyTime = time.nanoTime();
+                healthWaitNanos += healthyTime - readEnd;
 
                 final GossipEvent event = eventIterator.next();
 
@@ -176,13 +194,18 @@ public class PcesReplayer {
                 transactionCount += event.getPayloadCount();
 
                 eventOutputWire.forward(event);
+                forwardNanos += time.nanoTime() - healthyTime;
             }
         } catch (final IOException e) {
             throw new UncheckedIOException("error encountered while reading from the PCES", e);
         }
 
+        final long flushStart = time.nanoTime();
         flushIntake.run();
         flushTransactionHandling.run();
+        final long end = time.nanoTime();
+
+        metrics.reportReplay(readNanos, healthWaitNanos, forwardNanos, end - flushStart, end - startNanos);
 
         final Duration elapsedTime = Duration.between(start, time.now());
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import com.swirlds.common.metrics.RunningAverageMetric;
+import com.swirlds.metrics.api.Counter;
+import com.swirlds.metrics.api.Metrics;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
+
+/**
+ * Metrics for syncing preconsensus event files to the storage device. Sync latency is reported both as a running
+ * average and as a histogram, one counter per latency bucket.
+ */
+class PcesSyncMetrics {
+
+    private static final String CATEGORY = "platform";
+
+    /**
+     * Upper bounds of the latency histogram buckets, in microseconds. The last bucket has no upper bound.
+     */
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = {100, 250, 500, 1_000, 2_500, 5_000, 10_000, 50_000};
+
+    private static final RunningAverageMetric.Config SYNC_LATENCY_CONFIG = new RunningAverageMetric.Config(
+                    CATEGORY, "preconsensusEventSyncLatencyMicros")
+            .withUnit("microseconds")
+            .withDescription("The average time it takes to force preconsensus events to the storage device");
+    private final RunningAverageMetric syncLatency;
+
+    private static final RunningAverageMetric.Config EVENTS_PER_SYNC_CONFIG = new RunningAverageMetric.Config(
+                    CATEGORY, "preconsensusEventsPerSync")
+            .withUnit("count")
+            .withDescription("The average number of preconsensus events made durable by a single sync");
+    private final RunningAverageMetric eventsPerSync;
+
+    private final Counter[] latencyBuckets;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics the metrics system
+     */
+    PcesSyncMetrics(@NonNull final Metrics metrics) {
+        syncLatency = metrics.getOrCreate(SYNC_LATENCY_CONFIG);
+        eventsPerSync = metrics.getOrCreate(EVENTS_PER_SYNC_CONFIG);
+        latencyBuckets = new Counter[BUCKET_UPPER_BOUNDS_MICROS.length + 1];
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            final String name = i < BUCKET_UPPER_BOUNDS_MICROS.length
+                    ? "preconsensusEventSyncLatencyUpTo" + BUCKET_UPPER_BOUNDS_MICROS[i] + "us"
+                    : "preconsensusEventSyncLatencyOver"
+                            + BUCKET_UPPER_BOUNDS_MICROS[BUCKET_UPPER_BOUNDS_MICROS.length - 1] + "us";
+            latencyBuckets[i] = metrics.getOrCreate(new Counter.Config(CATEGORY, name)
+                    .withUnit("count")
+                    .withDescription("The number of preconsensus event syncs in this latency bucket"));
+        }
+    }
+
+    /**
+     * Report a completed sync.
+     *
+     * @param latency the time it took to sync
+     * @param events  the number of events that became durable
+     */
+    void reportSync(@NonNull final Duration latency, final long events) {
+        final long micros = latency.toNanos() / 1_000;
+        syncLatency.update(micros);
+        eventsPerSync.update(events);
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MICROS.length && micros > BUCKET_UPPER_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets[bucket].increment();
+    }
+}
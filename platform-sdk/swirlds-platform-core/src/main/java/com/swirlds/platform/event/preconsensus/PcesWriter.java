@@ -21,6 +21,7 @@ import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.GossipEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.Instant;
 
 /**
  * This object is responsible for writing preconsensus events to disk.
@@ -85,4 +86,22 @@ public interface PcesWriter {
      */
     @InputWireLabel("minimum identifier to store")
     void setMinimumAncientIdentifierToStore(@NonNull Long minimumAncientIdentifierToStore);
+
+    /**
+     * Check whether a sync that was running in the background has completed. Only relevant when syncs run in the
+     * background, other implementations may do nothing.
+     *
+     * @param now the current time
+     * @return the sequence number of the last event durably written to the stream, or null if this method call didn't
+     * result in any additional events being durably written to the stream
+     */
+    @InputWireLabel("heartbeat")
+    @Nullable
+    Long checkForCompletedSync(@NonNull Instant now);
+
+    /**
+     * Close the current mutable file, and stop background work, if there is any. Called when the platform wiring is
+     * stopped. The writer must not be used after this method is called.
+     */
+    void closeCurrentMutableFile();
 }
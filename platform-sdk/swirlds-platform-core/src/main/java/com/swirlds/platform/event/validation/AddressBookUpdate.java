@@ -18,11 +18,13 @@ package com.swirlds.platform.event.validation;
 
 import com.swirlds.platform.system.address.AddressBook;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A record representing an update to the address book.
  *
- * @param previousAddressBook the previous address book
+ * @param previousAddressBook the previous address book, may be null
  * @param currentAddressBook  the new current address book
  */
-public record AddressBookUpdate(@NonNull AddressBook previousAddressBook, @NonNull AddressBook currentAddressBook) {}
+public record AddressBookUpdate(
+        @Nullable AddressBook previousAddressBook, @NonNull AddressBook currentAddressBook) {}
@@ -17,9 +17,13 @@
 package com.swirlds.platform.event.validation;
 
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+import static com.swirlds.metrics.api.FloatFormats.FORMAT_10_2;
+import static com.swirlds.metrics.api.FloatFormats.FORMAT_16_2;
 import static com.swirlds.metrics.api.Metrics.PLATFORM_CATEGORY;
 
 import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.metrics.RunningAverageMetric;
+import com.swirlds.common.metrics.SpeedometerMetric;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.utility.throttle.RateLimitedLogger;
 import com.swirlds.metrics.api.LongAccumulator;
@@ -35,11 +39,15 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.security.PublicKey;
 import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Default implementation for verifying event signatures
+ * Default implementation for verifying event signatures.
+ * <p>
+ * This class is thread safe. Signature verification is the most expensive step of event intake, so the validator
+ * may run on a concurrent scheduler, verifying many events in parallel.
  */
 public class DefaultEventSignatureValidator implements EventSignatureValidator {
     private static final Logger logger = LogManager.getLogger(DefaultEventSignatureValidator.class);
@@ -55,14 +63,10 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
     private final SignatureVerifier signatureVerifier;
 
     /**
-     * The previous address book. May be null.
+     * The previous and the current address books. The previous address book may be null. Both books are kept in a
+     * single object, so that concurrent validations never see a mix of old and new books.
      */
-    private AddressBook previousAddressBook;
-
-    /**
-     * The current address book.
-     */
-    private AddressBook currentAddressBook;
+    private volatile AddressBookUpdate addressBooks;
 
     /**
      * The current software version.
@@ -72,7 +76,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
     /**
      * The current event window.
      */
-    private EventWindow eventWindow;
+    private volatile EventWindow eventWindow;
 
     /**
      * Keeps track of the number of events in the intake pipeline from each peer
@@ -90,6 +94,23 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             .withUnit("events");
     private final LongAccumulator validationFailedAccumulator;
 
+    private static final SpeedometerMetric.Config VERIFIED_PER_SECOND_CONFIG = new SpeedometerMetric.Config(
+                    PLATFORM_CATEGORY, "eventSignaturesVerifiedPerSecond")
+            .withDescription("Number of event signatures verified per second")
+            .withFormat(FORMAT_16_2);
+    private final SpeedometerMetric verifiedPerSecond;
+
+    private static final RunningAverageMetric.Config VERIFICATIONS_IN_FLIGHT_CONFIG = new RunningAverageMetric.Config(
+                    PLATFORM_CATEGORY, "eventSignatureVerificationsInFlight")
+            .withDescription("Average number of event signatures being verified in parallel")
+            .withFormat(FORMAT_10_2);
+    private final RunningAverageMetric verificationsInFlightMetric;
+
+    /**
+     * The number of signature verifications currently in progress
+     */
+    private final AtomicInteger verificationsInFlight = new AtomicInteger();
+
     /**
      * Constructor
      *
@@ -110,13 +131,14 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
 
         this.signatureVerifier = Objects.requireNonNull(signatureVerifier);
         this.currentSoftwareVersion = Objects.requireNonNull(currentSoftwareVersion);
-        this.previousAddressBook = previousAddressBook;
-        this.currentAddressBook = Objects.requireNonNull(currentAddressBook);
+        this.addressBooks = new AddressBookUpdate(previousAddressBook, Objects.requireNonNull(currentAddressBook));
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
 
         this.rateLimitedLogger = new RateLimitedLogger(logger, platformContext.getTime(), MINIMUM_LOG_PERIOD);
 
         this.validationFailedAccumulator = platformContext.getMetrics().getOrCreate(VALIDATION_FAILED_CONFIG);
+        this.verifiedPerSecond = platformContext.getMetrics().getOrCreate(VERIFIED_PER_SECOND_CONFIG);
+        this.verificationsInFlightMetric = platformContext.getMetrics().getOrCreate(VERIFICATIONS_IN_FLIGHT_CONFIG);
 
         eventWindow = EventWindow.getGenesisEventWindow(platformContext
                 .getConfiguration()
@@ -130,11 +152,13 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      * <p>
      * Logs an error and returns null if an applicable address book cannot be selected
      *
-     * @param event the event to be validated
+     * @param event        the event to be validated
+     * @param addressBooks the previous and the current address books
      * @return the applicable address book, or null if an applicable address book cannot be selected
      */
     @Nullable
-    private AddressBook determineApplicableAddressBook(@NonNull final GossipEvent event) {
+    private AddressBook determineApplicableAddressBook(
+            @NonNull final GossipEvent event, @NonNull final AddressBookUpdate addressBooks) {
         final SoftwareVersion eventVersion = event.getSoftwareVersion();
 
         final int softwareComparison = currentSoftwareVersion.compareTo(eventVersion);
@@ -148,7 +172,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             return null;
         } else if (softwareComparison > 0) {
             // current software version is greater than event software version
-            if (previousAddressBook == null) {
+            if (addressBooks.previousAddressBook() == null) {
                 rateLimitedLogger.error(
                         EXCEPTION.getMarker(),
                         "Cannot validate events for software version {} that is less than the current software version {} without a previous address book",
@@ -156,10 +180,10 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
                         currentSoftwareVersion);
                 return null;
             }
-            return previousAddressBook;
+            return addressBooks.previousAddressBook();
         } else {
             // current software version is equal to event software version
-            return currentAddressBook;
+            return addressBooks.currentAddressBook();
         }
     }
 
@@ -170,7 +194,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      * @return true if the event has a valid signature, otherwise false
      */
     private boolean isSignatureValid(@NonNull final GossipEvent event) {
-        final AddressBook applicableAddressBook = determineApplicableAddressBook(event);
+        final AddressBook applicableAddressBook = determineApplicableAddressBook(event, addressBooks);
         if (applicableAddressBook == null) {
             // this occurrence was already logged while attempting to determine the applicable address book
             return false;
@@ -195,8 +219,15 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             return false;
         }
 
-        final boolean isSignatureValid =
-                signatureVerifier.verifySignature(event.getHash().getBytes(), event.getSignature(), publicKey);
+        verificationsInFlightMetric.update(verificationsInFlight.incrementAndGet());
+        final boolean isSignatureValid;
+        try {
+            isSignatureValid =
+                    signatureVerifier.verifySignature(event.getHash().getBytes(), event.getSignature(), publicKey);
+        } finally {
+            verificationsInFlight.decrementAndGet();
+        }
+        verifiedPerSecond.cycle();
 
         if (!isSignatureValid) {
             rateLimitedLogger.error(
@@ -245,7 +276,6 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      */
     @Override
     public void updateAddressBooks(@NonNull final AddressBookUpdate addressBookUpdate) {
-        this.previousAddressBook = addressBookUpdate.previousAddressBook();
-        this.currentAddressBook = addressBookUpdate.currentAddressBook();
+        this.addressBooks = Objects.requireNonNull(addressBookUpdate);
     }
 }
@@ -23,7 +23,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
- * Verifies event signatures
+ * Verifies event signatures.
+ * <p>
+ * By default, the validator runs on a concurrent scheduler, so implementations must be thread safe.
  */
 public interface EventSignatureValidator {
 
@@ -60,6 +60,7 @@ import com.swirlds.platform.network.PeerInfo;
 import com.swirlds.platform.network.communication.NegotiationProtocols;
 import com.swirlds.platform.network.communication.ProtocolNegotiatorThread;
 import com.swirlds.platform.network.communication.handshake.VersionCompareHandshake;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator;
 import com.swirlds.platform.network.connectivity.ConnectionServer;
 import com.swirlds.platform.network.connectivity.InboundConnectionHandler;
 import com.swirlds.platform.network.connectivity.OutboundConnectionCreator;
@@ -202,9 +203,11 @@ public class SyncGossip implements ConnectionTracker, Gossip {
         final NetworkPeerIdentifier peerIdentifier = new NetworkPeerIdentifier(platformContext, peers);
         final SocketFactory socketFactory =
                 NetworkUtils.createSocketFactory(selfId, peers, keysAndCerts, platformContext.getConfiguration());
+        // negotiates the compression of new connections, shared so that all connections use one dictionary trainer
+        final GossipCompressionNegotiator compressionNegotiator = new GossipCompressionNegotiator(platformContext);
         // create an instance that can create new outbound connections
-        final OutboundConnectionCreator connectionCreator =
-                new OutboundConnectionCreator(platformContext, selfId, this, socketFactory, addressBook);
+        final OutboundConnectionCreator connectionCreator = new OutboundConnectionCreator(
+                platformContext, selfId, this, socketFactory, addressBook, compressionNegotiator);
         connectionManagers = new StaticConnectionManagers(topology, connectionCreator);
         final InboundConnectionHandler inboundConnectionHandler = new InboundConnectionHandler(
                 platformContext,
@@ -212,7 +215,8 @@ public class SyncGossip implements ConnectionTracker, Gossip {
                 peerIdentifier,
                 selfId,
                 connectionManagers::newConnection,
-                platformContext.getTime());
+                platformContext.getTime(),
+                compressionNegotiator);
         // allow other members to create connections to me
         final Address address = addressBook.getAddress(selfId);
         final ConnectionServer connectionServer = new ConnectionServer(
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.gossip.shadowgraph;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shadow events grouped by ancient indicator. Buckets are kept in a ring buffer indexed by the offset of the ancient
+ * indicator from the oldest unexpired indicator, so adding an event is an array access and expiring an indicator
+ * drops its whole bucket at once.
+ *
+ * <p>This class is not thread safe. It is only accessed by {@link Shadowgraph} methods that mutate the graph, which
+ * are serialized.
+ */
+final class ShadowEventBuckets {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Bucket ring. Its length is always a power of two.
+     */
+    private List<ShadowEvent>[] ring;
+
+    /**
+     * Index in {@link #ring} of the bucket for {@link #firstIndicator}.
+     */
+    private int head;
+
+    /**
+     * The oldest ancient indicator that may have a bucket.
+     */
+    private long firstIndicator;
+
+    /**
+     * Create an empty set of buckets.
+     *
+     * @param firstIndicator the oldest ancient indicator that may have a bucket
+     */
+    ShadowEventBuckets(final long firstIndicator) {
+        ring = newRing(INITIAL_CAPACITY);
+        this.firstIndicator = firstIndicator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ShadowEvent>[] newRing(final int capacity) {
+        return (List<ShadowEvent>[]) new List[capacity];
+    }
+
+    /**
+     * Drop all buckets and start from the given ancient indicator.
+     *
+     * @param firstIndicator the oldest ancient indicator that may have a bucket
+     */
+    void reset(final long firstIndicator) {
+        Arrays.fill(ring, null);
+        head = 0;
+        this.firstIndicator = firstIndicator;
+    }
+
+    /**
+     * Add a shadow event to the bucket for the given ancient indicator.
+     *
+     * @param ancientIndicator the ancient indicator of the event, must not be less than the oldest indicator
+     * @param shadow           the shadow event to add
+     */
+    void add(final long ancientIndicator, @NonNull final ShadowEvent shadow) {
+        final long offset = ancientIndicator - firstIndicator;
+        if (offset < 0) {
+            throw new IllegalArgumentException("Ancient indicator " + ancientIndicator
+                    + " is less than the oldest indicator " + firstIndicator);
+        }
+        if (offset >= ring.length) {
+            grow(offset);
+        }
+        final int index = (int) ((head + offset) & (ring.length - 1));
+        List<ShadowEvent> bucket = ring[index];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            ring[index] = bucket;
+        }
+        bucket.add(shadow);
+    }
+
+    /**
+     * Get the bucket for the given ancient indicator.
+     *
+     * @param ancientIndicator the ancient indicator
+     * @return the shadow events with this indicator, or {@code null} if there are none
+     */
+    @Nullable
+    List<ShadowEvent> get(final long ancientIndicator) {
+        final long offset = ancientIndicator - firstIndicator;
+        if (offset < 0 || offset >= ring.length) {
+            return null;
+        }
+        return ring[(int) ((head + offset) & (ring.length - 1))];
+    }
+
+    /**
+     * Remove the bucket for the oldest ancient indicator, and move on to the next indicator.
+     *
+     * @return the removed bucket, or {@code null} if there were no events with the oldest indicator
+     */
+    @Nullable
+    List<ShadowEvent> removeOldest() {
+        final List<ShadowEvent> bucket = ring[head];
+        ring[head] = null;
+        head = (head + 1) & (ring.length - 1);
+        firstIndicator++;
+        return bucket;
+    }
+
+    /**
+     * Grow the ring so that it can hold a bucket at the given offset from the oldest indicator.
+     */
+    private void grow(final long offset) {
+        if (offset >= (1 << 30)) {
+            throw new IllegalStateException("Ancient indicator range is too large: " + offset);
+        }
+        final int capacity = Integer.highestOneBit((int) offset) << 1;
+        final List<ShadowEvent>[] newRing = newRing(capacity);
+        for (int i = 0; i < ring.length; i++) {
+            newRing[i] = ring[(head + i) & (ring.length - 1)];
+        }
+        ring = newRing;
+        head = 0;
+    }
+}
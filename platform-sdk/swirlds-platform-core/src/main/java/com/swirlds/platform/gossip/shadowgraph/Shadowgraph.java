@@ -34,16 +34,14 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -52,6 +50,11 @@ import org.apache.logging.log4j.Logger;
 /**
  * The primary purpose of the shadowgraph is to unlink events when it is safe to do so. In order to decide when it is
  * safe to unlink an event, it allows for batches of events (by ancient indicator) to be reserved.
+ *
+ * <p>Methods that modify the graph, or the reservation list, are synchronized. Read methods used by sync sessions,
+ * such as {@link #getTips()}, {@link #shadows(List)} and {@link #findAncestors(Iterable, Predicate)}, don't take
+ * the lock, so many concurrent sync sessions don't block each other or event intake. Shadow events are looked up
+ * in a concurrent map, and tips are published as an immutable snapshot after every change.</p>
  */
 public class Shadowgraph implements Clearable {
 
@@ -63,24 +66,29 @@ public class Shadowgraph implements Clearable {
     public static final int NO_RESERVATION = -1;
 
     /**
-     * The shadowgraph represented in a map from has to shadow event.
+     * The shadowgraph represented in a map from hash to shadow event. Read without synchronization.
      */
-    private final HashMap<Hash, ShadowEvent> hashToShadowEvent;
+    private final ConcurrentHashMap<Hash, ShadowEvent> hashToShadowEvent;
 
     /**
-     * Map from ancient indicator to all shadow events with that ancient indicator.
+     * All shadow events, bucketed by ancient indicator.
      */
-    private final Map<Long /* ancient indicator */, Set<ShadowEvent>> indicatorToShadowEvent;
+    private final ShadowEventBuckets indicatorToShadowEvent;
 
     /**
      * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children)
      */
     private final HashSet<ShadowEvent> tips;
 
+    /**
+     * An immutable copy of {@link #tips}, published after every change to the tip set.
+     */
+    private volatile List<ShadowEvent> tipsSnapshot = List.of();
+
     /**
      * The oldest ancient indicator that has not yet been expired
      */
-    private long oldestUnexpiredIndicator;
+    private volatile long oldestUnexpiredIndicator;
 
     /**
      * The list of all currently reserved indicators and their number of reservations.
@@ -105,7 +113,7 @@ public class Shadowgraph implements Clearable {
     /**
      * The most recent event window we know about.
      */
-    private EventWindow eventWindow;
+    private volatile EventWindow eventWindow;
 
     /**
      * For each peer, track the number of events in the intake pipeline prior to the shadowgraph.
@@ -133,8 +141,8 @@ public class Shadowgraph implements Clearable {
         this.numberOfNodes = addressBook.getSize();
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
         tips = new HashSet<>();
-        hashToShadowEvent = new HashMap<>();
-        indicatorToShadowEvent = new HashMap<>();
+        hashToShadowEvent = new ConcurrentHashMap<>();
+        indicatorToShadowEvent = new ShadowEventBuckets(ancientMode.getGenesisIndicator());
         reservationList = new LinkedList<>();
     }
 
@@ -146,6 +154,7 @@ public class Shadowgraph implements Clearable {
     private void startWithEventWindow(@NonNull final EventWindow eventWindow) {
         this.eventWindow = eventWindow;
         oldestUnexpiredIndicator = eventWindow.getExpiredThreshold();
+        indicatorToShadowEvent.reset(oldestUnexpiredIndicator);
         logger.info(
                 STARTUP.getMarker(),
                 "Shadowgraph starting from expiration threshold {}",
@@ -160,8 +169,9 @@ public class Shadowgraph implements Clearable {
         oldestUnexpiredIndicator = ancientMode.getGenesisIndicator();
         disconnectShadowEvents();
         tips.clear();
+        tipsSnapshot = List.of();
         hashToShadowEvent.clear();
-        indicatorToShadowEvent.clear();
+        indicatorToShadowEvent.reset(oldestUnexpiredIndicator);
         reservationList.clear();
     }
 
@@ -216,7 +226,7 @@ public class Shadowgraph implements Clearable {
      * Get the latest event window known to the shadowgraph.
      */
     @NonNull
-    public synchronized EventWindow getEventWindow() {
+    public EventWindow getEventWindow() {
         return eventWindow;
     }
 
@@ -228,7 +238,7 @@ public class Shadowgraph implements Clearable {
      * @deprecated still used by tests, planned for removal. Do not add new uses.
      */
     @Deprecated(forRemoval = true)
-    public synchronized boolean isHashInGraph(final Hash hash) {
+    public boolean isHashInGraph(final Hash hash) {
         return hashToShadowEvent.containsKey(hash);
     }
 
@@ -241,11 +251,12 @@ public class Shadowgraph implements Clearable {
      * <ol>
      *     <li>this method does not modify any data</li>
      *     <li>adding events to the the graph does not affect ancestors</li>
-     *     <li>checks for expired parent events are atomic</li>
+     *     <li>checks for expired parent events read a volatile threshold</li>
+     *     <li>expiring an event only clears its parent links, which stops the search early</li>
      * </ol>
-     * <p>Note: This method is always accessed after a call to a synchronized {@link Shadowgraph} method, like
-     * {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for all
-     * variables from memory, including {@link ShadowEvent} links.</p>
+     * <p>Note: The provided events are always obtained from {@link #getTips()} or {@link #shadows(List)}. Both
+     * read a volatile field or a concurrent map, which safely publishes the shadow events and their parent
+     * links to the calling thread.</p>
      *
      * @param events    the event to find ancestors of
      * @param predicate determines whether or not to add the ancestor to the return list
@@ -328,10 +339,15 @@ public class Shadowgraph implements Clearable {
             return result;
         }
         for (long indicator = lowerBound; indicator < upperBound; indicator++) {
-            indicatorToShadowEvent.getOrDefault(indicator, Collections.emptySet()).stream()
-                    .map(ShadowEvent::getEvent)
-                    .filter(predicate)
-                    .forEach(result::add);
+            final List<ShadowEvent> bucket = indicatorToShadowEvent.get(indicator);
+            if (bucket == null) {
+                continue;
+            }
+            for (final ShadowEvent shadow : bucket) {
+                if (predicate.test(shadow.getEvent())) {
+                    result.add(shadow.getEvent());
+                }
+            }
         }
         return result;
     }
@@ -386,18 +402,27 @@ public class Shadowgraph implements Clearable {
 
         final long minimumIndicatorToKeep = Math.min(eventWindow.getExpiredThreshold(), oldestReservedIndicator);
 
+        boolean tipsChanged = false;
         while (oldestUnexpiredIndicator < minimumIndicatorToKeep) {
-            final Set<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.remove(oldestUnexpiredIndicator);
+            final long indicatorToExpire = oldestUnexpiredIndicator;
+            // Raise the threshold first, so concurrent readers treat events in the bucket as expired
+            // before their parent links are cleared
+            oldestUnexpiredIndicator = indicatorToExpire + 1;
+            final List<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.removeOldest();
             // shadowsToExpire should never be null, but check just in case.
             if (shadowsToExpire == null) {
                 logger.error(
                         EXCEPTION.getMarker(),
                         "There were no events with ancient indicator {} to expire.",
-                        oldestUnexpiredIndicator);
+                        indicatorToExpire);
             } else {
-                shadowsToExpire.forEach(this::expire);
+                for (final ShadowEvent shadow : shadowsToExpire) {
+                    tipsChanged |= expire(shadow);
+                }
             }
-            oldestUnexpiredIndicator++;
+        }
+        if (tipsChanged) {
+            publishTips();
         }
     }
 
@@ -437,14 +462,23 @@ public class Shadowgraph implements Clearable {
      * Expires a single {@link ShadowEvent} from the shadowgraph.
      *
      * @param shadow the shadow event to expire
+     * @return true if the shadow event was a tip
      */
-    private void expire(final ShadowEvent shadow) {
+    private boolean expire(final ShadowEvent shadow) {
         // Remove the shadow from the shadowgraph
         hashToShadowEvent.remove(shadow.getEventBaseHash());
         // Remove references to parent shadows so this event gets garbage collected
         shadow.disconnect();
         shadow.getEvent().clear();
-        tips.remove(shadow);
+        return tips.remove(shadow);
+    }
+
+    /**
+     * Publish the current tip set to readers of {@link #getTips()}. Must be called after every change to the
+     * tip set.
+     */
+    private void publishTips() {
+        tipsSnapshot = List.copyOf(tips);
     }
 
     /**
@@ -453,7 +487,7 @@ public class Shadowgraph implements Clearable {
      * @param e The event.
      * @return the shadow event that references an event, or null is {@code e} is null
      */
-    public synchronized ShadowEvent shadow(final EventImpl e) {
+    public ShadowEvent shadow(final EventImpl e) {
         if (e == null) {
             return null;
         }
@@ -467,7 +501,7 @@ public class Shadowgraph implements Clearable {
      * @param hashes The event hashes to get shadow events for
      * @return the shadow events that reference the events with the given hashes
      */
-    public synchronized List<ShadowEvent> shadows(final List<Hash> hashes) {
+    public List<ShadowEvent> shadows(final List<Hash> hashes) {
         Objects.requireNonNull(hashes);
         final List<ShadowEvent> shadows = new ArrayList<>(hashes.size());
         for (final Hash hash : hashes) {
@@ -483,7 +517,7 @@ public class Shadowgraph implements Clearable {
      * @return the hashgraph event, if there is one in {@code this} shadowgraph, else `null`
      */
     @Nullable
-    public synchronized EventImpl hashgraphEvent(final Hash h) {
+    public EventImpl hashgraphEvent(final Hash h) {
         final ShadowEvent shadow = shadow(h);
         if (shadow == null) {
             return null;
@@ -494,13 +528,13 @@ public class Shadowgraph implements Clearable {
 
     /**
      * Returns a copy of the tips at the time of invocation. The returned list is not affected by changes made to the
-     * tip set.
+     * tip set. This method doesn't block, it returns the tip set published by the last completed change.
      *
-     * @return an unmodifiable copy of the tips
+     * @return a copy of the tips
      */
     @NonNull
-    public synchronized List<ShadowEvent> getTips() {
-        return new ArrayList<>(tips);
+    public List<ShadowEvent> getTips() {
+        return new ArrayList<>(tipsSnapshot);
     }
 
     /**
@@ -524,6 +558,7 @@ public class Shadowgraph implements Clearable {
                 final ShadowEvent s = insert(e);
                 tips.add(s);
                 tips.remove(s.getSelfParent());
+                publishTips();
 
                 if (numberOfNodes > 0 && tips.size() > numberOfNodes && tips.size() > tipsBefore) {
                     // It is possible that we have more tips than nodes even if there is no fork.
@@ -586,7 +621,7 @@ public class Shadowgraph implements Clearable {
      * @param h the hash of the event
      * @return the event that has the hash provided, or null if none exists
      */
-    public synchronized EventImpl getEvent(final Hash h) {
+    public EventImpl getEvent(final Hash h) {
         final ShadowEvent shadowEvent = hashToShadowEvent.get(h);
         return shadowEvent == null ? null : shadowEvent.getEvent();
     }
@@ -604,14 +639,10 @@ public class Shadowgraph implements Clearable {
 
         final ShadowEvent se = new ShadowEvent(e, sp, op);
 
+        // Add to the bucket first, the map publishes the event to readers
+        indicatorToShadowEvent.add(e.getBaseEvent().getAncientIndicator(ancientMode), se);
         hashToShadowEvent.put(se.getEventBaseHash(), se);
 
-        final long ancientIndicator = e.getBaseEvent().getAncientIndicator(ancientMode);
-        if (!indicatorToShadowEvent.containsKey(ancientIndicator)) {
-            indicatorToShadowEvent.put(ancientIndicator, new HashSet<>());
-        }
-        indicatorToShadowEvent.get(ancientIndicator).add(se);
-
         return se;
     }
 
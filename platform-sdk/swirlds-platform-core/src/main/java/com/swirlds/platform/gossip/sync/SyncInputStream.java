@@ -24,13 +24,15 @@ import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.network.SocketConfig;
+import com.swirlds.platform.network.compression.GossipCompression;
+import com.swirlds.platform.network.compression.MeteredInflaterInputStream;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
 
 public class SyncInputStream extends SerializableDataInputStream {
 
@@ -38,38 +40,81 @@ public class SyncInputStream extends SerializableDataInputStream {
     private static final int MAX_TIPS_PER_NODE = 1000;
 
     private final CountingStreamExtension syncByteCounter;
+    private final MeteredInflaterInputStream decompressionStream;
 
-    private SyncInputStream(InputStream in, CountingStreamExtension syncByteCounter) {
+    private SyncInputStream(
+            @NonNull final InputStream in,
+            @NonNull final CountingStreamExtension syncByteCounter,
+            @Nullable final MeteredInflaterInputStream decompressionStream) {
         super(in);
         this.syncByteCounter = syncByteCounter;
+        this.decompressionStream = decompressionStream;
     }
 
     public static SyncInputStream createSyncInputStream(
             @NonNull final PlatformContext platformContext, @NonNull final InputStream in, final int bufferSize) {
 
-        final CountingStreamExtension syncCounter = new CountingStreamExtension();
-
         final boolean compress = platformContext
                 .getConfiguration()
                 .getConfigData(SocketConfig.class)
                 .gzipCompression();
 
+        return createSyncInputStream(
+                platformContext, in, bufferSize, compress ? GossipCompression.DEFLATE : GossipCompression.NONE, null);
+    }
+
+    /**
+     * Create a sync input stream that decompresses with the given codec.
+     *
+     * @param platformContext  the platform context
+     * @param in               the stream to read from
+     * @param bufferSize       the size of the buffers
+     * @param compression      the codec the peer compresses with
+     * @param presetDictionary the dictionary the peer compresses with, only used if the codec uses a dictionary
+     * @return the stream
+     */
+    public static SyncInputStream createSyncInputStream(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final InputStream in,
+            final int bufferSize,
+            @NonNull final GossipCompression compression,
+            @Nullable final byte[] presetDictionary) {
+
+        final CountingStreamExtension syncCounter = new CountingStreamExtension();
+
         final InputStream meteredStream = extendInputStream(in, syncCounter);
 
         final InputStream wrappedStream;
-        if (compress) {
-            wrappedStream = new InflaterInputStream(meteredStream, new Inflater(true), bufferSize);
-        } else {
+        final MeteredInflaterInputStream decompressionStream;
+        if (compression == GossipCompression.NONE) {
+            decompressionStream = null;
             wrappedStream = new BufferedInputStream(meteredStream, bufferSize);
+        } else {
+            final Inflater inflater = new Inflater(true);
+            if (compression.usesDictionary() && presetDictionary != null && presetDictionary.length > 0) {
+                inflater.setDictionary(presetDictionary);
+            }
+            decompressionStream = new MeteredInflaterInputStream(meteredStream, inflater, bufferSize);
+            // buffer behind the decompressor, so it is called with large chunks instead of single fields
+            wrappedStream = new BufferedInputStream(decompressionStream, bufferSize);
         }
 
-        return new SyncInputStream(wrappedStream, syncCounter);
+        return new SyncInputStream(wrappedStream, syncCounter, decompressionStream);
     }
 
     public CountingStreamExtension getSyncByteCounter() {
         return syncByteCounter;
     }
 
+    /**
+     * Get the time spent decompressing since the last call, and reset it.
+     *
+     * @return the time spent decompressing, in nanoseconds, or 0 if this stream is not compressed
+     */
+    public long getAndResetDecompressionNanos() {
+        return decompressionStream == null ? 0 : decompressionStream.getAndResetDecompressionNanos();
+    }
+
     /**
      * Read the other node's tip hashes
      *
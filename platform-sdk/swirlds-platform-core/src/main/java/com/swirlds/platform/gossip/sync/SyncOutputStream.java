@@ -24,7 +24,11 @@ import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.platform.internal.EventImpl;
 import com.swirlds.platform.network.SocketConfig;
+import com.swirlds.platform.network.compression.GossipCompression;
+import com.swirlds.platform.network.compression.GossipCompressionDictionary;
+import com.swirlds.platform.network.compression.MeteredDeflaterOutputStream;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -32,43 +36,92 @@ import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 
 public class SyncOutputStream extends SerializableDataOutputStream {
     private final CountingStreamExtension syncByteCounter;
     private final CountingStreamExtension connectionByteCounter;
     private final AtomicReference<Instant> requestSent;
+    private final MeteredDeflaterOutputStream compressionStream;
+    private final GossipCompressionDictionary dictionary;
 
     protected SyncOutputStream(
             OutputStream out, CountingStreamExtension syncByteCounter, CountingStreamExtension connectionByteCounter) {
+        this(out, syncByteCounter, connectionByteCounter, null, null);
+    }
+
+    private SyncOutputStream(
+            @NonNull final OutputStream out,
+            @NonNull final CountingStreamExtension syncByteCounter,
+            @NonNull final CountingStreamExtension connectionByteCounter,
+            @Nullable final MeteredDeflaterOutputStream compressionStream,
+            @Nullable final GossipCompressionDictionary dictionary) {
         super(out);
         this.syncByteCounter = syncByteCounter;
         this.connectionByteCounter = connectionByteCounter;
         this.requestSent = new AtomicReference<>(null);
+        this.compressionStream = compressionStream;
+        this.dictionary = dictionary;
     }
 
     public static SyncOutputStream createSyncOutputStream(
             @NonNull final PlatformContext platformContext, @NonNull final OutputStream out, final int bufferSize) {
-        CountingStreamExtension syncByteCounter = new CountingStreamExtension();
-        CountingStreamExtension connectionByteCounter = new CountingStreamExtension();
 
         final boolean compress = platformContext
                 .getConfiguration()
                 .getConfigData(SocketConfig.class)
                 .gzipCompression();
 
+        return createSyncOutputStream(
+                platformContext,
+                out,
+                bufferSize,
+                compress ? GossipCompression.DEFLATE : GossipCompression.NONE,
+                null,
+                null);
+    }
+
+    /**
+     * Create a sync output stream that compresses with the given codec.
+     *
+     * @param platformContext  the platform context
+     * @param out              the stream to write to
+     * @param bufferSize       the size of the buffers
+     * @param compression      the codec to compress with
+     * @param presetDictionary the dictionary to compress with, only used if the codec uses a dictionary. The peer
+     *                         must decompress with the same dictionary.
+     * @param dictionary       if not null, events written to this stream are sampled to train future dictionaries
+     * @return the stream
+     */
+    public static SyncOutputStream createSyncOutputStream(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final OutputStream out,
+            final int bufferSize,
+            @NonNull final GossipCompression compression,
+            @Nullable final byte[] presetDictionary,
+            @Nullable final GossipCompressionDictionary dictionary) {
+        CountingStreamExtension syncByteCounter = new CountingStreamExtension();
+        CountingStreamExtension connectionByteCounter = new CountingStreamExtension();
+
         final OutputStream meteredStream = extendOutputStream(out, connectionByteCounter);
 
         final OutputStream wrappedStream;
-        if (compress) {
-            wrappedStream = new DeflaterOutputStream(
-                    meteredStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true), bufferSize, true);
-        } else {
+        final MeteredDeflaterOutputStream compressionStream;
+        if (compression == GossipCompression.NONE) {
+            compressionStream = null;
             wrappedStream = new BufferedOutputStream(meteredStream, bufferSize);
+        } else {
+            final Deflater deflater = new Deflater(compression.getLevel(), true);
+            if (compression.usesDictionary() && presetDictionary != null && presetDictionary.length > 0) {
+                deflater.setDictionary(presetDictionary);
+            }
+            compressionStream = new MeteredDeflaterOutputStream(meteredStream, deflater, bufferSize);
+            // buffer in front of the compressor, so it is called with large chunks instead of single fields
+            wrappedStream = new BufferedOutputStream(compressionStream, bufferSize);
         }
 
         // we write the data to the buffer first, for efficiency
-        return new SyncOutputStream(wrappedStream, syncByteCounter, connectionByteCounter);
+        return new SyncOutputStream(
+                wrappedStream, syncByteCounter, connectionByteCounter, compressionStream, dictionary);
     }
 
     public CountingStreamExtension getSyncByteCounter() {
@@ -79,6 +132,31 @@ public class SyncOutputStream extends SerializableDataOutputStream {
         return connectionByteCounter;
     }
 
+    /**
+     * @return true if data written to this stream is compressed
+     */
+    public boolean isCompressed() {
+        return compressionStream != null;
+    }
+
+    /**
+     * Get the number of bytes passed to the compressor since the last call, and reset the count.
+     *
+     * @return the number of bytes before compression, or 0 if this stream is not compressed
+     */
+    public long getAndResetUncompressedByteCount() {
+        return compressionStream == null ? 0 : compressionStream.getAndResetUncompressedBytes();
+    }
+
+    /**
+     * Get the time spent compressing since the last call, and reset it.
+     *
+     * @return the time spent compressing, in nanoseconds, or 0 if this stream is not compressed
+     */
+    public long getAndResetCompressionNanos() {
+        return compressionStream == null ? 0 : compressionStream.getAndResetCompressionNanos();
+    }
+
     /**
      * Write to the {@link SyncOutputStream} the hashes of the tip events from this node's shadow graph
      *
@@ -96,5 +174,8 @@ public class SyncOutputStream extends SerializableDataOutputStream {
      */
     public void writeEventData(final EventImpl event) throws IOException {
         writeSerializable(event.getBaseEvent(), false);
+        if (dictionary != null) {
+            dictionary.sample(event.getBaseEvent());
+        }
     }
 }
@@ -23,6 +23,7 @@ import com.swirlds.common.metrics.extensions.CountPerSecond;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.units.TimeUnit;
 import com.swirlds.metrics.api.Counter;
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.LongAccumulator;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.platform.system.address.Address;
@@ -80,6 +81,34 @@ public class ReconnectMetrics {
             .withUnit(TimeUnit.UNIT_SECONDS.getAbbreviation());
     private final LongAccumulator receiverReconnectDurationSeconds;
 
+    private static final DoubleGauge.Config SENDER_RAW_THROUGHPUT_CONFIG = new DoubleGauge.Config(
+                    RECONNECT_CATEGORY, "senderRawThroughputMBps")
+            .withUnit("MB/s")
+            .withDescription("uncompressed synchronization throughput of the last reconnect as a sender, "
+                    + "when the stream is compressed");
+    private final DoubleGauge senderRawThroughput;
+
+    private static final DoubleGauge.Config SENDER_COMPRESSED_THROUGHPUT_CONFIG = new DoubleGauge.Config(
+                    RECONNECT_CATEGORY, "senderCompressedThroughputMBps")
+            .withUnit("MB/s")
+            .withDescription("compressed synchronization throughput of the last reconnect as a sender, "
+                    + "when the stream is compressed");
+    private final DoubleGauge senderCompressedThroughput;
+
+    private static final DoubleGauge.Config RECEIVER_RAW_THROUGHPUT_CONFIG = new DoubleGauge.Config(
+                    RECONNECT_CATEGORY, "receiverRawThroughputMBps")
+            .withUnit("MB/s")
+            .withDescription("uncompressed synchronization throughput of the last reconnect as a receiver, "
+                    + "when the stream is compressed");
+    private final DoubleGauge receiverRawThroughput;
+
+    private static final DoubleGauge.Config RECEIVER_COMPRESSED_THROUGHPUT_CONFIG = new DoubleGauge.Config(
+                    RECONNECT_CATEGORY, "receiverCompressedThroughputMBps")
+            .withUnit("MB/s")
+            .withDescription("compressed synchronization throughput of the last reconnect as a receiver, "
+                    + "when the stream is compressed");
+    private final DoubleGauge receiverCompressedThroughput;
+
     // Assuming that reconnect is a "singleton" operation (a single node cannot teach multiple learners
     // simultaneously, and a single node cannot learn from multiple teachers at once), we maintain
     // state variables here to measure the duration of reconnect operations.
@@ -103,6 +132,10 @@ public class ReconnectMetrics {
         receiverEndTimes = metrics.getOrCreate(RECEIVER_END_TIMES_CONFIG);
         senderReconnectDurationSeconds = metrics.getOrCreate(SENDER_DURATION_CONFIG);
         receiverReconnectDurationSeconds = metrics.getOrCreate(RECEIVER_DURATION_CONFIG);
+        senderRawThroughput = metrics.getOrCreate(SENDER_RAW_THROUGHPUT_CONFIG);
+        senderCompressedThroughput = metrics.getOrCreate(SENDER_COMPRESSED_THROUGHPUT_CONFIG);
+        receiverRawThroughput = metrics.getOrCreate(RECEIVER_RAW_THROUGHPUT_CONFIG);
+        receiverCompressedThroughput = metrics.getOrCreate(RECEIVER_COMPRESSED_THROUGHPUT_CONFIG);
 
         for (final Address address : addressBook) {
             final NodeId nodeId = address.getNodeId();
@@ -142,6 +175,41 @@ public class ReconnectMetrics {
                 Duration.ofNanos(System.nanoTime() - receiverStartNanos).toSeconds());
     }
 
+    /**
+     * Records compressed stream throughput of a reconnect as a sender. Does nothing if the stream wasn't compressed.
+     *
+     * @param rawBytes        uncompressed bytes sent
+     * @param compressedBytes compressed bytes sent
+     * @param duration        synchronization duration
+     */
+    public void recordSenderThroughput(
+            final long rawBytes, final long compressedBytes, @NonNull final Duration duration) {
+        if (rawBytes > 0) {
+            senderRawThroughput.set(toMegabytesPerSecond(rawBytes, duration));
+            senderCompressedThroughput.set(toMegabytesPerSecond(compressedBytes, duration));
+        }
+    }
+
+    /**
+     * Records compressed stream throughput of a reconnect as a receiver. Does nothing if the stream wasn't compressed.
+     *
+     * @param rawBytes        uncompressed bytes received
+     * @param compressedBytes compressed bytes received
+     * @param duration        synchronization duration
+     */
+    public void recordReceiverThroughput(
+            final long rawBytes, final long compressedBytes, @NonNull final Duration duration) {
+        if (rawBytes > 0) {
+            receiverRawThroughput.set(toMegabytesPerSecond(rawBytes, duration));
+            receiverCompressedThroughput.set(toMegabytesPerSecond(compressedBytes, duration));
+        }
+    }
+
+    private static double toMegabytesPerSecond(final long bytes, @NonNull final Duration duration) {
+        final double seconds = Math.max(duration.toNanos(), 1) / 1_000_000_000.0;
+        return bytes / seconds / (1024 * 1024);
+    }
+
     /**
      * Records the occurrence of rejecting a reconnect attempt from a peer.
      *
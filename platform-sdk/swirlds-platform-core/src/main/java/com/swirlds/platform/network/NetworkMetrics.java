@@ -55,6 +55,19 @@ public class NetworkMetrics {
             .withDescription("number of times a TLS connections was created")
             .withFormat(FloatFormats.FORMAT_10_0)
             .withHalfLife(0.0);
+    private static final RunningAverageMetric.Config COMPRESSION_RATIO_CONFIG = new RunningAverageMetric.Config(
+                    Metrics.PLATFORM_CATEGORY, "gossipCompressionRatio")
+            .withDescription("bytes before compression divided by bytes after compression, for data sent over "
+                    + "compressed gossip connections")
+            .withFormat(FloatFormats.FORMAT_10_2);
+    private static final SpeedometerMetric.Config COMPRESSION_CPU_CONFIG = new SpeedometerMetric.Config(
+                    Metrics.PLATFORM_CATEGORY, "gossipCompressionMillisPerSec")
+            .withDescription("milliseconds of CPU time spent compressing gossip data per second")
+            .withFormat(FloatFormats.FORMAT_10_2);
+    private static final SpeedometerMetric.Config DECOMPRESSION_CPU_CONFIG = new SpeedometerMetric.Config(
+                    Metrics.PLATFORM_CATEGORY, "gossipDecompressionMillisPerSec")
+            .withDescription("milliseconds of CPU time spent decompressing gossip data per second")
+            .withFormat(FloatFormats.FORMAT_10_2);
 
     /** this node's id */
     private final NodeId selfId;
@@ -73,6 +86,12 @@ public class NetworkMetrics {
     private final SpeedometerMetric bytesPerSecondSent;
     /** the average number of connections created per second */
     private final RunningAverageMetric avgConnsCreated;
+    /** the compression ratio of data sent over compressed connections */
+    private final RunningAverageMetric compressionRatio;
+    /** the time spent compressing gossip data */
+    private final SpeedometerMetric compressionMillisPerSec;
+    /** the time spent decompressing gossip data */
+    private final SpeedometerMetric decompressionMillisPerSec;
     /**
      * Number of disconnects per second per peer in the address book.
      */
@@ -95,6 +114,9 @@ public class NetworkMetrics {
         avgPing = metrics.getOrCreate(AVG_PING_CONFIG);
         bytesPerSecondSent = metrics.getOrCreate(BYTES_PER_SECOND_SENT_CONFIG);
         avgConnsCreated = metrics.getOrCreate(AVG_CONNS_CREATED_CONFIG);
+        compressionRatio = metrics.getOrCreate(COMPRESSION_RATIO_CONFIG);
+        compressionMillisPerSec = metrics.getOrCreate(COMPRESSION_CPU_CONFIG);
+        decompressionMillisPerSec = metrics.getOrCreate(DECOMPRESSION_CPU_CONFIG);
 
         for (final Address address : addressBook) {
             final NodeId nodeId = address.getNodeId();
@@ -169,11 +191,21 @@ public class NetworkMetrics {
         avgPing.update(pingValue);
 
         long totalBytesSent = 0;
+        long uncompressedBytesSent = 0;
+        long compressedBytesSent = 0;
+        long compressionNanos = 0;
+        long decompressionNanos = 0;
         for (final Iterator<Connection> iterator = connections.iterator(); iterator.hasNext(); ) {
             final Connection conn = iterator.next();
             if (conn != null) {
                 final long bytesSent = conn.getDos().getConnectionByteCounter().getAndResetCount();
                 totalBytesSent += bytesSent;
+                if (conn.getDos().isCompressed()) {
+                    uncompressedBytesSent += conn.getDos().getAndResetUncompressedByteCount();
+                    compressedBytesSent += bytesSent;
+                }
+                compressionNanos += conn.getDos().getAndResetCompressionNanos();
+                decompressionNanos += conn.getDis().getAndResetDecompressionNanos();
                 final NodeId otherId = conn.getOtherId();
                 if (avgBytePerSecSent.get(otherId) != null) {
                     avgBytePerSecSent.get(otherId).update(bytesSent);
@@ -184,6 +216,11 @@ public class NetworkMetrics {
             }
         }
         bytesPerSecondSent.update(totalBytesSent);
+        if (compressedBytesSent > 0) {
+            compressionRatio.update((double) uncompressedBytesSent / compressedBytesSent);
+        }
+        compressionMillisPerSec.update(compressionNanos / 1_000_000.0);
+        decompressionMillisPerSec.update(decompressionNanos / 1_000_000.0);
         avgConnsCreated.update(connsCreated.sum());
     }
 
@@ -18,6 +18,7 @@ package com.swirlds.platform.network;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import java.util.List;
 
 /**
  * Configuration for sockets
@@ -34,7 +35,12 @@ import com.swirlds.config.api.ConfigProperty;
  * @param useLoopbackIp              should be set to true when using the internet simulator
  * @param tcpNoDelay                 if true, then Nagel's algorithm is disabled, which helps latency, hurts bandwidth
  *                                   usage
- * @param gzipCompression            whether to use gzip compression over the network
+ * @param gzipCompression            whether to use gzip compression over the network. Only used by connections
+ *                                   where either side has an empty gossipCompression, and only if both sides set it.
+ * @param gossipCompression          the gossip compression codecs this node supports, in order of preference (see
+ *                                   {@link com.swirlds.platform.network.compression.GossipCompression}). The codec
+ *                                   is negotiated for each connection. If either side of a connection has an empty
+ *                                   list, the connection falls back to gzipCompression.
  */
 @ConfigData("socket")
 public record SocketConfig(
@@ -45,4 +51,5 @@ public record SocketConfig(
         @ConfigProperty(defaultValue = "5000") int timeoutServerAcceptConnect,
         @ConfigProperty(defaultValue = "false") boolean useLoopbackIp,
         @ConfigProperty(defaultValue = "true") boolean tcpNoDelay,
-        @ConfigProperty(defaultValue = "false") boolean gzipCompression) {}
+        @ConfigProperty(defaultValue = "false") boolean gzipCompression,
+        @ConfigProperty(defaultValue = "[]") List<String> gossipCompression) {}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.zip.Deflater;
+
+/**
+ * The compression codecs that can be used on a gossip connection. The codec is negotiated per connection, see
+ * {@link GossipCompressionNegotiator}.
+ */
+public enum GossipCompression {
+    /**
+     * No compression.
+     */
+    NONE(0, Deflater.NO_COMPRESSION, false),
+    /**
+     * Deflate with the default compression level. This is the codec used by the legacy
+     * {@code socket.gzipCompression} setting.
+     */
+    DEFLATE(1, Deflater.DEFAULT_COMPRESSION, false),
+    /**
+     * Deflate with the fastest compression level. Compresses less than {@link #DEFLATE}, but uses a fraction of the
+     * CPU time.
+     */
+    DEFLATE_FAST(2, Deflater.BEST_SPEED, false),
+    /**
+     * Deflate with the fastest compression level and a preset dictionary trained from recently sent events. Each side
+     * compresses with its own dictionary, which is sent to the peer when the connection is negotiated.
+     */
+    DEFLATE_DICTIONARY(3, Deflater.BEST_SPEED, true);
+
+    private final int id;
+    private final int level;
+    private final boolean usesDictionary;
+
+    GossipCompression(final int id, final int level, final boolean usesDictionary) {
+        this.id = id;
+        this.level = level;
+        this.usesDictionary = usesDictionary;
+    }
+
+    /**
+     * @return the ID of the codec, as sent over the network
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the {@link Deflater} compression level of the codec
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return true if the codec uses a preset dictionary
+     */
+    public boolean usesDictionary() {
+        return usesDictionary;
+    }
+
+    /**
+     * Get a codec by its network ID.
+     *
+     * @param id the ID of the codec
+     * @return the codec, or null if the ID is unknown (e.g. a codec added in a later version)
+     */
+    @Nullable
+    public static GossipCompression fromId(final int id) {
+        for (final GossipCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        return null;
+    }
+}
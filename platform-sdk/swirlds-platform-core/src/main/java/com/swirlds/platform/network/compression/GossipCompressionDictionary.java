@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.platform.event.GossipEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trains a preset compression dictionary from events sent over gossip. A sample of the events written to sync
+ * streams is kept, and the dictionary is built from the most recent samples. The dictionary of a connection is taken
+ * when the connection is negotiated, and stays the same for the life of the connection.
+ * <p>
+ * This class is thread safe. It is shared by all connections of a node.
+ */
+public class GossipCompressionDictionary {
+
+    /**
+     * The maximum size of a dictionary. Deflate can't reference data further back than this.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * One in this many events is sampled.
+     */
+    private static final int SAMPLE_INTERVAL = 64;
+
+    private final AtomicLong eventCount = new AtomicLong();
+
+    /**
+     * Serialized sampled events, oldest first.
+     */
+    private final Deque<byte[]> samples = new ArrayDeque<>();
+
+    private int sampleBytes = 0;
+
+    /**
+     * Consider an event for the dictionary. Called for every event written to a sync stream, only one in
+     * {@link #SAMPLE_INTERVAL} events is serialized and kept.
+     *
+     * @param event the event being sent
+     */
+    public void sample(@NonNull final GossipEvent event) {
+        if (eventCount.getAndIncrement() % SAMPLE_INTERVAL != 0) {
+            return;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final SerializableDataOutputStream out = new SerializableDataOutputStream(bytes)) {
+            out.writeSerializable(event, false);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("unable to serialize event", e);
+        }
+        addSample(bytes.toByteArray());
+    }
+
+    /**
+     * Add a sample, dropping the oldest samples that are no longer needed to fill a dictionary.
+     *
+     * @param sample the serialized event
+     */
+    private synchronized void addSample(@NonNull final byte[] sample) {
+        samples.addLast(sample);
+        sampleBytes += sample.length;
+        while (sampleBytes - samples.peekFirst().length >= MAX_DICTIONARY_SIZE) {
+            sampleBytes -= samples.removeFirst().length;
+        }
+    }
+
+    /**
+     * Get the current dictionary. The most recent samples are at the end of the dictionary, where deflate references
+     * them with the shortest distances.
+     *
+     * @return the dictionary, empty if no events have been sampled yet
+     */
+    @NonNull
+    public synchronized byte[] getDictionary() {
+        final byte[] dictionary = new byte[Math.min(sampleBytes, MAX_DICTIONARY_SIZE)];
+        int end = dictionary.length;
+        for (final Iterator<byte[]> iterator = samples.descendingIterator(); iterator.hasNext() && end > 0; ) {
+            final byte[] sample = iterator.next();
+            final int length = Math.min(sample.length, end);
+            System.arraycopy(sample, sample.length - length, dictionary, end - length, length);
+            end -= length;
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import static com.swirlds.platform.network.compression.GossipCompressionDictionary.MAX_DICTIONARY_SIZE;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.platform.gossip.sync.SyncInputStream;
+import com.swirlds.platform.gossip.sync.SyncOutputStream;
+import com.swirlds.platform.network.SocketConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Creates the sync streams of new gossip connections, negotiating the compression codec of each connection.
+ * <p>
+ * Both sides of every connection send the codecs they support from {@link SocketConfig#gossipCompression()}, in order
+ * of preference, their {@link SocketConfig#gzipCompression()} flag, and the dictionary they will compress with. The
+ * offer is sent even if it is empty. If both offers are non-empty, the first codec in the outbound side's list that the
+ * inbound side also supports is used in both directions. If either offer is empty, the connection falls back to the
+ * legacy stream, which is compressed with {@link GossipCompression#DEFLATE} only if both sides set the gzip flag. Nodes
+ * with different settings can therefore always communicate, and the settings can be changed one node at a time.
+ * <p>
+ * The negotiation starts with a {@link #NEGOTIATION_VERSION version} byte. The negotiation itself is a one time
+ * protocol change: nodes running a version with it can't connect to nodes running an earlier version, so it has to be
+ * rolled out with a network wide upgrade.
+ */
+public class GossipCompressionNegotiator {
+
+    /**
+     * The maximum number of codecs a peer may offer.
+     */
+    private static final int MAX_OFFERED_CODECS = 64;
+
+    /**
+     * The version of the negotiation data sent by this node. A peer sending another version is rejected.
+     */
+    public static final int NEGOTIATION_VERSION = 1;
+
+    /**
+     * The streams of a new connection.
+     *
+     * @param in  the stream to read from the peer
+     * @param out the stream to write to the peer
+     */
+    public record SyncStreams(@NonNull SyncInputStream in, @NonNull SyncOutputStream out) {}
+
+    /**
+     * The outcome of a negotiation.
+     *
+     * @param compression     the codec used in both directions
+     * @param localDictionary the dictionary this node compresses with, empty if there is none
+     * @param peerDictionary  the dictionary the peer compresses with, empty if there is none
+     */
+    public record NegotiatedCompression(
+            @NonNull GossipCompression compression,
+            @NonNull byte[] localDictionary,
+            @NonNull byte[] peerDictionary) {}
+
+    private final PlatformContext platformContext;
+    private final int bufferSize;
+    private final boolean legacyCompression;
+
+    /**
+     * The codecs this node supports, in order of preference. Empty if only the legacy stream is supported.
+     */
+    private final List<GossipCompression> offered;
+
+    /**
+     * Trains the dictionary this node compresses with. Null if {@link GossipCompression#DEFLATE_DICTIONARY} is not
+     * offered.
+     */
+    private final GossipCompressionDictionary dictionary;
+
+    /**
+     * Constructor.
+     *
+     * @param platformContext the platform context
+     */
+    public GossipCompressionNegotiator(@NonNull final PlatformContext platformContext) {
+        this.platformContext = Objects.requireNonNull(platformContext);
+        final SocketConfig socketConfig = platformContext.getConfiguration().getConfigData(SocketConfig.class);
+        bufferSize = socketConfig.bufferSize();
+        legacyCompression = socketConfig.gzipCompression();
+
+        offered = new ArrayList<>();
+        for (final String name : socketConfig.gossipCompression()) {
+            final GossipCompression compression =
+                    GossipCompression.valueOf(name.trim().toUpperCase(Locale.ROOT));
+            if (!offered.contains(compression)) {
+                offered.add(compression);
+            }
+        }
+        dictionary = offered.contains(GossipCompression.DEFLATE_DICTIONARY) ? new GossipCompressionDictionary() : null;
+    }
+
+    /**
+     * Create the sync streams of a new connection. This exchanges negotiation data with the peer.
+     *
+     * @param socket   the socket of the connection
+     * @param outbound true if this node created the connection, false if the peer did
+     * @return the streams of the connection
+     * @throws IOException if the negotiation fails
+     */
+    @NonNull
+    public SyncStreams createStreams(@NonNull final Socket socket, final boolean outbound) throws IOException {
+        final InputStream in = socket.getInputStream();
+        final OutputStream out = socket.getOutputStream();
+
+        final byte[] localDictionary = dictionary == null ? new byte[0] : dictionary.getDictionary();
+        final NegotiatedCompression negotiated =
+                negotiate(in, out, offered, legacyCompression, localDictionary, outbound);
+        return new SyncStreams(
+                SyncInputStream.createSyncInputStream(
+                        platformContext, in, bufferSize, negotiated.compression(), negotiated.peerDictionary()),
+                SyncOutputStream.createSyncOutputStream(
+                        platformContext,
+                        out,
+                        bufferSize,
+                        negotiated.compression(),
+                        negotiated.localDictionary(),
+                        dictionary));
+    }
+
+    /**
+     * Exchange supported codecs and dictionaries with the peer, and choose the codec of the connection. Both sides
+     * choose the same codec.
+     *
+     * @param in                the stream to read from the peer, must not be buffered
+     * @param out               the stream to write to the peer
+     * @param offered           the codecs this node supports, in order of preference, may be empty
+     * @param legacyCompression true if this node compresses the legacy stream, used if either offer is empty
+     * @param localDictionary   the dictionary this node compresses with, may be empty
+     * @param outbound          true if this node created the connection, false if the peer did
+     * @return the negotiated compression
+     * @throws IOException if the peer sends invalid data, or if a stream throws
+     */
+    @NonNull
+    public static NegotiatedCompression negotiate(
+            @NonNull final InputStream in,
+            @NonNull final OutputStream out,
+            @NonNull final List<GossipCompression> offered,
+            final boolean legacyCompression,
+            @NonNull final byte[] localDictionary,
+            final boolean outbound)
+            throws IOException {
+
+        if (offered.size() > MAX_OFFERED_CODECS) {
+            throw new IllegalArgumentException("too many codecs offered: " + offered.size());
+        }
+        if (localDictionary.length > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("dictionary is too large: " + localDictionary.length);
+        }
+
+        // Both sides write first, the data is small enough to never block on the peer
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeByte(NEGOTIATION_VERSION);
+        dataOut.writeBoolean(legacyCompression);
+        dataOut.writeByte(offered.size());
+        for (final GossipCompression compression : offered) {
+            dataOut.writeByte(compression.getId());
+        }
+        dataOut.writeInt(localDictionary.length);
+        dataOut.write(localDictionary);
+        dataOut.flush();
+
+        final DataInputStream dataIn = new DataInputStream(in);
+        final int peerVersion = dataIn.readUnsignedByte();
+        if (peerVersion != NEGOTIATION_VERSION) {
+            throw new IOException("unsupported compression negotiation version: " + peerVersion);
+        }
+        final boolean peerLegacyCompression = dataIn.readBoolean();
+        final int peerCodecCount = dataIn.readUnsignedByte();
+        if (peerCodecCount > MAX_OFFERED_CODECS) {
+            throw new IOException("peer offered too many codecs: " + peerCodecCount);
+        }
+        final List<GossipCompression> peerOffered = new ArrayList<>(peerCodecCount);
+        for (int i = 0; i < peerCodecCount; i++) {
+            final GossipCompression compression = GossipCompression.fromId(dataIn.readUnsignedByte());
+            // Codecs unknown to this node are ignored
+            if (compression != null) {
+                peerOffered.add(compression);
+            }
+        }
+        final int peerDictionaryLength = dataIn.readInt();
+        if (peerDictionaryLength < 0 || peerDictionaryLength > MAX_DICTIONARY_SIZE) {
+            throw new IOException("invalid peer dictionary length: " + peerDictionaryLength);
+        }
+        final byte[] peerDictionary = new byte[peerDictionaryLength];
+        dataIn.readFully(peerDictionary);
+
+        if (offered.isEmpty() || peerCodecCount == 0) {
+            // At least one side only supports the legacy stream
+            final GossipCompression compression = legacyCompression && peerLegacyCompression
+                    ? GossipCompression.DEFLATE
+                    : GossipCompression.NONE;
+            return new NegotiatedCompression(compression, new byte[0], new byte[0]);
+        }
+
+        final List<GossipCompression> preferred = outbound ? offered : peerOffered;
+        final List<GossipCompression> supported = outbound ? peerOffered : offered;
+        return new NegotiatedCompression(choose(preferred, supported), localDictionary, peerDictionary);
+    }
+
+    /**
+     * Choose the first preferred codec that is supported.
+     */
+    @NonNull
+    private static GossipCompression choose(
+            @NonNull final List<GossipCompression> preferred, @NonNull final List<GossipCompression> supported) {
+        for (final GossipCompression compression : preferred) {
+            if (supported.contains(compression)) {
+                return compression;
+            }
+        }
+        return GossipCompression.NONE;
+    }
+
+    /**
+     * Get the dictionary trainer of this node.
+     *
+     * @return the dictionary trainer, or null if dictionary compression is not offered
+     */
+    @Nullable
+    public GossipCompressionDictionary getDictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A {@link DeflaterOutputStream} that syncs on every flush, and measures the number of bytes compressed and the time
+ * spent compressing them. Time spent writing compressed data to the underlying stream is not included.
+ */
+public class MeteredDeflaterOutputStream extends DeflaterOutputStream {
+
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param out        the stream compressed data is written to
+     * @param deflater   the compressor
+     * @param bufferSize the size of the compressed data buffer
+     */
+    public MeteredDeflaterOutputStream(
+            @NonNull final OutputStream out, @NonNull final Deflater deflater, final int bufferSize) {
+        super(out, deflater, bufferSize, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(@NonNull final byte[] b, final int off, final int len) throws IOException {
+        super.write(b, off, len);
+        uncompressedBytes.add(len);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void deflate() throws IOException {
+        final long start = System.nanoTime();
+        final int len = def.deflate(buf, 0, buf.length);
+        compressionNanos.add(System.nanoTime() - start);
+        if (len > 0) {
+            out.write(buf, 0, len);
+        }
+    }
+
+    /**
+     * Compress all buffered data with {@link Deflater#SYNC_FLUSH}, so the peer can decompress everything written so
+     * far, then flush the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!def.finished()) {
+            int len;
+            do {
+                final long start = System.nanoTime();
+                len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                compressionNanos.add(System.nanoTime() - start);
+                if (len > 0) {
+                    out.write(buf, 0, len);
+                }
+            } while (len == buf.length);
+        }
+        out.flush();
+    }
+
+    /**
+     * Get the number of bytes compressed since the last call, and reset the count.
+     *
+     * @return the number of uncompressed bytes written to this stream
+     */
+    public long getAndResetUncompressedBytes() {
+        return uncompressedBytes.sumThenReset();
+    }
+
+    /**
+     * Get the time spent compressing since the last call, and reset it.
+     *
+     * @return the time spent compressing, in nanoseconds
+     */
+    public long getAndResetCompressionNanos() {
+        return compressionNanos.sumThenReset();
+    }
+}
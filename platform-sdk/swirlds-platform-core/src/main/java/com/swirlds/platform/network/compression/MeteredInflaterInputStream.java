@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An {@link InflaterInputStream} that measures the time spent decompressing. Time spent waiting for compressed data
+ * from the underlying stream is not included.
+ */
+public class MeteredInflaterInputStream extends InflaterInputStream {
+
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    /**
+     * Time spent in {@link #fill()} during the current read. Only accessed by the reading thread.
+     */
+    private long fillNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param in         the stream compressed data is read from
+     * @param inflater   the decompressor
+     * @param bufferSize the size of the compressed data buffer
+     */
+    public MeteredInflaterInputStream(
+            @NonNull final InputStream in, @NonNull final Inflater inflater, final int bufferSize) {
+        super(in, inflater, bufferSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(@NonNull final byte[] b, final int off, final int len) throws IOException {
+        fillNanos = 0;
+        final long start = System.nanoTime();
+        try {
+            return super.read(b, off, len);
+        } finally {
+            decompressionNanos.add(System.nanoTime() - start - fillNanos);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void fill() throws IOException {
+        final long start = System.nanoTime();
+        try {
+            super.fill();
+        } finally {
+            fillNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Estimate the number of bytes that can be read without blocking. Unlike {@link InflaterInputStream#available()},
+     * this returns 0 once all received data has been decompressed, so a buffered stream reading from this stream
+     * does not block waiting for data the peer has not sent.
+     */
+    @Override
+    public int available() throws IOException {
+        if (super.available() == 0) {
+            return 0;
+        }
+        return !inf.needsInput() || in.available() > 0 ? 1 : 0;
+    }
+
+    /**
+     * Get the time spent decompressing since the last call, and reset it.
+     *
+     * @return the time spent decompressing, in nanoseconds
+     */
+    public long getAndResetDecompressionNanos() {
+        return decompressionNanos.sumThenReset();
+    }
+}
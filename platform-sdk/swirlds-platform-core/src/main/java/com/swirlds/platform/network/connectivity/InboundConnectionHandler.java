@@ -33,6 +33,8 @@ import com.swirlds.platform.network.NetworkUtils;
 import com.swirlds.platform.network.PeerInfo;
 import com.swirlds.platform.network.SocketConfig;
 import com.swirlds.platform.network.SocketConnection;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator.SyncStreams;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.net.Socket;
@@ -57,6 +59,7 @@ public class InboundConnectionHandler {
     private final PlatformContext platformContext;
     private final NetworkPeerIdentifier networkPeerIdentifier;
     private final Time time;
+    private final GossipCompressionNegotiator compressionNegotiator;
 
     /**
      * constructor
@@ -67,6 +70,7 @@ public class InboundConnectionHandler {
      * @param selfId                self's node id
      * @param newConnectionConsumer new connection consumer
      * @param time                  platform time
+     * @param compressionNegotiator creates the streams of new connections
      */
     public InboundConnectionHandler(
             @NonNull final PlatformContext platformContext,
@@ -74,7 +78,8 @@ public class InboundConnectionHandler {
             @NonNull final NetworkPeerIdentifier networkPeerIdentifier,
             @NonNull final NodeId selfId,
             @NonNull final InterruptableConsumer<Connection> newConnectionConsumer,
-            @NonNull final Time time) {
+            @NonNull final Time time,
+            @NonNull final GossipCompressionNegotiator compressionNegotiator) {
         this.platformContext = Objects.requireNonNull(platformContext);
         this.connectionTracker = Objects.requireNonNull(connectionTracker);
         this.selfId = Objects.requireNonNull(selfId);
@@ -83,6 +88,7 @@ public class InboundConnectionHandler {
         this.socketExceptionLogger = new RateLimitedLogger(logger, time, Duration.ofMinutes(1));
         this.socketConfig = platformContext.getConfiguration().getConfigData(SocketConfig.class);
         this.networkPeerIdentifier = networkPeerIdentifier;
+        this.compressionNegotiator = Objects.requireNonNull(compressionNegotiator);
     }
 
     /**
@@ -106,10 +112,9 @@ public class InboundConnectionHandler {
             }
             final NodeId otherId = connectedPeer.nodeId();
 
-            final SyncInputStream sis = SyncInputStream.createSyncInputStream(
-                    platformContext, clientSocket.getInputStream(), socketConfig.bufferSize());
-            final SyncOutputStream sos = SyncOutputStream.createSyncOutputStream(
-                    platformContext, clientSocket.getOutputStream(), socketConfig.bufferSize());
+            final SyncStreams streams = compressionNegotiator.createStreams(clientSocket, false);
+            final SyncInputStream sis = streams.in();
+            final SyncOutputStream sos = streams.out();
 
             final SocketConnection sc = SocketConnection.create(
                     selfId,
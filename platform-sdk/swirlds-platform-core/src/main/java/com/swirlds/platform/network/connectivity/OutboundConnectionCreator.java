@@ -30,6 +30,8 @@ import com.swirlds.platform.network.ConnectionTracker;
 import com.swirlds.platform.network.NetworkUtils;
 import com.swirlds.platform.network.SocketConfig;
 import com.swirlds.platform.network.SocketConnection;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator.SyncStreams;
 import com.swirlds.platform.network.connection.NotConnectedConnection;
 import com.swirlds.platform.state.address.AddressBookNetworkUtils;
 import com.swirlds.platform.system.address.Address;
@@ -55,14 +57,17 @@ public class OutboundConnectionCreator {
     private final SocketFactory socketFactory;
     private final AddressBook addressBook;
     private final PlatformContext platformContext;
+    private final GossipCompressionNegotiator compressionNegotiator;
 
     public OutboundConnectionCreator(
             @NonNull final PlatformContext platformContext,
             @NonNull final NodeId selfId,
             @NonNull final ConnectionTracker connectionTracker,
             @NonNull final SocketFactory socketFactory,
-            @NonNull final AddressBook addressBook) {
+            @NonNull final AddressBook addressBook,
+            @NonNull final GossipCompressionNegotiator compressionNegotiator) {
         this.platformContext = Objects.requireNonNull(platformContext);
+        this.compressionNegotiator = Objects.requireNonNull(compressionNegotiator);
         this.selfId = Objects.requireNonNull(selfId);
         this.connectionTracker = Objects.requireNonNull(connectionTracker);
         this.socketFactory = Objects.requireNonNull(socketFactory);
@@ -90,10 +95,9 @@ public class OutboundConnectionCreator {
         try {
             clientSocket = socketFactory.createClientSocket(hostname, port);
 
-            dos = SyncOutputStream.createSyncOutputStream(
-                    platformContext, clientSocket.getOutputStream(), socketConfig.bufferSize());
-            dis = SyncInputStream.createSyncInputStream(
-                    platformContext, clientSocket.getInputStream(), socketConfig.bufferSize());
+            final SyncStreams streams = compressionNegotiator.createStreams(clientSocket, true);
+            dos = streams.out();
+            dis = streams.in();
 
             logger.debug(NETWORK.getMarker(), "`connect` : finished, {} connected to {}", selfId, otherId);
 
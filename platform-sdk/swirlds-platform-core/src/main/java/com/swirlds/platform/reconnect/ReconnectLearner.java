@@ -189,6 +189,10 @@ public class ReconnectLearner {
         final LearningSynchronizer synchronizer =
                 new LearningSynchronizer(threadManager, in, out, currentState, connection::disconnect, reconnectConfig);
         synchronizer.synchronize();
+        statistics.recordReceiverThroughput(
+                synchronizer.getRawBytesReceived(),
+                synchronizer.getCompressedBytesReceived(),
+                Duration.ofMillis(synchronizer.getSynchronizationTimeMilliseconds()));
 
         final MerkleRoot state = (MerkleRoot) synchronizer.getRoot();
         final SignedState newSignedState = new SignedState(
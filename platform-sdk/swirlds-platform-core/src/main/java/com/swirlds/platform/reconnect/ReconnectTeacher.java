@@ -230,8 +230,13 @@ public class ReconnectTeacher {
                 connection::disconnect,
                 reconnectConfig);
 
+        final long start = time.nanoTime();
         synchronizer.synchronize();
         connection.getDos().flush();
+        statistics.recordSenderThroughput(
+                synchronizer.getRawBytesSent(),
+                synchronizer.getCompressedBytesSent(),
+                Duration.ofNanos(time.nanoTime() - start));
 
         statistics.incrementSenderEndTimes();
         logger.info(RECONNECT.getMarker(), "Finished synchronization in the role of the sender.");
@@ -22,12 +22,15 @@ import static com.swirlds.platform.state.merkle.logging.StateLogger.logMapIterat
 import static java.util.Objects.requireNonNull;
 
 import com.hedera.pbj.runtime.Codec;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.platform.state.spi.ReadableKVStateBase;
 import com.swirlds.state.spi.ReadableKVState;
 import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.internal.merkle.VirtualLeafNode;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -116,6 +119,31 @@ public final class OnDiskReadableKVState<K, V> extends ReadableKVStateBase<K, V>
         };
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Range iteration is only supported, if the backing virtual map's data source maintains an
+     * ordered key index.
+     */
+    @NonNull
+    @Override
+    public Iterator<K> iterateRange(@NonNull final Bytes fromKeyBytes, @Nullable final Bytes toKeyBytes) {
+        // Unlike full iteration, range iteration isn't logged to transaction state log, since logging
+        // would iterate over the whole map
+        final var itr = virtualMap.keyRangeIterator(fromKeyBytes, toKeyBytes);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return itr.next().getKey();
+            }
+        };
+    }
+
     /** {@inheritDoc} */
     @Override
     public long size() {
@@ -130,4 +158,13 @@ public final class OnDiskReadableKVState<K, V> extends ReadableKVStateBase<K, V>
         final var k = new OnDiskKey<>(keyClassId, keyCodec, key);
         virtualMap.warm(k);
     }
+
+    @Override
+    public void warmAll(@NonNull final Collection<K> keys) {
+        final var onDiskKeys = new ArrayList<OnDiskKey<K>>(keys.size());
+        for (final K key : keys) {
+            onDiskKeys.add(new OnDiskKey<>(keyClassId, keyCodec, key));
+        }
+        virtualMap.warmAll(onDiskKeys);
+    }
 }
@@ -139,6 +139,9 @@ public class PlatformWiring {
     private final ComponentWiring<StateSigner, ConsensusTransactionImpl> stateSignerWiring;
     private final PcesReplayerWiring pcesReplayerWiring;
     private final ComponentWiring<PcesWriter, Long> pcesWriterWiring;
+    /** The PCES writer, closed when the wiring is stopped. Null until bound, or if the writer isn't used. */
+    @Nullable
+    private PcesWriter pcesWriter;
     private final ComponentWiring<RoundDurabilityBuffer, List<ConsensusRound>> roundDurabilityBufferWiring;
     private final ComponentWiring<PcesSequencer, GossipEvent> pcesSequencerWiring;
     private final ComponentWiring<TransactionPrehandler, Void> applicationTransactionPrehandlerWiring;
@@ -699,6 +702,11 @@ public class PlatformWiring {
                         .getConfigData(PcesConfig.class)
                         .roundDurabilityBufferHeartbeatPeriod())
                 .solderTo(roundDurabilityBufferWiring.getInputWire(RoundDurabilityBuffer::checkForStaleRounds), OFFER);
+        final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+        if (pcesConfig.syncOnFlush()) {
+            model.buildHeartbeatWire(pcesConfig.syncHeartbeatPeriod())
+                    .solderTo(pcesWriterWiring.getInputWire(PcesWriter::checkForCompletedSync), OFFER);
+        }
 
         stateSnapshotManagerWiring
                 .getTransformedOutput(StateSnapshotManager::extractOldestMinimumGenerationOnDisk)
@@ -810,7 +818,10 @@ public class PlatformWiring {
         stateSnapshotManagerWiring.bind(builder::buildStateSnapshotManager);
         stateSignerWiring.bind(builder::buildStateSigner);
         pcesReplayerWiring.bind(pcesReplayer);
-        pcesWriterWiring.bind(builder::buildPcesWriter);
+        pcesWriterWiring.bind(() -> {
+            pcesWriter = builder.buildPcesWriter();
+            return pcesWriter;
+        });
         roundDurabilityBufferWiring.bind(builder::buildRoundDurabilityBuffer);
         pcesSequencerWiring.bind(builder::buildPcesSequencer);
         eventCreationManagerWiring.bind(builder::buildEventCreationManager);
@@ -1085,10 +1096,13 @@ public class PlatformWiring {
     }
 
     /**
-     * Stop the wiring framework.
+     * Stop the wiring framework, and then release resources held by components.
      */
     public void stop() {
         model.stop();
+        if (pcesWriter != null) {
+            pcesWriter.closeCurrentMutableFile();
+        }
     }
 
     /**
@@ -34,6 +34,7 @@ module com.swirlds.platform.core {
     exports com.swirlds.platform.metrics;
     exports com.swirlds.platform.network;
     exports com.swirlds.platform.network.communication;
+    exports com.swirlds.platform.network.compression;
     exports com.swirlds.platform.network.protocol;
     exports com.swirlds.platform.network.topology;
     exports com.swirlds.platform.recovery;
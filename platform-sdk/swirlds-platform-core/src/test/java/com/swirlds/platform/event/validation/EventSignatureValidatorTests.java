@@ -19,10 +19,12 @@ package com.swirlds.platform.event.validation;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.base.test.fixtures.time.FakeTime;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.platform.NodeId;
@@ -44,8 +46,12 @@ import com.swirlds.platform.system.events.EventConstants;
 import com.swirlds.platform.test.fixtures.crypto.PreGeneratedX509Certs;
 import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -272,4 +278,44 @@ class EventSignatureValidatorTests {
         assertNull(validatorWithTrueVerifier.validateSignature(event));
         assertEquals(1, exitedIntakePipelineCount.get());
     }
+
+    @Test
+    @DisplayName("Events validated in parallel get their own results")
+    void parallelValidation() {
+        final int eventCount = 1_000;
+        final List<GossipEvent> events = new ArrayList<>(eventCount);
+        final Set<Bytes> invalidHashes = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < eventCount; i++) {
+            final GossipEvent event = new TestingEventBuilder(random)
+                    .setCreatorId(currentNodeAddress.getNodeId())
+                    .setSoftwareVersion(defaultVersion)
+                    .build();
+            events.add(event);
+            if (i % 3 == 0) {
+                invalidHashes.add(event.getHash().getBytes());
+            }
+        }
+
+        final EventSignatureValidator validator = new DefaultEventSignatureValidator(
+                platformContext,
+                (data, signature, publicKey) -> !invalidHashes.contains(data),
+                defaultVersion,
+                null,
+                currentAddressBook,
+                intakeEventCounter);
+
+        final List<GossipEvent> results = IntStream.range(0, eventCount)
+                .parallel()
+                .mapToObj(i -> validator.validateSignature(events.get(i)))
+                .toList();
+
+        for (int i = 0; i < eventCount; i++) {
+            if (i % 3 == 0) {
+                assertNull(results.get(i));
+            } else {
+                assertSame(events.get(i), results.get(i));
+            }
+        }
+        assertEquals(invalidHashes.size(), exitedIntakePipelineCount.get());
+    }
 }
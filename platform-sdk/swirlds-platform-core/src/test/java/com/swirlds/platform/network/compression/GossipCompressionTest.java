@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.gossip.sync.SyncInputStream;
+import com.swirlds.platform.gossip.sync.SyncOutputStream;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator.NegotiatedCompression;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class GossipCompressionTest {
+
+    private static final PlatformContext platformContext =
+            TestPlatformContextBuilder.create().build();
+
+    /**
+     * Data with a repetitive structure and some random content, similar to serialized events.
+     */
+    private static byte[] buildData(final Random random, final int records) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < records; i++) {
+            out.writeBytes(new byte[] {0, 0, 0, 1, 0x1a, 0x2b, 0x3c, 0x4d, 0, 0, 0, 3});
+            final byte[] payload = new byte[random.nextInt(8, 64)];
+            random.nextBytes(payload);
+            out.writeBytes(payload);
+        }
+        return out.toByteArray();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GossipCompression.class)
+    void roundTrip(final GossipCompression compression) throws IOException {
+        final Random random = new Random(compression.ordinal());
+        final byte[] dictionary = buildData(random, 100);
+        final byte[] data = buildData(random, 1_000);
+
+        final ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        final SyncOutputStream out =
+                SyncOutputStream.createSyncOutputStream(platformContext, wire, 1024, compression, dictionary, null);
+        // Write in small pieces with occasional flushes, like a sync does
+        int position = 0;
+        while (position < data.length) {
+            final int length = Math.min(random.nextInt(1, 100), data.length - position);
+            out.write(data, position, length);
+            position += length;
+            if (random.nextInt(20) == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+
+        assertEquals(compression != GossipCompression.NONE, out.isCompressed());
+        if (out.isCompressed()) {
+            assertEquals(data.length, out.getAndResetUncompressedByteCount());
+            assertTrue(wire.size() < data.length, "Data should have been compressed");
+        }
+
+        final SyncInputStream in = SyncInputStream.createSyncInputStream(
+                platformContext, new ByteArrayInputStream(wire.toByteArray()), 1024, compression, dictionary);
+        final byte[] read = new byte[data.length];
+        in.readFully(read);
+        assertArrayEquals(data, read);
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+            value = GossipCompression.class,
+            names = {"NONE"},
+            mode = EnumSource.Mode.EXCLUDE)
+    void readDoesNotWaitForUnsentData(final GossipCompression compression) throws IOException {
+        final PipedInputStream pipeIn = new PipedInputStream(64 * 1024);
+        final PipedOutputStream pipeOut = new PipedOutputStream(pipeIn);
+
+        final SyncOutputStream out =
+                SyncOutputStream.createSyncOutputStream(platformContext, pipeOut, 1024, compression, null, null);
+        final SyncInputStream in =
+                SyncInputStream.createSyncInputStream(platformContext, pipeIn, 1024, compression, null);
+
+        // The writer stays open, so reading more than was flushed would block
+        for (int i = 0; i < 10; i++) {
+            final byte[] message = buildData(new Random(i), 10);
+            out.write(message);
+            out.flush();
+            final byte[] read = new byte[message.length];
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> in.readFully(read));
+            assertArrayEquals(message, read);
+        }
+    }
+
+    /**
+     * Run a negotiation between two nodes.
+     */
+    private static NegotiatedCompression[] negotiate(
+            final List<GossipCompression> outboundOffer,
+            final byte[] outboundDictionary,
+            final List<GossipCompression> inboundOffer,
+            final byte[] inboundDictionary)
+            throws Exception {
+        return negotiate(outboundOffer, false, outboundDictionary, inboundOffer, false, inboundDictionary);
+    }
+
+    /**
+     * Run a negotiation between two nodes with the given legacy compression flags.
+     */
+    private static NegotiatedCompression[] negotiate(
+            final List<GossipCompression> outboundOffer,
+            final boolean outboundLegacy,
+            final byte[] outboundDictionary,
+            final List<GossipCompression> inboundOffer,
+            final boolean inboundLegacy,
+            final byte[] inboundDictionary)
+            throws Exception {
+        final PipedInputStream toInbound = new PipedInputStream(64 * 1024);
+        final PipedOutputStream fromOutbound = new PipedOutputStream(toInbound);
+        final PipedInputStream toOutbound = new PipedInputStream(64 * 1024);
+        final PipedOutputStream fromInbound = new PipedOutputStream(toOutbound);
+
+        final CompletableFuture<NegotiatedCompression> inbound = CompletableFuture.supplyAsync(() -> {
+            try {
+                return GossipCompressionNegotiator.negotiate(
+                        toInbound, fromInbound, inboundOffer, inboundLegacy, inboundDictionary, false);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        final NegotiatedCompression outbound = GossipCompressionNegotiator.negotiate(
+                toOutbound, fromOutbound, outboundOffer, outboundLegacy, outboundDictionary, true);
+        return new NegotiatedCompression[] {outbound, inbound.get()};
+    }
+
+    @Test
+    void outboundPreferenceWins() throws Exception {
+        final byte[] outboundDictionary = {1, 2, 3};
+        final byte[] inboundDictionary = {4, 5};
+        final NegotiatedCompression[] result = negotiate(
+                List.of(GossipCompression.DEFLATE_DICTIONARY, GossipCompression.DEFLATE_FAST),
+                outboundDictionary,
+                List.of(GossipCompression.DEFLATE_FAST, GossipCompression.DEFLATE_DICTIONARY),
+                inboundDictionary);
+
+        assertEquals(GossipCompression.DEFLATE_DICTIONARY, result[0].compression());
+        assertEquals(GossipCompression.DEFLATE_DICTIONARY, result[1].compression());
+        assertArrayEquals(inboundDictionary, result[0].peerDictionary());
+        assertArrayEquals(outboundDictionary, result[1].peerDictionary());
+    }
+
+    @Test
+    void noCommonCodec() throws Exception {
+        final NegotiatedCompression[] result = negotiate(
+                List.of(GossipCompression.DEFLATE), new byte[0], List.of(GossipCompression.DEFLATE_FAST), new byte[0]);
+
+        assertEquals(GossipCompression.NONE, result[0].compression());
+        assertEquals(GossipCompression.NONE, result[1].compression());
+    }
+
+    @Test
+    void emptyOfferFallsBackToLegacyStream() throws Exception {
+        final List<GossipCompression> offer = List.of(GossipCompression.DEFLATE_FAST);
+
+        // Legacy compression is used only if both sides enable it
+        final NegotiatedCompression[] bothLegacy = negotiate(offer, true, new byte[0], List.of(), true, new byte[0]);
+        assertEquals(GossipCompression.DEFLATE, bothLegacy[0].compression());
+        assertEquals(GossipCompression.DEFLATE, bothLegacy[1].compression());
+
+        final NegotiatedCompression[] oneLegacy = negotiate(List.of(), true, new byte[0], offer, false, new byte[0]);
+        assertEquals(GossipCompression.NONE, oneLegacy[0].compression());
+        assertEquals(GossipCompression.NONE, oneLegacy[1].compression());
+    }
+
+    @Test
+    void unsupportedVersionIsRejected() {
+        final byte[] peerData = {(byte) (GossipCompressionNegotiator.NEGOTIATION_VERSION + 1), 0, 0, 0, 0, 0, 0};
+        assertThrows(
+                IOException.class,
+                () -> GossipCompressionNegotiator.negotiate(
+                        new ByteArrayInputStream(peerData),
+                        new ByteArrayOutputStream(),
+                        List.of(),
+                        false,
+                        new byte[0],
+                        true));
+    }
+}
@@ -30,6 +30,7 @@ import com.swirlds.platform.network.ConnectionTracker;
 import com.swirlds.platform.network.NetworkPeerIdentifier;
 import com.swirlds.platform.network.NetworkUtils;
 import com.swirlds.platform.network.PeerInfo;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator;
 import com.swirlds.platform.system.address.AddressBook;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -91,8 +92,14 @@ class InboundConnectionHandlerTest extends ConnectivityTestBase {
             Assertions.assertEquals(conn.getSelfId(), node1);
         };
 
-        final InboundConnectionHandler inbound =
-                new InboundConnectionHandler(platformContext, ct, identifier, node1, connConsumer, Time.getCurrent());
+        final InboundConnectionHandler inbound = new InboundConnectionHandler(
+                platformContext,
+                ct,
+                identifier,
+                node1,
+                connConsumer,
+                Time.getCurrent(),
+                new GossipCompressionNegotiator(platformContext));
         inbound.handle(socket); // 2 can talk to 1 via tls ok
         socket.close();
     }
@@ -135,8 +142,14 @@ class InboundConnectionHandlerTest extends ConnectivityTestBase {
         final InterruptableConsumer<Connection> connConsumer =
                 conn -> Assertions.fail("connection should never have been created");
 
-        final InboundConnectionHandler inbound =
-                new InboundConnectionHandler(platformContext, ct, identifier, node1, connConsumer, Time.getCurrent());
+        final InboundConnectionHandler inbound = new InboundConnectionHandler(
+                platformContext,
+                ct,
+                identifier,
+                node1,
+                connConsumer,
+                Time.getCurrent(),
+                new GossipCompressionNegotiator(platformContext));
         inbound.handle(socket);
         Assertions.assertTrue(socket.isClosed());
         serverThread.join();
@@ -19,9 +19,13 @@ package com.swirlds.platform.state.merkle.disk;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.platform.test.fixtures.state.merkle.MerkleTestBase;
 import com.swirlds.virtualmap.VirtualMap;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -128,4 +132,51 @@ class OnDiskReadableStateTest extends MerkleTestBase {
         state.warm(A_KEY);
         verify(virtualMapMock).warm(new OnDiskKey<>(onDiskKeyClassId(), STRING_CODEC, A_KEY));
     }
+
+    @Test
+    @DisplayName("The method iterateRange() returns keys from the virtual map range iterator")
+    void iterateRange(@Mock VirtualMap<OnDiskKey<String>, OnDiskValue<String>> virtualMapMock) {
+        final var fromKeyBytes = Bytes.wrap(new byte[] {1});
+        final var toKeyBytes = Bytes.wrap(new byte[] {2});
+        when(virtualMapMock.keyRangeIterator(fromKeyBytes, toKeyBytes))
+                .thenReturn(List.of(
+                                new OnDiskKey<>(onDiskKeyClassId(), STRING_CODEC, A_KEY),
+                                new OnDiskKey<>(onDiskKeyClassId(), STRING_CODEC, C_KEY))
+                        .iterator());
+        final var state =
+                new OnDiskReadableKVState<>(FRUIT_STATE_KEY, onDiskKeyClassId(), STRING_CODEC, virtualMapMock);
+        final List<String> keys = new ArrayList<>();
+        state.iterateRange(fromKeyBytes, toKeyBytes).forEachRemaining(keys::add);
+        assertThat(keys).containsExactly(A_KEY, C_KEY);
+    }
+
+    @Test
+    @DisplayName("The method iteratePrefix() increments the last prefix byte to get the upper bound")
+    void iteratePrefix(@Mock VirtualMap<OnDiskKey<String>, OnDiskValue<String>> virtualMapMock) {
+        final var state =
+                new OnDiskReadableKVState<>(FRUIT_STATE_KEY, onDiskKeyClassId(), STRING_CODEC, virtualMapMock);
+        final var prefix = Bytes.wrap(new byte[] {0x0A, 0x7F});
+        state.iteratePrefix(prefix);
+        verify(virtualMapMock).keyRangeIterator(prefix, Bytes.wrap(new byte[] {0x0A, (byte) 0x80}));
+    }
+
+    @Test
+    @DisplayName("The method iteratePrefix() drops trailing 0xFF prefix bytes to get the upper bound")
+    void iteratePrefixWithTrailingFF(@Mock VirtualMap<OnDiskKey<String>, OnDiskValue<String>> virtualMapMock) {
+        final var state =
+                new OnDiskReadableKVState<>(FRUIT_STATE_KEY, onDiskKeyClassId(), STRING_CODEC, virtualMapMock);
+        final var prefix = Bytes.wrap(new byte[] {0x0A, (byte) 0xFF, (byte) 0xFF});
+        state.iteratePrefix(prefix);
+        verify(virtualMapMock).keyRangeIterator(prefix, Bytes.wrap(new byte[] {0x0B}));
+    }
+
+    @Test
+    @DisplayName("The method iteratePrefix() has no upper bound if all prefix bytes are 0xFF")
+    void iteratePrefixOfAllFF(@Mock VirtualMap<OnDiskKey<String>, OnDiskValue<String>> virtualMapMock) {
+        final var state =
+                new OnDiskReadableKVState<>(FRUIT_STATE_KEY, onDiskKeyClassId(), STRING_CODEC, virtualMapMock);
+        final var prefix = Bytes.wrap(new byte[] {(byte) 0xFF, (byte) 0xFF});
+        state.iteratePrefix(prefix);
+        verify(virtualMapMock).keyRangeIterator(prefix, null);
+    }
 }
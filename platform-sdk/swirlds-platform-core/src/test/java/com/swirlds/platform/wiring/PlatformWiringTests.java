@@ -18,6 +18,7 @@ package com.swirlds.platform.wiring;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
@@ -85,6 +86,7 @@ class PlatformWiringTests {
 
         final PlatformComponentBuilder componentBuilder =
                 new PlatformComponentBuilder(mock(PlatformBuildingBlocks.class));
+        final PcesWriter pcesWriter = mock(PcesWriter.class);
 
         componentBuilder
                 .withEventHasher(mock(EventHasher.class))
@@ -101,7 +103,7 @@ class PlatformWiringTests {
                 .withRoundDurabilityBuffer(mock(RoundDurabilityBuffer.class))
                 .withStatusStateMachine(mock(StatusStateMachine.class))
                 .withTransactionPrehandler(mock(TransactionPrehandler.class))
-                .withPcesWriter(mock(PcesWriter.class))
+                .withPcesWriter(pcesWriter)
                 .withSignedStateSentinel(mock(SignedStateSentinel.class))
                 .withIssDetector(mock(IssDetector.class))
                 .withIssHandler(mock(IssHandler.class))
@@ -155,5 +157,6 @@ class PlatformWiringTests {
         wiring.start();
         assertFalse(wiring.getModel().checkForUnboundInputWires());
         wiring.stop();
+        verify(pcesWriter).closeCurrentMutableFile();
     }
 }
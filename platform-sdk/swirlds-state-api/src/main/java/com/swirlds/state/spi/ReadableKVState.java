@@ -17,8 +17,11 @@
 package com.swirlds.state.spi;
 
 import com.hedera.pbj.runtime.Schema;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -78,6 +81,52 @@ public interface ReadableKVState<K, V> {
     @NonNull
     Iterator<K> keys();
 
+    /**
+     * Gets an iterator over keys in this {@link ReadableKVState}, whose serialized bytes are greater or
+     * equal to {@code fromKeyBytes}, and less than {@code toKeyBytes}. Keys are serialized with their
+     * protobuf codec, and returned in unsigned lexicographic order of the serialized bytes. Since
+     * protobuf writes fields in field number order, all keys with the same leading fields share the
+     * same serialized prefix, and can be found with {@link #iteratePrefix(Bytes)}.
+     *
+     * <p>Unlike {@link #keys()}, this method doesn't iterate over the whole state, but it's only
+     * supported by some implementations. Keys returned by the iterator aren't added to {@link
+     * #readKeys()}. The default implementation throws {@link UnsupportedOperationException}.
+     *
+     * @param fromKeyBytes the lower bound of the range, inclusive
+     * @param toKeyBytes the upper bound of the range, exclusive, or null if there is no upper bound
+     * @return an iterator over keys in the range
+     * @throws UnsupportedOperationException if range iteration isn't supported by this state
+     */
+    @NonNull
+    default Iterator<K> iterateRange(@NonNull final Bytes fromKeyBytes, @Nullable final Bytes toKeyBytes) {
+        throw new UnsupportedOperationException("Range iteration isn't supported by " + getStateKey());
+    }
+
+    /**
+     * Gets an iterator over keys in this {@link ReadableKVState}, whose serialized bytes start with
+     * the given prefix. See {@link #iterateRange(Bytes, Bytes)} for details.
+     *
+     * @param prefix the prefix of serialized keys
+     * @return an iterator over keys with the prefix
+     * @throws UnsupportedOperationException if range iteration isn't supported by this state
+     */
+    @NonNull
+    default Iterator<K> iteratePrefix(@NonNull final Bytes prefix) {
+        // The upper bound is the smallest byte sequence greater than all sequences with the prefix:
+        // the prefix with trailing 0xFF bytes removed and the last byte incremented
+        final byte[] bytes = prefix.toByteArray();
+        int last = bytes.length - 1;
+        while ((last >= 0) && (bytes[last] == (byte) 0xFF)) {
+            last--;
+        }
+        if (last < 0) {
+            return iterateRange(prefix, null);
+        }
+        final byte[] upperBound = Arrays.copyOf(bytes, last + 1);
+        upperBound[last]++;
+        return iterateRange(prefix, Bytes.wrap(upperBound));
+    }
+
     /**
      * Gets the set of keys that a client read from the {@link ReadableKVState}.
      *
@@ -100,4 +149,16 @@ public interface ReadableKVState<K, V> {
      * @param key the key of the entity
      */
     default void warm(@NonNull final K key) {}
+
+    /**
+     * Warms the system by preloading multiple entities into memory. Implementations may load all the entities in a
+     * single batch, which is faster than warming them one by one.
+     *
+     * <p>The default implementation calls {@link #warm(Object)} for every key.
+     *
+     * @param keys the keys of the entities
+     */
+    default void warmAll(@NonNull final Collection<K> keys) {
+        keys.forEach(this::warm);
+    }
 }
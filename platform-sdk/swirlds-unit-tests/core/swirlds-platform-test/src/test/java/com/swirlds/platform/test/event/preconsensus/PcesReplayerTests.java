@@ -24,7 +24,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.swirlds.base.test.fixtures.time.FakeTime;
+import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.io.IOIterator;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
 import com.swirlds.common.wiring.wires.output.StandardOutputWire;
 import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.event.preconsensus.PcesReplayer;
@@ -51,6 +53,8 @@ class PcesReplayerTests {
     @DisplayName("Test standard operation")
     void testStandardOperation() {
         final FakeTime time = new FakeTime();
+        final PlatformContext platformContext =
+                TestPlatformContextBuilder.create().withTime(time).build();
 
         final StandardOutputWire<GossipEvent> eventOutputWire = mock(StandardOutputWire.class);
         final AtomicInteger eventOutputCount = new AtomicInteger(0);
@@ -76,7 +80,12 @@ class PcesReplayerTests {
         final Supplier<ReservedSignedState> latestImmutableStateSupplier = () -> latestImmutableState;
 
         final PcesReplayer replayer = new PcesReplayer(
-                time, eventOutputWire, flushIntake, flushTransactionHandling, latestImmutableStateSupplier, () -> true);
+                platformContext,
+                eventOutputWire,
+                flushIntake,
+                flushTransactionHandling,
+                latestImmutableStateSupplier,
+                () -> true);
 
         final List<GossipEvent> events = new ArrayList<>();
         final int eventCount = 100;
@@ -16,6 +16,8 @@
 
 package com.swirlds.platform.test.event.preconsensus;
 
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyFalse;
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyTrue;
 import static com.swirlds.common.units.DataUnit.UNIT_BYTES;
 import static com.swirlds.common.units.DataUnit.UNIT_KILOBYTES;
 import static com.swirlds.common.utility.CompareTo.isGreaterThanOrEqualTo;
@@ -47,6 +49,7 @@ import com.swirlds.platform.config.TransactionConfig_;
 import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.AncientMode;
 import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.platform.event.hashing.StatefulEventHasher;
 import com.swirlds.platform.event.preconsensus.DefaultPcesSequencer;
 import com.swirlds.platform.event.preconsensus.DefaultPcesWriter;
 import com.swirlds.platform.event.preconsensus.PcesConfig_;
@@ -55,6 +58,7 @@ import com.swirlds.platform.event.preconsensus.PcesFileManager;
 import com.swirlds.platform.event.preconsensus.PcesFileReader;
 import com.swirlds.platform.event.preconsensus.PcesFileTracker;
 import com.swirlds.platform.event.preconsensus.PcesMultiFileIterator;
+import com.swirlds.platform.event.preconsensus.PcesParallelFileIterator;
 import com.swirlds.platform.event.preconsensus.PcesSequencer;
 import com.swirlds.platform.event.preconsensus.PcesUtilities;
 import com.swirlds.platform.event.preconsensus.PcesWriter;
@@ -142,6 +146,18 @@ class PcesWriterTests {
         assertFalse(eventsIterator.hasNext());
         assertEquals(truncatedFileCount, eventsIterator.getTruncatedFileCount());
 
+        // Parallel replay should return the same events in the same order, already hashed
+        final PcesParallelFileIterator parallelIterator =
+                pcesFiles.getParallelEventIterator(platformContext, 0, 0, 4);
+        for (final GossipEvent event : events) {
+            assertTrue(parallelIterator.hasNext());
+            final GossipEvent readEvent = parallelIterator.next();
+            assertEquals(event, readEvent);
+            assertEquals(new StatefulEventHasher().hashEvent(event).getHash(), readEvent.getHash());
+        }
+        assertFalse(parallelIterator.hasNext());
+        assertEquals(truncatedFileCount, parallelIterator.getTruncatedFileCount());
+
         // Make sure things look good when iterating starting in the middle of the stream that was written
         final long startingLowerBound = lastAncientIdentifier / 2;
         final IOIterator<GossipEvent> eventsIterator2 = pcesFiles.getEventIterator(startingLowerBound, 0);
@@ -260,6 +276,11 @@ class PcesWriterTests {
 
     @NonNull
     private PlatformContext buildContext(@NonNull final AncientMode ancientMode) {
+        return buildContext(ancientMode, false);
+    }
+
+    @NonNull
+    private PlatformContext buildContext(@NonNull final AncientMode ancientMode, final boolean syncOnFlush) {
         final Configuration configuration = new TestConfigBuilder()
                 .withValue(PcesConfig_.DATABASE_DIRECTORY, testDirectory)
                 .withValue(FileSystemManagerConfig_.ROOT_PATH, testDirectory)
@@ -268,6 +289,7 @@ class PcesWriterTests {
                 .withValue(TransactionConfig_.MAX_TRANSACTION_COUNT_PER_EVENT, Integer.MAX_VALUE)
                 .withValue(TransactionConfig_.TRANSACTION_MAX_BYTES, Integer.MAX_VALUE)
                 .withValue(EventConfig_.USE_BIRTH_ROUND_ANCIENT_THRESHOLD, ancientMode == BIRTH_ROUND_THRESHOLD)
+                .withValue(PcesConfig_.SYNC_ON_FLUSH, syncOnFlush)
                 .getOrCreateConfig();
 
         return TestPlatformContextBuilder.create()
@@ -800,4 +822,59 @@ class PcesWriterTests {
         assertEquals(
                 8, writer.writeEvent(events.get(8)), "Flush requests for later sequences numbers should be maintained");
     }
+
+    @ParameterizedTest
+    @MethodSource("buildArguments")
+    @DisplayName("Sync on flush test")
+    void syncOnFlushTest(@NonNull final AncientMode ancientMode) throws IOException {
+        final PlatformContext platformContext = buildContext(ancientMode, true);
+        final PcesFileManager fileManager =
+                new PcesFileManager(platformContext, new PcesFileTracker(ancientMode), selfId, 0);
+        final DefaultPcesWriter writer = new DefaultPcesWriter(platformContext, fileManager);
+        final AtomicLong latestDurableSequenceNumber = new AtomicLong(-1);
+
+        writer.beginStreamingNewEvents();
+
+        final List<GossipEvent> events = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            final GossipEvent event = mock(GossipEvent.class);
+            when(event.getStreamSequenceNumber()).thenReturn(i);
+            events.add(event);
+        }
+
+        assertNull(writer.submitFlushRequest(1L), "No event has been written to flush");
+        assertNull(
+                writer.writeEvent(events.get(1)),
+                "Events should not be reported as durable until the background sync completes");
+        assertEventuallyTrue(
+                () -> {
+                    passValueToDurabilityNexus(
+                            writer.checkForCompletedSync(Instant.now()), latestDurableSequenceNumber);
+                    return latestDurableSequenceNumber.get() == 1;
+                },
+                Duration.ofSeconds(10),
+                "Event should become durable once the background sync completes");
+
+        // Flush requests that arrive while a sync is running are committed by a later sync
+        for (int i = 2; i < events.size(); i++) {
+            passValueToDurabilityNexus(writer.writeEvent(events.get(i)), latestDurableSequenceNumber);
+            passValueToDurabilityNexus(writer.submitFlushRequest((long) i), latestDurableSequenceNumber);
+        }
+        assertEventuallyTrue(
+                () -> {
+                    passValueToDurabilityNexus(
+                            writer.checkForCompletedSync(Instant.now()), latestDurableSequenceNumber);
+                    return latestDurableSequenceNumber.get() == events.size() - 1;
+                },
+                Duration.ofSeconds(10),
+                "All events should eventually become durable");
+        assertNull(writer.checkForCompletedSync(Instant.now()), "No sync should be running");
+
+        writer.closeCurrentMutableFile();
+        assertEventuallyFalse(
+                () -> Thread.getAllStackTraces().keySet().stream()
+                        .anyMatch(t -> t.getName().contains("pces-sync")),
+                Duration.ofSeconds(10),
+                "The sync thread should be stopped when the writer is closed");
+    }
 }
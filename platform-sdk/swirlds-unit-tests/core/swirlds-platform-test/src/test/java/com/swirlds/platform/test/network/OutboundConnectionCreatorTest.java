@@ -35,6 +35,7 @@ import com.swirlds.platform.network.Connection;
 import com.swirlds.platform.network.ConnectionTracker;
 import com.swirlds.platform.network.SocketConfig_;
 import com.swirlds.platform.network.SocketConnection;
+import com.swirlds.platform.network.compression.GossipCompressionNegotiator;
 import com.swirlds.platform.network.connection.NotConnectedConnection;
 import com.swirlds.platform.network.connectivity.OutboundConnectionCreator;
 import com.swirlds.platform.network.connectivity.SocketFactory;
@@ -84,6 +85,7 @@ class OutboundConnectionCreatorTest {
 
         final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
         final SerializableDataOutputStream out = new SerializableDataOutputStream(byteOut);
+        writeLegacyCompressionOffer(out);
         out.writeInt(ByteConstants.COMM_CONNECT);
         out.close();
 
@@ -98,7 +100,12 @@ class OutboundConnectionCreatorTest {
                 .build();
 
         final OutboundConnectionCreator occ = new OutboundConnectionCreator(
-                platformContext, thisNode, mock(ConnectionTracker.class), socketFactory, addressBook);
+                platformContext,
+                thisNode,
+                mock(ConnectionTracker.class),
+                socketFactory,
+                addressBook,
+                new GossipCompressionNegotiator(platformContext));
 
         Connection connection = occ.createConnection(otherNode);
         assertTrue(connection instanceof SocketConnection, "the returned connection should be a socket connection");
@@ -163,6 +170,7 @@ class OutboundConnectionCreatorTest {
 
         final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
         final SerializableDataOutputStream out = new SerializableDataOutputStream(byteOut);
+        writeLegacyCompressionOffer(out);
         out.writeInt(ByteConstants.COMM_CONNECT);
         out.close();
 
@@ -177,7 +185,12 @@ class OutboundConnectionCreatorTest {
                 .build();
 
         final OutboundConnectionCreator occ = new OutboundConnectionCreator(
-                platformContext, thisNode, mock(ConnectionTracker.class), socketFactory, addressBook);
+                platformContext,
+                thisNode,
+                mock(ConnectionTracker.class),
+                socketFactory,
+                addressBook,
+                new GossipCompressionNegotiator(platformContext));
 
         Connection connection = occ.createConnection(otherNode);
         assertTrue(connection instanceof SocketConnection, "the returned connection should be a socket connection");
@@ -188,7 +201,18 @@ class OutboundConnectionCreatorTest {
         assertFalse(connection.connected(), "should not be connected after calling disconnect()");
     }
 
-    @NonNull
+    /**
+     * Write the compression negotiation data of a peer that only supports the legacy stream.
+     */
+    private static void writeLegacyCompressionOffer(@NonNull final SerializableDataOutputStream out)
+            throws IOException {
+        out.writeByte(GossipCompressionNegotiator.NEGOTIATION_VERSION);
+        out.writeBoolean(false);
+        out.writeByte(0);
+        out.writeInt(0);
+    }
+
+        @NonNull
     private static Configuration getConfig() {
         return new TestConfigBuilder()
                 .withValue(SocketConfig_.BUFFER_SIZE, "100")
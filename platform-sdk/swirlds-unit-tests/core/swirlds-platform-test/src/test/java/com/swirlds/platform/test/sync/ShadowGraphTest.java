@@ -22,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -53,8 +54,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -106,6 +111,10 @@ class ShadowgraphTest {
         shadowgraph = new Shadowgraph(platformContext, mock(AddressBook.class), new NoOpIntakeEventCounter());
         shadowgraph.updateEventWindow(EventWindow.getGenesisEventWindow(GENERATION_THRESHOLD));
 
+        addEvents(numEvents);
+    }
+
+    private void addEvents(final int numEvents) {
         for (int i = 0; i < numEvents; i++) {
             final IndexedEvent event = emitter.emitEvent();
 
@@ -708,6 +717,108 @@ class ShadowgraphTest {
                 "Shadow graph tips should be included in expiry.");
     }
 
+    /**
+     * Tests that events stay in the buckets of their generations while the bucket ring grows past its initial
+     * capacity, and while expiry moves the start of the ring and new events wrap around its end.
+     */
+    @Test
+    void testBucketRingGrowthAndExpiry() {
+        final Random random = RandomUtils.getRandomPrintSeed();
+        initShadowgraph(random, 1000, 4);
+        assertTrue(maxGen > 64, "Events should span more generations than the initial bucket ring capacity");
+
+        long expireBelowGen = FIRST_GENERATION;
+        for (int i = 0; i < 20; i++) {
+            // Expire all but the most recent generations, then add events with new generations
+            expireBelowGen = Math.max(expireBelowGen, maxGen - 10);
+            shadowgraph.updateEventWindow(new EventWindow(
+                    0 /* ignored by shadowgraph */,
+                    0 /* ignored by shadowgraph */,
+                    expireBelowGen,
+                    GENERATION_THRESHOLD));
+            assertEventsBelowGenAreExpired(expireBelowGen);
+
+            addEvents(100);
+            assertEventsBelowGenAreExpired(expireBelowGen);
+        }
+    }
+
+    /**
+     * Tests that reads, which don't lock the shadowgraph, are consistent while another thread adds and expires events.
+     */
+    @Test
+    void testConcurrentReadsWithInsertsAndExpiry() throws InterruptedException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+        initShadowgraph(random, 100, 4);
+
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<IndexedEvent> lastAdded =
+                new AtomicReference<>(generatedEvents.get(generatedEvents.size() - 1));
+        final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            final Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        final IndexedEvent event = lastAdded.get();
+                        final boolean found = shadowgraph.isHashInGraph(event.getBaseHash());
+                        // An event may only be missing, if its generation has been expired
+                        final long expiredThreshold = shadowgraph.getEventWindow().getExpiredThreshold();
+                        assertTrue(
+                                found || event.getGeneration() < expiredThreshold,
+                                "Unexpired event should be in the shadow graph");
+
+                        final List<ShadowEvent> tips = shadowgraph.getTips();
+                        for (final ShadowEvent ancestor : shadowgraph.findAncestors(tips, s -> true)) {
+                            assertNotNull(ancestor.getEvent(), "Ancestors should have events");
+                        }
+                        final List<Hash> tipHashes =
+                                tips.stream().map(ShadowEvent::getEventBaseHash).toList();
+                        final List<ShadowEvent> shadows = shadowgraph.shadows(tipHashes);
+                        for (int i = 0; i < tips.size(); i++) {
+                            // A tip may have been expired since the tips were read
+                            final ShadowEvent shadow = shadows.get(i);
+                            assertTrue(
+                                    shadow == null || shadow.getEventBaseHash().equals(tipHashes.get(i)),
+                                    "Shadow event should match the hash it is looked up by");
+                        }
+                    }
+                } catch (final Throwable t) {
+                    errors.add(t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        try {
+            long expireBelowGen = FIRST_GENERATION;
+            for (int i = 0; i < 5000; i++) {
+                final IndexedEvent event = emitter.emitEvent();
+                assertDoesNotThrow(() -> shadowgraph.addEvent(event), "Unable to insert event into shadow graph.");
+                lastAdded.set(event);
+                maxGen = Math.max(maxGen, event.getGeneration());
+                if (i % 50 == 0 && maxGen - 20 > expireBelowGen) {
+                    expireBelowGen = maxGen - 20;
+                    shadowgraph.updateEventWindow(new EventWindow(
+                            0 /* ignored by shadowgraph */,
+                            0 /* ignored by shadowgraph */,
+                            expireBelowGen,
+                            GENERATION_THRESHOLD));
+                }
+            }
+        } finally {
+            done.set(true);
+            for (final Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            fail("Concurrent read failed", errors.peek());
+        }
+    }
+
     @Test
     @Disabled("It does not make sense to run this test in CCI since the outcome can vary depending on the load."
             + "The purpose of this test is to tune the performance of this method by running the test locally.")
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash; // NOSONAR: Needed to benchmark internal classes
+
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.engine.BatchDigestProvider;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares internal node hashing throughput, in nodes per second, when nodes are hashed one
+ * by one with a {@code HashBuilder} and when they are hashed in batches.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 10, time = 15)
+public class InternalHashBench {
+
+    /** Number of internal nodes in a single rank of a chunk with default chunk height */
+    private static final int NODES = 16;
+
+    private final Hash[] lefts = new Hash[NODES];
+    private final Hash[] rights = new Hash[NODES];
+
+    private InternalHashBatch batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(42);
+        for (int i = 0; i < NODES; i++) {
+            final byte[] left = new byte[Cryptography.DEFAULT_DIGEST_TYPE.digestLength()];
+            random.nextBytes(left);
+            lefts[i] = new Hash(left, Cryptography.DEFAULT_DIGEST_TYPE);
+            final byte[] right = new byte[Cryptography.DEFAULT_DIGEST_TYPE.digestLength()];
+            random.nextBytes(right);
+            rights[i] = new Hash(right, Cryptography.DEFAULT_DIGEST_TYPE);
+        }
+        batch = new InternalHashBatch(BatchDigestProvider.create(Cryptography.DEFAULT_DIGEST_TYPE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void hashBuilder(final Blackhole blackhole) {
+        for (int i = 0; i < NODES; i++) {
+            blackhole.consume(VirtualHasher.ChunkHashTask.hash(NODES + i, lefts[i], rights[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public void batch(final Blackhole blackhole) {
+        batch.clear();
+        for (int i = 0; i < NODES; i++) {
+            batch.add(i, NODES + i, lefts[i], rights[i]);
+        }
+        batch.digest();
+        for (int i = 0; i < NODES; i++) {
+            blackhole.consume(batch.getHash(i));
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.swirlds.virtualmap;
 import static com.swirlds.common.io.streams.StreamDebugUtils.deserializeAndDebugOnFailure;
 import static com.swirlds.common.utility.CommonUtils.getNormalisedStringBytes;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.io.ExternalSelfSerializable;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
@@ -43,6 +44,8 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -510,4 +513,30 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
     public void warm(final K key) {
         root.warm(key);
     }
+
+    /**
+     * Warms leaf records for multiple keys at once. It works like {@link #warm} called
+     * for every key, but the records are loaded from disk in a single batch, which is faster than
+     * loading them one by one.
+     *
+     * @param keys keys of the leaves to warm
+     */
+    public void warmAll(final Collection<K> keys) {
+        root.warmAll(keys);
+    }
+
+    /**
+     * Gets an iterator over keys in this map, whose serialized bytes are greater or equal to the given
+     * from bytes, and less than the given to bytes, in unsigned lexicographic order of the bytes. Only
+     * supported if the data source maintains an ordered key index, see {@link
+     * VirtualDataSource#isKeyRangeIterationSupported()}.
+     *
+     * @param fromKeyBytes the lower bound of the range, inclusive
+     * @param toKeyBytes the upper bound of the range, exclusive, or null if the range has no upper bound
+     * @return the iterator over keys in the range
+     * @throws UnsupportedOperationException if the data source doesn't support key range iteration
+     */
+    public Iterator<K> keyRangeIterator(final Bytes fromKeyBytes, final Bytes toKeyBytes) {
+        return root.keyRangeIterator(fromKeyBytes, toKeyBytes);
+    }
 }
@@ -47,6 +47,11 @@ import java.time.Duration;
  *      During reconnect, virtual nodes are periodically flushed to disk after they are hashed. This
  *      interval indicates the number of nodes to hash before they are flushed to disk. If zero, all
  *      hashed nodes are flushed in the end of reconnect hashing only.
+ * @param reconnectMaxPendingFlushes
+ *      During reconnect, hashed nodes may be flushed to disk on a dedicated thread, while the next batch of
+ *      nodes is being hashed. This is the max number of batches waiting to be flushed, before hashing threads
+ *      are blocked. If zero, batches are flushed on hashing threads. Ignored if {@link #reconnectFlushInterval}
+ *      is zero.
  * @param percentCleanerThreads
  * 		Gets the percentage (from 0.0 to 100.0) of available processors to devote to cache
  * 		cleaner threads. Ignored if an explicit number of threads is given via {@code virtualMap.numCleanerThreads}.
@@ -96,6 +101,7 @@ public record VirtualMapConfig(
         @Min(1) @Max(64) @ConfigProperty(defaultValue = "3") int virtualHasherChunkHeight,
         @ConfigProperty(defaultValue = PUSH) String reconnectMode,
         @Min(0) @ConfigProperty(defaultValue = "500000") int reconnectFlushInterval,
+        @Min(0) @ConfigProperty(defaultValue = "1") int reconnectMaxPendingFlushes,
         @Min(0) @Max(100) @ConfigProperty(defaultValue = "25.0")
                 double percentCleanerThreads, // FUTURE WORK: We need to add min/max support for double values
         @Min(-1) @ConfigProperty(defaultValue = "-1") int numCleanerThreads,
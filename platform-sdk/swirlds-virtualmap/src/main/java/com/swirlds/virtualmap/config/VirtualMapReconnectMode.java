@@ -39,5 +39,12 @@ public final class VirtualMapReconnectMode {
      */
     public static final String PULL_TWO_PHASE_PESSIMISTIC = "pullTwoPhasePessimistic";
 
+    /**
+     * "Pull / adaptive" reconnect mode, when learner sends requests to teacher starting from the root
+     * of the virtual tree, and only descends into sub-trees, which roots are different on the teacher.
+     * The number of requests is proportional to the difference between learner and teacher trees
+     */
+    public static final String PULL_ADAPTIVE = "pullAdaptive";
+
     private VirtualMapReconnectMode() {}
 }
@@ -16,6 +16,7 @@
 
 package com.swirlds.virtualmap.datasource;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.metrics.api.Metrics;
@@ -23,6 +24,9 @@ import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -145,6 +149,27 @@ public interface VirtualDataSource<K extends VirtualKey, V extends VirtualValue>
      */
     VirtualLeafRecord<K, V> loadLeafRecord(final long path) throws IOException;
 
+    /**
+     * Load the records for multiple leaf nodes by keys. Implementations may reorder and batch
+     * underlying reads, so loading many records in a single call is usually faster than loading
+     * them one by one with {@link #loadLeafRecord(VirtualKey)}.
+     *
+     * <p>The default implementation loads records one by one.
+     *
+     * @param keys
+     * 		the keys for leaves, must not contain nulls
+     * @return a list of leaf records in the same order as keys, with nulls for keys that are not stored
+     * @throws IOException
+     * 		If there was a problem reading leaf records
+     */
+    default List<VirtualLeafRecord<K, V>> loadLeafRecords(final List<K> keys) throws IOException {
+        final List<VirtualLeafRecord<K, V>> records = new ArrayList<>(keys.size());
+        for (final K key : keys) {
+            records.add(loadLeafRecord(key));
+        }
+        return records;
+    }
+
     /**
      * Find the path of the given key
      * @param key
@@ -155,6 +180,53 @@ public interface VirtualDataSource<K extends VirtualKey, V extends VirtualValue>
      */
     long findKey(final K key) throws IOException;
 
+    /**
+     * Indicates whether this data source maintains an ordered index of keys, which can be used to
+     * iterate over keys in a range of their serialized bytes. See {@link #keyRangeIterator(Bytes, Bytes)}.
+     *
+     * <p>By default, ordered key indices aren't supported.
+     *
+     * @return true if key range iteration is supported
+     */
+    default boolean isKeyRangeIterationSupported() {
+        return false;
+    }
+
+    /**
+     * Get serialized bytes of the given key, as used to order keys for {@link #keyRangeIterator(Bytes,
+     * Bytes)}. Only supported, if {@link #isKeyRangeIterationSupported()} returns true.
+     *
+     * @param key
+     * 		the key to serialize
+     * @return serialized key bytes
+     * @throws UnsupportedOperationException
+     * 		if key range iteration isn't supported
+     */
+    default Bytes getOrderedKeyBytes(final K key) {
+        throw new UnsupportedOperationException("Key range iteration isn't supported");
+    }
+
+    /**
+     * Get an iterator over keys stored in this data source, whose serialized bytes (see {@link
+     * #getOrderedKeyBytes(VirtualKey)}) are greater or equal to the given from bytes, and less than
+     * the given to bytes. Keys are returned in unsigned lexicographic order of their serialized bytes.
+     * Only keys that have been saved with {@link #saveRecords} are returned. The iterator is weakly
+     * consistent: keys saved or deleted while the iterator is in use may or may not be returned.
+     *
+     * @param fromKeyBytes
+     * 		the lower bound of the range, inclusive
+     * @param toKeyBytes
+     * 		the upper bound of the range, exclusive, or null if the range has no upper bound
+     * @return the iterator over keys in the range
+     * @throws IOException
+     * 		If there was a problem reading keys
+     * @throws UnsupportedOperationException
+     * 		if key range iteration isn't supported
+     */
+    default Iterator<K> keyRangeIterator(final Bytes fromKeyBytes, final Bytes toKeyBytes) throws IOException {
+        throw new UnsupportedOperationException("Key range iteration isn't supported");
+    }
+
     /**
      * Load a virtual node hash by path.
      *
@@ -166,6 +238,26 @@ public interface VirtualDataSource<K extends VirtualKey, V extends VirtualValue>
      */
     Hash loadHash(final long path) throws IOException;
 
+    /**
+     * Load virtual node hashes by paths. Implementations may reorder and batch underlying reads,
+     * so loading many hashes in a single call is usually faster than loading them one by one with
+     * {@link #loadHash(long)}.
+     *
+     * <p>The default implementation loads hashes one by one.
+     *
+     * @param paths virtual node paths
+     * @return an array of hashes in the same order as paths, with nulls for paths that are not stored
+     * @throws IOException
+     * 		If there was a problem loading hashes from data source
+     */
+    default Hash[] loadHashes(final long[] paths) throws IOException {
+        final Hash[] hashes = new Hash[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            hashes[i] = loadHash(paths[i]);
+        }
+        return hashes;
+    }
+
     /**
      * Load a virtual node hash by path and, if found, write it to the specified output stream. This
      * method helps avoid (de)serialization overhead during reconnects on the teacher side. Instead of
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * A concurrent map from primitive {@code long} keys to objects, optimized for use by the
+ * {@link VirtualNodeCache} path indexes.
+ * <p>
+ * Unlike {@link java.util.concurrent.ConcurrentHashMap}, this map doesn't box keys and doesn't
+ * allocate a node per entry. Keys and values are stored in two parallel arrays using open
+ * addressing with linear probing. The map is split into a fixed number of segments, each segment
+ * is a separate hash table. Writes to a segment are serialized using the segment lock, reads are
+ * lock-free.
+ * <p>
+ * Once a key is placed into a slot of a segment table, the slot is never reused for a different
+ * key. Removed entries keep their keys, only their values are cleared. This makes it safe for
+ * readers to probe a table while it's being modified. When a table runs out of free slots, a new
+ * table is created, all live entries are copied to it, and the new table is published to readers.
+ * Removed entries are dropped at this moment.
+ * <p>
+ * {@link Long#MIN_VALUE} is reserved and can't be used as a key. Null values aren't supported,
+ * a null value means there is no entry for a key.
+ *
+ * @param <V>
+ * 		the value type
+ */
+final class ConcurrentLongObjectMap<V> {
+
+    /**
+     * A function to compute a new value for a key, used in {@link #compute(long, Remapping)}.
+     *
+     * @param <V>
+     * 		the value type
+     */
+    @FunctionalInterface
+    interface Remapping<V> {
+        /**
+         * Computes a new value for a key.
+         *
+         * @param key
+         * 		the key
+         * @param value
+         * 		the current value, or null if there is no value for the key
+         * @return the new value, or null to remove the entry
+         */
+        V apply(long key, V value);
+    }
+
+    /**
+     * A consumer of map entries, used in {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V>
+     * 		the value type
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        /**
+         * Accepts a map entry.
+         *
+         * @param key
+         * 		the entry key
+         * @param value
+         * 		the entry value, never null
+         */
+        void accept(long key, V value);
+    }
+
+    /** Marks an empty table slot. This value can't be used as a key */
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    /** Number of segments, must be a power of two */
+    private static final int SEGMENT_COUNT = 32;
+
+    /** Segment table capacity, when a segment is created. Must be a power of two */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    /** Table keys are read with acquire and written with release semantics */
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** Table values are read with acquire and written with release semantics */
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Segment[] segments;
+
+    /**
+     * Create a new empty map.
+     */
+    ConcurrentLongObjectMap() {
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Gets the value for the given key. This method may be called concurrently with other reads
+     * and writes.
+     *
+     * @param key
+     * 		the key
+     * @return the value, or null if there is no value for the key
+     */
+    @SuppressWarnings("unchecked")
+    V get(final long key) {
+        final long hash = hash(key);
+        final Table table = segment(hash).table;
+        final int mask = table.keys.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            final long k = (long) KEYS.getAcquire(table.keys, i);
+            if (k == key) {
+                return (V) VALUES.getAcquire(table.values, i);
+            }
+            if (k == EMPTY_KEY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Puts a value for the given key, replacing the current value, if any.
+     *
+     * @param key
+     * 		the key, must not be {@link Long#MIN_VALUE}
+     * @param value
+     * 		the value, must not be null
+     */
+    void put(final long key, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        compute(key, (k, v) -> value);
+    }
+
+    /**
+     * Removes the value for the given key.
+     *
+     * @param key
+     * 		the key
+     */
+    void remove(final long key) {
+        compute(key, (k, v) -> null);
+    }
+
+    /**
+     * Atomically computes a new value for the given key. The remapping function is called while
+     * holding a lock, so it must be short and must not update this map. Other keys may be updated
+     * concurrently, unless they belong to the same segment.
+     *
+     * @param key
+     * 		the key, must not be {@link Long#MIN_VALUE}
+     * @param remapping
+     * 		the function to compute the new value
+     * @return the new value, or null if there is no value for the key after this call
+     */
+    @SuppressWarnings({"unchecked", "NonAtomicOperationOnVolatileField"})
+    V compute(final long key, final Remapping<V> remapping) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        final long hash = hash(key);
+        final Segment segment = segment(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, key, hash);
+            if ((table.keys[slot] == EMPTY_KEY) && (segment.used + 1 > table.threshold())) {
+                table = segment.rehash();
+                slot = findSlot(table, key, hash);
+            }
+            final boolean emptySlot = table.keys[slot] == EMPTY_KEY;
+            final V oldValue = (V) table.values[slot];
+            final V newValue = remapping.apply(key, oldValue);
+            if (newValue != oldValue) {
+                // The value is published before the key, so readers never see a new key
+                // without its value
+                VALUES.setRelease(table.values, slot, newValue);
+                if ((newValue != null) && emptySlot) {
+                    KEYS.setRelease(table.keys, slot, key);
+                    segment.used++;
+                }
+                if (oldValue == null) {
+                    segment.size++;
+                } else if (newValue == null) {
+                    segment.size--;
+                }
+            }
+            return newValue;
+        }
+    }
+
+    /**
+     * Calls the given consumer for every entry in this map. The iteration is weakly consistent:
+     * entries added or removed concurrently may or may not be visited.
+     *
+     * @param action
+     * 		the consumer to call
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(final EntryConsumer<V> action) {
+        for (final Segment segment : segments) {
+            final Table table = segment.table;
+            for (int i = 0; i < table.keys.length; i++) {
+                final long key = (long) KEYS.getAcquire(table.keys, i);
+                if (key != EMPTY_KEY) {
+                    final V value = (V) VALUES.getAcquire(table.values, i);
+                    if (value != null) {
+                        action.accept(key, value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entries in this map. If the map is updated concurrently, the result
+     * is an estimate.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        int size = 0;
+        for (final Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment segment(final long hash) {
+        // Upper bits select a segment, lower bits select a slot in the segment table
+        return segments[(int) (hash >>> 32) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Finds a slot for the given key in the table: either the slot with this key, or the first
+     * empty slot in the probe sequence.
+     */
+    private static int findSlot(final Table table, final long key, final long hash) {
+        final int mask = table.keys.length - 1;
+        int i = (int) hash & mask;
+        while ((table.keys[i] != key) && (table.keys[i] != EMPTY_KEY)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * A hash table in a segment. Tables are never resized, a new table is created instead.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        Table(final int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY_KEY);
+            values = new Object[capacity];
+        }
+
+        /** Max number of used slots, including removed entries, before the table is rebuilt */
+        int threshold() {
+            return keys.length - (keys.length >>> 2);
+        }
+    }
+
+    /**
+     * A map segment. All segment fields except {@link #table} are only accessed when holding
+     * the segment lock.
+     */
+    private static final class Segment {
+        /** The current segment table */
+        private volatile Table table = new Table(MIN_SEGMENT_CAPACITY);
+
+        /** Number of used slots in the current table, including slots of removed entries */
+        private int used = 0;
+
+        /** Number of entries in this segment. Read without the lock in {@link #size()} */
+        private volatile int size = 0;
+
+        /**
+         * Creates a new table, copies all live entries to it, and publishes it to readers.
+         * Must be called when holding the segment lock.
+         *
+         * @return the new table
+         */
+        @SuppressWarnings("NonAtomicOperationOnVolatileField")
+        Table rehash() {
+            final Table oldTable = table;
+            // Keep the new table at most half full
+            int capacity = MIN_SEGMENT_CAPACITY;
+            while (capacity < (size + 1) * 2) {
+                capacity <<= 1;
+            }
+            final Table newTable = new Table(capacity);
+            int count = 0;
+            for (int i = 0; i < oldTable.keys.length; i++) {
+                final Object value = oldTable.values[i];
+                if (value != null) {
+                    final long key = oldTable.keys[i];
+                    final int slot = findSlot(newTable, key, hash(key));
+                    newTable.keys[slot] = key;
+                    newTable.values[slot] = value;
+                    count++;
+                }
+            }
+            used = count;
+            // Volatile write publishes the fully populated table to readers
+            table = newTable;
+            return newTable;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -93,13 +94,14 @@ import org.apache.logging.log4j.Logger;
  * To fulfill these design requirements, each "chain" of caches share three different indexes:
  * {@link #keyToDirtyLeafIndex}, {@link #pathToDirtyLeafIndex}, and {@link #pathToDirtyHashIndex}.
  * Each of these is a map from either the leaf key or a path (long) to a custom linked list data structure. Each element
- * in the list is a {@link Mutation} with a reference to the data item (either a {@link VirtualHashRecord}
- * or a {@link VirtualLeafRecord}, depending on the list), and a reference to the next {@link Mutation}
- * in the list. In this way, given a leaf key or path (based on the index), you can get the linked list and
- * walk the links from mutation to mutation. The most recent mutation is first in the list, the oldest mutation
- * is last. There is at most one mutation per cache per entry in one of these indexes. If a leaf value is modified
- * twice in a single cache, only a single mutation exists recording the most recent change. There is no need to
- * keep track of multiple mutations per cache instance for the same leaf or internal node.
+ * in the list is a {@link Mutation} (or a {@link PathMutation} for path indexes) with a reference to the data item
+ * (either a {@link VirtualHashRecord} or a {@link VirtualLeafRecord}, depending on the list), and a reference to
+ * the next mutation in the list. In this way, given a leaf key or path (based on the index), you can get the linked
+ * list and walk the links from mutation to mutation. Path indexes are {@link ConcurrentLongObjectMap}s, so path
+ * lookups and updates don't box paths and don't allocate map nodes. The most recent mutation is first in the list,
+ * the oldest mutation is last. There is at most one mutation per cache per entry in one of these indexes. If a leaf
+ * value is modified twice in a single cache, only a single mutation exists recording the most recent change. There
+ * is no need to keep track of multiple mutations per cache instance for the same leaf or internal node.
  * <p>
  * If there is one non-obvious gotcha that you *MUST* be aware of to use this class, it is that a record
  * (leaf or internal) *MUST NOT BE REUSED ACROSS CACHE INSTANCES*. If I create a leaf record, and put it
@@ -216,14 +218,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, K>> pathToDirtyLeafIndex;
+    private final ConcurrentLongObjectMap<PathMutation<K>> pathToDirtyLeafIndex;
 
     /**
      * A shared index of paths to internals, via {@link Mutation}s. Works the same as {@link #keyToDirtyLeafIndex}.
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, Hash>> pathToDirtyHashIndex;
+    private final ConcurrentLongObjectMap<PathMutation<Hash>> pathToDirtyHashIndex;
 
     /**
      * Whether this instance is released. A released cache is often the last in the
@@ -269,7 +271,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * <p>
      * <strong>ONE PER CACHE INSTANCE</strong>.
      */
-    private ConcurrentArray<Mutation<Long, K>> dirtyLeafPaths = new ConcurrentArray<>();
+    private ConcurrentArray<PathMutation<K>> dirtyLeafPaths = new ConcurrentArray<>();
 
     /**
      * A set of all modifications to node hashes that occurred in this version of the cache.
@@ -279,7 +281,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * <p>
      * <strong>ONE PER CACHE INSTANCE</strong>.
      */
-    private ConcurrentArray<Mutation<Long, Hash>> dirtyHashes = new ConcurrentArray<>();
+    private ConcurrentArray<PathMutation<Hash>> dirtyHashes = new ConcurrentArray<>();
 
     /**
      * Indicates if this virtual cache instance contains mutations from older cache versions
@@ -318,8 +320,8 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      */
     public VirtualNodeCache() {
         this.keyToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyHashIndex = new ConcurrentHashMap<>();
+        this.pathToDirtyLeafIndex = new ConcurrentLongObjectMap<>();
+        this.pathToDirtyHashIndex = new ConcurrentLongObjectMap<>();
         this.releaseLock = new ReentrantLock();
         this.lastReleased = new AtomicLong(-1L);
     }
@@ -715,7 +717,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         // Note that the mutations in pathToDirtyLeafIndex contain the *path* as the key,
         // and a leaf record *key* as the value. Thus, we look up a mutation first in the
         // pathToDirtyLeafIndex, get the leaf key, and then lookup based on that key.
-        final Mutation<Long, K> mutation = lookup(pathToDirtyLeafIndex.get(path));
+        final PathMutation<K> mutation = lookup(pathToDirtyLeafIndex.get(path));
         // If mutation is null (path is unknown), return null regardless of forModify
         if (mutation == null) {
             return null;
@@ -819,6 +821,21 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         return (dirtyLeaves == null) ? 0 : dirtyLeaves.size();
     }
 
+    /**
+     * Gets a stream of keys of all leaves, which have mutations in any cache copy in the chain that
+     * hasn't been released yet. It may include keys of deleted leaves, and keys of leaves only
+     * changed in newer cache copies than this one. Callers must use {@link #lookupLeafByKey(VirtualKey,
+     * boolean)} or other lookup methods to check what the keys correspond to in this copy.
+     * <p>
+     * This method may be called concurrently from multiple threads. The stream is weakly
+     * consistent with cache changes made while it is in use.
+     *
+     * @return A non-null stream of keys. May be empty. Will not contain duplicate keys.
+     */
+    public Stream<K> dirtyLeafKeys() {
+        return keyToDirtyLeafIndex.keySet().stream();
+    }
+
     /**
      * Gets a stream of deleted leaves <strong>from this cache instance</strong>.
      * <p>
@@ -939,7 +956,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             return null;
         }
 
-        final Mutation<Long, Hash> mutation = lookup(pathToDirtyHashIndex.get(path));
+        final PathMutation<Hash> mutation = lookup(pathToDirtyHashIndex.get(path));
 
         // Always return null if there is no mutation regardless of forModify
         if ((mutation == null) || (mutation.value == NULL_HASH)) {
@@ -983,10 +1000,10 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         // Mark obsolete mutations to filter later
         filterMutations(dirtyHashes);
         return dirtyHashes.stream()
-                .filter(mutation -> mutation.key <= lastLeafPath)
+                .filter(mutation -> mutation.path <= lastLeafPath)
                 .filter(mutation -> !mutation.isFiltered())
                 .map(mutation ->
-                        new VirtualHashRecord(mutation.key, mutation.value != NULL_HASH ? mutation.value : null));
+                        new VirtualHashRecord(mutation.path, mutation.value != NULL_HASH ? mutation.value : null));
     }
 
     /**
@@ -1164,14 +1181,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     private <V1> void updatePaths(
             final V1 value,
             final long path,
-            final Map<Long, Mutation<Long, V1>> index,
-            final ConcurrentArray<Mutation<Long, V1>> dirtyPaths) {
+            final ConcurrentLongObjectMap<PathMutation<V1>> index,
+            final ConcurrentArray<PathMutation<V1>> dirtyPaths) {
         index.compute(path, (key, mutation) -> {
             // If there is no mutation or the mutation isn't for this version, then we need to create a new mutation.
             // Note that this code DEPENDS on hashing only a single round at a time. VirtualPipeline
             // enforces this constraint.
-            Mutation<Long, V1> nextMutation = mutation;
-            Mutation<Long, V1> previousMutation = null;
+            PathMutation<V1> nextMutation = mutation;
+            PathMutation<V1> previousMutation = null;
             while (nextMutation != null && nextMutation.version > fastCopyVersion.get()) {
                 previousMutation = nextMutation;
                 nextMutation = nextMutation.next;
@@ -1180,7 +1197,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 // It must be that there is *NO* mutation in the dirtyPaths for this cache version.
                 // I don't have an easy way to assert it programmatically, but by inspection, it must be true.
                 // Create a mutation for this version pointing to the next oldest mutation (if any).
-                nextMutation = new Mutation<>(nextMutation, path, value, fastCopyVersion.get());
+                nextMutation = new PathMutation<>(nextMutation, path, value, fastCopyVersion.get());
                 nextMutation.setDeleted(value == null);
                 // Hold a reference to this newest mutation in this cache
                 dirtyPaths.add(nextMutation);
@@ -1207,12 +1224,12 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      *
      * @param mutation
      * 		The mutation list, can be null.
-     * @param <K1> The key type held by the mutation. Either a Key or a path.
-     * @param <V1>>
-     * 		The value type held by the mutation. It will be either a Key, leaf record, or a hash.
+     * @param <M>
+     * 		The mutation type. Either a {@link Mutation} or a {@link PathMutation}.
      * @return null if the mutation could be found, or the mutation.
      */
-    private <K1, V1> Mutation<K1, V1> lookup(Mutation<K1, V1> mutation) {
+    @SuppressWarnings("unchecked")
+    private <M extends AbstractMutation<?>> M lookup(M mutation) {
         // Walk the list of values until we find the best match for our version
         for (; ; ) {
             // If mutation is null, then there is nothing else to look for. We're done.
@@ -1226,7 +1243,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             }
 
             // Look up the next mutation
-            mutation = mutation.next;
+            mutation = (M) mutation.getNext();
         }
     }
 
@@ -1299,6 +1316,34 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 }));
     }
 
+    /**
+     * Called by one of the purge threads to purge entries from a path index that no longer have a referent
+     * for the mutation list. This can be called concurrently.
+     *
+     * @param index
+     * 		The path index to look through for entries to purge
+     * @param <V>
+     * 		The value type referenced by the mutation list
+     */
+    private static <V> void purge(
+            final ConcurrentArray<PathMutation<V>> array, final ConcurrentLongObjectMap<PathMutation<V>> index) {
+        array.parallelTraverse(
+                getCleaningPool(),
+                element -> index.compute(element.path, (path, mutation) -> {
+                    if (mutation == null || element.equals(mutation)) {
+                        // Already removed for a more recent mutation
+                        return null;
+                    }
+                    for (PathMutation<V> m = mutation; m.next != null; m = m.next) {
+                        if (element.equals(m.next)) {
+                            m.next = null;
+                            break;
+                        }
+                    }
+                    return mutation;
+                }));
+    }
+
     /**
      * Node cache contains lists of hash and leaf mutations for every cache version. When caches
      * are merged, the lists are merged, too. To make merges very fast, duplicates aren't removed
@@ -1310,16 +1355,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * obsolete, if there is a newer mutation for the same key.
      *
      * @param array
-     * @param <K>
-     * 		The key type used in the index
-     * @param <V>
-     * 		The value type referenced by the mutation list
+     * @param <M>
+     * 		The mutation type. Either a {@link Mutation} or a {@link PathMutation}.
      */
-    private static <K, V> void filterMutations(final ConcurrentArray<Mutation<K, V>> array) {
-        final Consumer<Mutation<K, V>> action = mutation -> {
+    private static <M extends AbstractMutation<?>> void filterMutations(final ConcurrentArray<M> array) {
+        final Consumer<M> action = mutation -> {
             // local variable is required because mutation.next can be changed by another thread to null
             // see https://github.com/hashgraph/hedera-services/issues/7046 for the context
-            Mutation<K, V> nextMutation = mutation.next;
+            final AbstractMutation<?> nextMutation = mutation.getNext();
             if (nextMutation != null) {
                 nextMutation.setFiltered();
             }
@@ -1373,6 +1416,39 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
     }
 
+    /**
+     * Copies the mutations from {@code src} path index into {@code dst} with the same constraints
+     * as {@link #setMapSnapshotAndArray(Map, Map, ConcurrentArray)}.
+     *
+     * @param src
+     * 		Path index that contains the original mutations
+     * @param dst
+     * 		Path index that acts as the destination of mutations
+     * @param <L2>
+     * 		Value type
+     */
+    private <L2> void setMapSnapshotAndArray(
+            final ConcurrentLongObjectMap<PathMutation<L2>> src,
+            final ConcurrentLongObjectMap<PathMutation<L2>> dst,
+            final ConcurrentArray<PathMutation<L2>> array) {
+        final long accepted = fastCopyVersion.get();
+        final long rejected = lastReleased.get();
+        src.forEach((path, head) -> {
+            PathMutation<L2> mutation = head;
+
+            while (mutation != null && mutation.version > accepted) {
+                mutation = mutation.next;
+            }
+
+            if (mutation == null || mutation.version <= rejected) {
+                return;
+            }
+
+            dst.put(path, mutation);
+            array.add(mutation);
+        });
+    }
+
     /**
      * Serialize the {@link #pathToDirtyHashIndex}.
      *
@@ -1384,20 +1460,27 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<PathMutation<Hash>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, Hash>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, Hash> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
-            assert mutation.version <= this.fastCopyVersion.get()
-                    : "Trying to serialize pathToDirtyInternalIndex with a version ahead";
-            out.writeLong(mutation.version);
-            out.writeBoolean(mutation.isDeleted());
-            if (!mutation.isDeleted()) {
-                out.writeSerializable(mutation.value, true);
-            }
+        try {
+            map.forEach((path, mutation) -> {
+                assert mutation.version <= this.fastCopyVersion.get()
+                        : "Trying to serialize pathToDirtyInternalIndex with a version ahead";
+                try {
+                    out.writeLong(path);
+                    out.writeLong(mutation.version);
+                    out.writeBoolean(mutation.isDeleted());
+                    if (!mutation.isDeleted()) {
+                        out.writeSerializable(mutation.value, true);
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
@@ -1412,7 +1495,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataInputStream in, final int version)
+            final ConcurrentLongObjectMap<PathMutation<Hash>> map,
+            final SerializableDataInputStream in,
+            final int version)
             throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
@@ -1427,7 +1512,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 }
                 hash = in.readSerializable();
             }
-            final Mutation<Long, Hash> mutation = new Mutation<>(null, key, hash, mutationVersion);
+            final PathMutation<Hash> mutation = new PathMutation<>(null, key, hash, mutationVersion);
             mutation.setDeleted(deleted);
             map.put(key, mutation);
             dirtyHashes.add(mutation);
@@ -1445,19 +1530,25 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<PathMutation<K>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, K>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, K> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
-            assert mutation.version <= this.fastCopyVersion.get()
-                    : "Trying to serialize pathToDirtyLeafIndex with a version ahead";
-
-            out.writeSerializable(mutation.value, true);
-            out.writeLong(mutation.version);
-            out.writeBoolean(mutation.isDeleted());
+        try {
+            map.forEach((path, mutation) -> {
+                assert mutation.version <= this.fastCopyVersion.get()
+                        : "Trying to serialize pathToDirtyLeafIndex with a version ahead";
+                try {
+                    out.writeLong(path);
+                    out.writeSerializable(mutation.value, true);
+                    out.writeLong(mutation.version);
+                    out.writeBoolean(mutation.isDeleted());
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
@@ -1472,15 +1563,16 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataInputStream in) throws IOException {
+            final ConcurrentLongObjectMap<PathMutation<K>> map, final SerializableDataInputStream in)
+            throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
-            final Long path = in.readLong();
+            final long path = in.readLong();
             final K key = in.readSerializable();
             final long mutationVersion = in.readLong();
             final boolean deleted = in.readBoolean();
 
-            final Mutation<Long, K> mutation = new Mutation<>(null, path, key, mutationVersion);
+            final PathMutation<K> mutation = new PathMutation<>(null, path, key, mutationVersion);
             mutation.setDeleted(deleted);
             map.put(path, mutation);
             dirtyLeafPaths.add(mutation);
@@ -1566,16 +1658,13 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     }
 
     /**
-     * A mutation. Mutations are linked together within the mutation list. Each mutation
+     * Base class for mutations. Mutations are linked together within the mutation list. Each mutation
      * has a pointer to the next oldest mutation in the list.
-     * @param <K> The key type of data held by the mutation.
      * @param <V> The type of data held by the mutation.
      */
-    private static final class Mutation<K, V> {
-        private volatile Mutation<K, V> next;
-        private final long version; // The version of the cache that owns this mutation
-        private final K key;
-        private volatile V value;
+    private abstract static class AbstractMutation<V> {
+        final long version; // The version of the cache that owns this mutation
+        volatile V value;
         private volatile byte flags = 0;
 
         // A bit in the flags field, which indicates whether this mutation is for a deleted op
@@ -1584,13 +1673,17 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         // into resulting stream of dirty hashes / leaves
         private static final int FLAG_BIT_FILTERED = 1;
 
-        Mutation(Mutation<K, V> next, K key, V value, long version) {
-            this.next = next;
-            this.key = key;
+        AbstractMutation(V value, long version) {
             this.value = value;
             this.version = version;
         }
 
+        /** The next oldest mutation in the list, or null */
+        abstract AbstractMutation<V> getNext();
+
+        /** The key or path of this mutation, for debugging only */
+        abstract Object getDebugKey();
+
         boolean getFlag(int bit) {
             return ((0xFF & flags) & (1 << bit)) != 0;
         }
@@ -1621,6 +1714,58 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
     }
 
+    /**
+     * A mutation in a key-based index.
+     * @param <K> The key type of data held by the mutation.
+     * @param <V> The type of data held by the mutation.
+     */
+    private static final class Mutation<K, V> extends AbstractMutation<V> {
+        private volatile Mutation<K, V> next;
+        private final K key;
+
+        Mutation(Mutation<K, V> next, K key, V value, long version) {
+            super(value, version);
+            this.next = next;
+            this.key = key;
+        }
+
+        @Override
+        Mutation<K, V> getNext() {
+            return next;
+        }
+
+        @Override
+        Object getDebugKey() {
+            return key;
+        }
+    }
+
+    /**
+     * A mutation in a path-based index. The path is stored as a primitive, so path mutations
+     * don't allocate boxed paths.
+     * @param <V> The type of data held by the mutation.
+     */
+    private static final class PathMutation<V> extends AbstractMutation<V> {
+        private volatile PathMutation<V> next;
+        private final long path;
+
+        PathMutation(PathMutation<V> next, long path, V value, long version) {
+            super(value, version);
+            this.next = next;
+            this.path = path;
+        }
+
+        @Override
+        PathMutation<V> getNext() {
+            return next;
+        }
+
+        @Override
+        Object getDebugKey() {
+            return path;
+        }
+    }
+
     /**
      * Given some cache, print out the contents of all the data structures and mark specially the set of mutations
      * that apply to this cache.
@@ -1637,20 +1782,17 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         //noinspection unchecked
         builder.append(toDebugStringIndex("keyToDirtyLeafIndex", (Map<Object, Mutation>) (Object) keyToDirtyLeafIndex))
                 .append("\n");
-        //noinspection unchecked
-        builder.append(toDebugStringIndex(
-                        "pathToDirtyLeafIndex", (Map<Object, Mutation>) (Object) pathToDirtyLeafIndex))
+        builder.append(toDebugStringIndex("pathToDirtyLeafIndex", pathToDirtyLeafIndex))
                 .append("\n");
-        //noinspection unchecked
-        builder.append(toDebugStringIndex(
-                        "pathToDirtyHashIndex", (Map<Object, Mutation>) (Object) pathToDirtyHashIndex))
+        builder.append(toDebugStringIndex("pathToDirtyHashIndex", pathToDirtyHashIndex))
                 .append("\n");
         //noinspection unchecked
-        builder.append(toDebugStringArray("dirtyLeaves", (ConcurrentArray<Mutation>) (Object) dirtyLeaves));
+        builder.append(toDebugStringArray("dirtyLeaves", (ConcurrentArray<AbstractMutation>) (Object) dirtyLeaves));
         //noinspection unchecked
-        builder.append(toDebugStringArray("dirtyLeafPaths", (ConcurrentArray<Mutation>) (Object) dirtyLeafPaths));
+        builder.append(
+                toDebugStringArray("dirtyLeafPaths", (ConcurrentArray<AbstractMutation>) (Object) dirtyLeafPaths));
         //noinspection unchecked
-        builder.append(toDebugStringArray("dirtyHashes", (ConcurrentArray<Mutation>) (Object) dirtyHashes));
+        builder.append(toDebugStringArray("dirtyHashes", (ConcurrentArray<AbstractMutation>) (Object) dirtyHashes));
         return builder.toString();
     }
 
@@ -1680,30 +1822,39 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             final String indexName, @SuppressWarnings("rawtypes") final Map<Object, Mutation> index) {
         final StringBuilder builder = new StringBuilder();
         builder.append(indexName).append(":\n");
+        index.forEach((key, mutation) -> appendDebugStringMutations(builder, key, mutation));
+        return builder.toString();
+    }
 
-        index.forEach((key, mutation) -> {
-            builder.append("\t").append(key).append(":==> ");
-            while (mutation != null) {
-                builder.append("[")
-                        .append(mutation.key)
-                        .append(",")
-                        .append(mutation.value)
-                        .append(",")
-                        .append(mutation.isDeleted() ? "D," : "")
-                        .append("V")
-                        .append(mutation.version)
-                        .append(mutation.version == this.fastCopyVersion.get() ? "*" : "")
-                        .append("]->");
-                mutation = mutation.next;
-            }
-            builder.append("\n");
-        });
-
+    private String toDebugStringIndex(
+            final String indexName, final ConcurrentLongObjectMap<? extends AbstractMutation<?>> index) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(indexName).append(":\n");
+        index.forEach((path, mutation) -> appendDebugStringMutations(builder, path, mutation));
         return builder.toString();
     }
 
+    private void appendDebugStringMutations(
+            final StringBuilder builder, final Object key, AbstractMutation<?> mutation) {
+        builder.append("\t").append(key).append(":==> ");
+        while (mutation != null) {
+            builder.append("[")
+                    .append(mutation.getDebugKey())
+                    .append(",")
+                    .append(mutation.value)
+                    .append(",")
+                    .append(mutation.isDeleted() ? "D," : "")
+                    .append("V")
+                    .append(mutation.version)
+                    .append(mutation.version == this.fastCopyVersion.get() ? "*" : "")
+                    .append("]->");
+            mutation = mutation.getNext();
+        }
+        builder.append("\n");
+    }
+
     private String toDebugStringArray(
-            final String name, @SuppressWarnings("rawtypes") final ConcurrentArray<Mutation> arr) {
+            final String name, @SuppressWarnings("rawtypes") final ConcurrentArray<AbstractMutation> arr) {
         final StringBuilder builder = new StringBuilder();
         builder.append(name).append(":\n");
 
@@ -1711,7 +1862,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         for (int i = 0; i < size; i++) {
             final var mutation = arr.get(i);
             builder.append("\t")
-                    .append(mutation.key)
+                    .append(mutation.getDebugKey())
                     .append(",")
                     .append(mutation.value)
                     .append(",")
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.engine.BatchDigestProvider;
+import com.swirlds.virtualmap.internal.merkle.VirtualInternalNode;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import java.util.Arrays;
+
+/**
+ * A batch of virtual internal nodes to hash. Nodes are added to the batch one by one, then all of them
+ * are hashed in a single {@link BatchDigestProvider} call.
+ * <p>
+ * Internal node hash input is the same as the one built by {@code HashBuilder} in virtual hasher: node
+ * class ID, node serialization version, left child hash, and right child hash. All inputs are of the
+ * same length, and they are written to a single byte array, which is reused across batches.
+ * <p>
+ * This class is not thread safe. Virtual hasher uses one batch per hashing thread.
+ */
+final class InternalHashBatch {
+
+    private final BatchDigestProvider digestProvider;
+
+    private final DigestType digestType;
+
+    /** Internal node hash input length: class ID, serialization version, and two child hashes */
+    private final int inputLength;
+
+    /** Inputs of all nodes in the batch */
+    private byte[] inputs;
+
+    /** Digests of all nodes in the batch, valid after {@link #digest()} is called */
+    private byte[] outputs;
+
+    /** Caller provided indices of all nodes in the batch */
+    private int[] indices;
+
+    /** Paths of all nodes in the batch */
+    private long[] paths;
+
+    /** Number of nodes in the batch */
+    private int size = 0;
+
+    /**
+     * Creates a new empty batch.
+     *
+     * @param digestProvider
+     * 		the digest provider to hash nodes
+     */
+    InternalHashBatch(final BatchDigestProvider digestProvider) {
+        this.digestProvider = digestProvider;
+        this.digestType = digestProvider.getDigestType();
+        this.inputLength = Long.BYTES + Integer.BYTES + 2 * digestType.digestLength();
+        final int initialCapacity = 16;
+        inputs = new byte[initialCapacity * inputLength];
+        outputs = new byte[initialCapacity * digestType.digestLength()];
+        indices = new int[initialCapacity];
+        paths = new long[initialCapacity];
+    }
+
+    /**
+     * Removes all nodes from this batch.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds an internal node to this batch.
+     *
+     * @param index
+     * 		the caller provided node index, returned by {@link #getIndex(int)}
+     * @param path
+     * 		the node path
+     * @param left
+     * 		the left child hash
+     * @param right
+     * 		the right child hash
+     */
+    void add(final int index, final long path, final Hash left, final Hash right) {
+        if (size == indices.length) {
+            final int newCapacity = size * 2;
+            inputs = Arrays.copyOf(inputs, newCapacity * inputLength);
+            outputs = Arrays.copyOf(outputs, newCapacity * digestType.digestLength());
+            indices = Arrays.copyOf(indices, newCapacity);
+            paths = Arrays.copyOf(paths, newCapacity);
+        }
+        final long classId = path == ROOT_PATH ? VirtualRootNode.CLASS_ID : VirtualInternalNode.CLASS_ID;
+        final int serId = path == ROOT_PATH
+                ? VirtualRootNode.ClassVersion.CURRENT_VERSION
+                : VirtualInternalNode.SERIALIZATION_VERSION;
+        int pos = size * inputLength;
+        // Numbers are in little-endian byte order, the same as in HashBuilder
+        pos = writeLittleEndian(classId, Long.BYTES, pos);
+        pos = writeLittleEndian(serId, Integer.BYTES, pos);
+        final int digestLength = digestType.digestLength();
+        left.getBytes().getBytes(0, inputs, pos, digestLength);
+        right.getBytes().getBytes(0, inputs, pos + digestLength, digestLength);
+        indices[size] = index;
+        paths[size] = path;
+        size++;
+    }
+
+    /**
+     * Hashes all nodes in this batch.
+     */
+    void digest() {
+        if (size > 0) {
+            digestProvider.digest(inputs, inputLength, size, outputs);
+        }
+    }
+
+    /**
+     * Gets the number of nodes in this batch.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the caller provided index of a node in this batch.
+     *
+     * @param i
+     * 		the node position in the batch
+     * @return the index provided to {@link #add(int, long, Hash, Hash)}
+     */
+    int getIndex(final int i) {
+        return indices[i];
+    }
+
+    /**
+     * Gets the path of a node in this batch.
+     *
+     * @param i
+     * 		the node position in the batch
+     * @return the node path
+     */
+    long getPath(final int i) {
+        return paths[i];
+    }
+
+    /**
+     * Gets the hash of a node in this batch. Must be called after {@link #digest()}.
+     *
+     * @param i
+     * 		the node position in the batch
+     * @return the node hash
+     */
+    Hash getHash(final int i) {
+        final int digestLength = digestType.digestLength();
+        final byte[] value = Arrays.copyOfRange(outputs, i * digestLength, (i + 1) * digestLength);
+        return new Hash(value, digestType);
+    }
+
+    private int writeLittleEndian(long value, final int bytes, int pos) {
+        for (int i = 0; i < bytes; i++) {
+            inputs[pos++] = (byte) (value & 0xFF);
+            value >>= Byte.SIZE;
+        }
+        return pos;
+    }
+}
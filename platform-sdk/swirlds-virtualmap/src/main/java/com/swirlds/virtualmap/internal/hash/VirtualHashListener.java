@@ -54,4 +54,11 @@ public interface VirtualHashListener<K extends VirtualKey, V extends VirtualValu
      * Called when all hashing has completed.
      */
     default void onHashingCompleted() {}
+
+    /**
+     * Called instead of {@link #onHashingCompleted()}, when hashing fails or the hasher is shut down
+     * before hashing is complete. Listeners should release any resources acquired in {@link
+     * #onHashingStarted()}.
+     */
+    default void onHashingFailed() {}
 }
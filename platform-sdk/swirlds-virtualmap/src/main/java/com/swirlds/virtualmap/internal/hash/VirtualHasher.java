@@ -25,6 +25,7 @@ import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.CryptographyHolder;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.crypto.HashBuilder;
+import com.swirlds.common.crypto.engine.BatchDigestProvider;
 import com.swirlds.common.wiring.tasks.AbstractTask;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualMap;
@@ -68,6 +69,12 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
     private static final ThreadLocal<HashBuilder> HASH_BUILDER_THREAD_LOCAL =
             ThreadLocal.withInitial(() -> new HashBuilder(Cryptography.DEFAULT_DIGEST_TYPE));
 
+    /**
+     * This thread-local gets a batch of internal nodes to hash on a per-thread basis.
+     */
+    private static final ThreadLocal<InternalHashBatch> HASH_BATCH_THREAD_LOCAL = ThreadLocal.withInitial(
+            () -> new InternalHashBatch(BatchDigestProvider.create(Cryptography.DEFAULT_DIGEST_TYPE)));
+
     /**
      * A function to look up clean hashes by path during hashing. This function is stored in
      * a class field to avoid passing it as an arg to every hashing task.
@@ -222,24 +229,30 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
                 } else {
                     int len = 1 << height;
                     long rankPath = Path.getLeftGrandChildPath(path, height);
+                    final InternalHashBatch batch = HASH_BATCH_THREAD_LOCAL.get();
                     while (len > 1) {
+                        // All dirty nodes in a rank are independent, hash them in a single batch
+                        batch.clear();
                         for (int i = 0; i < len / 2; i++) {
-                            final long hashedPath = Path.getParentPath(rankPath + i * 2);
                             Hash left = ins[i * 2];
                             Hash right = ins[i * 2 + 1];
-                            if ((left == null) && (right == null)) {
-                                ins[i] = null;
-                            } else {
+                            if ((left != null) || (right != null)) {
                                 if (left == null) {
                                     left = hashReader.apply(rankPath + i * 2);
                                 }
                                 if (right == null) {
                                     right = hashReader.apply(rankPath + i * 2 + 1);
                                 }
-                                ins[i] = hash(hashedPath, left, right);
-                                listener.onNodeHashed(hashedPath, ins[i]);
+                                batch.add(i, Path.getParentPath(rankPath + i * 2), left, right);
                             }
                         }
+                        batch.digest();
+                        Arrays.fill(ins, 0, len / 2, null);
+                        for (int j = 0; j < batch.size(); j++) {
+                            final Hash nodeHash = batch.getHash(j);
+                            ins[batch.getIndex(j)] = nodeHash;
+                            listener.onNodeHashed(batch.getPath(j), nodeHash);
+                        }
                         rankPath = Path.getParentPath(rankPath);
                         len = len >> 1;
                     }
@@ -338,6 +351,44 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         // Let the listener know we have started hashing.
         listener.onHashingStarted();
 
+        final Hash rootHash;
+        try {
+            rootHash = hashDirtyLeaves(
+                    sortedDirtyLeaves, firstLeafPath, lastLeafPath, chunkHeight, firstLeafRank, lastLeafRank, NULL_HASH);
+        } catch (final RuntimeException | Error e) {
+            // onHashingCompleted() is never called in this case, let the listener release its resources
+            listener.onHashingFailed();
+            throw e;
+        }
+        if (rootHash == null) {
+            // The hasher has been shut down
+            listener.onHashingFailed();
+            return null;
+        }
+
+        listener.onHashingCompleted();
+
+        this.hashReader = null;
+        this.listener = null;
+
+        return rootHash;
+    }
+
+    /**
+     * Hashes the given dirty leaves and all their parents up to the root. Called from {@link
+     * #hash(LongFunction, Iterator, long, long, VirtualHashListener)} between listener's {@link
+     * VirtualHashListener#onHashingStarted()} and {@link VirtualHashListener#onHashingCompleted()}.
+     *
+     * @return the root hash, or null if this hasher has been shut down while hashing
+     */
+    private Hash hashDirtyLeaves(
+            final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final int chunkHeight,
+            final int firstLeafRank,
+            final int lastLeafRank,
+            final Hash NULL_HASH) {
         // This map contains all tasks created, but not scheduled for execution yet
         final HashMap<Long, ChunkHashTask> map = new HashMap<>();
         // The result task. It is never executed, but used as an output dependency for
@@ -509,11 +560,6 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             throw e;
         }
 
-        listener.onHashingCompleted();
-
-        this.hashReader = null;
-        this.listener = null;
-
         return resultTask.ins[0];
     }
 
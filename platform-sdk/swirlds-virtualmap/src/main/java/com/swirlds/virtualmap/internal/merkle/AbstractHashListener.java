@@ -16,8 +16,12 @@
 
 package com.swirlds.virtualmap.internal.merkle;
 
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
 import com.swirlds.virtualmap.config.VirtualMapConfig;
@@ -33,8 +37,15 @@ import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The hashing algorithm in the {@link com.swirlds.virtualmap.internal.hash.VirtualHasher} is setup to
@@ -56,6 +67,10 @@ import java.util.stream.Stream;
  * deepest rank (the leaves) to the lowest rank (nearest the top). When we flush, we flush in the opposite order
  * from the closest to the top of the tree to the deepest rank. Each rank is processed in ascending path order.
  * So we store each rank as a separate array and then stream them out in the proper order to disk.
+ * <p>
+ * If {@link VirtualMapConfig#reconnectMaxPendingFlushes()} is positive, flushes are pipelined: batches are
+ * written to the data source on a dedicated flusher thread, while hashing threads keep hashing the next batch.
+ * Hashing threads only wait, when the number of batches waiting to be written exceeds the limit.
  *
  * @param <K>
  * 		The key
@@ -65,6 +80,8 @@ import java.util.stream.Stream;
 public abstract class AbstractHashListener<K extends VirtualKey, V extends VirtualValue>
         implements VirtualHashListener<K, V> {
 
+    private static final Logger logger = LogManager.getLogger(AbstractHashListener.class);
+
     private final VirtualDataSource<K, V> dataSource;
     private final long firstLeafPath;
     private final long lastLeafPath;
@@ -79,6 +96,15 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
 
     private int reconnectFlushInterval = 0;
 
+    // Flusher thread, if flushes are pipelined, or null if flushes are done on hashing threads
+    private ExecutorService flushExecutor;
+
+    // Limits the number of batches submitted to the flusher thread, but not written yet
+    private Semaphore pendingFlushes;
+
+    // The first exception thrown by the flusher thread, if any
+    private final AtomicReference<Throwable> flushException = new AtomicReference<>();
+
     /**
      * Create a new {@link ReconnectHashListener}.
      *
@@ -112,8 +138,18 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
         assert (hashes == null) && (leaves == null) : "Hashing must not be started yet";
         hashes = new ArrayList<>();
         leaves = new ArrayList<>();
-        reconnectFlushInterval =
-                ConfigurationHolder.getConfigData(VirtualMapConfig.class).reconnectFlushInterval();
+        final VirtualMapConfig config = ConfigurationHolder.getConfigData(VirtualMapConfig.class);
+        reconnectFlushInterval = config.reconnectFlushInterval();
+        final int maxPendingFlushes = config.reconnectMaxPendingFlushes();
+        if ((reconnectFlushInterval > 0) && (maxPendingFlushes > 0)) {
+            pendingFlushes = new Semaphore(maxPendingFlushes);
+            flushExecutor = Executors.newSingleThreadExecutor(new ThreadConfiguration(getStaticThreadManager())
+                    .setComponent("virtualmap")
+                    .setThreadName("reconnect-flusher")
+                    .setExceptionHandler((t, ex) ->
+                            logger.error(EXCEPTION.getMarker(), "Uncaught exception during reconnect flush", ex))
+                    .buildFactory());
+        }
     }
 
     /**
@@ -124,22 +160,31 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
         assert hashes != null && leaves != null : "onNodeHashed called without onHashingStarted";
         final List<VirtualHashRecord> dirtyHashesToFlush;
         final List<VirtualLeafRecord<K, V>> dirtyLeavesToFlush;
+        final Stream<VirtualLeafRecord<K, V>> leavesToRemove;
         synchronized (this) {
             hashes.add(new VirtualHashRecord(path, hash));
             if ((reconnectFlushInterval > 0)
                     && (hashes.size() >= reconnectFlushInterval)
-                    && flushInProgress.compareAndSet(false, true)) {
+                    && ((flushExecutor != null) || flushInProgress.compareAndSet(false, true))) {
                 dirtyHashesToFlush = hashes;
                 hashes = new ArrayList<>();
                 dirtyLeavesToFlush = leaves;
                 leaves = new ArrayList<>();
+                // Leaves to remove are collected together with the batch, so a pipelined flush
+                // removes exactly the leaves known at the moment when the batch is complete
+                leavesToRemove = (flushExecutor != null) ? findLeavesToRemove() : null;
             } else {
                 dirtyHashesToFlush = null;
                 dirtyLeavesToFlush = null;
+                leavesToRemove = null;
             }
         }
         if ((dirtyHashesToFlush != null) && (dirtyLeavesToFlush != null)) {
-            flush(dirtyHashesToFlush, dirtyLeavesToFlush);
+            if (flushExecutor != null) {
+                submitFlush(dirtyHashesToFlush, dirtyLeavesToFlush, leavesToRemove);
+            } else {
+                flush(dirtyHashesToFlush, dirtyLeavesToFlush);
+            }
         }
     }
 
@@ -158,13 +203,113 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
             finalLeavesToFlush = leaves;
             leaves = null;
         }
-        if (!finalNodesToFlush.isEmpty() || !finalLeavesToFlush.isEmpty()) {
+        if (flushExecutor != null) {
+            try {
+                if (!finalNodesToFlush.isEmpty() || !finalLeavesToFlush.isEmpty()) {
+                    submitFlush(finalNodesToFlush, finalLeavesToFlush, findLeavesToRemove());
+                }
+            } finally {
+                awaitFlushes();
+            }
+        } else if (!finalNodesToFlush.isEmpty() || !finalLeavesToFlush.isEmpty()) {
             assert !flushInProgress.get() : "Flush must not be in progress when hashing is complete";
             flushInProgress.set(true);
             flush(finalNodesToFlush, finalLeavesToFlush);
         }
     }
 
+    /**
+     * Stops the flusher thread, if flushes are pipelined. Batches not written yet are discarded, but
+     * a batch being written is waited for, so the data source isn't used after this method returns.
+     */
+    @Override
+    public void onHashingFailed() {
+        synchronized (this) {
+            hashes = null;
+            leaves = null;
+        }
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+            try {
+                awaitFlushExecutorTermination();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                flushExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Submits a batch to the flusher thread. If too many batches are already waiting to be written, this
+     * method blocks until a previous batch is written. Batches may be written in any order, since every
+     * path is hashed once, and leaf removals are conditional on the key still being at the old path.
+     */
+    private void submitFlush(
+            @NonNull final List<VirtualHashRecord> hashesToFlush,
+            @NonNull final List<VirtualLeafRecord<K, V>> leavesToFlush,
+            @NonNull final Stream<VirtualLeafRecord<K, V>> leavesToRemove) {
+        checkFlushException();
+        try {
+            pendingFlushes.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a reconnect flush", e);
+        }
+        flushExecutor.execute(() -> {
+            try {
+                if (flushException.get() == null) {
+                    saveRecords(hashesToFlush, leavesToFlush, leavesToRemove);
+                }
+            } catch (final Throwable e) {
+                flushException.compareAndSet(null, e);
+            } finally {
+                pendingFlushes.release();
+            }
+        });
+    }
+
+    /**
+     * Waits until all batches submitted to the flusher thread are written, and stops the thread.
+     */
+    private void awaitFlushes() {
+        flushExecutor.shutdown();
+        try {
+            awaitFlushExecutorTermination();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flushExecutor.shutdownNow();
+            throw new IllegalStateException("Interrupted while waiting for reconnect flushes", e);
+        } finally {
+            flushExecutor = null;
+        }
+        checkFlushException();
+    }
+
+    private void awaitFlushExecutorTermination() throws InterruptedException {
+        while (!flushExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // Keep waiting, flushes of large batches may take a while
+        }
+    }
+
+    /**
+     * Rethrows the first exception thrown by the flusher thread, if any.
+     */
+    private void checkFlushException() {
+        final Throwable e = flushException.get();
+        if (e instanceof UncheckedIOException uncheckedIOException) {
+            throw uncheckedIOException;
+        } else if (e instanceof IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } else if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e instanceof Error error) {
+            throw error;
+        } else if (e != null) {
+            throw new IllegalStateException("Reconnect flush failed", e);
+        }
+    }
+
     // Since flushes may take quite some time, this method is called outside synchronized blocks,
     // otherwise all hashing tasks would be blocked on listener calls until flush is completed.
     private void flush(
@@ -174,13 +319,7 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
         try {
             // flush it down
             try {
-                dataSource.saveRecords(
-                        firstLeafPath,
-                        lastLeafPath,
-                        hashesToFlush.stream(),
-                        leavesToFlush.stream(),
-                        findLeavesToRemove(),
-                        true);
+                saveRecords(hashesToFlush, leavesToFlush, findLeavesToRemove());
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
@@ -189,6 +328,15 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
         }
     }
 
+    private void saveRecords(
+            @NonNull final List<VirtualHashRecord> hashesToFlush,
+            @NonNull final List<VirtualLeafRecord<K, V>> leavesToFlush,
+            @NonNull final Stream<VirtualLeafRecord<K, V>> leavesToRemove)
+            throws IOException {
+        dataSource.saveRecords(
+                firstLeafPath, lastLeafPath, hashesToFlush.stream(), leavesToFlush.stream(), leavesToRemove, true);
+    }
+
     /**
      * Find the leaves that need to be removed from the data source up to this moment.
      *
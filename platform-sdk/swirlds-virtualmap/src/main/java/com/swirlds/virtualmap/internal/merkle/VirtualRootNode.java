@@ -39,6 +39,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.ExternalSelfSerializable;
@@ -74,6 +75,7 @@ import com.swirlds.virtualmap.internal.hash.VirtualHashListener;
 import com.swirlds.virtualmap.internal.hash.VirtualHasher;
 import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
 import com.swirlds.virtualmap.internal.pipeline.VirtualRoot;
+import com.swirlds.virtualmap.internal.reconnect.AdaptiveTraversalOrder;
 import com.swirlds.virtualmap.internal.reconnect.ConcurrentBlockingIterator;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPullVirtualTreeView;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPushVirtualTreeView;
@@ -91,6 +93,12 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -1394,6 +1402,8 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                     getStaticThreadManager(), reconnectConfig, this, state, pipeline);
             case VirtualMapReconnectMode.PULL_TWO_PHASE_PESSIMISTIC -> new TeacherPullVirtualTreeView<>(
                     getStaticThreadManager(), reconnectConfig, this, state, pipeline);
+            case VirtualMapReconnectMode.PULL_ADAPTIVE -> new TeacherPullVirtualTreeView<>(
+                    getStaticThreadManager(), reconnectConfig, this, state, pipeline);
             default -> throw new UnsupportedOperationException("Unknown reconnect mode: " + config.reconnectMode());
         };
     }
@@ -1487,6 +1497,17 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                         nodeRemover,
                         twoPhasePessimistic);
             }
+            case VirtualMapReconnectMode.PULL_ADAPTIVE -> {
+                final NodeTraversalOrder adaptive = new AdaptiveTraversalOrder();
+                yield new LearnerPullVirtualTreeView<>(
+                        reconnectConfig,
+                        this,
+                        originalMap.records,
+                        originalState,
+                        reconnectState,
+                        nodeRemover,
+                        adaptive);
+            }
             default -> throw new UnsupportedOperationException("Unknown reconnect mode: " + config.reconnectMode());
         };
     }
@@ -1593,6 +1614,71 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         records.findLeafRecord(key, false);
     }
 
+    /**
+     * Loads leaf records for multiple keys. Keys found in the node cache are skipped, all other
+     * records are loaded from the data source in a single batch, which lets the data source
+     * reorder and deduplicate disk reads.
+     * @param keys keys to the leaf nodes
+     */
+    public void warmAll(final Collection<K> keys) {
+        final List<K> notCached = new ArrayList<>(keys.size());
+        for (final K key : keys) {
+            if (cache.lookupLeafByKey(key, false) == null) {
+                notCached.add(key);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return;
+        }
+        try {
+            dataSource.loadLeafRecords(notCached);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read leaf records from the data source by keys", e);
+        }
+    }
+
+    /**
+     * Gets an iterator over keys in this map, whose serialized bytes are greater or equal to the
+     * given from bytes, and less than the given to bytes. Keys are returned in unsigned lexicographic
+     * order of their serialized bytes, see {@link VirtualDataSource#getOrderedKeyBytes(VirtualKey)}.
+     * <p>
+     * Keys saved to the data source are merged with keys of leaves in the node cache, which haven't
+     * been flushed yet. Every key is checked against this copy of the map before it's returned, so
+     * keys removed in this copy aren't returned, even if they are still in the data source. Keys of
+     * all dirty leaves in the cache are scanned on every call, so the cost of this method is
+     * proportional to the number of dirty leaves plus the number of keys in the range. The iterator
+     * is weakly consistent, if the map is modified while the iterator is in use.
+     *
+     * @param fromKeyBytes
+     * 		the lower bound of the range, inclusive
+     * @param toKeyBytes
+     * 		the upper bound of the range, exclusive, or null if the range has no upper bound
+     * @return the iterator over keys in the range
+     * @throws UnsupportedOperationException
+     * 		if the data source doesn't support key range iteration
+     */
+    public Iterator<K> keyRangeIterator(@NonNull final Bytes fromKeyBytes, @Nullable final Bytes toKeyBytes) {
+        Objects.requireNonNull(fromKeyBytes);
+        if (!dataSource.isKeyRangeIterationSupported()) {
+            throw new UnsupportedOperationException("Virtual data source doesn't support key range iteration");
+        }
+        final byte[] from = fromKeyBytes.toByteArray();
+        final byte[] to = (toKeyBytes == null) ? null : toKeyBytes.toByteArray();
+        final List<OrderedKey<K>> cachedKeys = cache.dirtyLeafKeys()
+                .map(key -> new OrderedKey<>(key, dataSource.getOrderedKeyBytes(key).toByteArray()))
+                .filter(k -> (Arrays.compareUnsigned(k.bytes(), from) >= 0)
+                        && ((to == null) || (Arrays.compareUnsigned(k.bytes(), to) < 0)))
+                .sorted((k1, k2) -> Arrays.compareUnsigned(k1.bytes(), k2.bytes()))
+                .toList();
+        final Iterator<K> storedKeys;
+        try {
+            storedKeys = dataSource.keyRangeIterator(fromKeyBytes, toKeyBytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read keys from the data source", e);
+        }
+        return new KeyRangeIterator(cachedKeys, storedKeys);
+    }
+
     ////////////////////////
 
     /**
@@ -1712,4 +1798,83 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
     public long getFastCopyVersion() {
         return fastCopyVersion;
     }
+
+    /**
+     * A key and its serialized bytes, as used by the data source to order keys.
+     */
+    private record OrderedKey<K>(K key, byte[] bytes) {}
+
+    /**
+     * Merges sorted keys from the node cache and from the data source, and filters out keys that
+     * don't exist in this copy of the map.
+     */
+    private final class KeyRangeIterator implements Iterator<K> {
+
+        private final List<OrderedKey<K>> cachedKeys;
+
+        private final Iterator<K> storedKeys;
+
+        private int cachedIndex = 0;
+
+        private OrderedKey<K> nextStored;
+
+        private K next;
+
+        KeyRangeIterator(final List<OrderedKey<K>> cachedKeys, final Iterator<K> storedKeys) {
+            this.cachedKeys = cachedKeys;
+            this.storedKeys = storedKeys;
+            nextStored = nextStoredKey();
+        }
+
+        private OrderedKey<K> nextStoredKey() {
+            if (!storedKeys.hasNext()) {
+                return null;
+            }
+            final K key = storedKeys.next();
+            return new OrderedKey<>(key, dataSource.getOrderedKeyBytes(key).toByteArray());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                final OrderedKey<K> cached = (cachedIndex < cachedKeys.size()) ? cachedKeys.get(cachedIndex) : null;
+                final OrderedKey<K> candidate;
+                if (cached == null && nextStored == null) {
+                    return false;
+                } else if (cached == null) {
+                    candidate = nextStored;
+                    nextStored = nextStoredKey();
+                } else if (nextStored == null) {
+                    candidate = cached;
+                    cachedIndex++;
+                } else {
+                    final int cmp = Arrays.compareUnsigned(cached.bytes(), nextStored.bytes());
+                    if (cmp <= 0) {
+                        candidate = cached;
+                        cachedIndex++;
+                        if (cmp == 0) {
+                            nextStored = nextStoredKey();
+                        }
+                    } else {
+                        candidate = nextStored;
+                        nextStored = nextStoredKey();
+                    }
+                }
+                if (records.findKey(candidate.key()) != INVALID_PATH) {
+                    next = candidate.key();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final K key = next;
+            next = null;
+            return key;
+        }
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Virtual node traversal policy, which only descends into sub-trees that differ between the
+ * learner and the teacher. It starts from the root node. When a response for an internal node
+ * is received, and the node is dirty, its children are scheduled to be sent to the teacher. When
+ * the node is clean, its whole sub-tree is skipped. Unlike {@link TopToBottomTraversalOrder},
+ * no request is sent for a node until its parent is known to be dirty, so the number of requests
+ * is proportional to the size of the difference rather than to the size of the tree. It makes
+ * this policy a good fit for learners, which are only a few rounds behind the teacher.
+ *
+ * <p>Paths are sent in ascending order, so higher ranks are checked before lower ranks, and
+ * leaves are sent in the order of their paths. Scheduled paths are kept sorted. A path is only
+ * sent, when no response still expected from the teacher can schedule a smaller path, i.e. when
+ * it's less than the left child of the smallest path in flight. Requests for many independent
+ * sub-trees are still pipelined. When there is nothing to send, but some responses are expected,
+ * {@link #getNextPathToSend()} blocks until a response is received.
+ *
+ * <p>The policy is adaptive. It tracks the ratio of dirty nodes at every rank. Nodes are never
+ * cleaner than their children, so if most nodes at the rank of a dirty node are dirty, the next
+ * rank is likely to be mostly dirty, too. In this case the dirty node's children are not sent at
+ * all. Instead, its grandchildren are scheduled right away, which saves a round trip to the
+ * teacher for a rank, where almost nothing can be skipped anyway. Leaves are always sent.
+ */
+public class AdaptiveTraversalOrder implements NodeTraversalOrder {
+
+    /** Returned from {@link #pollNextPathToSend()}, when there is nothing to send until more responses arrive */
+    static final long WAIT_FOR_RESPONSES = Path.INVALID_PATH - 1;
+
+    /** Min number of responses at a rank to make a decision based on its dirty ratio */
+    private static final int MIN_RANK_RESPONSES = 16;
+
+    /** If the dirty ratio at a rank is higher than this threshold, the rank is skipped */
+    private static final double SKIP_RANK_DIRTY_RATIO = 0.75;
+
+    private ReconnectNodeCount nodeCount;
+
+    private long reconnectFirstLeafPath;
+    private long reconnectLastLeafPath;
+
+    // Guards all the fields below. Paths to send are scheduled on the receiving thread and polled
+    // on the sending thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Signalled on the receiving thread, when a response is received
+    private final Condition responseReceived = lock.newCondition();
+
+    // Paths to send to the teacher, sorted
+    private final PriorityQueue<Long> toSend = new PriorityQueue<>();
+
+    // Paths sent, but not responded yet. Initialized with the root path, since it's always sent
+    // first by the learner's sending task
+    private final TreeSet<Long> pending = new TreeSet<>();
+
+    // Number of responses and dirty responses received at every rank
+    private final long[] rankResponses = new long[Long.SIZE];
+    private final long[] rankDirtyResponses = new long[Long.SIZE];
+
+    public AdaptiveTraversalOrder() {
+        pending.add(ROOT_PATH);
+    }
+
+    @Override
+    public void start(final long firstLeafPath, final long lastLeafPath, final ReconnectNodeCount nodeCount) {
+        this.reconnectFirstLeafPath = firstLeafPath;
+        this.reconnectLastLeafPath = lastLeafPath;
+        this.nodeCount = nodeCount;
+        if (lastLeafPath <= 0) {
+            // Empty tree, no response for the root is reported, and no more paths to send
+            lock.lock();
+            try {
+                pending.clear();
+                responseReceived.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void nodeReceived(final long path, final boolean isClean) {
+        final boolean isLeaf = path >= reconnectFirstLeafPath;
+        if (isLeaf) {
+            nodeCount.incrementLeafCount();
+            if (isClean) {
+                nodeCount.incrementRedundantLeafCount();
+            }
+        } else {
+            nodeCount.incrementInternalCount();
+            if (isClean) {
+                nodeCount.incrementRedundantInternalCount();
+            }
+        }
+        lock.lock();
+        try {
+            final int rank = Path.getRank(path);
+            rankResponses[rank]++;
+            if (!isClean) {
+                rankDirtyResponses[rank]++;
+                if (!isLeaf) {
+                    scheduleChildren(path);
+                }
+            }
+            pending.remove(path);
+            responseReceived.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleChildren(final long path) {
+        final boolean skipChildRank = isMostlyDirty(Path.getRank(path));
+        scheduleChild(Path.getLeftChildPath(path), skipChildRank);
+        scheduleChild(Path.getRightChildPath(path), skipChildRank);
+    }
+
+    private void scheduleChild(final long child, final boolean skipChildRank) {
+        if (child > reconnectLastLeafPath) {
+            return;
+        }
+        if (skipChildRank && (child < reconnectFirstLeafPath)) {
+            // An internal node always has two children
+            toSend.add(Path.getLeftChildPath(child));
+            toSend.add(Path.getRightChildPath(child));
+        } else {
+            toSend.add(child);
+        }
+    }
+
+    private boolean isMostlyDirty(final int rank) {
+        final long responses = rankResponses[rank];
+        return (responses >= MIN_RANK_RESPONSES) && (rankDirtyResponses[rank] > responses * SKIP_RANK_DIRTY_RATIO);
+    }
+
+    @Override
+    public long getNextPathToSend() throws InterruptedException {
+        lock.lock();
+        try {
+            long path = pollNextPathToSend();
+            while (path == WAIT_FOR_RESPONSES) {
+                responseReceived.await();
+                path = pollNextPathToSend();
+            }
+            return path;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the next path to send without waiting. If a path can't be sent until more responses
+     * are received, {@link #WAIT_FOR_RESPONSES} is returned.
+     *
+     * @return the next path to send, {@link Path#INVALID_PATH} if there are no more paths to send,
+     *      or {@link #WAIT_FOR_RESPONSES}
+     */
+    long pollNextPathToSend() {
+        lock.lock();
+        try {
+            final Long path = toSend.peek();
+            if (path == null) {
+                return pending.isEmpty() ? Path.INVALID_PATH : WAIT_FOR_RESPONSES;
+            }
+            // Responses in flight can only schedule their children or grandchildren
+            if (!pending.isEmpty() && (path >= Path.getLeftChildPath(pending.first()))) {
+                return WAIT_FOR_RESPONSES;
+            }
+            toSend.poll();
+            assert path != ROOT_PATH;
+            pending.add(path);
+            return path;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -119,12 +119,9 @@ public class LearnerPullVirtualTreeSendTask {
             }
 
             while (true) {
+                // Blocks, if the traversal order has to wait for more responses from the teacher
                 final long path = traversalOrder.getNextPathToSend();
                 logger.debug(RECONNECT.getMarker(), "Learner send path: " + path);
-                if (path < Path.INVALID_PATH) {
-                    Thread.onSpinWait();
-                    continue;
-                }
                 final Hash hash = path == Path.INVALID_PATH ? null : view.getNodeHash(path);
                 out.sendAsync(new PullVirtualTreeRequest(path, hash));
                 if (path == Path.INVALID_PATH) {
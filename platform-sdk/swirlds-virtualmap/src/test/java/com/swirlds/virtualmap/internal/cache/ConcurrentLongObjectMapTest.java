@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    @DisplayName("Put, get, and remove values")
+    void putGetRemove() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        final int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("v" + i, map.get(i), "Wrong value for key " + i);
+        }
+        assertNull(map.get(count));
+        assertNull(map.get(-1));
+
+        map.put(7, "seven");
+        assertEquals("seven", map.get(7));
+        assertEquals(count, map.size());
+
+        map.remove(7);
+        assertNull(map.get(7));
+        assertEquals(count - 1, map.size());
+        map.put(7, "seven again");
+        assertEquals("seven again", map.get(7));
+        assertEquals(count, map.size());
+    }
+
+    @Test
+    @DisplayName("Reserved key is rejected")
+    void reservedKey() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, "x"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+        assertNull(map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Compute creates, updates, and removes entries")
+    void compute() {
+        final ConcurrentLongObjectMap<Integer> map = new ConcurrentLongObjectMap<>();
+        assertEquals(1, map.compute(5, (k, v) -> v == null ? 1 : v + 1));
+        assertEquals(2, map.compute(5, (k, v) -> v == null ? 1 : v + 1));
+        assertEquals(2, map.get(5));
+        assertNull(map.compute(5, (k, v) -> null));
+        assertNull(map.get(5));
+        assertEquals(0, map.size());
+        // Removing a missing key is a no-op
+        assertNull(map.compute(6, (k, v) -> null));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("Removed entries don't grow the map")
+    void removedEntriesAreDropped() {
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        // Many different keys, but never more than 100 live keys at a time
+        for (long i = 0; i < 1_000_000; i++) {
+            map.put(i, i);
+            if (i >= 100) {
+                map.remove(i - 100);
+            }
+        }
+        assertEquals(100, map.size());
+        for (long i = 1_000_000 - 100; i < 1_000_000; i++) {
+            assertEquals(i, map.get(i));
+        }
+        assertNull(map.get(0));
+    }
+
+    @Test
+    @DisplayName("forEach visits all entries")
+    void forEach() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        for (long i = -500; i < 500; i++) {
+            map.put(i * 1_000_003, Long.toString(i));
+        }
+        map.remove(0);
+        final Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(999, visited.size());
+        for (long i = -500; i < 500; i++) {
+            if (i != 0) {
+                assertEquals(Long.toString(i), visited.get(i * 1_000_003));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Readers always see stable keys while other keys are written")
+    void concurrentReadsAndWrites() throws Exception {
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        final int stableCount = 1_000;
+        for (long i = 0; i < stableCount; i++) {
+            map.put(i, i);
+        }
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<String> error = new AtomicReference<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?> reader = executor.submit(() -> {
+                while (!done.get()) {
+                    for (long i = 0; i < stableCount; i++) {
+                        final Long value = map.get(i);
+                        if ((value == null) || (value != i)) {
+                            error.set("Key " + i + " mapped to " + value);
+                            return;
+                        }
+                    }
+                }
+            });
+            // Writers cause many table rebuilds
+            final Future<?>[] writers = new Future<?>[3];
+            for (int w = 0; w < writers.length; w++) {
+                final long base = (w + 1) * 1_000_000L;
+                writers[w] = executor.submit(() -> {
+                    for (long i = base; i < base + 200_000; i++) {
+                        map.compute(i, (k, v) -> k);
+                        if ((i % 2) == 0) {
+                            map.remove(i);
+                        }
+                    }
+                });
+            }
+            for (final Future<?> writer : writers) {
+                writer.get();
+            }
+            done.set(true);
+            reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(error.get(), "Reader must always see stable keys");
+        assertEquals(stableCount + 3 * 100_000, map.size());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.engine.BatchDigestProvider;
+import com.swirlds.common.test.fixtures.RandomUtils;
+import com.swirlds.common.test.fixtures.junit.tags.TestComponentTags;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link InternalHashBatch}.
+ */
+class InternalHashBatchTest {
+
+    @Test
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Batch hashes match internal node hashes built one by one")
+    void batchMatchesSingleHashes() {
+        final InternalHashBatch batch =
+                new InternalHashBatch(BatchDigestProvider.create(Cryptography.DEFAULT_DIGEST_TYPE));
+        final Random random = new Random(42);
+        // More nodes than the initial batch capacity, twice to check the batch is reusable
+        for (int round = 0; round < 2; round++) {
+            batch.clear();
+            final int count = 100;
+            final Hash[] lefts = new Hash[count];
+            final Hash[] rights = new Hash[count];
+            for (int i = 0; i < count; i++) {
+                lefts[i] = RandomUtils.randomHash(random);
+                rights[i] = RandomUtils.randomHash(random);
+                // Index 0 is the root node, which has a different class ID and version
+                batch.add(i * 3, ROOT_PATH + i, lefts[i], rights[i]);
+            }
+            batch.digest();
+            assertEquals(count, batch.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i * 3, batch.getIndex(i));
+                assertEquals(ROOT_PATH + i, batch.getPath(i));
+                final Hash expected = VirtualHasher.ChunkHashTask.hash(ROOT_PATH + i, lefts[i], rights[i]);
+                assertEquals(expected, batch.getHash(i), "Wrong hash for node " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongPredicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveTraversalOrderTest {
+
+    private static final ReconnectNodeCount NO_OP_COUNT = new ReconnectNodeCount() {
+        @Override
+        public void incrementLeafCount() {}
+
+        @Override
+        public void incrementRedundantLeafCount() {}
+
+        @Override
+        public void incrementInternalCount() {}
+
+        @Override
+        public void incrementRedundantInternalCount() {}
+    };
+
+    /**
+     * Emulates a reconnect: the root is sent first, then paths are requested from the traversal
+     * order, and responses are delivered in the same order, with the given number of requests in
+     * flight. Returns all requested paths, including the root.
+     */
+    private static List<Long> traverse(
+            final AdaptiveTraversalOrder order,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final LongPredicate isDirty,
+            final int inFlight) {
+        final List<Long> sent = new ArrayList<>();
+        final List<Long> pending = new ArrayList<>();
+        sent.add(Path.ROOT_PATH);
+        order.start(firstLeafPath, lastLeafPath, NO_OP_COUNT);
+        order.nodeReceived(Path.ROOT_PATH, !isDirty.test(Path.ROOT_PATH));
+        while (true) {
+            final long path = order.pollNextPathToSend();
+            if (path == Path.INVALID_PATH) {
+                break;
+            }
+            if ((path == AdaptiveTraversalOrder.WAIT_FOR_RESPONSES) || (pending.size() >= inFlight)) {
+                assertFalse(pending.isEmpty(), "Waiting for responses, but nothing is pending");
+                if (path != AdaptiveTraversalOrder.WAIT_FOR_RESPONSES) {
+                    pending.add(path);
+                    sent.add(path);
+                }
+                final long received = pending.remove(0);
+                order.nodeReceived(received, !isDirty.test(received));
+                continue;
+            }
+            pending.add(path);
+            sent.add(path);
+        }
+        assertTrue(pending.isEmpty(), "Traversal finished with pending responses");
+        return sent;
+    }
+
+    /** A node is dirty, if its sub-tree contains the given leaf */
+    private static LongPredicate dirtyLeaves(final Set<Long> leaves) {
+        return path -> leaves.stream().anyMatch(leaf -> Path.isInSubTree(path, leaf));
+    }
+
+    @Test
+    @DisplayName("Identical trees, only the root is sent")
+    void cleanTree() {
+        final List<Long> sent = traverse(new AdaptiveTraversalOrder(), 1023, 2046, p -> false, 8);
+        assertEquals(List.of(Path.ROOT_PATH), sent);
+    }
+
+    /** All sent paths, and therefore all sent leaf paths, must be strictly increasing */
+    private static void assertAscending(final List<Long> sent) {
+        for (int i = 1; i < sent.size(); i++) {
+            assertTrue(
+                    sent.get(i) > sent.get(i - 1),
+                    "Path " + sent.get(i) + " is sent after path " + sent.get(i - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Empty tree, nothing to send")
+    void emptyTree() {
+        final AdaptiveTraversalOrder order = new AdaptiveTraversalOrder();
+        order.start(Path.INVALID_PATH, Path.INVALID_PATH, NO_OP_COUNT);
+        assertEquals(Path.INVALID_PATH, order.pollNextPathToSend());
+    }
+
+    @Test
+    @DisplayName("A single dirty leaf, only its route from the root and siblings are sent")
+    void singleDirtyLeaf() {
+        final long firstLeafPath = 1023;
+        final long lastLeafPath = 2046;
+        final long dirtyLeaf = 1500;
+        final List<Long> sent =
+                traverse(new AdaptiveTraversalOrder(), firstLeafPath, lastLeafPath, dirtyLeaves(Set.of(dirtyLeaf)), 8);
+        // Rank 10 tree: two nodes at every rank below the root
+        assertEquals(1 + 2 * Path.getRank(dirtyLeaf), sent.size());
+        assertTrue(sent.contains(dirtyLeaf));
+        assertEquals(sent.size(), new HashSet<>(sent).size(), "No path must be sent twice");
+        assertAscending(sent);
+    }
+
+    @Test
+    @DisplayName("All dirty leaves are sent when many leaves differ")
+    void manyDirtyLeaves() {
+        final long firstLeafPath = 4000;
+        final long lastLeafPath = 8000;
+        final Set<Long> dirty = new HashSet<>();
+        for (long leaf = firstLeafPath; leaf <= lastLeafPath; leaf += 3) {
+            dirty.add(leaf);
+        }
+        // Rank of the first leaf is less than the rank of the last leaf, so all leaves are
+        // not in a single rank. Dirty nodes are those with any dirty leaf in their sub-trees
+        final List<Long> sent =
+                traverse(new AdaptiveTraversalOrder(), firstLeafPath, lastLeafPath, dirtyLeaves(dirty), 64);
+        final Set<Long> sentSet = new HashSet<>(sent);
+        assertEquals(sent.size(), sentSet.size(), "No path must be sent twice");
+        assertTrue(sentSet.containsAll(dirty), "All dirty leaves must be sent");
+        assertAscending(sent.stream().filter(p -> p >= firstLeafPath).toList());
+        // Most internal nodes are dirty, so some internal ranks must be skipped
+        long sentInternals = sent.stream().filter(p -> p < firstLeafPath).count();
+        assertTrue(sentInternals < firstLeafPath, "Some internal ranks should be skipped");
+    }
+
+    @Test
+    @DisplayName("The sender is blocked until a response is received")
+    void senderWaitsForResponses() throws Exception {
+        final AdaptiveTraversalOrder order = new AdaptiveTraversalOrder();
+        order.start(3, 6, NO_OP_COUNT);
+        final CompletableFuture<Long> next = CompletableFuture.supplyAsync(() -> {
+            try {
+                return order.getNextPathToSend();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        });
+        // The root response isn't received yet, so there is nothing to send
+        assertThrows(TimeoutException.class, () -> next.get(100, TimeUnit.MILLISECONDS));
+        order.nodeReceived(Path.ROOT_PATH, false);
+        assertEquals(1, next.get(5, TimeUnit.SECONDS));
+        assertEquals(2, order.getNextPathToSend());
+        // Children of 1 and 2 may only be scheduled after their responses are received
+        assertEquals(AdaptiveTraversalOrder.WAIT_FOR_RESPONSES, order.pollNextPathToSend());
+        order.nodeReceived(1, true);
+        order.nodeReceived(2, true);
+        assertEquals(Path.INVALID_PATH, order.getNextPathToSend());
+    }
+}
@@ -16,16 +16,21 @@
 
 package com.swirlds.virtualmap.internal.reconnect;
 
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 
+import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.CryptographyHolder;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.test.fixtures.junit.tags.TestQualifierTags;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.metrics.api.Metrics;
+import com.swirlds.virtualmap.config.VirtualMapConfig_;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
@@ -36,12 +41,15 @@ import com.swirlds.virtualmap.test.fixtures.TestValue;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.TreeSet;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -52,6 +60,11 @@ import org.junit.jupiter.params.provider.ValueSource;
 class ReconnectHashListenerTest {
     private static final Cryptography CRYPTO = CryptographyHolder.get();
 
+    @AfterEach
+    void restoreConfiguration() {
+        ConfigurationHolder.getInstance().setConfiguration(new TestConfigBuilder().getOrCreateConfig());
+    }
+
     @Test
     @DisplayName("Null datasource throws")
     void nullDataSourceThrows() {
@@ -141,6 +154,105 @@ class ReconnectHashListenerTest {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 4})
+    @DisplayName("All data is flushed in batches, whether flushes are pipelined or not")
+    void pipelinedFlushes(int maxPendingFlushes) {
+        ConfigurationHolder.getInstance()
+                .setConfiguration(new TestConfigBuilder()
+                        .withValue(VirtualMapConfig_.RECONNECT_FLUSH_INTERVAL, 100)
+                        .withValue(VirtualMapConfig_.RECONNECT_MAX_PENDING_FLUSHES, maxPendingFlushes)
+                        .getOrCreateConfig());
+
+        final VirtualDataSourceSpy ds = new VirtualDataSourceSpy(new InMemoryBuilder().build("pipelined", true));
+        final ReconnectNodeRemover<TestKey, TestValue> remover = mock(ReconnectNodeRemover.class);
+
+        final int size = 10_000;
+        final long last = size + size;
+        final ReconnectHashListener<TestKey, TestValue> listener = new ReconnectHashListener<>(size, last, ds, remover);
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        hasher.hash(
+                this::hash, LongStream.range(size, last).mapToObj(this::leaf).iterator(), size, last, listener);
+
+        assertTrue(ds.internalRecords.size() > 1, "Data should be flushed in multiple batches");
+        assertEquals(
+                size + size,
+                ds.internalRecords.stream().mapToInt(List::size).sum(),
+                "All internal records should be flushed once");
+        assertEquals(
+                size,
+                ds.leafRecords.stream().mapToInt(List::size).sum(),
+                "All leaf records should be flushed once");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Pipelined flush failure fails hashing")
+    void pipelinedFlushFailure() {
+        ConfigurationHolder.getInstance()
+                .setConfiguration(new TestConfigBuilder()
+                        .withValue(VirtualMapConfig_.RECONNECT_FLUSH_INTERVAL, 100)
+                        .withValue(VirtualMapConfig_.RECONNECT_MAX_PENDING_FLUSHES, 1)
+                        .getOrCreateConfig());
+
+        final VirtualDataSourceSpy ds = new VirtualDataSourceSpy(new InMemoryBuilder().build("flushFailure", true));
+        ds.failOnSave = true;
+        final ReconnectNodeRemover<TestKey, TestValue> remover = mock(ReconnectNodeRemover.class);
+
+        final int size = 1_000;
+        final long last = size + size;
+        final ReconnectHashListener<TestKey, TestValue> listener = new ReconnectHashListener<>(size, last, ds, remover);
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        assertThrows(
+                RuntimeException.class,
+                () -> hasher.hash(
+                        this::hash,
+                        LongStream.range(size, last).mapToObj(this::leaf).iterator(),
+                        size,
+                        last,
+                        listener),
+                "Flush failure should be propagated to the hashing thread");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Flusher thread is stopped when hashing fails")
+    void pipelinedFlushesStoppedOnHashingFailure() {
+        ConfigurationHolder.getInstance()
+                .setConfiguration(new TestConfigBuilder()
+                        .withValue(VirtualMapConfig_.RECONNECT_FLUSH_INTERVAL, 100)
+                        .withValue(VirtualMapConfig_.RECONNECT_MAX_PENDING_FLUSHES, 4)
+                        .getOrCreateConfig());
+
+        final VirtualDataSourceSpy ds = new VirtualDataSourceSpy(new InMemoryBuilder().build("hashingFailure", true));
+        final ReconnectNodeRemover<TestKey, TestValue> remover = mock(ReconnectNodeRemover.class);
+
+        final int size = 1_000;
+        final long last = size + size;
+        final ReconnectHashListener<TestKey, TestValue> listener = new ReconnectHashListener<>(size, last, ds, remover);
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        // Some batches are submitted to the flusher thread before the leaf iterator fails
+        final long failurePath = size + size * 4 / 5;
+        final Iterator<VirtualLeafRecord<TestKey, TestValue>> leaves = LongStream.range(size, last)
+                .mapToObj(path -> {
+                    if (path == failurePath) {
+                        throw new IllegalStateException("Test failure");
+                    }
+                    return leaf(path);
+                })
+                .iterator();
+        assertThrows(
+                IllegalStateException.class,
+                () -> hasher.hash(this::hash, leaves, size, last, listener),
+                "Hashing failure should be propagated");
+        assertEventuallyFalse(
+                () -> Thread.getAllStackTraces().keySet().stream()
+                        .anyMatch(t -> t.getName().contains("reconnect-flusher")),
+                Duration.ofSeconds(5),
+                "Flusher thread should be stopped");
+    }
+
     private VirtualLeafRecord<TestKey, TestValue> leaf(long path) {
         return new VirtualLeafRecord<>(path, new TestKey(path), new TestValue(path));
     }
@@ -155,6 +267,8 @@ class ReconnectHashListenerTest {
         private final List<List<VirtualHashRecord>> internalRecords = new ArrayList<>();
         private final List<List<VirtualLeafRecord<TestKey, TestValue>>> leafRecords = new ArrayList<>();
 
+        private volatile boolean failOnSave = false;
+
         VirtualDataSourceSpy(VirtualDataSource<TestKey, TestValue> delegate) {
             this.delegate = delegate;
         }
@@ -173,6 +287,9 @@ class ReconnectHashListenerTest {
                 final Stream<VirtualLeafRecord<TestKey, TestValue>> leafRecordsToDelete,
                 final boolean isReconnectContext)
                 throws IOException {
+            if (failOnSave) {
+                throw new IOException("Test failure");
+            }
             final var ir = pathHashRecordsToUpdate.toList();
             this.internalRecords.add(ir);
             final var lr = leafRecordsToAddOrUpdate.toList();